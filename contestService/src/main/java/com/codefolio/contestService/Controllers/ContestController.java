@@ -19,16 +19,27 @@ public class ContestController {
 
     @GetMapping("/active")
     public ResponseEntity<List<Contest>> getActiveContests() {
-        return ResponseEntity.ok(contestService.getActiveContests());
+        return withStaleHeader(contestService.getActiveContests());
     }
 
     @GetMapping("/upcoming")
     public ResponseEntity<List<Contest>> getUpcomingContests() {
-        return ResponseEntity.ok(contestService.getUpcomingContests());
+        return withStaleHeader(contestService.getUpcomingContests());
     }
 
     @GetMapping("/all")
     public ResponseEntity<List<Contest>> getAllContests() {
-        return ResponseEntity.ok(contestService.getAllContests());
+        return withStaleHeader(contestService.getAllContests());
+    }
+
+    // Platforms whose circuit is open are served from their last successful fetch
+    private ResponseEntity<List<Contest>> withStaleHeader(List<Contest> contests) {
+        List<String> stalePlatforms = contestService.getStalePlatforms();
+        if (stalePlatforms.isEmpty()) {
+            return ResponseEntity.ok(contests);
+        }
+        return ResponseEntity.ok()
+            .header("X-Contests-Stale", String.join(",", stalePlatforms))
+            .body(contests);
     }
 }
\ No newline at end of file
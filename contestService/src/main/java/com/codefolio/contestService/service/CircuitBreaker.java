@@ -0,0 +1,79 @@
+package com.codefolio.contestService.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+// Stops calling a platform after repeated upstream failures. While open every call fails fast;
+// once the open period has passed a limited number of trial calls are let through (half-open)
+// and the breaker closes again only if all of them succeed.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+    private final String platform;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenTrials;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    public CircuitBreaker(String platform, int failureThreshold, Duration openDuration, int halfOpenTrials) {
+        this.platform = platform;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenTrials = halfOpenTrials;
+    }
+
+    // Returns false if the call must not go upstream
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+            state = State.HALF_OPEN;
+            trialsInFlight = 0;
+            trialSuccesses = 0;
+            logger.info("{} circuit half-open; probing with up to {} calls", platform, halfOpenTrials);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && trialsInFlight + trialSuccesses < halfOpenTrials) {
+            trialsInFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            trialsInFlight = Math.max(0, trialsInFlight - 1);
+            if (++trialSuccesses >= halfOpenTrials) {
+                state = State.CLOSED;
+                logger.info("{} circuit closed", platform);
+            }
+        }
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntilNanos = System.nanoTime() + openNanos;
+            consecutiveFailures = 0;
+            logger.warn("{} circuit opened; failing fast for {} ms", platform, openNanos / 1_000_000);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isDegraded() {
+        return state != State.CLOSED;
+    }
+}
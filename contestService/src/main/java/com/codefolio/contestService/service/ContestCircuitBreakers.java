@@ -0,0 +1,61 @@
+package com.codefolio.contestService.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component("contestCircuitBreakers")
+public class ContestCircuitBreakers {
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final int halfOpenTrials;
+
+    public ContestCircuitBreakers(@Value("${contests.circuit-breaker.failure-threshold:3}") int failureThreshold,
+                                  @Value("${contests.circuit-breaker.open-ms:60000}") long openMs,
+                                  @Value("${contests.circuit-breaker.half-open-trials:1}") int halfOpenTrials) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = Duration.ofMillis(openMs);
+        this.halfOpenTrials = halfOpenTrials;
+    }
+
+    // Runs the upstream call through the platform's breaker; fails fast while it is open
+    public <T> T call(String platform, Supplier<T> request) {
+        CircuitBreaker breaker = forPlatform(platform);
+        if (!breaker.tryAcquire()) {
+            throw new IllegalStateException(platform + " circuit is open");
+        }
+        try {
+            T result = request.get();
+            breaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            breaker.onFailure();
+            throw e;
+        }
+    }
+
+    public List<String> degradedPlatforms() {
+        return breakers.entrySet().stream()
+            .filter(entry -> entry.getValue().isDegraded())
+            .map(Map.Entry::getKey)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    public boolean anyDegraded() {
+        return breakers.values().stream().anyMatch(CircuitBreaker::isDegraded);
+    }
+
+    private CircuitBreaker forPlatform(String platform) {
+        return breakers.computeIfAbsent(platform,
+            name -> new CircuitBreaker(name, failureThreshold, openDuration, halfOpenTrials));
+    }
+}
@@ -7,4 +7,5 @@ public interface ContestService {
     List<Contest> getActiveContests();
     List<Contest> getUpcomingContests();
     List<Contest> getAllContests();
+    List<String> getStalePlatforms();
 } 
\ No newline at end of file
@@ -8,6 +8,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -22,20 +25,24 @@ public class ContestServiceImpl implements ContestService {
     private final LeetCodeClient leetCodeClient;
     private final GFGClient gfgClient;
     private final HackerRankClient hackerRankClient;
+    private final ContestCircuitBreakers circuitBreakers;
+    // Last successful result per platform and listing, served while that platform is failing
+    private final Map<String, List<Contest>> lastKnownGood = new ConcurrentHashMap<>();
 
     @Autowired
     public ContestServiceImpl(CodeforcesClient codeforcesClient, CodeChefClient codeChefClient, 
                             LeetCodeClient leetCodeClient, GFGClient gfgClient, 
-                            HackerRankClient hackerRankClient) {
+                            HackerRankClient hackerRankClient, ContestCircuitBreakers circuitBreakers) {
         this.codeforcesClient = codeforcesClient;
         this.codeChefClient = codeChefClient;
         this.leetCodeClient = leetCodeClient;
         this.gfgClient = gfgClient;
         this.hackerRankClient = hackerRankClient;
+        this.circuitBreakers = circuitBreakers;
     }
 
     @Override
-    @Cacheable(value = "activeContests", key = "'v2_active'", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "activeContests", key = "'v2_active'", unless = "#result == null || #result.isEmpty() || @contestCircuitBreakers.anyDegraded()")
     public List<Contest> getActiveContests() {
         try {
             logger.info("Fetching active contests from APIs");
@@ -52,7 +59,7 @@ public class ContestServiceImpl implements ContestService {
     }
 
     @Override
-    @Cacheable(value = "upcomingContests", key = "'v2_upcoming'", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "upcomingContests", key = "'v2_upcoming'", unless = "#result == null || #result.isEmpty() || @contestCircuitBreakers.anyDegraded()")
     public List<Contest> getUpcomingContests() {
         try {
             logger.info("Fetching upcoming contests from APIs");
@@ -69,7 +76,7 @@ public class ContestServiceImpl implements ContestService {
     }
 
     @Override
-    @Cacheable(value = "allContests", key = "'v2_all'", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "allContests", key = "'v2_all'", unless = "#result == null || #result.isEmpty() || @contestCircuitBreakers.anyDegraded()")
     public List<Contest> getAllContests() {
         try {
             logger.info("Fetching all contests from APIs");
@@ -101,7 +108,7 @@ public class ContestServiceImpl implements ContestService {
         // Codeforces
         try {
             logger.debug("Fetching Codeforces contests...");
-            CodeforcesResponse cfResponse = codeforcesClient.getContests();
+            CodeforcesResponse cfResponse = circuitBreakers.call("Codeforces", codeforcesClient::getContests);
             if (cfResponse != null && cfResponse.getResult() != null) {
                 List<Contest> codeforcesContests = cfResponse.getResult().stream()
                     .filter(contest -> filterByPhase(contest.getPhase(), isActive))
@@ -116,33 +123,39 @@ public class ContestServiceImpl implements ContestService {
                         isActive ? "ACTIVE" : "UPCOMING"
                     ))
                     .collect(Collectors.toList());
-                contests.addAll(codeforcesContests);
+                addFresh(contests, "Codeforces", isActive, codeforcesContests);
                 logger.info("Successfully fetched {} Codeforces contests", codeforcesContests.size());
             }
         } catch (Exception e) {
             logger.error("Error fetching Codeforces contests: {}", e.getMessage(), e);
+            addLastKnownGood(contests, "Codeforces", isActive);
         }
 
         // CodeChef
         try {
             logger.debug("Fetching CodeChef contests...");
-            CodeChefResponse ccResponse = codeChefClient.getActiveContests();
+            CodeChefResponse ccResponse = circuitBreakers.call("CodeChef", () -> {
+                CodeChefResponse response = codeChefClient.getActiveContests();
+                requireSuccess(response.getStatus(), response.getMessage());
+                return response;
+            });
             if (ccResponse != null && ccResponse.getActiveContests() != null) {
                 List<Contest> codechefContests = ccResponse.getActiveContests().stream()
                     .filter(contest -> filterByTime(contest.getStartTime(), System.currentTimeMillis(), isActive))
                     .collect(Collectors.toList());
-                contests.addAll(codechefContests);
+                addFresh(contests, "CodeChef", isActive, codechefContests);
                 logger.info("Successfully fetched {} CodeChef contests", codechefContests.size());
             }
         } catch (Exception e) {
             logger.error("Error fetching CodeChef contests: {}", e.getMessage(), e);
+            addLastKnownGood(contests, "CodeChef", isActive);
         }
 
         // LeetCode
         try {
             logger.debug("Fetching LeetCode contests...");
             String query = "{\"query\": \"{ allContests { title startTime duration titleSlug } }\"}";
-            LeetCodeResponse lcResponse = leetCodeClient.getContests(query, "Mozilla/5.0");
+            LeetCodeResponse lcResponse = circuitBreakers.call("LeetCode", () -> leetCodeClient.getContests(query, "Mozilla/5.0"));
             if (lcResponse != null && lcResponse.getData() != null && lcResponse.getData().getAllContests() != null) {
                 long currentTime = System.currentTimeMillis() / 1000; // Current time in seconds
                 List<Contest> leetcodeContests = lcResponse.getData().getAllContests().stream()
@@ -171,32 +184,43 @@ public class ContestServiceImpl implements ContestService {
                         isActive ? "ACTIVE" : "UPCOMING"
                     ))
                     .collect(Collectors.toList());
-                contests.addAll(leetcodeContests);
+                addFresh(contests, "LeetCode", isActive, leetcodeContests);
                 logger.info("Successfully fetched {} LeetCode contests", leetcodeContests.size());
             }
         } catch (Exception e) {
             logger.error("Error fetching LeetCode contests: {}", e.getMessage(), e);
+            addLastKnownGood(contests, "LeetCode", isActive);
         }
 
         // GeeksForGeeks
         try {
             logger.debug("Fetching GeeksForGeeks contests...");
-            GFGResponse gfgResponse = gfgClient.getActiveContests();
+            GFGResponse gfgResponse = circuitBreakers.call("GeeksforGeeks", () -> {
+                GFGResponse response = gfgClient.getActiveContests();
+                requireSuccess(response.getStatus(), response.getMessage());
+                return response;
+            });
             if (gfgResponse != null && gfgResponse.getActiveContests() != null) {
                 List<Contest> gfgContests = gfgResponse.getActiveContests().stream()
                     .filter(contest -> isActive == null || contest.getStatus().equals(isActive ? "ACTIVE" : "UPCOMING"))
                     .collect(Collectors.toList());
-                contests.addAll(gfgContests);
+                addFresh(contests, "GeeksforGeeks", isActive, gfgContests);
                 logger.info("Successfully fetched {} GFG contests", gfgContests.size());
             }
         } catch (Exception e) {
             logger.error("Error fetching GFG contests: {}", e.getMessage(), e);
+            addLastKnownGood(contests, "GeeksforGeeks", isActive);
         }
 
         // HackerRank
         try {
             logger.debug("Fetching HackerRank contests...");
-            HackerRankResponse hrResponse = isActive ? hackerRankClient.getActiveContests() : hackerRankClient.getUpcomingContests();
+            Supplier<HackerRankResponse> request = isActive ? hackerRankClient::getActiveContests : hackerRankClient::getUpcomingContests;
+            HackerRankResponse hrResponse = circuitBreakers.call("HackerRank", () -> {
+                HackerRankResponse response = request.get();
+                requireSuccess(response.getStatus(), response.getMessage());
+                return response;
+            });
             if (hrResponse != null && hrResponse.getModels() != null) {
                 List<Contest> hackerrankContests = hrResponse.getModels().stream()
                     .map(contest -> new Contest(
@@ -210,11 +234,12 @@ public class ContestServiceImpl implements ContestService {
                         isActive ? "ACTIVE" : "UPCOMING"
                     ))
                     .collect(Collectors.toList());
-                contests.addAll(hackerrankContests);
+                addFresh(contests, "HackerRank", isActive, hackerrankContests);
                 logger.info("Successfully fetched {} HackerRank contests", hackerrankContests.size());
             }
         } catch (Exception e) {
             logger.error("Error fetching HackerRank contests: {}", e.getMessage(), e);
+            addLastKnownGood(contests, "HackerRank", isActive);
         }
 
         long endTime = System.currentTimeMillis();
@@ -222,6 +247,36 @@ public class ContestServiceImpl implements ContestService {
             (endTime - startTime), contests.size());
     }
 
+    @Override
+    public List<String> getStalePlatforms() {
+        return circuitBreakers.degradedPlatforms();
+    }
+
+    // The HTML/JSON scraping clients report failures in the response instead of throwing
+    private void requireSuccess(String status, String message) {
+        if ("ERROR".equals(status)) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private void addFresh(List<Contest> contests, String platform, Boolean isActive, List<? extends Contest> fetched) {
+        lastKnownGood.put(platform + ":" + isActive, new ArrayList<>(fetched));
+        contests.addAll(fetched);
+    }
+
+    private void addLastKnownGood(List<Contest> contests, String platform, Boolean isActive) {
+        List<Contest> previous = lastKnownGood.get(platform + ":" + isActive);
+        if (previous == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Contest> stillRelevant = previous.stream()
+            .filter(contest -> isActive == null || contest.getStartTime() + contest.getDuration() > now)
+            .collect(Collectors.toList());
+        contests.addAll(stillRelevant);
+        logger.warn("Serving {} last known {} contests", stillRelevant.size(), platform);
+    }
+
     private boolean filterByPhase(String phase, Boolean isActive) {
         if (isActive == null) return true;
         return isActive ? phase.equals("CODING") : phase.equals("BEFORE");
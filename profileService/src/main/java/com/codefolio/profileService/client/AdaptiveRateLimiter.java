@@ -0,0 +1,187 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Token bucket for one platform. Callers reserve tokens and are told how long to wait rather
+// than being parked, so the wait can be scheduled without holding a thread. The refill rate is
+// adaptive: it halves whenever the upstream throttles us (and pauses entirely for Retry-After),
+// then creeps back towards the configured rate with every successful response. At most maxQueued
+// callers may wait at once; past that acquire() fails straight away, and a caller that gives up
+// (cancels its reservation) hands its tokens back.
+public class AdaptiveRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveRateLimiter.class);
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final double RECOVERY_FRACTION = 0.05;
+    private final Platform platform;
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private final int maxQueued;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Counter throttledCounter;
+    private final Counter rejectedCounter;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+
+    public AdaptiveRateLimiter(Platform platform, double permitsPerSecond, double burst, int maxQueued,
+                               MeterRegistry meterRegistry) {
+        this.platform = platform;
+        this.maxQueued = maxQueued;
+        this.maxRate = permitsPerSecond;
+        this.minRate = permitsPerSecond / 16;
+        this.burst = burst;
+        this.rate = permitsPerSecond;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.blockedUntilNanos = lastRefillNanos;
+
+        String tag = platform.name().toLowerCase();
+        Gauge.builder("platform.ratelimit.waiting", waiting, AtomicInteger::get)
+            .description("Fetches queued waiting for a rate-limit token")
+            .tag("platform", tag)
+            .register(meterRegistry);
+        Gauge.builder("platform.ratelimit.rate", this, AdaptiveRateLimiter::currentRate)
+            .description("Current permitted requests per second")
+            .tag("platform", tag)
+            .register(meterRegistry);
+        this.waitTimer = Timer.builder("platform.ratelimit.wait")
+            .description("Time fetches spent queued for a rate-limit token")
+            .tag("platform", tag)
+            .register(meterRegistry);
+        this.throttledCounter = Counter.builder("platform.ratelimit.throttled")
+            .description("Throttling responses (429 / Retry-After) received from the platform")
+            .tag("platform", tag)
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("platform.ratelimit.rejected")
+            .description("Fetches turned away because too many were already queued for a token")
+            .tag("platform", tag)
+            .register(meterRegistry);
+    }
+
+    // Completes once the permits are available. The wait runs on the delay scheduler, and the
+    // future completes on the given executor, so no pool thread is held while queued. Cancelling
+    // the future before then gives the permits back; with the queue full it fails with a
+    // RejectedExecutionException instead.
+    public CompletableFuture<Void> acquire(int permits, Executor executor) {
+        long delayNanos = reserve(permits);
+        if (delayNanos <= 0) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            refund(permits);
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException(
+                platform.getDisplayName() + " rate-limit queue is full (" + maxQueued + " waiting)"));
+        }
+        long queuedAt = System.nanoTime();
+        CompletableFuture<Void> reservation = new CompletableFuture<>();
+        reservation.whenComplete((ignored, error) -> {
+            waiting.decrementAndGet();
+            if (error != null) {
+                refund(permits);
+            } else {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor)
+            .execute(() -> reservation.complete(null));
+        return reservation;
+    }
+
+    // For a fetch that turns out to need more calls than were reserved for it (another page):
+    // waits on the calling thread, as the blocking clients already do for the calls themselves.
+    // An interrupt, which is how a timed-out fetch is cancelled, gives the permits back.
+    public void acquireBlocking(int permits) {
+        CompletableFuture<Void> reservation = acquire(permits, Runnable::run);
+        try {
+            reservation.get();
+        } catch (InterruptedException e) {
+            reservation.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Fetch timed out");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    // Debits the bucket immediately (it may go negative, which queues later callers behind
+    // this one) and returns how long the caller must wait before using the permits
+    public synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        refill(now);
+        tokens -= permits;
+        long wait = tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+        return Math.max(wait, blockedUntilNanos - now);
+    }
+
+    // Permits reserved but never used
+    public synchronized void refund(int permits) {
+        refill(System.nanoTime());
+        tokens = Math.min(burst, tokens + permits);
+    }
+
+    public synchronized void onThrottled(Duration retryAfter) {
+        long now = System.nanoTime();
+        refill(now);
+        throttledCounter.increment();
+        rate = Math.max(minRate, rate / 2);
+        tokens = Math.min(tokens, 0);
+        if (retryAfter != null && !retryAfter.isNegative()) {
+            blockedUntilNanos = Math.max(blockedUntilNanos, now + retryAfter.toNanos());
+        }
+        log.warn("{} throttled us; slowing to {} req/s, paused for {}", platform.getDisplayName(),
+            String.format("%.2f", rate), retryAfter);
+    }
+
+    public synchronized void onSuccess() {
+        if (rate < maxRate) {
+            refill(System.nanoTime());
+            rate = Math.min(maxRate, rate + maxRate * RECOVERY_FRACTION);
+        }
+    }
+
+    public synchronized double currentRate() {
+        return rate;
+    }
+
+    // Tokens in the bucket right now, without reserving any
+    public synchronized double availablePermits() {
+        long now = System.nanoTime();
+        refill(now);
+        return now < blockedUntilNanos ? 0 : tokens;
+    }
+
+    public int waitingCount() {
+        return waiting.get();
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillNanos) {
+            tokens = Math.min(burst, tokens + (now - lastRefillNanos) / NANOS_PER_SECOND * rate);
+            lastRefillNanos = now;
+        }
+    }
+}
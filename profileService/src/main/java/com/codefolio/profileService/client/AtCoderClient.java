@@ -5,16 +5,28 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 import java.util.HashMap;
+import java.util.List;
 
 @Component
 public class AtCoderClient {
     private static final String ATCODER_URL = "https://atcoder.jp/users/%s";
     private static final String ATCODER_SUBMISSIONS_URL = "https://atcoder.jp/users/%s/submissions";
     private static final Logger log = LoggerFactory.getLogger(AtCoderClient.class);
+    private final RestTemplate restTemplate;
+
+    public AtCoderClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
 
     public PlatformStatsDTO getUserProfile(String username) {
         if (username == null || username.trim().isEmpty()) {
@@ -23,8 +35,7 @@ public class AtCoderClient {
 
         try {
             // Fetch user profile page
-            Document doc = Jsoup.connect(String.format(ATCODER_URL, username))
-                              .get();
+            Document doc = fetchPage(String.format(ATCODER_URL, username));
 
             // Check if profile exists
             if (doc.select(".username").isEmpty()) {
@@ -47,8 +58,7 @@ public class AtCoderClient {
             stats.setContestRanking(rankText.isEmpty() ? 0 : Integer.parseInt(rankText));
             
             // Get solved problems
-            Document submissionsDoc = Jsoup.connect(String.format(ATCODER_SUBMISSIONS_URL, username))
-                                         .get();
+            Document submissionsDoc = fetchPage(String.format(ATCODER_SUBMISSIONS_URL, username));
             String solvedText = submissionsDoc.select(".accepted-count").text();
             stats.setTotalQuestions(solvedText.isEmpty() ? 0 : Integer.parseInt(solvedText));
             
@@ -68,4 +78,13 @@ public class AtCoderClient {
                 "Failed to process AtCoder profile data: " + e.getMessage());
         }
     }
+
+    // Pages come through the shared HTTP client; Jsoup only parses
+    private Document fetchPage(String url) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.USER_AGENT, "Mozilla/5.0");
+        headers.setAccept(List.of(MediaType.TEXT_HTML));
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        return Jsoup.parse(response.getBody() != null ? response.getBody() : "", url);
+    }
 } 
\ No newline at end of file
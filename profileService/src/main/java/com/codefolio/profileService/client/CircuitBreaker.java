@@ -0,0 +1,109 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+// Stops calling a platform after repeated upstream failures. While open every call fails fast;
+// once the open period has passed a limited number of trial calls are let through (half-open)
+// and the breaker closes again only if all of them succeed.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+    private final Platform platform;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int halfOpenTrials;
+    private final Counter rejectedCounter;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    public CircuitBreaker(Platform platform, int failureThreshold, Duration openDuration, int halfOpenTrials,
+                          MeterRegistry meterRegistry) {
+        this.platform = platform;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenTrials = halfOpenTrials;
+
+        String tag = platform.name().toLowerCase();
+        Gauge.builder("platform.circuit.state", this, breaker -> breaker.getState().ordinal())
+            .description("Circuit state: 0 closed, 1 open, 2 half-open")
+            .tag("platform", tag)
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("platform.circuit.rejected")
+            .description("Calls failed fast because the circuit was open")
+            .tag("platform", tag)
+            .register(meterRegistry);
+    }
+
+    // Returns false if the call must not go upstream. A true result must be followed by exactly
+    // one of onSuccess, onFailure or release.
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+            state = State.HALF_OPEN;
+            trialsInFlight = 0;
+            trialSuccesses = 0;
+            log.info("{} circuit half-open; probing with up to {} calls", platform.getDisplayName(), halfOpenTrials);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && trialsInFlight + trialSuccesses < halfOpenTrials) {
+            trialsInFlight++;
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            trialsInFlight = Math.max(0, trialsInFlight - 1);
+            if (++trialSuccesses >= halfOpenTrials) {
+                state = State.CLOSED;
+                log.info("{} circuit closed", platform.getDisplayName());
+            }
+        }
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    // The call never reached the upstream, so it says nothing about its health
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialsInFlight = Math.max(0, trialsInFlight - 1);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // True while callers are being served last-known-good data instead of fresh results
+    public synchronized boolean isDegraded() {
+        return state != State.CLOSED;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + openNanos;
+        consecutiveFailures = 0;
+        log.warn("{} circuit opened; failing fast for {} ms", platform.getDisplayName(), openNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,30 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class CircuitBreakerRegistry {
+
+    private final Map<Platform, CircuitBreaker> breakers = new EnumMap<>(Platform.class);
+
+    public CircuitBreakerRegistry(@Value("${codefolio.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                  @Value("${codefolio.circuit-breaker.open-ms:30000}") long openMs,
+                                  @Value("${codefolio.circuit-breaker.half-open-trials:2}") int halfOpenTrials,
+                                  MeterRegistry meterRegistry) {
+        for (Platform platform : Platform.values()) {
+            breakers.put(platform, new CircuitBreaker(platform, failureThreshold, Duration.ofMillis(openMs),
+                halfOpenTrials, meterRegistry));
+        }
+    }
+
+    public CircuitBreaker forPlatform(Platform platform) {
+        return breakers.get(platform);
+    }
+}
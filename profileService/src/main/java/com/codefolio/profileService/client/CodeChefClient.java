@@ -1,6 +1,7 @@
 package com.codefolio.profileService.client;
 
 import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.dto.RatingPoint;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.stereotype.Component;
@@ -10,18 +11,27 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 
 @Component
 public class CodeChefClient {
-    private static final String API_URL = "https://codechef-api.vercel.app/handle/%s";
+    static final String API_URL = "https://codechef-api.vercel.app/handle/%s";
+    private static final ZoneId CODECHEF_ZONE = ZoneId.of("Asia/Kolkata");
+    private static final DateTimeFormatter END_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final Logger log = LoggerFactory.getLogger(CodeChefClient.class);
     private final RestTemplate restTemplate;
 
-    public CodeChefClient() {
-        this.restTemplate = new RestTemplate();
+    public CodeChefClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
     }
 
     public PlatformStatsDTO getUserProfile(String username) {
@@ -39,56 +49,7 @@ public class CodeChefClient {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "CodeChef profile not found");
             }
 
-            JSONObject json = new JSONObject(response.getBody());
-            if (!json.getBoolean("success")) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "CodeChef profile not found");
-            }
-
-            PlatformStatsDTO stats = new PlatformStatsDTO();
-            
-            // Set basic stats
-            stats.setRating(json.optInt("currentRating", 0));
-            
-            // Process contest data
-            JSONArray ratingData = json.optJSONArray("ratingData");
-            if (ratingData != null) {
-                stats.setTotalContests(ratingData.length());
-                if (ratingData.length() > 0) {
-                    JSONObject latestContest = ratingData.getJSONObject(0);
-                    String rankStr = latestContest.optString("rank", "0");
-                    stats.setContestRanking(Integer.parseInt(rankStr.replaceAll("[^0-9]", "")));
-                }
-            }
-            
-            // Process submission data
-            if (json.has("heatMap")) {
-                JSONArray heatMap = json.getJSONArray("heatMap");
-                JSONObject calendar = new JSONObject();
-                int activeDays = 0;
-                int totalSubmissions = 0;
-                
-                for (int i = 0; i < heatMap.length(); i++) {
-                    JSONObject day = heatMap.getJSONObject(i);
-                    String date = day.getString("date");
-                    int value = day.getInt("value");
-                    
-                    if (value > 0) {
-                        calendar.put(date, value);
-                        activeDays++;
-                        totalSubmissions += value;
-                    }
-                }
-                
-                stats.setSubmissionCalendar(calendar.toString());
-                stats.setTotalActiveDays(activeDays);
-                stats.setTotalQuestions(totalSubmissions);
-            }
-            
-            // Initialize empty maps for difficulty and topic data
-            stats.setDifficultyWiseSolved(new HashMap<>());
-            stats.setTopicWiseSolved(new HashMap<>());
-            
-            return stats;
+            return parseProfile(response.getBody());
 
         } catch (ResponseStatusException e) {
             throw e;
@@ -102,4 +63,89 @@ public class CodeChefClient {
                 "Failed to fetch CodeChef profile: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Shared with ReactiveCodeChefClient
+    static PlatformStatsDTO parseProfile(String body) {
+        JSONObject json = new JSONObject(body);
+        if (!json.getBoolean("success")) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "CodeChef profile not found");
+        }
+
+        PlatformStatsDTO stats = new PlatformStatsDTO();
+        
+        // Set basic stats
+        stats.setRating(json.optInt("currentRating", 0));
+        
+        // Process contest data
+        JSONArray ratingData = json.optJSONArray("ratingData");
+        if (ratingData != null) {
+            stats.setTotalContests(ratingData.length());
+            stats.setRatingHistory(ratingHistory(ratingData));
+            if (ratingData.length() > 0) {
+                JSONObject latestContest = ratingData.getJSONObject(0);
+                String rankStr = latestContest.optString("rank", "0");
+                stats.setContestRanking(Integer.parseInt(rankStr.replaceAll("[^0-9]", "")));
+            }
+        }
+        
+        // Process submission data
+        if (json.has("heatMap")) {
+            JSONArray heatMap = json.getJSONArray("heatMap");
+            JSONObject calendar = new JSONObject();
+            int activeDays = 0;
+            int totalSubmissions = 0;
+            
+            for (int i = 0; i < heatMap.length(); i++) {
+                JSONObject day = heatMap.getJSONObject(i);
+                String date = day.getString("date");
+                int value = day.getInt("value");
+                
+                if (value > 0) {
+                    calendar.put(date, value);
+                    activeDays++;
+                    totalSubmissions += value;
+                }
+            }
+            
+            stats.setSubmissionCalendar(calendar.toString());
+            stats.setTotalActiveDays(activeDays);
+            stats.setTotalQuestions(totalSubmissions);
+        }
+        
+        // Initialize empty maps for difficulty and topic data
+        stats.setDifficultyWiseSolved(new HashMap<>());
+        stats.setTopicWiseSolved(new HashMap<>());
+        
+        return stats;
+    }
+
+    // ratingData entries carry the contest's end as IST wall-clock time ("2023-01-04 22:00:00"),
+    // with the date also split into getyear/getmonth/getday; entries with neither are skipped
+    private static List<RatingPoint> ratingHistory(JSONArray ratingData) {
+        List<RatingPoint> points = new ArrayList<>(ratingData.length());
+        for (int i = 0; i < ratingData.length(); i++) {
+            JSONObject contest = ratingData.getJSONObject(i);
+            String rating = contest.optString("rating", "").replaceAll("[^0-9]", "");
+            Long time = ratedAt(contest);
+            if (rating.isEmpty() || time == null) {
+                continue;
+            }
+            points.add(new RatingPoint(time, Integer.parseInt(rating), contest.optString("name", contest.optString("code", null))));
+        }
+        points.sort(Comparator.comparingLong(RatingPoint::getTime));
+        return points;
+    }
+
+    private static Long ratedAt(JSONObject contest) {
+        try {
+            String endDate = contest.optString("end_date", "");
+            if (!endDate.isEmpty()) {
+                return LocalDateTime.parse(endDate, END_DATE).atZone(CODECHEF_ZONE).toEpochSecond();
+            }
+            return LocalDate.of(Integer.parseInt(contest.optString("getyear")), Integer.parseInt(contest.optString("getmonth")),
+                Integer.parseInt(contest.optString("getday"))).atStartOfDay(CODECHEF_ZONE).toEpochSecond();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
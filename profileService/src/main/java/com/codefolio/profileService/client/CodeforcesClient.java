@@ -1,6 +1,11 @@
 package com.codefolio.profileService.client;
 
+import com.codefolio.profileService.dto.CodeforcesUserInfoDTO;
 import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.dto.RatingPoint;
+import com.codefolio.profileService.model.CodeforcesSyncState;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.service.CodeforcesSyncStore;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.slf4j.Logger;
@@ -8,61 +13,66 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 
 @Component
 public class CodeforcesClient {
-    private static final String CF_API_USER_INFO = "https://codeforces.com/api/user.info?handles=%s";
-    private static final String CF_API_USER_STATUS = "https://codeforces.com/api/user.status?handle=%s";
-    private static final String CF_API_USER_RATING = "https://codeforces.com/api/user.rating?handle=%s";
+    static final String CF_API_USER_INFO = "https://codeforces.com/api/user.info?handles=%s";
+    static final String CF_API_USER_STATUS = "https://codeforces.com/api/user.status?handle=%s";
+    static final String CF_API_USER_STATUS_PAGE = "https://codeforces.com/api/user.status?handle=%s&from=%d&count=%d";
+    static final int STATUS_PAGE_SIZE = 100;
+    static final int MAX_INCREMENTAL_PAGES = 5;
+    static final String CF_API_USER_RATING = "https://codeforces.com/api/user.rating?handle=%s";
+    private static final Pattern UNKNOWN_HANDLE = Pattern.compile("User with handle (\\S+) not found");
     private static final Logger log = LoggerFactory.getLogger(CodeforcesClient.class);
     private final RestTemplate restTemplate;
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 1000;
+    private final CodeforcesSyncStore syncStore;
+    private final RateLimiterRegistry rateLimiterRegistry;
 
-    public CodeforcesClient() {
-        this.restTemplate = new RestTemplate();
+    public CodeforcesClient(RestTemplate restTemplate, CodeforcesSyncStore syncStore,
+                            RateLimiterRegistry rateLimiterRegistry) {
+        this.restTemplate = restTemplate;
+        this.syncStore = syncStore;
+        this.rateLimiterRegistry = rateLimiterRegistry;
     }
 
-    private <T> T executeWithRetry(String url, Class<T> responseType) {
-        int attempts = 0;
-        Exception lastException = null;
-
-        while (attempts < MAX_RETRIES) {
-            try {
-                ResponseEntity<T> response = restTemplate.getForEntity(url, responseType);
-                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    return response.getBody();
-                }
-            } catch (ResourceAccessException e) {
-                log.warn("Attempt {} failed due to connection issue: {}", attempts + 1, e.getMessage());
-                lastException = e;
-            } catch (RestClientException e) {
-                log.warn("Attempt {} failed: {}", attempts + 1, e.getMessage());
-                lastException = e;
-            }
-
-            attempts++;
-            if (attempts < MAX_RETRIES) {
-                try {
-                    Thread.sleep(RETRY_DELAY_MS * attempts);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+    // Single attempt; transient failures surface as 503 and are retried (without blocking) by the refresh engine
+    private <T> T execute(String url, Class<T> responseType) {
+        try {
+            ResponseEntity<T> response = restTemplate.getForEntity(url, responseType);
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return response.getBody();
             }
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Codeforces API returned " + response.getStatusCode());
+        } catch (ResourceAccessException e) {
+            log.warn("Connection issue calling Codeforces API: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Failed to connect to Codeforces API: " + e.getMessage());
+        } catch (HttpClientErrorException e) {
+            log.warn("Codeforces API rejected request: {}", e.getMessage());
+            throw clientError(e.getRawStatusCode(), e.getResponseBodyAsString());
+        } catch (RestClientException e) {
+            log.warn("Codeforces API call failed: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Codeforces API call failed: " + e.getMessage());
         }
-
-        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, 
-            "Failed to connect to Codeforces API after " + MAX_RETRIES + " attempts: " + 
-            (lastException != null ? lastException.getMessage() : "Unknown error"));
     }
 
     public PlatformStatsDTO getUserProfile(String handle) {
@@ -73,8 +83,8 @@ public class CodeforcesClient {
         try {
             String encodedHandle = URLEncoder.encode(handle.trim(), StandardCharsets.UTF_8.toString());
             
-            // Get user info with retry
-            String userInfoResponse = executeWithRetry(
+            // Get user info
+            String userInfoResponse = execute(
                 String.format(CF_API_USER_INFO, encodedHandle), 
                 String.class
             );
@@ -84,88 +94,17 @@ public class CodeforcesClient {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Codeforces profile not found");
             }
 
-            // Get submissions with retry
-            String userStatusResponse = executeWithRetry(
-                String.format(CF_API_USER_STATUS, encodedHandle), 
-                String.class
-            );
-            JSONObject userStatus = new JSONObject(userStatusResponse);
+            // Fold in submissions made since the last refresh
+            CodeforcesSyncState sync = syncSubmissions(handle, encodedHandle);
 
-            // Get rating history with retry
-            String userRatingResponse = executeWithRetry(
+            // Get rating history
+            String userRatingResponse = execute(
                 String.format(CF_API_USER_RATING, encodedHandle), 
                 String.class
             );
             JSONObject userRating = new JSONObject(userRatingResponse);
 
-            // Process the data
-            PlatformStatsDTO stats = new PlatformStatsDTO();
-            JSONObject user = userInfo.getJSONArray("result").getJSONObject(0);
-            
-            // Set basic info
-            stats.setRating(user.optInt("maxRating", 0));
-            stats.setContestRanking(user.optInt("rating", 0));
-            
-            // Process submissions
-            if ("OK".equals(userStatus.getString("status"))) {
-                JSONArray submissions = userStatus.getJSONArray("result");
-                Map<String, Integer> difficultyMap = new HashMap<>();
-                Map<String, Integer> topicMap = new HashMap<>();
-                Map<String, Integer> submissionDates = new HashMap<>();
-                
-                int totalSolved = 0;
-                for (int i = 0; i < submissions.length(); i++) {
-                    JSONObject submission = submissions.getJSONObject(i);
-                    if ("OK".equals(submission.getString("verdict"))) {
-                        totalSolved++;
-                        
-                        // Track difficulty and topics
-                        JSONObject problem = submission.getJSONObject("problem");
-                        String difficulty = String.valueOf(problem.optInt("rating", 0));
-                        difficultyMap.merge(difficulty, 1, Integer::sum);
-                        
-                        JSONArray tags = problem.getJSONArray("tags");
-                        for (int j = 0; j < tags.length(); j++) {
-                            topicMap.merge(tags.getString(j), 1, Integer::sum);
-                        }
-                        
-                        // Track submission date
-                        String date = new java.text.SimpleDateFormat("yyyy-MM-dd")
-                            .format(new java.util.Date(submission.getLong("creationTimeSeconds") * 1000));
-                        submissionDates.merge(date, 1, Integer::sum);
-                    }
-                }
-                
-                stats.setTotalQuestions(totalSolved);
-                stats.setDifficultyWiseSolved(difficultyMap);
-                stats.setTopicWiseSolved(topicMap);
-                stats.setSubmissionCalendar(new JSONObject(submissionDates).toString());
-                stats.setTotalActiveDays(submissionDates.size());
-            }
-
-            // Process contest participation
-            if ("OK".equals(userRating.getString("status"))) {
-                JSONArray contests = userRating.getJSONArray("result");
-                stats.setTotalContests(contests.length());
-            }
-
-            // Create awards array
-            JSONArray awards = new JSONArray();
-            if (user.has("rating")) {
-                JSONObject ratingAward = new JSONObject();
-                ratingAward.put("name", "Current Rating");
-                ratingAward.put("value", user.getInt("rating"));
-                awards.put(ratingAward);
-            }
-            if (user.has("maxRating")) {
-                JSONObject maxRatingAward = new JSONObject();
-                maxRatingAward.put("name", "Max Rating");
-                maxRatingAward.put("value", user.getInt("maxRating"));
-                awards.put(maxRatingAward);
-            }
-            stats.setAwards(awards.toString());
-            
-            return stats;
+            return toStats(userInfo, sync, userRating);
 
         } catch (ResponseStatusException e) {
             throw e;
@@ -175,4 +114,212 @@ public class CodeforcesClient {
                 "Failed to process Codeforces profile data: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // user.info, the synced submission aggregates and user.rating; shared with ReactiveCodeforcesClient
+    static PlatformStatsDTO toStats(JSONObject userInfo, CodeforcesSyncState sync, JSONObject userRating) {
+        PlatformStatsDTO stats = new PlatformStatsDTO();
+        JSONObject user = userInfo.getJSONArray("result").getJSONObject(0);
+        
+        // Set basic info
+        stats.setRating(user.optInt("maxRating", 0));
+        stats.setContestRanking(user.optInt("rating", 0));
+        
+        // Submission aggregates come from the persisted sync state
+        stats.setTotalQuestions(sync.getTotalSolved());
+        stats.setDifficultyWiseSolved(new HashMap<>(sync.getDifficultyWiseSolved()));
+        stats.setTopicWiseSolved(new HashMap<>(sync.getTopicWiseSolved()));
+        stats.setSubmissionCalendar(new JSONObject(sync.getSubmissionCalendar()).toString());
+        stats.setTotalActiveDays(sync.getSubmissionCalendar().size());
+
+        // Process contest participation
+        if ("OK".equals(userRating.getString("status"))) {
+            JSONArray contests = userRating.getJSONArray("result");
+            stats.setTotalContests(contests.length());
+            List<RatingPoint> history = new ArrayList<>(contests.length());
+            for (int i = 0; i < contests.length(); i++) {
+                JSONObject contest = contests.getJSONObject(i);
+                history.add(new RatingPoint(contest.getLong("ratingUpdateTimeSeconds"), contest.getInt("newRating"),
+                    contest.optString("contestName", null)));
+            }
+            stats.setRatingHistory(history);
+        }
+
+        // Create awards array
+        JSONArray awards = new JSONArray();
+        if (user.has("rating")) {
+            JSONObject ratingAward = new JSONObject();
+            ratingAward.put("name", "Current Rating");
+            ratingAward.put("value", user.getInt("rating"));
+            awards.put(ratingAward);
+        }
+        if (user.has("maxRating")) {
+            JSONObject maxRatingAward = new JSONObject();
+            maxRatingAward.put("name", "Max Rating");
+            maxRatingAward.put("value", user.getInt("maxRating"));
+            awards.put(maxRatingAward);
+        }
+        stats.setAwards(awards.toString());
+        
+        return stats;
+    }
+
+    // One user.info call for many handles, keyed by lower-cased handle. Codeforces rejects the
+    // whole call if any handle is unknown and names only the first in the comment; that surfaces
+    // as an UnknownHandleException, and the caller retries without it as a new (rate-limited)
+    // request.
+    public Map<String, CodeforcesUserInfoDTO> getUserInfos(List<String> handles) {
+        Map<String, CodeforcesUserInfoDTO> infos = new HashMap<>();
+        String joined = handles.stream()
+            .map(handle -> URLEncoder.encode(handle.trim(), StandardCharsets.UTF_8))
+            .collect(Collectors.joining(";"));
+        String body;
+        try {
+            body = restTemplate.getForObject(String.format(CF_API_USER_INFO, joined), String.class);
+        } catch (HttpClientErrorException e) {
+            if (e.getRawStatusCode() != HttpStatus.BAD_REQUEST.value()) {
+                log.warn("Codeforces API rejected user.info batch: {}", e.getMessage());
+                throw clientError(e.getRawStatusCode(), e.getResponseBodyAsString());
+            }
+            String unknown = unknownHandle(e.getResponseBodyAsString());
+            if (unknown == null || handles.stream().noneMatch(handle -> handle.trim().equalsIgnoreCase(unknown))) {
+                log.warn("Codeforces API rejected user.info batch: {}", e.getMessage());
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Codeforces rejected user.info batch");
+            }
+            throw new UnknownHandleException(Platform.CODEFORCES, unknown);
+        } catch (ResourceAccessException e) {
+            log.warn("Connection issue calling Codeforces API: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Failed to connect to Codeforces API: " + e.getMessage());
+        } catch (RestClientException e) {
+            log.warn("Codeforces API call failed: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Codeforces API call failed: " + e.getMessage());
+        }
+        JSONObject response = new JSONObject(body);
+        if (!"OK".equals(response.optString("status"))) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Codeforces user.info failed: " + response.optString("comment"));
+        }
+        JSONArray users = response.getJSONArray("result");
+        for (int i = 0; i < users.length(); i++) {
+            JSONObject user = users.getJSONObject(i);
+            String handle = user.getString("handle");
+            infos.put(handle.toLowerCase(Locale.ROOT), new CodeforcesUserInfoDTO(handle,
+                user.optInt("rating", 0), user.optInt("maxRating", 0), user.optLong("lastOnlineTimeSeconds", 0)));
+        }
+        return infos;
+    }
+
+    // Codeforces answers an unknown handle with a 400 whose comment says so, and only that is
+    // final. Any other 4xx (a Cloudflare 403, a 401, a 408) says nothing about the handle and
+    // comes back as a retryable 503, so it doesn't back the handle off.
+    static ResponseStatusException clientError(int status, String body) {
+        if (status == HttpStatus.BAD_REQUEST.value() && handleNotFound(body)) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Codeforces profile not found");
+        }
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Codeforces API returned " + status);
+    }
+
+    // "handle: User with handle xyz not found", "handles: ..." for user.info
+    private static boolean handleNotFound(String body) {
+        try {
+            String comment = new JSONObject(body).optString("comment");
+            return comment.startsWith("handle") && comment.contains("not found");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // "handles: User with handle xyz not found"
+    private static String unknownHandle(String body) {
+        try {
+            Matcher matcher = UNKNOWN_HANDLE.matcher(new JSONObject(body).optString("comment"));
+            return matcher.find() ? matcher.group(1) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    // user.status lists newest first. Pages back until the stored high-water mark is reached; a
+    // handle seen for the first time (or one too far behind) downloads the full history once.
+    // Responses are pull-parsed straight off the wire and folded as they are read.
+    private CodeforcesSyncState syncSubmissions(String handle, String encodedHandle) {
+        CodeforcesSyncState state = syncStore.load(handle);
+        CodeforcesStatusParser parser = null;
+        boolean fullHistory = state.getLastSubmissionId() == 0;
+
+        if (!fullHistory) {
+            parser = new CodeforcesStatusParser(state.getLastSubmissionId(), ZoneId.systemDefault());
+            boolean startOfHistory = false;
+            for (int page = 0; page < MAX_INCREMENTAL_PAGES && !parser.reachedMark() && !startOfHistory; page++) {
+                if (page > 0) {
+                    awaitExtraCall();
+                }
+                int listed = stream(String.format(CF_API_USER_STATUS_PAGE,
+                    encodedHandle, page * STATUS_PAGE_SIZE + 1, STATUS_PAGE_SIZE), parser);
+                startOfHistory = listed < STATUS_PAGE_SIZE;
+            }
+            if (!parser.reachedMark() && !startOfHistory) {
+                log.info("Codeforces handle {} has more than {} new submissions, rebuilding from full history",
+                    handle, MAX_INCREMENTAL_PAGES * STATUS_PAGE_SIZE);
+                fullHistory = true;
+            }
+        }
+
+        if (fullHistory) {
+            if (parser != null) {
+                awaitExtraCall();
+            }
+            state = restart(state);
+            parser = new CodeforcesStatusParser(0, ZoneId.systemDefault());
+            stream(String.format(CF_API_USER_STATUS, encodedHandle), parser);
+        }
+
+        if (parser.getHighestFolded() == 0) {
+            return state;
+        }
+        return syncStore.save(fold(handle, state, parser));
+    }
+
+    // The refresh engine's reservation (Platform.CODEFORCES.getRequestsPerFetch()) covers user.info,
+    // user.rating and one user.status call. Every further status call - another page, or the
+    // full history after paging ran out - waits for its own token, so a handle far behind still
+    // keeps to one call every two seconds.
+    private void awaitExtraCall() {
+        rateLimiterRegistry.forPlatform(Platform.CODEFORCES).acquireBlocking(1);
+    }
+
+    // A fresh state for a full-history rebuild, keeping the row's version
+    static CodeforcesSyncState restart(CodeforcesSyncState state) {
+        CodeforcesSyncState rebuilt = new CodeforcesSyncState(state.getHandle());
+        rebuilt.setVersion(state.getVersion());
+        return rebuilt;
+    }
+
+    static CodeforcesSyncState fold(String handle, CodeforcesSyncState state, CodeforcesStatusParser parser) {
+        state.setTotalSolved(state.getTotalSolved() + parser.getSolved());
+        parser.mergeInto(state.getDifficultyWiseSolved(), state.getTopicWiseSolved(), state.getSubmissionCalendar());
+        state.setLastSubmissionId(parser.getHighestFolded());
+        log.info("Folded {} new accepted Codeforces submissions for {} (mark now {})", parser.getSolved(), handle,
+            state.getLastSubmissionId());
+        return state;
+    }
+
+    private int stream(String url, CodeforcesStatusParser parser) {
+        try {
+            Integer listed = restTemplate.execute(url, HttpMethod.GET, null, response -> parser.parse(response.getBody()));
+            return listed != null ? listed : 0;
+        } catch (ResourceAccessException e) {
+            log.warn("Connection issue calling Codeforces API: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Failed to connect to Codeforces API: " + e.getMessage());
+        } catch (HttpClientErrorException e) {
+            log.warn("Codeforces API rejected request: {}", e.getMessage());
+            throw clientError(e.getRawStatusCode(), e.getResponseBodyAsString());
+        } catch (RestClientException e) {
+            log.warn("Codeforces API call failed: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Codeforces API call failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.codefolio.profileService.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pull-parses a user.status response (newest submission first) and folds accepted submissions
+// above the high-water mark into running counters as it reads. No JSON tree is built, and
+// reading stops as soon as the mark is reached. One instance accumulates across pages. Pages are
+// requested by offset, so a submission made mid-sync shifts later pages down and repeats the
+// rows at their boundary; ids only ever decrease down the list, so any id not below the lowest
+// one already read is such a repeat and is skipped.
+public class CodeforcesStatusParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private final long mark;
+    private final DayKeys dayKeys;
+    private final List<String> tags = new ArrayList<>();
+
+    private int solved;
+    private long highestFolded;
+    private long lowestRead = Long.MAX_VALUE;
+    private boolean reachedMark;
+    private final Map<String, int[]> difficultyWiseSolved = new HashMap<>();
+    private final Map<String, int[]> topicWiseSolved = new HashMap<>();
+    private final Map<String, int[]> submissionCalendar = new HashMap<>();
+
+    public CodeforcesStatusParser(long mark, ZoneId zone) {
+        this.mark = mark;
+        this.dayKeys = new DayKeys(zone);
+    }
+
+    // Reads one response and returns how many submissions it listed before the mark (or the end)
+    public int parse(InputStream body) throws IOException {
+        int read = 0;
+        try (JsonParser parser = JSON.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            String status = null;
+            String comment = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("status".equals(field)) {
+                    status = parser.getText();
+                } else if ("comment".equals(field)) {
+                    comment = parser.getText();
+                } else if ("result".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (!reachedMark && parser.nextToken() == JsonToken.START_OBJECT) {
+                        readSubmission(parser);
+                        if (!reachedMark) {
+                            read++;
+                        }
+                    }
+                    return read;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!"OK".equals(status)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Codeforces user.status failed: " + comment);
+            }
+        }
+        return read;
+    }
+
+    private void readSubmission(JsonParser parser) throws IOException {
+        long id = 0;
+        long createdAt = 0;
+        String verdict = null;
+        String rating = "0";
+        tags.clear();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id": id = parser.getLongValue(); break;
+                case "creationTimeSeconds": createdAt = parser.getLongValue(); break;
+                case "verdict": verdict = parser.getText(); break;
+                case "problem": rating = readProblem(parser); break;
+                default: parser.skipChildren();
+            }
+        }
+
+        if (id <= mark) {
+            reachedMark = true;
+            return;
+        }
+        if (id >= lowestRead) {
+            return;
+        }
+        lowestRead = id;
+        if (verdict == null || "TESTING".equals(verdict)) {
+            // Still being judged: anything newer must wait for it, so drop what was folded so far
+            // and leave the mark below this submission
+            reset();
+            return;
+        }
+        if (highestFolded == 0) {
+            highestFolded = id;
+        }
+        if ("OK".equals(verdict)) {
+            solved++;
+            increment(difficultyWiseSolved, rating);
+            for (String tag : tags) {
+                increment(topicWiseSolved, tag);
+            }
+            increment(submissionCalendar, dayKeys.keyFor(createdAt));
+        }
+    }
+
+    // Collects the problem's tags and returns its rating
+    private String readProblem(JsonParser parser) throws IOException {
+        String rating = "0";
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return rating;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("rating".equals(field)) {
+                rating = parser.getText();
+            } else if ("tags".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    tags.add(parser.getText());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return rating;
+    }
+
+    private void reset() {
+        solved = 0;
+        highestFolded = 0;
+        difficultyWiseSolved.clear();
+        topicWiseSolved.clear();
+        submissionCalendar.clear();
+    }
+
+    private static void increment(Map<String, int[]> counters, String key) {
+        counters.computeIfAbsent(key, k -> new int[1])[0]++;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Unexpected Codeforces response: expected " + expected + " but was " + actual);
+        }
+    }
+
+    public boolean reachedMark() { return reachedMark; }
+    public int getSolved() { return solved; }
+    // Newest submission folded, or 0 if nothing new is final yet
+    public long getHighestFolded() { return highestFolded; }
+
+    public void mergeInto(Map<String, Integer> difficulty, Map<String, Integer> topics, Map<String, Integer> calendar) {
+        difficultyWiseSolved.forEach((key, count) -> difficulty.merge(key, count[0], Integer::sum));
+        topicWiseSolved.forEach((key, count) -> topics.merge(key, count[0], Integer::sum));
+        submissionCalendar.forEach((key, count) -> calendar.merge(key, count[0], Integer::sum));
+    }
+
+    // yyyy-MM-dd for an epoch second, recomputed only when the day changes; submissions arrive
+    // in time order, so most rows reuse the previous key
+    static final class DayKeys {
+        private final ZoneId zone;
+        private long dayStart = Long.MAX_VALUE;
+        private long dayEnd = Long.MIN_VALUE;
+        private String key;
+
+        DayKeys(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        String keyFor(long epochSecond) {
+            if (epochSecond < dayStart || epochSecond >= dayEnd) {
+                LocalDate date = Instant.ofEpochSecond(epochSecond).atZone(zone).toLocalDate();
+                dayStart = date.atStartOfDay(zone).toEpochSecond();
+                dayEnd = date.plusDays(1).atStartOfDay(zone).toEpochSecond();
+                key = date.toString();
+            }
+            return key;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.ContestWindowDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+@FeignClient(name = "CONTEST-SERVICE", path = "/contests")
+public interface ContestServiceClient {
+
+    @GetMapping("/active")
+    List<ContestWindowDTO> getActiveContests();
+
+    @GetMapping("/upcoming")
+    List<ContestWindowDTO> getUpcomingContests();
+}
@@ -15,12 +15,12 @@ import java.util.Map;
 
 @Component
 public class GeeksForGeeksClient {
-    private static final String GFG_API_URL = "https://geeks-for-geeks-api.vercel.app/%s";
+    static final String GFG_API_URL = "https://geeks-for-geeks-api.vercel.app/%s";
     private static final Logger log = LoggerFactory.getLogger(GeeksForGeeksClient.class);
     private final RestTemplate restTemplate;
 
-    public GeeksForGeeksClient() {
-        this.restTemplate = new RestTemplate();
+    public GeeksForGeeksClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
     }
 
     public PlatformStatsDTO getUserProfile(String username) {
@@ -46,67 +46,7 @@ public class GeeksForGeeksClient {
                         "GeeksForGeeks service is currently unavailable. Please try again later.");
                 }
 
-                JSONObject jsonResponse = new JSONObject(response.getBody());
-                if (jsonResponse.has("error")) {
-                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
-                        "GeeksForGeeks profile not found for username: " + username);
-                }
-
-                JSONObject info = jsonResponse.getJSONObject("info");
-                JSONObject solvedStats = jsonResponse.getJSONObject("solvedStats");
-
-                PlatformStatsDTO stats = new PlatformStatsDTO();
-
-                // Set total questions solved
-                stats.setTotalQuestions(info.getInt("totalProblemsSolved"));
-
-                // Set coding score as rating
-                stats.setRating(info.getInt("codingScore"));
-
-                // Set institute rank in contestRanking field
-                stats.setContestRanking(info.getInt("instituteRank"));
-
-                // Set max streak as total active days
-                stats.setTotalActiveDays(info.getInt("maxStreak"));
-
-                // Parse difficulty-wise solved problems
-                Map<String, Integer> difficultyWise = new HashMap<>();
-                JSONObject easy = solvedStats.getJSONObject("easy");
-                JSONObject medium = solvedStats.getJSONObject("medium");
-                JSONObject hard = solvedStats.getJSONObject("hard");
-                JSONObject basic = solvedStats.getJSONObject("basic");
-                
-                difficultyWise.put("easy", easy.getInt("count"));
-                difficultyWise.put("medium", medium.getInt("count"));
-                difficultyWise.put("hard", hard.getInt("count"));
-                difficultyWise.put("basic", basic.getInt("count"));
-                
-            stats.setDifficultyWiseSolved(difficultyWise);
-
-                // Create topic-wise solved map (using problem categories)
-            Map<String, Integer> topicWise = new HashMap<>();
-                // Add counts from each difficulty level
-                addQuestionsToTopicMap(topicWise, easy.getJSONArray("questions"), "easy");
-                addQuestionsToTopicMap(topicWise, medium.getJSONArray("questions"), "medium");
-                addQuestionsToTopicMap(topicWise, hard.getJSONArray("questions"), "hard");
-                addQuestionsToTopicMap(topicWise, basic.getJSONArray("questions"), "basic");
-                
-            stats.setTopicWiseSolved(topicWise);
-
-                // Set submission calendar (empty as it's not provided by the API)
-                stats.setSubmissionCalendar("{}");
-
-                // Create awards JSON array with only coding score
-                JSONArray awards = new JSONArray();
-                if (info.getInt("codingScore") > 0) {
-                    JSONObject codingScoreAward = new JSONObject();
-                    codingScoreAward.put("name", "Coding Score");
-                    codingScoreAward.put("value", info.getInt("codingScore"));
-                    awards.put(codingScoreAward);
-                }
-                stats.setAwards(awards.toString());
-
-                return stats;
+                return parseProfile(response.getBody(), username);
 
             } catch (ResourceAccessException e) {
                 log.error("Failed to connect to GeeksForGeeks API: {}", e.getMessage());
@@ -123,7 +63,72 @@ public class GeeksForGeeksClient {
         }
     }
 
-    private void addQuestionsToTopicMap(Map<String, Integer> topicMap, JSONArray questions, String difficulty) {
+    // Shared with ReactiveGeeksForGeeksClient
+    static PlatformStatsDTO parseProfile(String body, String username) {
+        JSONObject jsonResponse = new JSONObject(body);
+        if (jsonResponse.has("error")) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, 
+                "GeeksForGeeks profile not found for username: " + username);
+        }
+
+        JSONObject info = jsonResponse.getJSONObject("info");
+        JSONObject solvedStats = jsonResponse.getJSONObject("solvedStats");
+
+        PlatformStatsDTO stats = new PlatformStatsDTO();
+
+        // Set total questions solved
+        stats.setTotalQuestions(info.getInt("totalProblemsSolved"));
+
+        // Set coding score as rating
+        stats.setRating(info.getInt("codingScore"));
+
+        // Set institute rank in contestRanking field
+        stats.setContestRanking(info.getInt("instituteRank"));
+
+        // Set max streak as total active days
+        stats.setTotalActiveDays(info.getInt("maxStreak"));
+
+        // Parse difficulty-wise solved problems
+        Map<String, Integer> difficultyWise = new HashMap<>();
+        JSONObject easy = solvedStats.getJSONObject("easy");
+        JSONObject medium = solvedStats.getJSONObject("medium");
+        JSONObject hard = solvedStats.getJSONObject("hard");
+        JSONObject basic = solvedStats.getJSONObject("basic");
+        
+        difficultyWise.put("easy", easy.getInt("count"));
+        difficultyWise.put("medium", medium.getInt("count"));
+        difficultyWise.put("hard", hard.getInt("count"));
+        difficultyWise.put("basic", basic.getInt("count"));
+        
+        stats.setDifficultyWiseSolved(difficultyWise);
+
+        // Create topic-wise solved map (using problem categories)
+        Map<String, Integer> topicWise = new HashMap<>();
+        // Add counts from each difficulty level
+        addQuestionsToTopicMap(topicWise, easy.getJSONArray("questions"), "easy");
+        addQuestionsToTopicMap(topicWise, medium.getJSONArray("questions"), "medium");
+        addQuestionsToTopicMap(topicWise, hard.getJSONArray("questions"), "hard");
+        addQuestionsToTopicMap(topicWise, basic.getJSONArray("questions"), "basic");
+        
+        stats.setTopicWiseSolved(topicWise);
+
+        // Set submission calendar (empty as it's not provided by the API)
+        stats.setSubmissionCalendar("{}");
+
+        // Create awards JSON array with only coding score
+        JSONArray awards = new JSONArray();
+        if (info.getInt("codingScore") > 0) {
+            JSONObject codingScoreAward = new JSONObject();
+            codingScoreAward.put("name", "Coding Score");
+            codingScoreAward.put("value", info.getInt("codingScore"));
+            awards.put(codingScoreAward);
+        }
+        stats.setAwards(awards.toString());
+
+        return stats;
+    }
+
+    private static void addQuestionsToTopicMap(Map<String, Integer> topicMap, JSONArray questions, String difficulty) {
         for (int i = 0; i < questions.length(); i++) {
             JSONObject question = questions.getJSONObject(i);
             String questionName = question.getString("question");
@@ -2,239 +2,339 @@ package com.codefolio.profileService.client;
 
 import com.codefolio.profileService.dto.GitHubStatsDTO;
 import com.codefolio.profileService.dto.GitHubStatsDTO.ContributionDay;
-import org.kohsuke.github.*;
+import com.codefolio.profileService.model.GitHubAggregate;
+import com.codefolio.profileService.model.GitHubRepoStats;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.SubmissionCalendar;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
 import org.springframework.http.*;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.json.JSONObject;
 import org.json.JSONArray;
-import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Component
 public class GitHubClient {
     private static final Logger log = LoggerFactory.getLogger(GitHubClient.class);
-    private final GitHub github;
     private final RestTemplate restTemplate;
     private final String token;
-    private static final String GITHUB_GRAPHQL_URL = "https://api.github.com/graphql";
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final GitHubRepoCache repoCache;
+    private final DistributionSummary queryCost;
+    static final String GITHUB_GRAPHQL_URL = "https://api.github.com/graphql";
+    static final int MAX_REPO_PAGES = 10;
+    static final int LANGUAGE_BATCH_SIZE = 100;
 
-    public GitHubClient(@Value("${github.token:}") String token) throws IOException {
+    // One query returns the profile counters, a page of owned repositories with their stars and
+    // last push time, and (on the first page only) the contributions collection. Replaces the
+    // REST listing plus one listLanguages call per repository.
+    private static final String PROFILE_QUERY =
+        "query($login: String!, $cursor: String, $firstPage: Boolean!) { " +
+        "rateLimit { cost remaining resetAt } " +
+        "user(login: $login) { " +
+        "followers { totalCount } " +
+        "following { totalCount } " +
+        "repositories(first: 100, after: $cursor, ownerAffiliations: OWNER, privacy: PUBLIC) { " +
+        "totalCount " +
+        "pageInfo { hasNextPage endCursor } " +
+        "nodes { id stargazerCount pushedAt } " +
+        "} " +
+        "contributionsCollection @include(if: $firstPage) { " +
+        "totalCommitContributions " +
+        "totalIssueContributions " +
+        "totalPullRequestContributions " +
+        "contributionCalendar { " +
+        "totalContributions " +
+        "weeks { contributionDays { contributionCount date } } " +
+        "} " +
+        "} " +
+        "} " +
+        "}";
+
+    // Languages for the repositories pushed to since the last refresh, up to 100 per request
+    private static final String LANGUAGES_QUERY =
+        "query($ids: [ID!]!) { " +
+        "rateLimit { cost remaining resetAt } " +
+        "nodes(ids: $ids) { ... on Repository { id languages(first: 100) { edges { size node { name } } } } } " +
+        "}";
+
+    public GitHubClient(@Value("${github.token:}") String token, RestTemplate restTemplate,
+                        RateLimiterRegistry rateLimiterRegistry, GitHubRepoCache repoCache, MeterRegistry meterRegistry) {
         this.token = token;
+        this.restTemplate = restTemplate;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.repoCache = repoCache;
         if (token == null || token.trim().isEmpty()) {
             log.error("GitHub token is not configured. Please set the github.token property or GITHUB_TOKEN environment variable.");
             throw new IllegalStateException("GitHub token is not configured");
         }
-        
+        this.queryCost = DistributionSummary.builder("platform.github.graphql.cost")
+            .description("GraphQL rate-limit points spent per GitHub profile fetch")
+            .register(meterRegistry);
+
+        // Validate token by making a test request
         try {
             log.info("Initializing GitHub client");
-            this.github = new GitHubBuilder()
-                .withOAuthToken(token)
-                .build();
-            
-            // Validate token by making a test request
-            try {
-                github.getMyself();
-                log.info("Successfully validated GitHub token");
-            } catch (IOException e) {
-                log.error("Failed to validate GitHub token: {}", e.getMessage());
-                throw new IllegalStateException("Invalid GitHub token: " + e.getMessage());
-            }
+            JSONObject viewer = execute(new JSONObject().put("query", "query { viewer { login } }"));
+            log.info("Successfully validated GitHub token for {}", viewer.getJSONObject("viewer").getString("login"));
         } catch (Exception e) {
-            log.error("Failed to initialize GitHub client: {}", e.getMessage());
-            throw new IllegalStateException("Failed to initialize GitHub client: " + e.getMessage());
+            log.error("Failed to validate GitHub token: {}", e.getMessage());
+            throw new IllegalStateException("Invalid GitHub token: " + e.getMessage());
         }
-        
-        this.restTemplate = new RestTemplate();
     }
 
     public GitHubStatsDTO getUserProfile(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            log.error("GitHub username is null or empty");
+            throw new IllegalArgumentException("GitHub username cannot be empty");
+        }
+
         try {
             log.info("Starting to fetch GitHub profile for username: {}", username);
-            
-            if (username == null || username.trim().isEmpty()) {
-                log.error("GitHub username is null or empty");
-                throw new IllegalArgumentException("GitHub username cannot be empty");
-            }
-
-            log.debug("Attempting to connect to GitHub API with token: {}", token != null ? "present" : "missing");
-            GHUser user = github.getUser(username);
-            log.info("Successfully retrieved GitHub user: {}", username);
             GitHubStatsDTO stats = new GitHubStatsDTO();
-            
-            // Basic user info
-            try {
-                stats.setPublicRepos(user.getPublicRepoCount());
-                stats.setFollowers(user.getFollowersCount());
-                stats.setFollowing(user.getFollowingCount());
-                log.info("Successfully set basic user info for: {}", username);
-            } catch (Exception e) {
-                log.error("Error setting basic user info: {}", e.getMessage(), e);
-                throw e;
-            }
+            List<GitHubRepoStats> listing = new ArrayList<>();
+            boolean completeListing = false;
+            int cost = 0;
+            int remaining = -1;
+            String cursor = null;
 
-            // Repository stats
-            int totalStars = 0;
-            Map<String, Long> languageBytes = new HashMap<>();
-            
-            try {
-                List<GHRepository> repos = user.listRepositories().toList();
-                for (GHRepository repo : repos) {
-                    totalStars += repo.getStargazersCount();
-                
-                    // Aggregate language statistics
-                    try {
-                        Map<String, Long> repoLanguages = repo.listLanguages();
-                        repoLanguages.forEach((lang, bytes) -> 
-                            languageBytes.merge(lang, bytes, Long::sum));
-                    } catch (Exception e) {
-                        log.warn("Error fetching languages for repo {}: {}", repo.getName(), e.getMessage());
-                    }
+            for (int page = 0; page < MAX_REPO_PAGES; page++) {
+                if (page > 0) {
+                    awaitExtraCall();
                 }
-            } catch (Exception e) {
-                log.warn("Error fetching repositories: {}", e.getMessage());
-            }
-            
-            stats.setTotalStars(totalStars);
-
-            // Calculate language percentages
-            long totalBytes = languageBytes.values().stream().mapToLong(Long::longValue).sum();
-            Map<String, Double> languagePercentages = new HashMap<>();
-            if (totalBytes > 0) {
-                languageBytes.forEach((lang, bytes) -> {
-                    double percentage = (bytes.doubleValue() / totalBytes) * 100;
-                    languagePercentages.put(lang, Math.round(percentage * 10.0) / 10.0); // Round to 1 decimal
-                });
-            }
-            stats.setLanguages(languagePercentages);
-
-            // Fetch detailed contribution data using GraphQL
-            String graphqlQuery = "query { " +
-                "user(login: \"" + username + "\") { " +
-                "contributionsCollection { " +
-                "totalCommitContributions " +
-                "totalIssueContributions " +
-                "totalPullRequestContributions " +
-                "contributionCalendar { " +
-                "totalContributions " +
-                "weeks { " +
-                "contributionDays { " +
-                "contributionCount " +
-                "date " +
-                "} " +
-                "} " +
-                "} " +
-                "} " +
-                "} " +
-                "}";
-
-            String query = "{\"query\": \"" + graphqlQuery.replace("\"", "\\\"") + "\"}";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(token);
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("User-Agent", "CodeFolio-App");
-
-            HttpEntity<String> entity = new HttpEntity<>(query, headers);
-            
-            try {
-                ResponseEntity<String> response = restTemplate.exchange(
-                    GITHUB_GRAPHQL_URL,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
-                );
-
-                JSONObject responseData = new JSONObject(response.getBody());
-                
-                // Check for GraphQL errors
-                if (responseData.has("errors")) {
-                    JSONArray errors = responseData.getJSONArray("errors");
-                    StringBuilder errorMsg = new StringBuilder();
-                    for (int i = 0; i < errors.length(); i++) {
-                        errorMsg.append(errors.getJSONObject(i).getString("message")).append("; ");
-                    }
-                    throw new RuntimeException("GraphQL errors: " + errorMsg);
+                JSONObject data = execute(profileRequest(username, cursor, page == 0));
+
+                JSONObject rateLimit = data.optJSONObject("rateLimit");
+                if (rateLimit != null) {
+                    cost += rateLimit.optInt("cost");
+                    remaining = rateLimit.optInt("remaining", remaining);
                 }
 
-                JSONObject data = responseData.getJSONObject("data").getJSONObject("user");
-                JSONObject contributions = data.getJSONObject("contributionsCollection");
-                
-                // Set contribution stats
-                int totalCommits = contributions.getInt("totalCommitContributions");
-                int totalPRs = contributions.getInt("totalPullRequestContributions");
-                int totalIssues = contributions.getInt("totalIssueContributions");
-                
-                stats.setPrs(totalPRs);
-                stats.setIssues(totalIssues);
-                stats.setCommits(totalCommits);
-                stats.setTotalContributions(totalPRs + totalIssues + totalCommits);
-
-                // Process contribution calendar
-                JSONObject calendar = contributions.getJSONObject("contributionCalendar");
-                JSONArray weeks = calendar.getJSONArray("weeks");
-                
-                List<ContributionDay> contributionDays = new ArrayList<>();
-                Set<LocalDate> activeDays = new HashSet<>();
-                int currentStreak = 0;
-                int maxStreak = 0;
-                int tempStreak = 0;
-
-                for (int i = 0; i < weeks.length(); i++) {
-                    JSONArray days = weeks.getJSONObject(i).getJSONArray("contributionDays");
-                    for (int j = 0; j < days.length(); j++) {
-                        JSONObject day = days.getJSONObject(j);
-                        String date = day.getString("date");
-                        int count = day.getInt("contributionCount");
-                        
-                        ContributionDay contributionDay = new ContributionDay();
-                        contributionDay.setDate(date);
-                        contributionDay.setCount(count);
-                        contributionDays.add(contributionDay);
-
-                        if (count > 0) {
-                            LocalDate contributionDate = LocalDate.parse(date);
-                            activeDays.add(contributionDate);
-                            tempStreak++;
-                            maxStreak = Math.max(maxStreak, tempStreak);
-                            
-                            if (contributionDate.equals(LocalDate.now()) || 
-                                contributionDate.equals(LocalDate.now().minusDays(1))) {
-                                currentStreak = tempStreak;
-                            }
-                        } else {
-                            tempStreak = 0;
-                        }
-                    }
+                cursor = readProfilePage(data, username, page == 0, stats, listing);
+                if (cursor == null) {
+                    completeListing = true;
+                    break;
                 }
+            }
+            if (!completeListing) {
+                stats.setReposTruncated(true);
+                log.warn("GitHub user {} has {} public repos; only the first {} were read", username,
+                    stats.getPublicRepos(), listing.size());
+            }
 
-                stats.setContributionCalendar(contributionDays);
-                stats.setTotalActiveDays(activeDays.size());
-                stats.setCurrentStreak(currentStreak);
-                stats.setMaxStreak(maxStreak);
-            } catch (Exception e) {
-                log.error("Error fetching contribution data: {}", e.getMessage());
-                // Set default values for contribution data
-                stats.setTotalContributions(0);
-                stats.setTotalActiveDays(0);
-                stats.setCurrentStreak(0);
-                stats.setMaxStreak(0);
-                stats.setPrs(0);
-                stats.setIssues(0);
-                stats.setCommits(0);
-                stats.setContributionCalendar(new ArrayList<>());
+            // Only repositories pushed to since the last refresh need their languages re-read
+            List<String> changed = repoCache.changedRepos(username, listing);
+            Map<String, Map<String, Long>> fetchedLanguages = new HashMap<>();
+            for (int from = 0; from < changed.size(); from += LANGUAGE_BATCH_SIZE) {
+                List<String> batch = changed.subList(from, Math.min(changed.size(), from + LANGUAGE_BATCH_SIZE));
+                awaitExtraCall();
+                cost += fetchLanguages(batch, fetchedLanguages);
             }
-            
+
+            GitHubAggregate totals = repoCache.merge(username, listing, fetchedLanguages, completeListing);
+            stats.setTotalStars(totals.getTotalStars());
+            stats.setLanguages(languagePercentages(totals.getLanguageBytes()));
+            queryCost.record(cost);
+            log.info("Fetched GitHub profile for {} at a rate-limit cost of {} ({} remaining); languages re-read for {} of {} repos",
+                username, cost, remaining, changed.size(), listing.size());
             return stats;
+        } catch (ResponseStatusException | RestClientException e) {
+            // Keep the status so the refresh engine can tell retryable failures apart
+            throw e;
         } catch (Exception e) {
             log.error("Error fetching GitHub profile for username: {}", username, e);
             throw new RuntimeException("Failed to fetch GitHub profile: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // The refresh engine reserves one token per fetch, for the first profile page; each further
+    // page and each language batch is a request of its own and waits for its own token
+    private void awaitExtraCall() {
+        rateLimiterRegistry.forPlatform(Platform.GITHUB).acquireBlocking(1);
+    }
+
+    // Adds each repository's language sizes to the map and returns the rate-limit cost
+    private int fetchLanguages(List<String> repoIds, Map<String, Map<String, Long>> into) {
+        return readLanguages(execute(languagesRequest(repoIds)), into);
+    }
+
+    // Request building and parsing from here on is shared with ReactiveGitHubClient
+    static JSONObject profileRequest(String username, String cursor, boolean firstPage) {
+        JSONObject variables = new JSONObject()
+            .put("login", username)
+            .put("cursor", cursor == null ? JSONObject.NULL : cursor)
+            .put("firstPage", firstPage);
+        return new JSONObject().put("query", PROFILE_QUERY).put("variables", variables);
+    }
+
+    // Adds one page of repositories to the listing (and, from the first page, the profile counters
+    // and contributions to the stats); returns the cursor of the next page, or null after the last
+    static String readProfilePage(JSONObject data, String username, boolean firstPage,
+                                  GitHubStatsDTO stats, List<GitHubRepoStats> listing) {
+        JSONObject user = data.optJSONObject("user");
+        if (user == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "GitHub user not found");
+        }
+
+        JSONObject repositories = user.getJSONObject("repositories");
+        if (firstPage) {
+            stats.setPublicRepos(repositories.getInt("totalCount"));
+            stats.setFollowers(user.getJSONObject("followers").getInt("totalCount"));
+            stats.setFollowing(user.getJSONObject("following").getInt("totalCount"));
+            applyContributions(stats, user.getJSONObject("contributionsCollection"));
+        }
+
+        JSONArray repos = repositories.getJSONArray("nodes");
+        for (int i = 0; i < repos.length(); i++) {
+            JSONObject repo = repos.getJSONObject(i);
+            GitHubRepoStats listed = new GitHubRepoStats(username, repo.getString("id"));
+            listed.setStargazers(repo.getInt("stargazerCount"));
+            listed.setPushedAt(repo.isNull("pushedAt") ? null : repo.getString("pushedAt"));
+            listing.add(listed);
+        }
+
+        JSONObject pageInfo = repositories.getJSONObject("pageInfo");
+        return pageInfo.getBoolean("hasNextPage") ? pageInfo.getString("endCursor") : null;
+    }
+
+    static JSONObject languagesRequest(List<String> repoIds) {
+        return new JSONObject()
+            .put("query", LANGUAGES_QUERY)
+            .put("variables", new JSONObject().put("ids", new JSONArray(repoIds)));
+    }
+
+    static int readLanguages(JSONObject data, Map<String, Map<String, Long>> into) {
+        JSONArray nodes = data.getJSONArray("nodes");
+        for (int i = 0; i < nodes.length(); i++) {
+            JSONObject repo = nodes.optJSONObject(i);
+            if (repo == null || !repo.has("id")) {
+                continue; // deleted since it was listed
+            }
+            Map<String, Long> languageBytes = new HashMap<>();
+            JSONArray edges = repo.getJSONObject("languages").getJSONArray("edges");
+            for (int j = 0; j < edges.length(); j++) {
+                JSONObject edge = edges.getJSONObject(j);
+                languageBytes.put(edge.getJSONObject("node").getString("name"), edge.getLong("size"));
+            }
+            into.put(repo.getString("id"), languageBytes);
+        }
+        return costOf(data);
+    }
+
+    static int costOf(JSONObject data) {
+        JSONObject rateLimit = data.optJSONObject("rateLimit");
+        return rateLimit != null ? rateLimit.optInt("cost") : 0;
+    }
+
+    // Posts a GraphQL request and returns its data object, turning GraphQL-level errors into exceptions
+    private JSONObject execute(JSONObject request) {
+        ResponseEntity<String> response = restTemplate.exchange(
+            GITHUB_GRAPHQL_URL,
+            HttpMethod.POST,
+            new HttpEntity<>(request.toString(), headers(token)),
+            String.class
+        );
+        return dataOf(new JSONObject(response.getBody()), rateLimiterRegistry);
+    }
+
+    static HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("User-Agent", "CodeFolio-App");
+        return headers;
+    }
+
+    // The response's data object; GraphQL-level errors become exceptions
+    static JSONObject dataOf(JSONObject responseData, RateLimiterRegistry rateLimiterRegistry) {
+        // Check for GraphQL errors
+        if (responseData.has("errors")) {
+            JSONArray errors = responseData.getJSONArray("errors");
+            StringBuilder errorMsg = new StringBuilder();
+            for (int i = 0; i < errors.length(); i++) {
+                JSONObject error = errors.getJSONObject(i);
+                String type = error.optString("type");
+                if ("NOT_FOUND".equals(type)) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "GitHub user not found");
+                }
+                if ("RATE_LIMITED".equals(type)) {
+                    // GraphQL reports an exhausted quota with a 200, so the interceptor never sees it
+                    Duration retryAfter = untilReset(responseData);
+                    rateLimiterRegistry.forPlatform(Platform.GITHUB).onThrottled(retryAfter);
+                    throw new PlatformThrottledException(Platform.GITHUB, retryAfter);
+                }
+                errorMsg.append(error.optString("message")).append("; ");
+            }
+            throw new RuntimeException("GraphQL errors: " + errorMsg);
+        }
+        return responseData.getJSONObject("data");
+    }
+
+    private static void applyContributions(GitHubStatsDTO stats, JSONObject contributions) {
+        // Set contribution stats
+        int totalCommits = contributions.getInt("totalCommitContributions");
+        int totalPRs = contributions.getInt("totalPullRequestContributions");
+        int totalIssues = contributions.getInt("totalIssueContributions");
+
+        stats.setPrs(totalPRs);
+        stats.setIssues(totalIssues);
+        stats.setCommits(totalCommits);
+        stats.setTotalContributions(totalPRs + totalIssues + totalCommits);
+
+        // Process contribution calendar
+        JSONObject calendar = contributions.getJSONObject("contributionCalendar");
+        JSONArray weeks = calendar.getJSONArray("weeks");
+
+        List<ContributionDay> contributionDays = new ArrayList<>();
+        for (int i = 0; i < weeks.length(); i++) {
+            JSONArray days = weeks.getJSONObject(i).getJSONArray("contributionDays");
+            for (int j = 0; j < days.length(); j++) {
+                JSONObject day = days.getJSONObject(j);
+                ContributionDay contributionDay = new ContributionDay();
+                contributionDay.setDate(day.getString("date"));
+                contributionDay.setCount(day.getInt("contributionCount"));
+                contributionDays.add(contributionDay);
+            }
+        }
+
+        // Active days and streaks from the same day array the heatmap is built from
+        stats.setContributionCalendar(contributionDays);
+        SubmissionCalendar days = stats.toSubmissionCalendar();
+        stats.setTotalActiveDays(days.activeDays());
+        stats.setCurrentStreak(days.currentStreak(LocalDate.now()));
+        stats.setMaxStreak(days.maxStreak());
+    }
+
+    // Calculate language percentages
+    static Map<String, Double> languagePercentages(Map<String, Long> languageBytes) {
+        long totalBytes = languageBytes.values().stream().mapToLong(Long::longValue).sum();
+        Map<String, Double> languagePercentages = new HashMap<>();
+        if (totalBytes > 0) {
+            languageBytes.forEach((lang, bytes) -> {
+                double percentage = (bytes.doubleValue() / totalBytes) * 100;
+                languagePercentages.put(lang, Math.round(percentage * 10.0) / 10.0); // Round to 1 decimal
+            });
+        }
+        return languagePercentages;
+    }
+
+    private static Duration untilReset(JSONObject responseData) {
+        JSONObject data = responseData.optJSONObject("data");
+        JSONObject rateLimit = data != null ? data.optJSONObject("rateLimit") : null;
+        if (rateLimit == null || !rateLimit.has("resetAt")) {
+            return Duration.ofMinutes(1);
+        }
+        Duration until = Duration.between(Instant.now(), Instant.parse(rateLimit.getString("resetAt")));
+        return until.isNegative() ? Duration.ZERO : until;
+    }
+}
@@ -0,0 +1,140 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.GitHubAggregate;
+import com.codefolio.profileService.model.GitHubRepoStats;
+import com.codefolio.profileService.repository.GitHubAggregateRepository;
+import com.codefolio.profileService.repository.GitHubRepoStatsRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Per-repository cache behind the GitHub language and star totals. The client lists repositories
+// cheaply, asks which ones were pushed to since the last refresh, fetches languages for just
+// those, and merges the changes here. Like ProfileStore, transactions stay short and never wrap
+// an upstream call. Two first refreshes of the same login can both insert its rows; the loser's
+// unique-key violation is retried like a version conflict, re-reading what the winner wrote.
+@Component
+public class GitHubRepoCache {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubRepoCache.class);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private final GitHubRepoStatsRepository repoStatsRepository;
+    private final GitHubAggregateRepository aggregateRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public GitHubRepoCache(GitHubRepoStatsRepository repoStatsRepository, GitHubAggregateRepository aggregateRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.repoStatsRepository = repoStatsRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Repositories that are new or were pushed to since their languages were last read
+    public List<String> changedRepos(String login, List<GitHubRepoStats> listing) {
+        Map<String, String> knownPushes = readTransaction.execute(status -> {
+            Map<String, String> pushes = new HashMap<>();
+            for (Object[] row : repoStatsRepository.findPushesByLogin(key(login))) {
+                pushes.put((String) row[0], (String) row[1]);
+            }
+            return pushes;
+        });
+        return listing.stream()
+            .filter(repo -> !knownPushes.containsKey(repo.getRepoId())
+                || !Objects.equals(knownPushes.get(repo.getRepoId()), repo.getPushedAt()))
+            .map(GitHubRepoStats::getRepoId)
+            .collect(Collectors.toList());
+    }
+
+    // Applies a fresh listing plus the languages fetched for changed repositories and returns the
+    // updated totals. Repositories missing from the listing are dropped only when it is complete.
+    public GitHubAggregate merge(String login, List<GitHubRepoStats> listing,
+                                 Map<String, Map<String, Long>> fetchedLanguages, boolean completeListing) {
+        String key = key(login);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(status -> apply(key, listing, fetchedLanguages, completeListing));
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    log.error("Giving up on GitHub repo cache write for {} after {} conflicting attempts", login, attempt);
+                    throw e;
+                }
+                log.warn("Concurrent update of GitHub repo cache for {}, re-applying (attempt {})", login, attempt + 1);
+            }
+        }
+    }
+
+    private GitHubAggregate apply(String login, List<GitHubRepoStats> listing,
+                                  Map<String, Map<String, Long>> fetchedLanguages, boolean completeListing) {
+        Map<String, GitHubRepoStats> cached = repoStatsRepository.findWithLanguagesByLogin(login).stream()
+            .collect(Collectors.toMap(GitHubRepoStats::getRepoId, Function.identity()));
+        GitHubAggregate aggregate = aggregateRepository.findById(login).orElseGet(() -> {
+            GitHubAggregate rebuilt = new GitHubAggregate(login);
+            cached.values().forEach(rebuilt::add);
+            return rebuilt;
+        });
+
+        List<GitHubRepoStats> changed = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (GitHubRepoStats repo : listing) {
+            seen.add(repo.getRepoId());
+            GitHubRepoStats row = cached.get(repo.getRepoId());
+            Map<String, Long> languages = fetchedLanguages.get(repo.getRepoId());
+            if (row == null && languages == null) {
+                continue;
+            }
+            if (row != null && languages == null && row.getStargazers() == repo.getStargazers()) {
+                continue;
+            }
+
+            if (row == null) {
+                row = new GitHubRepoStats(login, repo.getRepoId());
+            } else {
+                aggregate.remove(row);
+            }
+            row.setStargazers(repo.getStargazers());
+            // pushedAt only moves forward together with the languages it describes
+            if (languages != null) {
+                row.setPushedAt(repo.getPushedAt());
+                row.setLanguageBytes(new HashMap<>(languages));
+            }
+            aggregate.add(row);
+            changed.add(row);
+        }
+
+        List<GitHubRepoStats> removed = completeListing
+            ? cached.values().stream().filter(row -> !seen.contains(row.getRepoId())).collect(Collectors.toList())
+            : List.of();
+        removed.forEach(aggregate::remove);
+
+        repoStatsRepository.saveAll(changed);
+        repoStatsRepository.deleteAll(removed);
+        GitHubAggregate saved = aggregateRepository.saveAndFlush(aggregate);
+        Hibernate.initialize(saved.getLanguageBytes());
+        log.info("GitHub repo cache for {}: {} repos updated, {} removed, {} unchanged", login, changed.size(),
+            removed.size(), listing.size() - changed.size());
+        return saved;
+    }
+
+    private static String key(String login) {
+        return login.trim().toLowerCase(Locale.ROOT);
+    }
+}
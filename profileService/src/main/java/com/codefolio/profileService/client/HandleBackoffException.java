@@ -0,0 +1,23 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+// Thrown without calling upstream while a handle that recently failed lookup is backing off;
+// carries the status and reason of that failure
+public class HandleBackoffException extends ResponseStatusException {
+    private final Platform platform;
+    private final Duration retryAfter;
+
+    public HandleBackoffException(Platform platform, HttpStatus status, String reason, Duration retryAfter) {
+        super(status, reason);
+        this.platform = platform;
+        this.retryAfter = retryAfter;
+    }
+
+    public Platform getPlatform() { return platform; }
+    public Duration getRetryAfter() { return retryAfter; }
+}
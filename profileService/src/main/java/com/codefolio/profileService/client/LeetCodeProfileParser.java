@@ -0,0 +1,364 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Pull-parses the LeetCode profile GraphQL response straight into a PlatformStatsDTO, reading
+// only the fields we keep and skipping everything else without building a JSON tree. Only the
+// "user does not exist" GraphQL error means the handle is bad (400, which HandleBackoff caches);
+// any other error (rate limiting, timeouts, internal errors) is a 503 the engine retries.
+public class LeetCodeProfileParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Map<String, Integer> difficultyWise = new HashMap<>();
+    private final Map<String, Integer> topicWise = new HashMap<>();
+    private boolean userFound;
+    private int totalSolved;
+    private int profileRanking;
+    private boolean hasContestData;
+    private int contestRating;
+    private int contestRanking;
+    private int contestsAttended;
+    private Integer totalActiveDays;
+    private String submissionCalendar;
+    private String awards;
+
+    public static PlatformStatsDTO parse(InputStream body, String username) throws IOException {
+        LeetCodeProfileParser user = new LeetCodeProfileParser();
+        List<String[]> errors = readResponse(body, (name, p) -> {
+            if ("matchedUser".equals(name)) {
+                user.readUser(p);
+            } else if ("userContestRanking".equals(name)) {
+                user.readContestRanking(p);
+            } else {
+                p.skipChildren();
+            }
+        });
+
+        if (!errors.isEmpty()) {
+            StringBuilder messages = new StringBuilder();
+            errors.forEach(error -> messages.append(error[0]).append("; "));
+            boolean unknownUser = errors.stream().allMatch(LeetCodeProfileParser::isUnknownUser);
+            throw new ResponseStatusException(unknownUser ? HttpStatus.BAD_REQUEST : HttpStatus.SERVICE_UNAVAILABLE,
+                messages.toString());
+        }
+        if (!user.userFound) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "LeetCode profile not found for username: " + username);
+        }
+        return user.toStats();
+    }
+
+    // Aliased batch response: u<i> is matchedUser and c<i> userContestRanking for usernames[i].
+    // Users that don't exist are left out of the result. Any other error, or one not tied to an
+    // alias, fails the whole batch as retryable, so no user is taken for missing because of it.
+    public static Map<String, PlatformStatsDTO> parseBatch(InputStream body, List<String> usernames) throws IOException {
+        LeetCodeProfileParser[] users = new LeetCodeProfileParser[usernames.size()];
+        for (int i = 0; i < users.length; i++) {
+            users[i] = new LeetCodeProfileParser();
+        }
+        List<String[]> errors = readResponse(body, (name, p) -> {
+            int index = aliasIndex(name, users.length);
+            if (index < 0) {
+                p.skipChildren();
+            } else if (name.charAt(0) == 'u') {
+                users[index].readUser(p);
+            } else {
+                users[index].readContestRanking(p);
+            }
+        });
+
+        boolean[] failed = new boolean[users.length];
+        for (String[] error : errors) {
+            int index = aliasIndex(error[1], users.length);
+            if (index < 0 || !isUnknownUser(error)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "LeetCode batch failed: " + error[0]);
+            }
+            failed[index] = true;
+        }
+        Map<String, PlatformStatsDTO> stats = new HashMap<>();
+        for (int i = 0; i < users.length; i++) {
+            if (users[i].userFound && !failed[i]) {
+                stats.put(usernames.get(i), users[i].toStats());
+            }
+        }
+        return stats;
+    }
+
+    private static List<String[]> readResponse(InputStream body, FieldHandler dataHandler) throws IOException {
+        List<String[]> errors = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Unexpected LeetCode response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("errors".equals(field)) {
+                    readErrors(parser, errors);
+                } else if ("data".equals(field)) {
+                    forEachField(parser, dataHandler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return errors;
+    }
+
+    // "u12" / "c12" -> 12, anything else -> -1
+    private static int aliasIndex(String alias, int size) {
+        if (alias == null || alias.length() < 2 || (alias.charAt(0) != 'u' && alias.charAt(0) != 'c')) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(alias.substring(1));
+            return index >= 0 && index < size ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private PlatformStatsDTO toStats() {
+        PlatformStatsDTO stats = new PlatformStatsDTO();
+        stats.setTotalQuestions(totalSolved);
+        stats.setDifficultyWiseSolved(difficultyWise);
+        stats.setTopicWiseSolved(topicWise);
+        if (hasContestData) {
+            stats.setRating(contestRating);
+            stats.setContestRanking(contestRanking);
+            stats.setTotalContests(contestsAttended);
+        } else {
+            stats.setContestRanking(profileRanking);
+            stats.setRating(0);
+            stats.setTotalContests(0);
+        }
+        if (totalActiveDays != null) {
+            stats.setTotalActiveDays(totalActiveDays);
+            stats.setSubmissionCalendar(submissionCalendar != null ? submissionCalendar : "{}");
+        }
+        stats.setAwards(awards);
+        return stats;
+    }
+
+    // "That user does not exist."
+    private static boolean isUnknownUser(String[] error) {
+        return error[0] != null && error[0].toLowerCase(Locale.ROOT).contains("user does not exist");
+    }
+
+    // Collects {message, first path element} for each error
+    private static void readErrors(JsonParser parser, List<String[]> errors) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String[] error = new String[2];
+            forEachField(parser, (name, p) -> {
+                if ("message".equals(name)) {
+                    error[0] = p.getText();
+                } else if ("path".equals(name) && p.currentToken() == JsonToken.START_ARRAY) {
+                    JsonToken first = p.nextToken();
+                    if (first == JsonToken.VALUE_STRING) {
+                        error[1] = p.getText();
+                    }
+                    if (first != JsonToken.END_ARRAY) {
+                        p.skipChildren();
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            p.skipChildren();
+                        }
+                    }
+                } else {
+                    p.skipChildren();
+                }
+            });
+            errors.add(error);
+        }
+    }
+
+    private void readUser(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return; // null: no such user
+        }
+        userFound = true;
+        forEachField(parser, (name, p) -> {
+            switch (name) {
+                case "submitStats":
+                    forEachField(p, (statName, sp) -> {
+                        if ("acSubmissionNum".equals(statName)) {
+                            readAcceptedCounts(sp);
+                        } else {
+                            sp.skipChildren();
+                        }
+                    });
+                    break;
+                case "tagProblemCounts":
+                    forEachField(p, (level, lp) -> {
+                        if ("advanced".equals(level)) {
+                            readTagCounts(lp);
+                        } else {
+                            lp.skipChildren();
+                        }
+                    });
+                    break;
+                case "profile":
+                    forEachField(p, (profileField, pp) -> {
+                        if ("ranking".equals(profileField)) {
+                            profileRanking = pp.getValueAsInt(0);
+                        } else {
+                            pp.skipChildren();
+                        }
+                    });
+                    break;
+                case "userCalendar":
+                    if (p.currentToken() == JsonToken.START_OBJECT) {
+                        totalActiveDays = 0;
+                    }
+                    forEachField(p, (calendarField, cp) -> {
+                        if ("totalActiveDays".equals(calendarField)) {
+                            totalActiveDays = cp.getValueAsInt(0);
+                        } else if ("submissionCalendar".equals(calendarField)) {
+                            submissionCalendar = cp.getValueAsString();
+                        } else {
+                            cp.skipChildren();
+                        }
+                    });
+                    break;
+                case "badges":
+                    awards = readBadges(p);
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        });
+    }
+
+    private void readAcceptedCounts(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String[] difficulty = new String[1];
+            int[] count = new int[1];
+            forEachField(parser, (name, p) -> {
+                if ("difficulty".equals(name)) {
+                    difficulty[0] = p.getText().toLowerCase(Locale.ROOT);
+                } else if ("count".equals(name)) {
+                    count[0] = p.getValueAsInt(0);
+                } else {
+                    p.skipChildren();
+                }
+            });
+            if ("all".equals(difficulty[0])) {
+                totalSolved = count[0];
+            } else if (difficulty[0] != null) {
+                difficultyWise.put(difficulty[0], count[0]);
+            }
+        }
+    }
+
+    private void readTagCounts(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String[] tag = new String[1];
+            int[] solved = new int[1];
+            forEachField(parser, (name, p) -> {
+                if ("tagName".equals(name)) {
+                    tag[0] = p.getText();
+                } else if ("problemsSolved".equals(name)) {
+                    solved[0] = p.getValueAsInt(0);
+                } else {
+                    p.skipChildren();
+                }
+            });
+            if (tag[0] != null && solved[0] > 0) {
+                topicWise.put(tag[0], solved[0]);
+            }
+        }
+    }
+
+    private void readContestRanking(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return;
+        }
+        hasContestData = true;
+        forEachField(parser, (name, p) -> {
+            switch (name) {
+                case "rating": contestRating = p.getValueAsInt(0); break;
+                case "globalRanking": contestRanking = p.getValueAsInt(0); break;
+                case "attendedContestsCount": contestsAttended = p.getValueAsInt(0); break;
+                default: p.skipChildren();
+            }
+        });
+    }
+
+    // Re-emits [{name, icon}] for each badge, dropping empty icons
+    private static String readBadges(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartArray();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String[] badge = new String[2];
+                forEachField(parser, (name, p) -> {
+                    if ("name".equals(name)) {
+                        badge[0] = p.getValueAsString();
+                    } else if ("icon".equals(name)) {
+                        badge[1] = p.getValueAsString();
+                    } else {
+                        p.skipChildren();
+                    }
+                });
+                generator.writeStartObject();
+                generator.writeStringField("name", badge[0]);
+                if (badge[1] != null && !badge[1].isEmpty()) {
+                    generator.writeStringField("icon", badge[1]);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        return out.toString();
+    }
+
+    // Calls the handler with the parser positioned on each field's value; the handler must
+    // consume the whole value (or skip it). A null value is treated as an empty object.
+    private static void forEachField(JsonParser parser, FieldHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            handler.handle(name, parser);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        void handle(String name, JsonParser parser) throws IOException;
+    }
+}
@@ -0,0 +1,22 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+public class PlatformThrottledException extends ResponseStatusException {
+    private final Platform platform;
+    private final Duration retryAfter;
+
+    public PlatformThrottledException(Platform platform, Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, platform.getDisplayName() + " is rate limiting us; retry after "
+            + retryAfter.toSeconds() + "s");
+        this.platform = platform;
+        this.retryAfter = retryAfter;
+    }
+
+    public Platform getPlatform() { return platform; }
+    public Duration getRetryAfter() { return retryAfter; }
+}
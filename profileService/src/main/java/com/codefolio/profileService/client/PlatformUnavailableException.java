@@ -0,0 +1,20 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// Thrown without calling upstream while the platform's circuit is open
+public class PlatformUnavailableException extends ResponseStatusException {
+
+    private final Platform platform;
+
+    public PlatformUnavailableException(Platform platform) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, platform.getDisplayName() + " is temporarily unavailable");
+        this.platform = platform;
+    }
+
+    public Platform getPlatform() {
+        return platform;
+    }
+}
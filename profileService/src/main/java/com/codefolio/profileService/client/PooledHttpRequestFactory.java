@@ -0,0 +1,235 @@
+package com.codefolio.profileService.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.AbstractClientHttpResponse;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+// RestTemplate adapter over one shared java.net.http.HttpClient. The JDK client keeps a
+// keep-alive pool per host and negotiates HTTP/2 via ALPN where the host offers it; this
+// factory adds a per-host cap on concurrent exchanges, a read deadline per request and
+// transparent gzip. HttpRequest.timeout only bounds the wait for the response headers, so the
+// body is closed when the deadline passes; a read blocked on a stalled body then fails.
+public class PooledHttpRequestFactory implements ClientHttpRequestFactory {
+
+    // Headers the JDK client manages itself and refuses to accept from callers
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final ScheduledThreadPoolExecutor DEADLINES = deadlineScheduler();
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+    private final Duration acquireTimeout;
+    private final int maxConnectionsPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public PooledHttpRequestFactory(HttpClient httpClient, Duration readTimeout, Duration acquireTimeout, int maxConnectionsPerHost) {
+        this.httpClient = httpClient;
+        this.readTimeout = readTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new PooledRequest(uri, httpMethod);
+    }
+
+    private static ScheduledThreadPoolExecutor deadlineScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "http-read-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private Semaphore permitsFor(URI uri) {
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        return hostPermits.computeIfAbsent(host, h -> new Semaphore(maxConnectionsPerHost));
+    }
+
+    private class PooledRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        PooledRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public String getMethodValue() { return method.name(); }
+
+        @Override
+        public URI getURI() { return uri; }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) { return body; }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(readTimeout);
+            headers.forEach((name, values) -> {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    values.forEach(value -> builder.header(name, value));
+                }
+            });
+            if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+                builder.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            }
+            byte[] bytes = body.toByteArray();
+            builder.method(method.name(), bytes.length > 0
+                ? HttpRequest.BodyPublishers.ofByteArray(bytes)
+                : HttpRequest.BodyPublishers.noBody());
+
+            Semaphore permits = permitsFor(uri);
+            try {
+                if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Connection pool for " + uri.getHost() + " exhausted");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a connection to " + uri.getHost());
+            }
+
+            try {
+                long deadline = System.nanoTime() + readTimeout.toNanos();
+                HttpResponse<InputStream> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+                return new PooledResponse(response, permits, deadline - System.nanoTime());
+            } catch (InterruptedException e) {
+                permits.release();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted calling " + uri.getHost());
+            } catch (IOException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+
+    private static class PooledResponse extends AbstractClientHttpResponse {
+        private final HttpResponse<InputStream> response;
+        private final Semaphore permits;
+        private final HttpHeaders headers = new HttpHeaders();
+        private final boolean gzipped;
+        private final ScheduledFuture<?> deadline;
+        private volatile boolean timedOut;
+        private InputStream body;
+        private boolean closed;
+
+        // The body must be read within remainingNanos, what is left of the request's read timeout
+        PooledResponse(HttpResponse<InputStream> response, Semaphore permits, long remainingNanos) {
+            this.response = response;
+            this.permits = permits;
+            this.deadline = DEADLINES.schedule(this::expire, Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+            response.headers().map().forEach(headers::addAll);
+            this.gzipped = "gzip".equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+            if (gzipped) {
+                // The decoded body no longer matches these
+                headers.remove(HttpHeaders.CONTENT_ENCODING);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+            }
+        }
+
+        @Override
+        public int getRawStatusCode() { return response.statusCode(); }
+
+        @Override
+        public String getStatusText() {
+            HttpStatus status = HttpStatus.resolve(response.statusCode());
+            return status != null ? status.getReasonPhrase() : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() { return headers; }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream raw = new DeadlineInputStream(response.body());
+                body = gzipped ? new GZIPInputStream(raw) : raw;
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            deadline.cancel(false);
+            try {
+                (body != null ? body : response.body()).close();
+            } catch (IOException ignored) {
+                // Connection is discarded by the client; nothing else to clean up
+            } finally {
+                permits.release();
+            }
+        }
+
+        // Closing the JDK body stream wakes a read blocked on it
+        private void expire() {
+            timedOut = true;
+            try {
+                response.body().close();
+            } catch (IOException ignored) {
+                // The read in progress fails either way
+            }
+        }
+
+        // Reports a read cut off by the deadline as a timeout rather than a closed stream
+        private class DeadlineInputStream extends FilterInputStream {
+            DeadlineInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                try {
+                    return super.read();
+                } catch (IOException e) {
+                    throw translate(e);
+                }
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                try {
+                    return super.read(b, off, len);
+                } catch (IOException e) {
+                    throw translate(e);
+                }
+            }
+
+            private IOException translate(IOException e) {
+                return timedOut ? new SocketTimeoutException("Read timed out") : e;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// RateLimitInterceptor for WebClient: a 429, or a 503 that carries Retry-After, slows the
+// platform's limiter and fails the exchange with a PlatformThrottledException
+public class RateLimitExchangeFilter implements ExchangeFilterFunction {
+
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    public RateLimitExchangeFilter(RateLimiterRegistry rateLimiterRegistry) {
+        this.rateLimiterRegistry = rateLimiterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String host = request.url().getHost();
+        AdaptiveRateLimiter limiter = rateLimiterRegistry.forHost(host);
+        if (limiter == null) {
+            return next.exchange(request);
+        }
+        return next.exchange(request).flatMap(response -> {
+            int status = response.rawStatusCode();
+            String retryAfterHeader = response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+            if (status == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || (status == HttpStatus.SERVICE_UNAVAILABLE.value() && retryAfterHeader != null)) {
+                Duration retryAfter = RateLimitInterceptor.parseRetryAfter(retryAfterHeader);
+                limiter.onThrottled(retryAfter);
+                return response.releaseBody()
+                    .then(Mono.error(new PlatformThrottledException(Platform.forHost(host), retryAfter)));
+            }
+            if (status >= 200 && status < 300) {
+                limiter.onSuccess();
+            }
+            return Mono.just(response);
+        });
+    }
+}
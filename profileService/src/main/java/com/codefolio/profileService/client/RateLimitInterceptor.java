@@ -0,0 +1,68 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Feeds upstream throttling signals back into the platform's limiter. A 429, or a 503 that
+// carries Retry-After, becomes a PlatformThrottledException so callers can reschedule instead
+// of treating it as a generic failure.
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(5);
+    private final RateLimiterRegistry rateLimiterRegistry;
+
+    public RateLimitInterceptor(RateLimiterRegistry rateLimiterRegistry) {
+        this.rateLimiterRegistry = rateLimiterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        AdaptiveRateLimiter limiter = rateLimiterRegistry.forHost(request.getURI().getHost());
+        ClientHttpResponse response = execution.execute(request, body);
+        if (limiter == null) {
+            return response;
+        }
+
+        int status = response.getRawStatusCode();
+        String retryAfterHeader = response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (status == HttpStatus.TOO_MANY_REQUESTS.value()
+                || (status == HttpStatus.SERVICE_UNAVAILABLE.value() && retryAfterHeader != null)) {
+            Duration retryAfter = parseRetryAfter(retryAfterHeader);
+            limiter.onThrottled(retryAfter);
+            response.close();
+            throw new PlatformThrottledException(Platform.forHost(request.getURI().getHost()), retryAfter);
+        }
+        if (status >= 200 && status < 300) {
+            limiter.onSuccess();
+        }
+        return response;
+    }
+
+    // Retry-After is either delta-seconds or an HTTP-date
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration until = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                return until.isNegative() ? Duration.ZERO : until;
+            } catch (Exception ignored) {
+                return DEFAULT_RETRY_AFTER;
+            }
+        }
+    }
+}
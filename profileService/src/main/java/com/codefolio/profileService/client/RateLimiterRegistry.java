@@ -0,0 +1,44 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class RateLimiterRegistry {
+
+    private final Map<Platform, AdaptiveRateLimiter> limiters = new EnumMap<>(Platform.class);
+
+    public RateLimiterRegistry(Environment environment, MeterRegistry meterRegistry) {
+        for (Platform platform : Platform.values()) {
+            String prefix = "codefolio.ratelimit." + platform.name().toLowerCase() + ".";
+            double rate = environment.getProperty(prefix + "permits-per-second", Double.class, defaultRate(platform));
+            double burst = environment.getProperty(prefix + "burst", Double.class, Math.max(rate * 2, platform.getRequestsPerFetch()));
+            int maxQueued = environment.getProperty(prefix + "max-queued", Integer.class,
+                environment.getProperty("codefolio.ratelimit.max-queued", Integer.class, 200));
+            limiters.put(platform, new AdaptiveRateLimiter(platform, rate, burst, maxQueued, meterRegistry));
+        }
+    }
+
+    public AdaptiveRateLimiter forPlatform(Platform platform) {
+        return limiters.get(platform);
+    }
+
+    public AdaptiveRateLimiter forHost(String host) {
+        Platform platform = Platform.forHost(host);
+        return platform != null ? limiters.get(platform) : null;
+    }
+
+    private static double defaultRate(Platform platform) {
+        switch (platform) {
+            case CODEFORCES: return 0.5;   // documented limit: one call every two seconds
+            case GITHUB: return 1.3;       // 5000 requests per hour per token
+            case ATCODER: return 1.0;
+            default: return 2.0;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.json.JSONException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+// Shared by the WebClient-based clients so their failures reach the refresh engine as the same
+// ResponseStatusExceptions the blocking clients throw: I/O trouble and 5xx as a retryable 503,
+// a call past its deadline as 504, and a 4xx as whatever the platform's 4xx means
+final class ReactiveCalls {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCalls.class);
+
+    interface BodyParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
+    // What a 4xx means for the platform, from its status and body
+    interface ClientErrorMapper {
+        ResponseStatusException map(int status, String body);
+    }
+
+    private ReactiveCalls() {
+    }
+
+    // Joins the body's buffers and pull-parses them, releasing the buffer whatever the parser does
+    static <T> Mono<T> parse(Flux<DataBuffer> body, BodyParser<T> parser) {
+        return DataBufferUtils.join(body)
+            .map(buffer -> {
+                try (InputStream in = buffer.asInputStream(true)) {
+                    return parser.parse(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    // One upstream call: its own deadline, and its errors translated
+    static <T> Mono<T> call(Platform platform, Mono<T> call, Duration timeout,
+                            HttpStatus clientErrorStatus, String clientErrorReason) {
+        return call(platform, call, timeout, (status, body) -> new ResponseStatusException(clientErrorStatus, clientErrorReason));
+    }
+
+    static <T> Mono<T> call(Platform platform, Mono<T> call, Duration timeout, ClientErrorMapper clientError) {
+        return call
+            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                platform.getDisplayName() + " API returned an empty response")))
+            .timeout(timeout)
+            .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                e -> translate(platform, e, timeout, clientError));
+    }
+
+    private static ResponseStatusException translate(Platform platform, Throwable e, Duration timeout,
+                                                     ClientErrorMapper clientError) {
+        String name = platform.getDisplayName();
+        if (e instanceof TimeoutException) {
+            log.warn("{} API call timed out after {} ms", name, timeout.toMillis());
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                name + " did not respond within " + timeout.toMillis() + " ms");
+        }
+        if (e instanceof WebClientRequestException) {
+            log.warn("Connection issue calling {} API: {}", name, e.getMessage());
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Failed to connect to " + name + " API: " + e.getMessage());
+        }
+        if (e instanceof WebClientResponseException) {
+            WebClientResponseException response = (WebClientResponseException) e;
+            int status = response.getRawStatusCode();
+            if (status >= 400 && status < 500) {
+                log.warn("{} API rejected request: {}", name, e.getMessage());
+                return clientError.map(status, response.getResponseBodyAsString());
+            }
+            log.warn("{} API call failed: {}", name, e.getMessage());
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, name + " API returned " + status);
+        }
+        if (e instanceof UncheckedIOException && !(e.getCause() instanceof JsonProcessingException)) {
+            log.warn("I/O error reading {} response: {}", name, e.getMessage());
+            return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Failed to read " + name + " response: " + e.getCause().getMessage());
+        }
+        if (e instanceof UncheckedIOException || e instanceof JSONException || e instanceof NumberFormatException) {
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            log.error("Error parsing {} response: {}", name, cause.getMessage());
+            return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Error parsing " + name + " profile data: " + cause.getMessage());
+        }
+        log.error("Error fetching {} profile: {}", name, e.getMessage());
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+            "Failed to fetch " + name + " profile: " + e.getMessage());
+    }
+}
@@ -0,0 +1,47 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Component
+public class ReactiveCodeChefClient implements ReactivePlatformClient<PlatformStatsDTO> {
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ReactiveCodeChefClient(WebClient platformWebClient,
+                                  @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.webClient = platformWebClient;
+        this.timeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    @Override
+    public Platform getPlatform() {
+        return Platform.CODECHEF;
+    }
+
+    @Override
+    public Mono<PlatformStatsDTO> getUserProfile(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "CodeChef username cannot be empty"));
+        }
+        // Already encoded; a URI keeps WebClient from encoding it again
+        URI apiUrl = URI.create(String.format(CodeChefClient.API_URL, URLEncoder.encode(username.trim(), StandardCharsets.UTF_8)));
+        return ReactiveCalls.call(Platform.CODECHEF,
+            webClient.get().uri(apiUrl)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(CodeChefClient::parseProfile),
+            timeout, HttpStatus.NOT_FOUND, "CodeChef profile not found");
+    }
+}
@@ -0,0 +1,153 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.CodeforcesSyncState;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.service.CodeforcesSyncStore;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneId;
+
+import static com.codefolio.profileService.client.CodeforcesClient.CF_API_USER_INFO;
+import static com.codefolio.profileService.client.CodeforcesClient.CF_API_USER_RATING;
+import static com.codefolio.profileService.client.CodeforcesClient.CF_API_USER_STATUS;
+import static com.codefolio.profileService.client.CodeforcesClient.CF_API_USER_STATUS_PAGE;
+import static com.codefolio.profileService.client.CodeforcesClient.MAX_INCREMENTAL_PAGES;
+import static com.codefolio.profileService.client.CodeforcesClient.STATUS_PAGE_SIZE;
+
+// user.info, user.status and user.rating don't depend on each other, so they are issued together
+// instead of one after another; the first to fail cancels the rest. Status pages are still read
+// one at a time, each only once the previous one has been folded. The sync state is loaded before
+// and saved after the calls, on the bounded-elastic scheduler, and only if the whole fetch succeeded.
+@Component
+public class ReactiveCodeforcesClient implements ReactivePlatformClient<PlatformStatsDTO> {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCodeforcesClient.class);
+    private static final String NOT_FOUND = "Codeforces profile not found";
+    private final WebClient webClient;
+    private final CodeforcesSyncStore syncStore;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final Duration timeout;
+
+    public ReactiveCodeforcesClient(WebClient platformWebClient, CodeforcesSyncStore syncStore,
+                                    RateLimiterRegistry rateLimiterRegistry,
+                                    @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.webClient = platformWebClient;
+        this.syncStore = syncStore;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.timeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    @Override
+    public Platform getPlatform() {
+        return Platform.CODEFORCES;
+    }
+
+    @Override
+    public Mono<PlatformStatsDTO> getUserProfile(String handle) {
+        if (handle == null || handle.trim().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Codeforces handle cannot be empty"));
+        }
+        String encodedHandle = URLEncoder.encode(handle.trim(), StandardCharsets.UTF_8);
+
+        Mono<JSONObject> userInfo = getJson(String.format(CF_API_USER_INFO, encodedHandle))
+            .map(info -> {
+                if (!"OK".equals(info.getString("status"))) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, NOT_FOUND);
+                }
+                return info;
+            });
+        Mono<JSONObject> userRating = getJson(String.format(CF_API_USER_RATING, encodedHandle));
+
+        return Mono.fromCallable(() -> syncStore.load(handle))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMap(state -> {
+                long mark = state.getLastSubmissionId();
+                return Mono.zip(userInfo, readSubmissions(handle, encodedHandle, state), userRating)
+                    .flatMap(calls -> save(calls.getT2(), mark)
+                        .map(sync -> CodeforcesClient.toStats(calls.getT1(), sync, calls.getT3())));
+            })
+            .onErrorMap(JSONException.class, e -> {
+                log.error("Error processing Codeforces profile for {}: {}", handle, e.getMessage());
+                return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Failed to process Codeforces profile data: " + e.getMessage());
+            });
+    }
+
+    // Submissions since the stored mark folded into the state; a handle seen for the first time,
+    // or more than MAX_INCREMENTAL_PAGES behind, is rebuilt from its full history
+    private Mono<CodeforcesSyncState> readSubmissions(String handle, String encodedHandle, CodeforcesSyncState state) {
+        if (state.getLastSubmissionId() == 0) {
+            return readFullHistory(handle, encodedHandle, state, false);
+        }
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(state.getLastSubmissionId(), ZoneId.systemDefault());
+        return readPages(encodedHandle, parser, 0).flatMap(caughtUp -> {
+            if (caughtUp) {
+                return Mono.just(parser.getHighestFolded() == 0 ? state : CodeforcesClient.fold(handle, state, parser));
+            }
+            log.info("Codeforces handle {} has more than {} new submissions, rebuilding from full history",
+                handle, MAX_INCREMENTAL_PAGES * STATUS_PAGE_SIZE);
+            return readFullHistory(handle, encodedHandle, state, true);
+        });
+    }
+
+    // True once the mark or the start of history is reached, false if the page budget ran out first
+    private Mono<Boolean> readPages(String encodedHandle, CodeforcesStatusParser parser, int page) {
+        String url = String.format(CF_API_USER_STATUS_PAGE, encodedHandle, page * STATUS_PAGE_SIZE + 1, STATUS_PAGE_SIZE);
+        Mono<Integer> call = stream(url, parser);
+        return (page > 0 ? extraCall().then(call) : call).flatMap(listed -> {
+            if (parser.reachedMark() || listed < STATUS_PAGE_SIZE) {
+                return Mono.just(true);
+            }
+            return page + 1 < MAX_INCREMENTAL_PAGES ? readPages(encodedHandle, parser, page + 1) : Mono.just(false);
+        });
+    }
+
+    private Mono<CodeforcesSyncState> readFullHistory(String handle, String encodedHandle, CodeforcesSyncState state,
+                                                      boolean afterPages) {
+        CodeforcesSyncState rebuilt = CodeforcesClient.restart(state);
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(0, ZoneId.systemDefault());
+        Mono<Integer> call = stream(String.format(CF_API_USER_STATUS, encodedHandle), parser);
+        return (afterPages ? extraCall().then(call) : call)
+            .map(listed -> parser.getHighestFolded() == 0 ? rebuilt : CodeforcesClient.fold(handle, rebuilt, parser));
+    }
+
+    private Mono<CodeforcesSyncState> save(CodeforcesSyncState sync, long loadedMark) {
+        if (sync.getLastSubmissionId() == loadedMark) {
+            return Mono.just(sync);
+        }
+        return Mono.fromCallable(() -> syncStore.save(sync)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // A token for each user.status call past the one the engine reserved, as CodeforcesClient
+    // takes; cancelling (the fetch timed out) hands it back
+    private Mono<Void> extraCall() {
+        return Mono.fromFuture(() -> rateLimiterRegistry.forPlatform(Platform.CODEFORCES).acquire(1, Runnable::run));
+    }
+
+    private Mono<Integer> stream(String url, CodeforcesStatusParser parser) {
+        return ReactiveCalls.call(Platform.CODEFORCES,
+            ReactiveCalls.parse(webClient.get().uri(URI.create(url)).retrieve().bodyToFlux(DataBuffer.class), parser::parse),
+            timeout, CodeforcesClient::clientError);
+    }
+
+    private Mono<JSONObject> getJson(String url) {
+        return ReactiveCalls.call(Platform.CODEFORCES,
+            webClient.get().uri(URI.create(url)).retrieve().bodyToMono(String.class).map(JSONObject::new),
+            timeout, CodeforcesClient::clientError);
+    }
+}
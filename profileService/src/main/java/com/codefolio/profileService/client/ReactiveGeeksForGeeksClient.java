@@ -0,0 +1,50 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriUtils;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+@Component
+public class ReactiveGeeksForGeeksClient implements ReactivePlatformClient<PlatformStatsDTO> {
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ReactiveGeeksForGeeksClient(WebClient platformWebClient,
+                                       @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.webClient = platformWebClient;
+        this.timeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    @Override
+    public Platform getPlatform() {
+        return Platform.GEEKSFORGEEKS;
+    }
+
+    @Override
+    public Mono<PlatformStatsDTO> getUserProfile(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "GeeksForGeeks username cannot be empty"));
+        }
+        URI apiUrl = URI.create(String.format(GeeksForGeeksClient.GFG_API_URL,
+            UriUtils.encodePathSegment(username, StandardCharsets.UTF_8)));
+        return ReactiveCalls.call(Platform.GEEKSFORGEEKS,
+            webClient.get().uri(apiUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .header("User-Agent", "Mozilla/5.0")
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(body -> GeeksForGeeksClient.parseProfile(body, username)),
+            timeout, HttpStatus.NOT_FOUND, "GeeksForGeeks profile not found for username: " + username);
+    }
+}
@@ -0,0 +1,142 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.GitHubStatsDTO;
+import com.codefolio.profileService.model.GitHubRepoStats;
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codefolio.profileService.client.GitHubClient.GITHUB_GRAPHQL_URL;
+import static com.codefolio.profileService.client.GitHubClient.LANGUAGE_BATCH_SIZE;
+import static com.codefolio.profileService.client.GitHubClient.MAX_REPO_PAGES;
+
+// GitHubClient's queries over WebClient. Repository pages still follow one another, since each
+// needs the previous page's cursor, but the language batches for changed repositories go out
+// together. The repo cache is read and written on the bounded-elastic scheduler. The token was
+// already validated by GitHubClient at startup.
+@Component
+public class ReactiveGitHubClient implements ReactivePlatformClient<GitHubStatsDTO> {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveGitHubClient.class);
+    // GitHub's secondary limits punish bursts of concurrent requests
+    private static final int LANGUAGE_CONCURRENCY = 2;
+    private final WebClient webClient;
+    private final String token;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final GitHubRepoCache repoCache;
+    private final DistributionSummary queryCost;
+    private final Duration timeout;
+
+    public ReactiveGitHubClient(WebClient platformWebClient, @Value("${github.token:}") String token,
+                                RateLimiterRegistry rateLimiterRegistry, GitHubRepoCache repoCache,
+                                MeterRegistry meterRegistry,
+                                @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.webClient = platformWebClient;
+        this.token = token;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.repoCache = repoCache;
+        this.queryCost = DistributionSummary.builder("platform.github.graphql.cost")
+            .description("GraphQL rate-limit points spent per GitHub profile fetch")
+            .register(meterRegistry);
+        this.timeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    @Override
+    public Platform getPlatform() {
+        return Platform.GITHUB;
+    }
+
+    @Override
+    public Mono<GitHubStatsDTO> getUserProfile(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("GitHub username cannot be empty"));
+        }
+        log.info("Starting to fetch GitHub profile for username: {}", username);
+        Fetch fetch = new Fetch();
+        return readPages(username, fetch, null, 0)
+            .then(Mono.fromCallable(() -> repoCache.changedRepos(username, fetch.listing))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .flatMap(changed -> readLanguages(fetch, changed)
+                .then(Mono.fromCallable(() -> repoCache.merge(username, fetch.listing, fetch.languages, fetch.completeListing))
+                    .subscribeOn(Schedulers.boundedElastic()))
+                .map(totals -> {
+                    fetch.stats.setTotalStars(totals.getTotalStars());
+                    fetch.stats.setLanguages(GitHubClient.languagePercentages(totals.getLanguageBytes()));
+                    queryCost.record(fetch.cost.get());
+                    log.info("Fetched GitHub profile for {} at a rate-limit cost of {}; languages re-read for {} of {} repos",
+                        username, fetch.cost.get(), changed.size(), fetch.listing.size());
+                    return fetch.stats;
+                }));
+    }
+
+    private Mono<Void> readPages(String username, Fetch fetch, String cursor, int page) {
+        if (page >= MAX_REPO_PAGES) {
+            fetch.stats.setReposTruncated(true);
+            log.warn("GitHub user {} has {} public repos; only the first {} were read", username,
+                fetch.stats.getPublicRepos(), fetch.listing.size());
+            return Mono.empty();
+        }
+        Mono<JSONObject> call = execute(GitHubClient.profileRequest(username, cursor, page == 0));
+        return (page > 0 ? extraCall().then(call) : call).flatMap(data -> {
+            fetch.cost.addAndGet(GitHubClient.costOf(data));
+            String next = GitHubClient.readProfilePage(data, username, page == 0, fetch.stats, fetch.listing);
+            if (next == null) {
+                fetch.completeListing = true;
+                return Mono.empty();
+            }
+            return readPages(username, fetch, next, page + 1);
+        });
+    }
+
+    // Only repositories pushed to since the last refresh need their languages re-read
+    private Mono<Void> readLanguages(Fetch fetch, List<String> changed) {
+        int batches = (changed.size() + LANGUAGE_BATCH_SIZE - 1) / LANGUAGE_BATCH_SIZE;
+        return Flux.range(0, batches)
+            .map(batch -> changed.subList(batch * LANGUAGE_BATCH_SIZE, Math.min(changed.size(), (batch + 1) * LANGUAGE_BATCH_SIZE)))
+            .flatMap(batch -> extraCall().then(execute(GitHubClient.languagesRequest(batch))), LANGUAGE_CONCURRENCY)
+            .doOnNext(data -> fetch.cost.addAndGet(GitHubClient.readLanguages(data, fetch.languages)))
+            .then();
+    }
+
+    // A token for each request past the first page, which the engine reserved, as GitHubClient
+    // takes; cancelling (the fetch timed out) hands it back
+    private Mono<Void> extraCall() {
+        return Mono.fromFuture(() -> rateLimiterRegistry.forPlatform(Platform.GITHUB).acquire(1, Runnable::run));
+    }
+
+    private Mono<JSONObject> execute(JSONObject request) {
+        return ReactiveCalls.call(Platform.GITHUB,
+            webClient.post()
+                .uri(GITHUB_GRAPHQL_URL)
+                .headers(headers -> headers.addAll(GitHubClient.headers(token)))
+                .bodyValue(request.toString())
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(body -> GitHubClient.dataOf(new JSONObject(body), rateLimiterRegistry)),
+            timeout, HttpStatus.INTERNAL_SERVER_ERROR, "GitHub rejected the GraphQL request");
+    }
+
+    private static final class Fetch {
+        private final GitHubStatsDTO stats = new GitHubStatsDTO();
+        private final List<GitHubRepoStats> listing = new ArrayList<>();
+        private final Map<String, Map<String, Long>> languages = new ConcurrentHashMap<>();
+        private final AtomicInteger cost = new AtomicInteger();
+        private volatile boolean completeListing;
+    }
+}
@@ -0,0 +1,50 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Component
+public class ReactiveLeetCodeClient implements ReactivePlatformClient<PlatformStatsDTO> {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveLeetCodeClient.class);
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ReactiveLeetCodeClient(WebClient platformWebClient,
+                                  @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        this.webClient = platformWebClient;
+        this.timeout = Duration.ofMillis(readTimeoutMs);
+    }
+
+    @Override
+    public Platform getPlatform() {
+        return Platform.LEETCODE;
+    }
+
+    @Override
+    public Mono<PlatformStatsDTO> getUserProfile(String username) {
+        if (username == null || username.trim().isEmpty()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "LeetCode username cannot be empty"));
+        }
+        log.info("Fetching LeetCode stats for username: {}", username);
+        return ReactiveCalls.call(Platform.LEETCODE,
+            ReactiveCalls.parse(webClient.post()
+                    .uri(LeetCodeClient.LEETCODE_API_URL)
+                    .headers(headers -> headers.addAll(LeetCodeClient.headers()))
+                    .bodyValue(LeetCodeClient.profileRequest(username))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class),
+                body -> LeetCodeProfileParser.parse(body, username)),
+            timeout, HttpStatus.INTERNAL_SERVER_ERROR, "LeetCode rejected the profile request");
+    }
+}
@@ -0,0 +1,13 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of a platform's blocking client, returning the same DTO. Used by
+// PlatformRefreshEngine instead of the blocking client when codefolio.refresh.engine is "reactive".
+public interface ReactivePlatformClient<T> {
+
+    Platform getPlatform();
+
+    Mono<T> getUserProfile(String handle);
+}
@@ -0,0 +1,21 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// A batched lookup the upstream rejected as a whole because of one handle it doesn't know; the
+// caller drops that handle and asks again for the rest
+public class UnknownHandleException extends ResponseStatusException {
+    private final Platform platform;
+    private final String handle;
+
+    public UnknownHandleException(Platform platform, String handle) {
+        super(HttpStatus.NOT_FOUND, platform.getDisplayName() + " handle not found: " + handle);
+        this.platform = platform;
+        this.handle = handle;
+    }
+
+    public Platform getPlatform() { return platform; }
+    public String getHandle() { return handle; }
+}
@@ -0,0 +1,21 @@
+package com.codefolio.profileService.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+// The JDK HttpClient reads its keep-alive timeout from a system property, once, when its
+// connection pool class loads. This copies codefolio.http.keep-alive-seconds there as soon as the
+// configuration is loaded, before any bean can create a client. A value given on the command line
+// (-Djdk.httpclient.keepalive.timeout) is left alone.
+public class HttpClientProperties implements EnvironmentPostProcessor {
+
+    static final String KEEP_ALIVE_TIMEOUT = "jdk.httpclient.keepalive.timeout";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (System.getProperty(KEEP_ALIVE_TIMEOUT) == null) {
+            System.setProperty(KEEP_ALIVE_TIMEOUT, environment.getProperty("codefolio.http.keep-alive-seconds", "30"));
+        }
+    }
+}
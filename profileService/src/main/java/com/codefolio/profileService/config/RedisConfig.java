@@ -0,0 +1,61 @@
+package com.codefolio.profileService.config;
+
+import com.codefolio.profileService.service.ProfileCache;
+import com.codefolio.profileService.service.RefreshJobRelay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+public class RedisConfig {
+
+    // Cached profiles are stored as the bytes ProfileCache already serialized for its local tier
+    @Bean
+    public RedisTemplate<String, byte[]> profileCacheTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setEnableDefaultSerializer(false);
+        return template;
+    }
+
+    // Delivers other instances' invalidations to the local tier
+    @Bean
+    @ConditionalOnProperty(name = "codefolio.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer profileInvalidationListener(
+            RedisConnectionFactory connectionFactory, ProfileCache profileCache,
+            @Value("${codefolio.cache.channel:codefolio:profile-invalidations}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(profileCache, new ChannelTopic(channel));
+        container.setRecoveryInterval(10000);
+        return container;
+    }
+
+    // Delivers refresh job events published by the instance running the job. Messages are handed
+    // to RefreshJobRelay on the container's own thread, one at a time, so a job's events keep
+    // their order.
+    @Bean
+    public RedisMessageListenerContainer refreshJobEventListener(
+            RedisConnectionFactory connectionFactory, RefreshJobRelay relay,
+            @Value("${codefolio.jobs.channel:codefolio:refresh-job-events}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(new SyncTaskExecutor());
+        // Otherwise the subscription itself would also fall back to the synchronous executor
+        container.setSubscriptionExecutor(new SimpleAsyncTaskExecutor("refresh-job-subscription-"));
+        container.addMessageListener(relay, new ChannelTopic(channel));
+        container.setRecoveryInterval(10000);
+        return container;
+    }
+}
@@ -0,0 +1,51 @@
+package com.codefolio.profileService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class RefreshExecutorConfig {
+
+    // Bounded pool shared by all platform fetches; a full queue rejects instead of piling up work.
+    // In virtual-thread mode every fetch gets its own virtual thread and PlatformRefreshEngine's
+    // per-platform limits take over from the pool size, but no more than pool-size +
+    // queue-capacity fetches are in flight, so overload is still rejected rather than absorbed.
+    @Bean(name = "platformRefreshExecutor")
+    public AsyncTaskExecutor platformRefreshExecutor(
+            @Value("${codefolio.threads.mode:platform}") String threadMode,
+            @Value("${codefolio.refresh.pool-size:12}") int poolSize,
+            @Value("${codefolio.refresh.queue-capacity:200}") int queueCapacity) {
+        if (VirtualThreads.enabled(threadMode)) {
+            return new TaskExecutorAdapter(VirtualThreads.boundedPerTaskExecutor("platform-refresh-", poolSize + queueCapacity));
+        }
+        return pool("platform-refresh-", poolSize, queueCapacity);
+    }
+
+    // Whole-profile background refreshes get their own pool: they block on platform fetches,
+    // so sharing platformRefreshExecutor could starve the fetches they are waiting for
+    @Bean(name = "profileRefreshExecutor")
+    public AsyncTaskExecutor profileRefreshExecutor(
+            @Value("${codefolio.threads.mode:platform}") String threadMode,
+            @Value("${codefolio.profile.background-pool-size:4}") int poolSize,
+            @Value("${codefolio.profile.background-queue-capacity:100}") int queueCapacity) {
+        if (VirtualThreads.enabled(threadMode)) {
+            return new TaskExecutorAdapter(VirtualThreads.boundedPerTaskExecutor("profile-refresh-", poolSize + queueCapacity));
+        }
+        return pool("profile-refresh-", poolSize, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor pool(String prefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(prefix);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
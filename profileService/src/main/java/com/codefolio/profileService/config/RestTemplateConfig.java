@@ -1,13 +1,40 @@
 package com.codefolio.profileService.config;
 
+import com.codefolio.profileService.client.PooledHttpRequestFactory;
+import com.codefolio.profileService.client.RateLimitInterceptor;
+import com.codefolio.profileService.client.RateLimiterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
+
+    // One client for every platform so connections (and HTTP/2 sessions) are reused across refreshes;
+    // its keep-alive timeout is set at startup by HttpClientProperties
+    @Bean
+    public HttpClient platformHttpClient(
+            @Value("${codefolio.http.connect-timeout-ms:3000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(HttpClient platformHttpClient,
+            @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${codefolio.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${codefolio.http.max-connections-per-host:10}") int maxConnectionsPerHost,
+            RateLimiterRegistry rateLimiterRegistry) {
+        RestTemplate restTemplate = new RestTemplate(new PooledHttpRequestFactory(platformHttpClient,
+                Duration.ofMillis(readTimeoutMs), Duration.ofMillis(connectTimeoutMs), maxConnectionsPerHost));
+        restTemplate.getInterceptors().add(new RateLimitInterceptor(rateLimiterRegistry));
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,23 @@
+package com.codefolio.profileService.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TomcatThreadConfig {
+
+    // Virtual-thread mode: each request is handled on its own virtual thread, so handlers
+    // blocked on upstream calls no longer use up server.tomcat.threads.max
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadRequests(
+            @Value("${codefolio.threads.mode:platform}") String threadMode) {
+        boolean virtual = VirtualThreads.enabled(threadMode);
+        return protocolHandler -> {
+            if (virtual) {
+                protocolHandler.setExecutor(VirtualThreads.perTaskExecutor("http-"));
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.codefolio.profileService.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+// codefolio.threads.mode=virtual runs request handling and platform fetches on virtual threads.
+// The service is built for Java 17, so the Java 21 API is looked up reflectively; on an older
+// runtime the mode falls back to platform threads with a warning. That includes Java 19 and 20,
+// where the API exists as a preview and throws unless the JVM runs with --enable-preview.
+public final class VirtualThreads {
+
+    public static final String MODE_VIRTUAL = "virtual";
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+    // Null when virtual threads work here, otherwise why they don't
+    private static final String UNSUPPORTED = lookup();
+    private static final boolean SUPPORTED = UNSUPPORTED == null;
+    private static volatile boolean warned;
+
+    private VirtualThreads() {}
+
+    // True when the mode asks for virtual threads and this JVM has them
+    public static boolean enabled(String mode) {
+        if (!MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return false;
+        }
+        if (!SUPPORTED && !warned) {
+            warned = true;
+            log.warn("codefolio.threads.mode=virtual needs Java 21+, running on {} ({}); using platform threads",
+                System.getProperty("java.version"), UNSUPPORTED);
+        }
+        return SUPPORTED;
+    }
+
+    // Thread.ofVirtual().name(prefix, 0).factory()
+    public static ThreadFactory factory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = Class.forName("java.lang.Thread$Builder$OfVirtual")
+                .getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available on this JVM", e);
+        }
+    }
+
+    // A new virtual thread per task; nothing is pooled or queued
+    public static Executor perTaskExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        return task -> factory.newThread(task).start();
+    }
+
+    // Like perTaskExecutor, but with at most maxInFlight tasks started and not yet finished, the
+    // bound a pool's threads plus queue would give; past it a task is rejected as a full pool's is
+    public static Executor boundedPerTaskExecutor(String prefix, int maxInFlight) {
+        ThreadFactory factory = factory(prefix);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        return task -> {
+            if (!inFlight.tryAcquire()) {
+                throw new RejectedExecutionException(maxInFlight + " " + prefix + "tasks already in flight");
+            }
+            try {
+                factory.newThread(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        inFlight.release();
+                    }
+                }).start();
+            } catch (RuntimeException | Error e) {
+                inFlight.release();
+                throw e;
+            }
+        };
+    }
+
+    // Creates a virtual thread (without starting it) rather than only checking the classes exist,
+    // since on Java 19/20 they exist but refuse to run without preview features enabled
+    private static String lookup() {
+        try {
+            factory("virtual-threads-probe-").newThread(() -> { });
+            return null;
+        } catch (IllegalStateException e) {
+            Throwable cause = e.getCause() instanceof InvocationTargetException
+                ? ((InvocationTargetException) e.getCause()).getTargetException() : e.getCause();
+            return cause.toString();
+        } catch (RuntimeException e) {
+            return e.toString();
+        }
+    }
+}
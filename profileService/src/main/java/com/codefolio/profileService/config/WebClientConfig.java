@@ -0,0 +1,52 @@
+package com.codefolio.profileService.config;
+
+import com.codefolio.profileService.client.RateLimitExchangeFilter;
+import com.codefolio.profileService.client.RateLimiterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+
+    // For the reactive refresh engine. The Netty pool caps connections per host like
+    // PooledHttpRequestFactory does, but an exchange over the cap waits in the pool's pending
+    // queue without holding a thread; a full queue fails the exchange instead of growing.
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider platformConnectionProvider(
+            @Value("${codefolio.http.max-connections-per-host:10}") int maxConnectionsPerHost,
+            @Value("${codefolio.http.max-pending-per-host:200}") int maxPendingPerHost,
+            @Value("${codefolio.http.connect-timeout-ms:3000}") long acquireTimeoutMs,
+            @Value("${codefolio.http.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return ConnectionProvider.builder("platform-refresh")
+                .maxConnections(maxConnectionsPerHost)
+                .pendingAcquireMaxCount(maxPendingPerHost)
+                .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean
+    public WebClient platformWebClient(ConnectionProvider platformConnectionProvider, RateLimiterRegistry rateLimiterRegistry,
+            @Value("${codefolio.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+            @Value("${codefolio.http.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${codefolio.http.max-in-memory-bytes:4194304}") int maxInMemoryBytes) {
+        HttpClient httpClient = HttpClient.create(platformConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs))
+                .followRedirect(true)
+                .compress(true);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemoryBytes))
+                .filter(new RateLimitExchangeFilter(rateLimiterRegistry))
+                .build();
+    }
+}
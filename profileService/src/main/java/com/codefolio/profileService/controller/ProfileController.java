@@ -2,24 +2,39 @@ package com.codefolio.profileService.controller;
 
 import com.codefolio.profileService.model.Profile;
 import com.codefolio.profileService.model.PlatformStats;
+import com.codefolio.profileService.dto.BulkRefreshResult;
 import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.dto.ProfileReadResult;
+import com.codefolio.profileService.dto.RefreshJobStatus;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.service.BulkRefreshService;
+import com.codefolio.profileService.service.PlatformRefreshEngine;
+import com.codefolio.profileService.service.ProfileActivity;
+import com.codefolio.profileService.service.ProfileReadService;
 import com.codefolio.profileService.service.ProfileService;
+import com.codefolio.profileService.service.RefreshJobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import org.springframework.web.server.ResponseStatusException;
 import java.util.HashMap;
-import com.codefolio.profileService.client.GeeksForGeeksClient;
-import com.codefolio.profileService.client.LeetCodeClient;
-import com.codefolio.profileService.client.CodeforcesClient;
-import com.codefolio.profileService.client.CodeChefClient;
 import java.util.Objects;
-import com.codefolio.profileService.client.GitHubClient;
 import com.codefolio.profileService.dto.GitHubStatsDTO;
 
 @RestController
@@ -27,42 +42,59 @@ import com.codefolio.profileService.dto.GitHubStatsDTO;
 public class ProfileController {
 
     private static final Logger log = LoggerFactory.getLogger(ProfileController.class);
+    private static final String READ_MODE_REFRESH = "refresh";
     private final ProfileService profileService;
-    private final GeeksForGeeksClient geeksForGeeksClient;
-    private final LeetCodeClient leetCodeClient;
-    private final CodeforcesClient codeforcesClient;
-    private final CodeChefClient codeChefClient;
-    private final GitHubClient gitHubClient;
-
-    public ProfileController(ProfileService profileService, GeeksForGeeksClient geeksForGeeksClient, LeetCodeClient leetCodeClient, CodeforcesClient codeforcesClient, CodeChefClient codeChefClient, GitHubClient gitHubClient) {
+    private final PlatformRefreshEngine platformRefreshEngine;
+    private final ProfileReadService profileReadService;
+    private final ProfileActivity profileActivity;
+    private final BulkRefreshService bulkRefreshService;
+    private final RefreshJobService refreshJobService;
+    private final String readMode;
+
+    public ProfileController(ProfileService profileService, PlatformRefreshEngine platformRefreshEngine,
+                             ProfileReadService profileReadService, ProfileActivity profileActivity,
+                             BulkRefreshService bulkRefreshService, RefreshJobService refreshJobService,
+                             @Value("${codefolio.profile.read-mode:stale-while-revalidate}") String readMode) {
         this.profileService = profileService;
-        this.geeksForGeeksClient = geeksForGeeksClient;
-        this.leetCodeClient = leetCodeClient;
-        this.codeforcesClient = codeforcesClient;
-        this.codeChefClient = codeChefClient;
-        this.gitHubClient = gitHubClient;
+        this.platformRefreshEngine = platformRefreshEngine;
+        this.profileReadService = profileReadService;
+        this.profileActivity = profileActivity;
+        this.bulkRefreshService = bulkRefreshService;
+        this.refreshJobService = refreshJobService;
+        this.readMode = readMode;
     }
 
     @GetMapping("/{userId}")
     public ResponseEntity<?> getProfile(@PathVariable String userId, @RequestParam(required = false) String email, @RequestParam(required = false) String name) {
+        // Recently viewed profiles are refreshed sooner by the background scheduler
+        profileActivity.record(userId);
         try {
-            // Try to get or create the profile if not found
-            Profile refreshedProfile;
+            if (READ_MODE_REFRESH.equalsIgnoreCase(readMode)) {
+                return ResponseEntity.ok(refreshOrCreate(userId, email, name));
+            }
+
+            // Serve the stored profile right away; stale data is refreshed in the background
+            ProfileReadResult result;
             try {
-                refreshedProfile = profileService.updateProfile(userId);
+                result = profileReadService.read(userId);
             } catch (Exception e) {
-                // If not found, create a new profile if email and name are provided
-                if ((e.getMessage() != null && (e.getMessage().toLowerCase().contains("not found") || e.getMessage().toLowerCase().contains("no value present") || e.getMessage().toLowerCase().contains("profile does not exist")))
-                    && email != null && name != null) {
-                    refreshedProfile = profileService.createProfile(userId, email, name);
+                if (isNotFound(e) && email != null && name != null) {
+                    result = profileReadService.created(profileService.createProfile(userId, email, name));
                 } else {
                     throw e;
                 }
             }
-            return ResponseEntity.ok(refreshedProfile);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (result.getAgeSeconds() != null) {
+                response.header(HttpHeaders.AGE, String.valueOf(result.getAgeSeconds()));
+            }
+            return response
+                    .header("X-Profile-Last-Updated", String.valueOf(result.getProfile().getLastUpdated()))
+                    .header("X-Profile-Stale", String.valueOf(result.isStale()))
+                    .header("X-Profile-Refreshing", String.valueOf(result.isRefreshing()))
+                    .body(result.getProfile());
         } catch (Exception e) {
-            String msg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
-            if (msg.contains("not found") || msg.contains("no value present") || msg.contains("profile does not exist")) {
+            if (isNotFound(e)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Profile not found", "message", "No profile exists for this user ID"));
             }
@@ -71,6 +103,23 @@ public class ProfileController {
         }
     }
 
+    private Profile refreshOrCreate(String userId, String email, String name) {
+        try {
+            return profileService.updateProfile(userId);
+        } catch (Exception e) {
+            // If not found, create a new profile if email and name are provided
+            if (isNotFound(e) && email != null && name != null) {
+                return profileService.createProfile(userId, email, name);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isNotFound(Exception e) {
+        String msg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
+        return msg.contains("not found") || msg.contains("no value present") || msg.contains("profile does not exist");
+    }
+
     @PostMapping
     public ResponseEntity<Profile> createProfile(
             @RequestParam String userId,
@@ -79,10 +128,24 @@ public class ProfileController {
         return ResponseEntity.ok(profileService.createProfile(userId, email, name));
     }
 
+    // ?async=true saves the changes, then re-fetches the platforms whose username changed as a
+    // refresh job (202) instead of blocking until every fetch is done
     @PutMapping("/{userId}")
-    public ResponseEntity<Profile> updateProfile(
+    public ResponseEntity<?> updateProfile(
             @PathVariable String userId,
-            @RequestBody Profile updatedProfile) {
+            @RequestBody Profile updatedProfile,
+            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            Profile existing = profileService.getProfileWithoutStats(userId);
+            Set<Platform> changed = EnumSet.noneOf(Platform.class);
+            for (Platform platform : Platform.values()) {
+                if (!Objects.equals(platform.usernameOf(existing), platform.usernameOf(updatedProfile))) {
+                    changed.add(platform);
+                }
+            }
+            Profile saved = profileService.saveProfile(userId, updatedProfile);
+            return changed.isEmpty() ? ResponseEntity.ok(saved) : accepted(refreshJobService.submit(userId, changed));
+        }
         log.info("Starting profile update for user: {} with data: {}", userId, updatedProfile);
         Profile existingProfile = profileService.getProfile(userId);
         
@@ -130,6 +193,50 @@ public class ProfileController {
         return ResponseEntity.ok().build();
     }
 
+    // Daily activity summed across every linked platform, GitHub contributions included; counts[i]
+    // is the total on firstDay + i
+    @GetMapping("/{userId}/heatmap")
+    public ResponseEntity<?> getHeatmap(@PathVariable String userId) {
+        try {
+            return ResponseEntity.ok(profileService.getHeatmap(userId));
+        } catch (Exception e) {
+            if (isNotFound(e)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Profile not found", "message", "No profile exists for this user ID"));
+            }
+            throw e;
+        }
+    }
+
+    // Rating over time for a platform that reports it (Codeforces, CodeChef); from/to are ISO
+    // dates, and points caps how many points come back (LTTB-downsampled)
+    @GetMapping("/{userId}/ratings/{platform}")
+    public ResponseEntity<?> getRatingHistory(
+            @PathVariable String userId,
+            @PathVariable String platform,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer points) {
+        Platform target;
+        try {
+            target = Platform.valueOf(platform.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown platform: " + platform));
+        }
+        if (points != null && points < 3) {
+            return ResponseEntity.badRequest().body(Map.of("error", "points must be at least 3"));
+        }
+        try {
+            return ResponseEntity.ok(profileService.getRatingHistory(userId, target, from, to, points));
+        } catch (Exception e) {
+            if (isNotFound(e)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Profile not found", "message", "No profile exists for this user ID"));
+            }
+            throw e;
+        }
+    }
+
     @PutMapping("/{userId}/leetcode")
     public ResponseEntity<Profile> updateLeetCodeProfile(
             @PathVariable String userId,
@@ -181,15 +288,41 @@ public class ProfileController {
         return ResponseEntity.ok(profileService.updateGitHubProfile(userId, username));
     }
 
+    // ?async=true returns 202 with a refresh job; its per-platform progress streams from
+    // /profiles/refresh-jobs/{jobId}/events
     @PutMapping("/{userId}/refresh")
-    public ResponseEntity<Profile> refreshProfile(@PathVariable String userId) {
+    public ResponseEntity<?> refreshProfile(@PathVariable String userId,
+                                            @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return accepted(refreshJobService.submit(userId, EnumSet.allOf(Platform.class)));
+        }
         return ResponseEntity.ok(profileService.updateProfile(userId));
     }
 
+    @GetMapping("/refresh-jobs/{jobId}")
+    public ResponseEntity<RefreshJobStatus> getRefreshJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(refreshJobService.status(jobId));
+    }
+
+    @GetMapping(value = "/refresh-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRefreshJob(@PathVariable String jobId) {
+        return refreshJobService.subscribe(jobId);
+    }
+
+    private static ResponseEntity<RefreshJobStatus> accepted(RefreshJobStatus job) {
+        return ResponseEntity.accepted().location(URI.create("/profiles/refresh-jobs/" + job.getJobId())).body(job);
+    }
+
+    // Batch/admin refresh: {"userIds": [...]}; handles are grouped per platform upstream
+    @PostMapping("/refresh/batch")
+    public ResponseEntity<BulkRefreshResult> refreshProfiles(@RequestBody Map<String, List<String>> request) {
+        return ResponseEntity.ok(bulkRefreshService.refresh(request.get("userIds")));
+    }
+
     @GetMapping("/{userId}/leetcode")
     public ResponseEntity<?> getLeetCodeStats(@PathVariable String userId) {
         try {
-            Profile profile = profileService.getProfile(userId);
+            Profile profile = profileService.getProfileWithoutStats(userId);
             if (profile == null) {
                 return ResponseEntity.notFound().build();
             }
@@ -199,7 +332,7 @@ public class ProfileController {
                     .body(Map.of("error", "LeetCode username not set"));
             }
 
-            return ResponseEntity.ok(leetCodeClient.getUserProfile(profile.getLeetcodeUsername()));
+            return ResponseEntity.ok(platformRefreshEngine.fetchStats(Platform.LEETCODE, profile.getLeetcodeUsername()));
         } catch (Exception e) {
             log.error("Error fetching LeetCode stats for user {}: {}", userId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -212,7 +345,7 @@ public class ProfileController {
         try {
             log.info("Fetching Codeforces stats for user ID: {}", userId);
             
-            Profile profile = profileService.getProfile(userId);
+            Profile profile = profileService.getProfileWithoutStats(userId);
             if (profile == null) {
                 log.error("Profile not found for user ID: {}", userId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -233,7 +366,7 @@ public class ProfileController {
             }
 
             log.info("Fetching Codeforces stats for username: {}", username);
-            PlatformStatsDTO stats = codeforcesClient.getUserProfile(username);
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.CODEFORCES, username);
             
             if (stats == null) {
                 log.error("Received null stats from Codeforces API for username: {}", username);
@@ -279,7 +412,7 @@ public class ProfileController {
     @GetMapping("/{userId}/codechef")
     public ResponseEntity<?> getCodeChefStats(@PathVariable String userId) {
         try {
-            Profile profile = profileService.getProfile(userId);
+            Profile profile = profileService.getProfileWithoutStats(userId);
             if (profile == null) {
                 return ResponseEntity.notFound().build();
             }
@@ -293,7 +426,7 @@ public class ProfileController {
                     ));
             }
 
-            PlatformStatsDTO stats = codeChefClient.getUserProfile(username);
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.CODECHEF, username);
             
             Map<String, Object> response = new HashMap<>();
             response.put("username", username);
@@ -330,7 +463,7 @@ public class ProfileController {
         try {
             log.info("Fetching GeeksForGeeks stats for user ID: {}", userId);
             
-            Profile profile = profileService.getProfile(userId);
+            Profile profile = profileService.getProfileWithoutStats(userId);
             if (profile == null) {
                 log.error("Profile not found for user ID: {}", userId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -409,7 +542,7 @@ public class ProfileController {
             String decodedUserId = URLDecoder.decode(userId, StandardCharsets.UTF_8.toString());
             log.info("Fetching GitHub stats for user ID: {}", decodedUserId);
             
-            Profile profile = profileService.getProfile(decodedUserId);
+            Profile profile = profileService.getProfileWithoutStats(decodedUserId);
             if (profile == null) {
                 log.error("Profile not found for user ID: {}", decodedUserId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -498,7 +631,7 @@ public class ProfileController {
     @GetMapping("/{userId}/atcoder")
     public ResponseEntity<?> getAtCoderStats(@PathVariable String userId) {
         try {
-            Profile profile = profileService.getProfile(userId);
+            Profile profile = profileService.getProfileWithoutStats(userId);
             if (profile == null) {
                 return ResponseEntity.notFound().build();
             }
@@ -558,7 +691,7 @@ public class ProfileController {
     public ResponseEntity<?> getGitHubProfile(@PathVariable String username) {
         try {
             log.info("Fetching GitHub profile for username: {}", username);
-            GitHubStatsDTO profile = gitHubClient.getUserProfile(username);
+            GitHubStatsDTO profile = platformRefreshEngine.fetchGitHub(username);
             return ResponseEntity.ok(profile);
         } catch (Exception e) {
             log.error("Error fetching GitHub profile for username: {}", username, e);
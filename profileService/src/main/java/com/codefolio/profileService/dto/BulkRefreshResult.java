@@ -0,0 +1,46 @@
+package com.codefolio.profileService.dto;
+
+import com.codefolio.profileService.model.Platform;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Outcome of a bulk refresh. upstreamRequests is what the batch actually sent per platform;
+// unbatchedRequests is what refreshing the same users one by one would have cost.
+public class BulkRefreshResult {
+    private final int requested;
+    private final List<String> refreshed = new ArrayList<>();
+    private final List<String> notFound = new ArrayList<>();
+    private final Map<String, String> failed = new LinkedHashMap<>();
+    private final Map<Platform, Integer> upstreamRequests = new EnumMap<>(Platform.class);
+    private final Map<Platform, Integer> unbatchedRequests = new EnumMap<>(Platform.class);
+    private final Map<Platform, Integer> unchangedHandles = new EnumMap<>(Platform.class);
+
+    public BulkRefreshResult(int requested) {
+        this.requested = requested;
+    }
+
+    // Probe retries add to it from completion threads
+    public synchronized void addRequests(Platform platform, int requests) {
+        upstreamRequests.merge(platform, requests, Integer::sum);
+    }
+
+    public void addUnbatchedRequests(Platform platform, int requests) {
+        unbatchedRequests.merge(platform, requests, Integer::sum);
+    }
+
+    public void addUnchanged(Platform platform) {
+        unchangedHandles.merge(platform, 1, Integer::sum);
+    }
+
+    public int getRequested() { return requested; }
+    public List<String> getRefreshed() { return refreshed; }
+    public List<String> getNotFound() { return notFound; }
+    public Map<String, String> getFailed() { return failed; }
+    public Map<Platform, Integer> getUpstreamRequests() { return upstreamRequests; }
+    public Map<Platform, Integer> getUnbatchedRequests() { return unbatchedRequests; }
+    public Map<Platform, Integer> getUnchangedHandles() { return unchangedHandles; }
+}
@@ -0,0 +1,21 @@
+package com.codefolio.profileService.dto;
+
+// The user.info fields that tell whether a full Codeforces refresh can find anything new
+public class CodeforcesUserInfoDTO {
+    private final String handle;
+    private final int rating;
+    private final int maxRating;
+    private final long lastOnlineTimeSeconds;
+
+    public CodeforcesUserInfoDTO(String handle, int rating, int maxRating, long lastOnlineTimeSeconds) {
+        this.handle = handle;
+        this.rating = rating;
+        this.maxRating = maxRating;
+        this.lastOnlineTimeSeconds = lastOnlineTimeSeconds;
+    }
+
+    public String getHandle() { return handle; }
+    public int getRating() { return rating; }
+    public int getMaxRating() { return maxRating; }
+    public long getLastOnlineTimeSeconds() { return lastOnlineTimeSeconds; }
+}
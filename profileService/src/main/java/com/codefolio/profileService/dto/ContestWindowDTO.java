@@ -0,0 +1,20 @@
+package com.codefolio.profileService.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// The fields of contestService's Contest that matter for refresh timing; times in epoch millis
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ContestWindowDTO {
+    private String platform;
+    private long startTime;
+    private long duration;
+
+    public String getPlatform() { return platform; }
+    public void setPlatform(String platform) { this.platform = platform; }
+
+    public long getStartTime() { return startTime; }
+    public void setStartTime(long startTime) { this.startTime = startTime; }
+
+    public long getDuration() { return duration; }
+    public void setDuration(long duration) { this.duration = duration; }
+}
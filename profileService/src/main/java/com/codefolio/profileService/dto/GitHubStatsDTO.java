@@ -1,9 +1,12 @@
 package com.codefolio.profileService.dto;
 
+import com.codefolio.profileService.model.SubmissionCalendar;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 
@@ -25,6 +28,22 @@ public class GitHubStatsDTO {
     private int issues;
     private int commits;
     private List<ContributionDay> contributionCalendar;
+    // More than MAX_REPO_PAGES pages of repositories: stars and languages cover only the first
+    // ones listed (and any cached from earlier), while publicRepos is still the full count
+    private boolean reposTruncated;
+
+    // The contribution calendar in the form the other platforms' calendars are stored in
+    public SubmissionCalendar toSubmissionCalendar() {
+        Map<Long, Integer> days = new HashMap<>();
+        if (contributionCalendar != null) {
+            for (ContributionDay day : contributionCalendar) {
+                if (day.getCount() > 0) {
+                    days.merge(LocalDate.parse(day.getDate()).toEpochDay(), day.getCount(), Integer::sum);
+                }
+            }
+        }
+        return SubmissionCalendar.of(SubmissionCalendar.KeyStyle.DATE, days);
+    }
 
     @Data
     @Builder
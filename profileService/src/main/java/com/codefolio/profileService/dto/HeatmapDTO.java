@@ -0,0 +1,34 @@
+package com.codefolio.profileService.dto;
+
+import java.time.LocalDate;
+
+// Submissions and contributions per day summed across every platform: counts[i] is the total
+// on firstDay + i. firstDay is null when nothing has been recorded yet.
+public class HeatmapDTO {
+    private final LocalDate firstDay;
+    private final LocalDate lastDay;
+    private final int[] counts;
+    private final int totalSubmissions;
+    private final int activeDays;
+    private final int currentStreak;
+    private final int maxStreak;
+
+    public HeatmapDTO(LocalDate firstDay, int[] counts, int totalSubmissions, int activeDays,
+                      int currentStreak, int maxStreak) {
+        this.firstDay = firstDay;
+        this.lastDay = firstDay != null ? firstDay.plusDays(counts.length - 1) : null;
+        this.counts = counts;
+        this.totalSubmissions = totalSubmissions;
+        this.activeDays = activeDays;
+        this.currentStreak = currentStreak;
+        this.maxStreak = maxStreak;
+    }
+
+    public LocalDate getFirstDay() { return firstDay; }
+    public LocalDate getLastDay() { return lastDay; }
+    public int[] getCounts() { return counts; }
+    public int getTotalSubmissions() { return totalSubmissions; }
+    public int getActiveDays() { return activeDays; }
+    public int getCurrentStreak() { return currentStreak; }
+    public int getMaxStreak() { return maxStreak; }
+}
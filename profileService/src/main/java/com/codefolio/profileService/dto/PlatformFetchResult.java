@@ -0,0 +1,65 @@
+package com.codefolio.profileService.dto;
+
+import com.codefolio.profileService.model.Platform;
+
+public class PlatformFetchResult {
+    private final Platform platform;
+    private final String handle;
+    private final PlatformStatsDTO stats;
+    private final GitHubStatsDTO gitHubStats;
+    private final String error;
+    private final boolean unchanged;
+    private final boolean handleError;
+    private final boolean backedOff;
+    private final long elapsedMillis;
+
+    private PlatformFetchResult(Platform platform, String handle, PlatformStatsDTO stats,
+                                GitHubStatsDTO gitHubStats, String error, boolean unchanged,
+                                boolean handleError, boolean backedOff, long elapsedMillis) {
+        this.platform = platform;
+        this.handle = handle;
+        this.stats = stats;
+        this.gitHubStats = gitHubStats;
+        this.error = error;
+        this.unchanged = unchanged;
+        this.handleError = handleError;
+        this.backedOff = backedOff;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static PlatformFetchResult success(Platform platform, String handle, PlatformStatsDTO stats, long elapsedMillis) {
+        return new PlatformFetchResult(platform, handle, stats, null, null, false, false, false, elapsedMillis);
+    }
+
+    public static PlatformFetchResult success(Platform platform, String handle, GitHubStatsDTO gitHubStats, long elapsedMillis) {
+        return new PlatformFetchResult(platform, handle, null, gitHubStats, null, false, false, false, elapsedMillis);
+    }
+
+    public static PlatformFetchResult failure(Platform platform, String handle, String error, long elapsedMillis) {
+        return new PlatformFetchResult(platform, handle, null, null, error, false, false, false, elapsedMillis);
+    }
+
+    // A cheap upstream probe showed nothing changed since the stored stats; carries no stats
+    public static PlatformFetchResult unchanged(Platform platform, String handle, long elapsedMillis) {
+        return new PlatformFetchResult(platform, handle, null, null, null, true, false, false, elapsedMillis);
+    }
+
+    // The upstream rejected the handle itself (unknown user, invalid name); backedOff means the
+    // negative cache answered and the upstream wasn't asked this time
+    public static PlatformFetchResult handleError(Platform platform, String handle, String error,
+                                                  boolean backedOff, long elapsedMillis) {
+        return new PlatformFetchResult(platform, handle, null, null, error, false, true, backedOff, elapsedMillis);
+    }
+
+    public boolean isSuccess() { return error == null; }
+    public boolean isUnchanged() { return unchanged; }
+    public boolean isHandleError() { return handleError; }
+    public boolean isBackedOff() { return backedOff; }
+
+    public Platform getPlatform() { return platform; }
+    public String getHandle() { return handle; }
+    public PlatformStatsDTO getStats() { return stats; }
+    public GitHubStatsDTO getGitHubStats() { return gitHubStats; }
+    public String getError() { return error; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
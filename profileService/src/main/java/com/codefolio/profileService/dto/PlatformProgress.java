@@ -0,0 +1,52 @@
+package com.codefolio.profileService.dto;
+
+import com.codefolio.profileService.model.Platform;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+// One platform's part of a refresh job. stats is the freshly fetched PlatformStatsDTO or
+// GitHubStatsDTO; it is null while pending, on failure, and when a probe showed no change.
+public class PlatformProgress {
+    public enum Status { PENDING, FETCHED, UNCHANGED, FAILED }
+
+    private final Platform platform;
+    private final String handle;
+    private final Status status;
+    private final Object stats;
+    private final String error;
+    private final long elapsedMillis;
+
+    @JsonCreator
+    private PlatformProgress(Platform platform, String handle, Status status, Object stats, String error, long elapsedMillis) {
+        this.platform = platform;
+        this.handle = handle;
+        this.status = status;
+        this.stats = stats;
+        this.error = error;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static PlatformProgress pending(Platform platform, String handle) {
+        return new PlatformProgress(platform, handle, Status.PENDING, null, null, 0);
+    }
+
+    public static PlatformProgress of(PlatformFetchResult result) {
+        if (!result.isSuccess()) {
+            return new PlatformProgress(result.getPlatform(), result.getHandle(), Status.FAILED, null,
+                result.getError(), result.getElapsedMillis());
+        }
+        if (result.isUnchanged()) {
+            return new PlatformProgress(result.getPlatform(), result.getHandle(), Status.UNCHANGED, null, null,
+                result.getElapsedMillis());
+        }
+        Object stats = result.getPlatform() == Platform.GITHUB ? result.getGitHubStats() : result.getStats();
+        return new PlatformProgress(result.getPlatform(), result.getHandle(), Status.FETCHED, stats, null,
+            result.getElapsedMillis());
+    }
+
+    public Platform getPlatform() { return platform; }
+    public String getHandle() { return handle; }
+    public Status getStatus() { return status; }
+    public Object getStats() { return stats; }
+    public String getError() { return error; }
+    public long getElapsedMillis() { return elapsedMillis; }
+}
@@ -1,6 +1,8 @@
 package com.codefolio.profileService.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
 import java.util.Map;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -14,6 +16,10 @@ public class PlatformStatsDTO {
     private Map<String, Integer> topicWiseSolved;
     private String submissionCalendar;
     private String awards;
+    // Every rated contest the platform reported, oldest first; recorded by RatingHistoryStore
+    // rather than returned with the stats
+    @JsonIgnore
+    private List<RatingPoint> ratingHistory;
 
     // Default constructor
     public PlatformStatsDTO() {}
@@ -51,4 +57,7 @@ public class PlatformStatsDTO {
 
     public String getAwards() { return awards; }
     public void setAwards(String awards) { this.awards = awards; }
+
+    public List<RatingPoint> getRatingHistory() { return ratingHistory; }
+    public void setRatingHistory(List<RatingPoint> ratingHistory) { this.ratingHistory = ratingHistory; }
 } 
\ No newline at end of file
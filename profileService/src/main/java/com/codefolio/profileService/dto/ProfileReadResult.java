@@ -0,0 +1,23 @@
+package com.codefolio.profileService.dto;
+
+import com.codefolio.profileService.model.Profile;
+
+public class ProfileReadResult {
+    private final Profile profile;
+    // Null when the profile has never been refreshed
+    private final Long ageSeconds;
+    private final boolean stale;
+    private final boolean refreshing;
+
+    public ProfileReadResult(Profile profile, Long ageSeconds, boolean stale, boolean refreshing) {
+        this.profile = profile;
+        this.ageSeconds = ageSeconds;
+        this.stale = stale;
+        this.refreshing = refreshing;
+    }
+
+    public Profile getProfile() { return profile; }
+    public Long getAgeSeconds() { return ageSeconds; }
+    public boolean isStale() { return stale; }
+    public boolean isRefreshing() { return refreshing; }
+}
@@ -0,0 +1,24 @@
+package com.codefolio.profileService.dto;
+
+import java.util.List;
+
+// A rating chart for one platform: points is the stored history in the requested range, thinned
+// to at most the requested number of points; totalPoints is how many the range held
+public class RatingHistoryDTO {
+    private final String platform;
+    private final String handle;
+    private final int totalPoints;
+    private final List<RatingPoint> points;
+
+    public RatingHistoryDTO(String platform, String handle, int totalPoints, List<RatingPoint> points) {
+        this.platform = platform;
+        this.handle = handle;
+        this.totalPoints = totalPoints;
+        this.points = points;
+    }
+
+    public String getPlatform() { return platform; }
+    public String getHandle() { return handle; }
+    public int getTotalPoints() { return totalPoints; }
+    public List<RatingPoint> getPoints() { return points; }
+}
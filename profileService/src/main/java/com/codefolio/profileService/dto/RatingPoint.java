@@ -0,0 +1,18 @@
+package com.codefolio.profileService.dto;
+
+// One rated contest: when the rating changed (epoch seconds), the rating after it, and the contest
+public class RatingPoint {
+    private final long time;
+    private final int rating;
+    private final String contest;
+
+    public RatingPoint(long time, int rating, String contest) {
+        this.time = time;
+        this.rating = rating;
+        this.contest = contest;
+    }
+
+    public long getTime() { return time; }
+    public int getRating() { return rating; }
+    public String getContest() { return contest; }
+}
@@ -0,0 +1,45 @@
+package com.codefolio.profileService.dto;
+
+import com.codefolio.profileService.model.Platform;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.codefolio.profileService.model.Profile;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Snapshot of a refresh job; profile is the saved result once the job has succeeded
+public class RefreshJobStatus {
+    public enum State { RUNNING, SUCCEEDED, FAILED }
+
+    private final String jobId;
+    private final String userId;
+    private final State state;
+    private final Map<Platform, PlatformProgress> platforms;
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime finishedAt;
+    private final String error;
+    private final Profile profile;
+
+    // Also how other instances read a job back from RefreshJobRelay
+    @JsonCreator
+    public RefreshJobStatus(String jobId, String userId, State state, Map<Platform, PlatformProgress> platforms,
+                            LocalDateTime submittedAt, LocalDateTime finishedAt, String error, Profile profile) {
+        this.jobId = jobId;
+        this.userId = userId;
+        this.state = state;
+        this.platforms = platforms;
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+        this.error = error;
+        this.profile = profile;
+    }
+
+    public String getJobId() { return jobId; }
+    public String getUserId() { return userId; }
+    public State getState() { return state; }
+    public Map<Platform, PlatformProgress> getPlatforms() { return platforms; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    public Profile getProfile() { return profile; }
+}
@@ -0,0 +1,83 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// Accepted-submission aggregates for one Codeforces handle, plus the id of the newest
+// submission already folded in. Refreshes only read user.status back to that mark.
+@Entity
+@Table(name = "codeforces_sync_state")
+public class CodeforcesSyncState {
+
+    @Id
+    private String handle;
+
+    private long lastSubmissionId;
+
+    private int totalSolved;
+
+    @ElementCollection
+    @CollectionTable(
+        name = "codeforces_sync_difficulty",
+        joinColumns = @JoinColumn(name = "handle")
+    )
+    @MapKeyColumn(name = "difficulty")
+    @Column(name = "count")
+    private Map<String, Integer> difficultyWiseSolved = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(
+        name = "codeforces_sync_topic",
+        joinColumns = @JoinColumn(name = "handle")
+    )
+    @MapKeyColumn(name = "topic")
+    @Column(name = "count")
+    private Map<String, Integer> topicWiseSolved = new HashMap<>();
+
+    @ElementCollection
+    @CollectionTable(
+        name = "codeforces_sync_calendar",
+        joinColumns = @JoinColumn(name = "handle")
+    )
+    @MapKeyColumn(name = "day")
+    @Column(name = "count")
+    private Map<String, Integer> submissionCalendar = new HashMap<>();
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    public CodeforcesSyncState() {}
+
+    public CodeforcesSyncState(String handle) {
+        this.handle = handle;
+    }
+
+    public String getHandle() { return handle; }
+    public void setHandle(String handle) { this.handle = handle; }
+
+    public long getLastSubmissionId() { return lastSubmissionId; }
+    public void setLastSubmissionId(long lastSubmissionId) { this.lastSubmissionId = lastSubmissionId; }
+
+    public int getTotalSolved() { return totalSolved; }
+    public void setTotalSolved(int totalSolved) { this.totalSolved = totalSolved; }
+
+    public Map<String, Integer> getDifficultyWiseSolved() { return difficultyWiseSolved; }
+    public void setDifficultyWiseSolved(Map<String, Integer> difficultyWiseSolved) {
+        this.difficultyWiseSolved = difficultyWiseSolved != null ? difficultyWiseSolved : new HashMap<>();
+    }
+
+    public Map<String, Integer> getTopicWiseSolved() { return topicWiseSolved; }
+    public void setTopicWiseSolved(Map<String, Integer> topicWiseSolved) {
+        this.topicWiseSolved = topicWiseSolved != null ? topicWiseSolved : new HashMap<>();
+    }
+
+    public Map<String, Integer> getSubmissionCalendar() { return submissionCalendar; }
+    public void setSubmissionCalendar(Map<String, Integer> submissionCalendar) {
+        this.submissionCalendar = submissionCalendar != null ? submissionCalendar : new HashMap<>();
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
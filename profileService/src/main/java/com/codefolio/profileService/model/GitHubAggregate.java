@@ -0,0 +1,64 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// Running totals over a login's cached repositories. Refreshes subtract a repository's old
+// numbers and add its new ones instead of summing every repository again.
+@Entity
+@Table(name = "github_aggregates")
+public class GitHubAggregate {
+
+    @Id
+    private String login;
+
+    private int totalStars;
+
+    @ElementCollection
+    @CollectionTable(
+        name = "github_aggregate_languages",
+        joinColumns = @JoinColumn(name = "login")
+    )
+    @MapKeyColumn(name = "language")
+    @Column(name = "bytes")
+    private Map<String, Long> languageBytes = new HashMap<>();
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    public GitHubAggregate() {}
+
+    public GitHubAggregate(String login) {
+        this.login = login;
+    }
+
+    public void add(GitHubRepoStats repo) {
+        totalStars += repo.getStargazers();
+        repo.getLanguageBytes().forEach((language, bytes) -> languageBytes.merge(language, bytes, Long::sum));
+    }
+
+    public void remove(GitHubRepoStats repo) {
+        totalStars -= repo.getStargazers();
+        repo.getLanguageBytes().forEach((language, bytes) -> {
+            if (languageBytes.merge(language, -bytes, Long::sum) <= 0) {
+                languageBytes.remove(language);
+            }
+        });
+    }
+
+    public String getLogin() { return login; }
+    public void setLogin(String login) { this.login = login; }
+
+    public int getTotalStars() { return totalStars; }
+    public void setTotalStars(int totalStars) { this.totalStars = totalStars; }
+
+    public Map<String, Long> getLanguageBytes() { return languageBytes; }
+    public void setLanguageBytes(Map<String, Long> languageBytes) {
+        this.languageBytes = languageBytes != null ? languageBytes : new HashMap<>();
+    }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,62 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+import java.util.HashMap;
+import java.util.Map;
+
+// Last seen star count and language sizes of one repository, so a refresh only re-reads
+// languages for repositories pushed to since then
+@Entity
+@Table(name = "github_repo_stats", uniqueConstraints = @UniqueConstraint(columnNames = {"login", "repo_id"}))
+public class GitHubRepoStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String login;
+
+    @Column(name = "repo_id", nullable = false)
+    private String repoId;
+
+    private String pushedAt;
+
+    private int stargazers;
+
+    @ElementCollection
+    @CollectionTable(
+        name = "github_repo_languages",
+        joinColumns = @JoinColumn(name = "repo_stats_id")
+    )
+    @MapKeyColumn(name = "language")
+    @Column(name = "bytes")
+    private Map<String, Long> languageBytes = new HashMap<>();
+
+    public GitHubRepoStats() {}
+
+    public GitHubRepoStats(String login, String repoId) {
+        this.login = login;
+        this.repoId = repoId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getLogin() { return login; }
+    public void setLogin(String login) { this.login = login; }
+
+    public String getRepoId() { return repoId; }
+    public void setRepoId(String repoId) { this.repoId = repoId; }
+
+    public String getPushedAt() { return pushedAt; }
+    public void setPushedAt(String pushedAt) { this.pushedAt = pushedAt; }
+
+    public int getStargazers() { return stargazers; }
+    public void setStargazers(int stargazers) { this.stargazers = stargazers; }
+
+    public Map<String, Long> getLanguageBytes() { return languageBytes; }
+    public void setLanguageBytes(Map<String, Long> languageBytes) {
+        this.languageBytes = languageBytes != null ? languageBytes : new HashMap<>();
+    }
+}
@@ -0,0 +1,97 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// How often refreshes of one (platform, handle) actually found changes, and the refresh interval
+// learned from that. Shared by every profile linking the handle. Also holds the handle's
+// negative-cache entry: consecutive lookup failures and when the upstream may be asked again.
+@Entity
+@Table(name = "handle_refresh_history", uniqueConstraints = @UniqueConstraint(columnNames = {"platform", "handle"}))
+public class HandleRefreshHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Platform platform;
+
+    // Trimmed and lower-cased
+    @Column(nullable = false, length = 100)
+    private String handle;
+
+    private int refreshes;
+    private int changes;
+
+    // Exponentially weighted share of refreshes that changed something
+    private double changeRate;
+
+    private long intervalMs;
+    private LocalDateTime lastCheckedAt;
+    private LocalDateTime lastChangedAt;
+    private LocalDateTime nextRefreshAt;
+
+    // Reset by the first successful lookup
+    private int consecutiveFailures;
+    private Integer lastErrorStatus;
+    @Column(length = 255)
+    private String lastError;
+    private LocalDateTime retryAfter;
+
+    @Version
+    private long version;
+
+    public HandleRefreshHistory() {}
+
+    public HandleRefreshHistory(Platform platform, String handle) {
+        this.platform = platform;
+        this.handle = handle;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Platform getPlatform() { return platform; }
+    public void setPlatform(Platform platform) { this.platform = platform; }
+
+    public String getHandle() { return handle; }
+    public void setHandle(String handle) { this.handle = handle; }
+
+    public int getRefreshes() { return refreshes; }
+    public void setRefreshes(int refreshes) { this.refreshes = refreshes; }
+
+    public int getChanges() { return changes; }
+    public void setChanges(int changes) { this.changes = changes; }
+
+    public double getChangeRate() { return changeRate; }
+    public void setChangeRate(double changeRate) { this.changeRate = changeRate; }
+
+    public long getIntervalMs() { return intervalMs; }
+    public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+
+    public LocalDateTime getLastCheckedAt() { return lastCheckedAt; }
+    public void setLastCheckedAt(LocalDateTime lastCheckedAt) { this.lastCheckedAt = lastCheckedAt; }
+
+    public LocalDateTime getLastChangedAt() { return lastChangedAt; }
+    public void setLastChangedAt(LocalDateTime lastChangedAt) { this.lastChangedAt = lastChangedAt; }
+
+    public LocalDateTime getNextRefreshAt() { return nextRefreshAt; }
+    public void setNextRefreshAt(LocalDateTime nextRefreshAt) { this.nextRefreshAt = nextRefreshAt; }
+
+    public int getConsecutiveFailures() { return consecutiveFailures; }
+    public void setConsecutiveFailures(int consecutiveFailures) { this.consecutiveFailures = consecutiveFailures; }
+
+    public Integer getLastErrorStatus() { return lastErrorStatus; }
+    public void setLastErrorStatus(Integer lastErrorStatus) { this.lastErrorStatus = lastErrorStatus; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getRetryAfter() { return retryAfter; }
+    public void setRetryAfter(LocalDateTime retryAfter) { this.retryAfter = retryAfter; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
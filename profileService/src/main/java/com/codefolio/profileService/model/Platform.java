@@ -0,0 +1,109 @@
+package com.codefolio.profileService.model;
+
+import java.time.LocalDateTime;
+
+public enum Platform {
+    LEETCODE("LeetCode", 1, "leetcode.com"),
+    CODEFORCES("CodeForces", 3, "codeforces.com"),
+    CODECHEF("CodeChef", 1, "codechef-api.vercel.app"),
+    ATCODER("AtCoder", 2, "atcoder.jp"),
+    GEEKSFORGEEKS("GeeksForGeeks", 1, "geeks-for-geeks-api.vercel.app"),
+    GITHUB("GitHub", 1, "api.github.com");
+
+    private final String displayName;
+    private final int requestsPerFetch;
+    private final String apiHost;
+
+    Platform(String displayName, int requestsPerFetch, String apiHost) {
+        this.displayName = displayName;
+        this.requestsPerFetch = requestsPerFetch;
+        this.apiHost = apiHost;
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    // Upstream calls one profile fetch makes at least; used to reserve rate-limit tokens up front.
+    // Clients that page (Codeforces user.status, GitHub repositories) take a token for each call
+    // past these.
+    public int getRequestsPerFetch() { return requestsPerFetch; }
+
+    public String getApiHost() { return apiHost; }
+
+    public static Platform forHost(String host) {
+        if (host == null) return null;
+        for (Platform platform : values()) {
+            if (host.equalsIgnoreCase(platform.apiHost) || host.toLowerCase().endsWith("." + platform.apiHost)) {
+                return platform;
+            }
+        }
+        return null;
+    }
+
+    public String usernameOf(Profile profile) {
+        switch (this) {
+            case LEETCODE: return profile.getLeetcodeUsername();
+            case CODEFORCES: return profile.getCodeforcesUsername();
+            case CODECHEF: return profile.getCodechefUsername();
+            case ATCODER: return profile.getAtcoderUsername();
+            case GEEKSFORGEEKS: return profile.getGeeksforgeeksUsername();
+            case GITHUB: return profile.getGithubUsername();
+            default: return null;
+        }
+    }
+
+    // GitHub stats live directly on the profile, so it has no PlatformStats block
+    public PlatformStats statsOf(Profile profile) {
+        switch (this) {
+            case LEETCODE: return profile.getLeetcodeStats();
+            case CODEFORCES: return profile.getCodeforcesStats();
+            case CODECHEF: return profile.getCodechefStats();
+            case ATCODER: return profile.getAtcoderStats();
+            case GEEKSFORGEEKS: return profile.getGeeksforgeeksStats();
+            default: return null;
+        }
+    }
+
+    public void attachStats(Profile profile, PlatformStats stats) {
+        switch (this) {
+            case LEETCODE: profile.setLeetcodeStats(stats); break;
+            case CODEFORCES: profile.setCodeforcesStats(stats); break;
+            case CODECHEF: profile.setCodechefStats(stats); break;
+            case ATCODER: profile.setAtcoderStats(stats); break;
+            case GEEKSFORGEEKS: profile.setGeeksforgeeksStats(stats); break;
+            default: break;
+        }
+    }
+
+    public boolean hasStats() {
+        return this != GITHUB;
+    }
+
+    // Flags the persisted stats as last-known-good rather than freshly fetched
+    public void markStale(Profile profile) {
+        String username = usernameOf(profile);
+        if (username == null || username.trim().isEmpty()) {
+            return;
+        }
+        if (this == GITHUB) {
+            profile.setGithubStale(true);
+        } else if (statsOf(profile) != null) {
+            statsOf(profile).setStale(true);
+        }
+    }
+
+    // Records why the linked handle failed upstream; null clears it. The first failure's time
+    // is kept while the same handle keeps failing.
+    public void recordHandleError(Profile profile, String error) {
+        LocalDateTime now = error == null ? null : LocalDateTime.now();
+        if (this == GITHUB) {
+            LocalDateTime since = profile.getGithubHandleErrorSince();
+            profile.setGithubHandleError(error);
+            profile.setGithubHandleErrorSince(error == null ? null : since != null ? since : now);
+        } else if (statsOf(profile) != null) {
+            PlatformStats stats = statsOf(profile);
+            LocalDateTime since = stats.getHandleErrorSince();
+            stats.setHandleError(error);
+            stats.setHandleErrorSince(error == null ? null : since != null ? since : now);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+
+// One platform's submission calendar for a profile, stored in the compact SubmissionCalendar
+// encoding instead of a JSON TEXT column on the profiles row
+@Entity
+@Table(name = "platform_calendars", uniqueConstraints = @UniqueConstraint(columnNames = {"profile_id", "platform"}))
+public class PlatformCalendar {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "profile_id", nullable = false)
+    private Long profileId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Platform platform;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB")
+    private byte[] data;
+
+    private int activeDays;
+
+    @Version
+    private long version;
+
+    public PlatformCalendar() {}
+
+    public PlatformCalendar(Long profileId, Platform platform) {
+        this.profileId = profileId;
+        this.platform = platform;
+    }
+
+    public SubmissionCalendar getCalendar() {
+        return SubmissionCalendar.decode(data);
+    }
+
+    public void setCalendar(SubmissionCalendar calendar) {
+        this.data = calendar.encode();
+        this.activeDays = calendar.activeDays();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProfileId() { return profileId; }
+    public void setProfileId(Long profileId) { this.profileId = profileId; }
+
+    public Platform getPlatform() { return platform; }
+    public void setPlatform(Platform platform) { this.platform = platform; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+
+    public int getActiveDays() { return activeDays; }
+    public void setActiveDays(int activeDays) { this.activeDays = activeDays; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
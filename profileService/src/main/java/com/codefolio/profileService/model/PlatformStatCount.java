@@ -0,0 +1,54 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+
+// One (profile, platform, category, key) solved count, e.g. LeetCode / TOPIC / "Dynamic Programming".
+// Replaces the difficulty_wise_solved and topic_wise_solved element collections, which every
+// platform shared by profile_id alone. Rows are written in batches by PlatformStatCountStore.
+@Entity
+@Table(name = "platform_stat_counts",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"profile_id", "platform", "category", "stat_key"}),
+    indexes = @Index(columnList = "profile_id, platform"))
+public class PlatformStatCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "profile_id", nullable = false)
+    private Long profileId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Platform platform;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 12)
+    private StatCategory category;
+
+    @Column(name = "stat_key", nullable = false)
+    private String key;
+
+    @Column(nullable = false)
+    private int solved;
+
+    public PlatformStatCount() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProfileId() { return profileId; }
+    public void setProfileId(Long profileId) { this.profileId = profileId; }
+
+    public Platform getPlatform() { return platform; }
+    public void setPlatform(Platform platform) { this.platform = platform; }
+
+    public StatCategory getCategory() { return category; }
+    public void setCategory(StatCategory category) { this.category = category; }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public int getSolved() { return solved; }
+    public void setSolved(int solved) { this.solved = solved; }
+}
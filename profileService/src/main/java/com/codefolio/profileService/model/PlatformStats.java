@@ -4,49 +4,111 @@ import javax.persistence.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.DynamicUpdate;
 
-@Embeddable
+// One platform's stats for a profile, in its own row so a single-platform refresh updates
+// only that row, and only the columns that changed
+@Entity
+@Table(name = "platform_stats", uniqueConstraints = @UniqueConstraint(columnNames = {"profile_id", "platform"}))
+@DynamicUpdate
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class PlatformStats implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "profile_id", nullable = false)
+    private Long profileId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Platform platform;
+
     private Integer totalQuestions = 0;
     private Integer totalActiveDays = 0;
     private Integer totalContests = 0;
     private Integer rating = 0;
     private Integer contestRanking = 0;
 
-    @ElementCollection
-    @CollectionTable(
-        name = "difficulty_wise_solved",
-        joinColumns = @JoinColumn(name = "profile_id")
-    )
-    @MapKeyColumn(name = "difficulty")
-    @Column(name = "count")
-    private Map<String, Integer> difficultyWiseSolved = new HashMap<>();
-
-    @ElementCollection
-    @CollectionTable(
-        name = "topic_wise_solved",
-        joinColumns = @JoinColumn(name = "profile_id")
-    )
-    @MapKeyColumn(name = "topic")
-    @Column(name = "count")
-    private Map<String, Integer> topicWiseSolved = new HashMap<>();
+    // Rows of platform_stat_counts, loaded per platform by ProfileStore. Null means not loaded
+    // (or not touched by an update), so nothing is written for that category.
+    @Transient
+    private Map<String, Integer> difficultyWiseSolved;
 
-    @Column(columnDefinition = "TEXT")
+    @Transient
+    private Map<String, Integer> topicWiseSolved;
+
+    // JSON view of the platform_calendars row; ProfileStore loads and writes it
+    @Transient
     private String submissionCalendar;
 
     @Column(columnDefinition = "TEXT")
     private String awards;
 
+    // Set on responses served from the database while the platform is unreachable
+    @Transient
+    private boolean stale;
+
+    // StatsFingerprint of what was last written, and when the platform was last re-fetched
+    @Column(length = 32)
+    private String fingerprint;
+
+    private LocalDateTime checkedAt;
+
+    // Why the linked handle keeps failing upstream (unknown user, rejected name) and since when;
+    // cleared by the next successful refresh
+    @Column(length = 255)
+    private String handleError;
+
+    private LocalDateTime handleErrorSince;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     // Default constructor
-    public PlatformStats() {
-        this.difficultyWiseSolved = new HashMap<>();
-        this.topicWiseSolved = new HashMap<>();
+    public PlatformStats() {}
+
+    public PlatformStats(Long profileId, Platform platform) {
+        this.profileId = profileId;
+        this.platform = platform;
     }
 
+    @JsonIgnore
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    @JsonIgnore
+    public Long getProfileId() { return profileId; }
+    public void setProfileId(Long profileId) { this.profileId = profileId; }
+
+    @JsonIgnore
+    public Platform getPlatform() { return platform; }
+    public void setPlatform(Platform platform) { this.platform = platform; }
+
+    @JsonIgnore
+    public String getFingerprint() { return fingerprint; }
+    public void setFingerprint(String fingerprint) { this.fingerprint = fingerprint; }
+
+    @JsonIgnore
+    public LocalDateTime getCheckedAt() { return checkedAt; }
+    public void setCheckedAt(LocalDateTime checkedAt) { this.checkedAt = checkedAt; }
+
+    public String getHandleError() { return handleError; }
+    public void setHandleError(String handleError) { this.handleError = handleError; }
+
+    public LocalDateTime getHandleErrorSince() { return handleErrorSince; }
+    public void setHandleErrorSince(LocalDateTime handleErrorSince) { this.handleErrorSince = handleErrorSince; }
+
+    @JsonIgnore
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     // Getters and Setters
     public Integer getTotalQuestions() { return totalQuestions; }
     public void setTotalQuestions(Integer totalQuestions) { this.totalQuestions = totalQuestions; }
@@ -77,6 +139,20 @@ public class PlatformStats implements Serializable {
         this.topicWiseSolved = topicWiseSolved != null ? topicWiseSolved : new HashMap<>(); 
     }
 
+    // The map as held, or null if it was never loaded or set
+    @JsonIgnore
+    public Map<String, Integer> getCounts(StatCategory category) {
+        return category == StatCategory.DIFFICULTY ? difficultyWiseSolved : topicWiseSolved;
+    }
+
+    public void setCounts(StatCategory category, Map<String, Integer> counts) {
+        if (category == StatCategory.DIFFICULTY) {
+            difficultyWiseSolved = counts;
+        } else {
+            topicWiseSolved = counts;
+        }
+    }
+
     public String getSubmissionCalendar() { return submissionCalendar; }
     public void setSubmissionCalendar(String submissionCalendar) { 
         this.submissionCalendar = submissionCalendar; 
@@ -84,4 +160,7 @@ public class PlatformStats implements Serializable {
 
     public String getAwards() { return awards; }
     public void setAwards(String awards) { this.awards = awards; }
+
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
 } 
\ No newline at end of file
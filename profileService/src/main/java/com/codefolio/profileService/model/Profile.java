@@ -3,10 +3,13 @@ package com.codefolio.profileService.model;
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "profiles")
+@Table(name = "profiles", indexes = @Index(name = "idx_profiles_next_refresh", columnList = "nextRefreshAt"))
+@DynamicUpdate
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Profile implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -32,65 +35,21 @@ public class Profile implements Serializable {
     private String geeksforgeeksUsername;
     private String githubUsername;
 
-    // Platform statistics
-    @Embedded
-    @AttributeOverrides({
-        @AttributeOverride(name = "totalQuestions", column = @Column(name = "leetcode_total_questions")),
-        @AttributeOverride(name = "totalActiveDays", column = @Column(name = "leetcode_active_days")),
-        @AttributeOverride(name = "totalContests", column = @Column(name = "leetcode_total_contests")),
-        @AttributeOverride(name = "rating", column = @Column(name = "leetcode_rating")),
-        @AttributeOverride(name = "contestRanking", column = @Column(name = "leetcode_contest_ranking")),
-        @AttributeOverride(name = "submissionCalendar", column = @Column(name = "leetcode_submission_calendar", columnDefinition = "TEXT")),
-        @AttributeOverride(name = "awards", column = @Column(name = "leetcode_awards", columnDefinition = "TEXT"))
-    })
+    // Platform statistics live in platform_stats, one row per platform; ProfileStore attaches
+    // them as needed
+    @Transient
     private PlatformStats leetcodeStats = new PlatformStats();
 
-    @Embedded
-    @AttributeOverrides({
-        @AttributeOverride(name = "totalQuestions", column = @Column(name = "codeforces_total_questions")),
-        @AttributeOverride(name = "totalActiveDays", column = @Column(name = "codeforces_active_days")),
-        @AttributeOverride(name = "totalContests", column = @Column(name = "codeforces_total_contests")),
-        @AttributeOverride(name = "rating", column = @Column(name = "codeforces_rating")),
-        @AttributeOverride(name = "contestRanking", column = @Column(name = "codeforces_contest_ranking")),
-        @AttributeOverride(name = "submissionCalendar", column = @Column(name = "codeforces_submission_calendar", columnDefinition = "TEXT")),
-        @AttributeOverride(name = "awards", column = @Column(name = "codeforces_awards", columnDefinition = "TEXT"))
-    })
+    @Transient
     private PlatformStats codeforcesStats = new PlatformStats();
 
-    @Embedded
-    @AttributeOverrides({
-        @AttributeOverride(name = "totalQuestions", column = @Column(name = "codechef_total_questions")),
-        @AttributeOverride(name = "totalActiveDays", column = @Column(name = "codechef_active_days")),
-        @AttributeOverride(name = "totalContests", column = @Column(name = "codechef_total_contests")),
-        @AttributeOverride(name = "rating", column = @Column(name = "codechef_rating")),
-        @AttributeOverride(name = "contestRanking", column = @Column(name = "codechef_contest_ranking")),
-        @AttributeOverride(name = "submissionCalendar", column = @Column(name = "codechef_submission_calendar", columnDefinition = "TEXT")),
-        @AttributeOverride(name = "awards", column = @Column(name = "codechef_awards", columnDefinition = "TEXT"))
-    })
+    @Transient
     private PlatformStats codechefStats = new PlatformStats();
 
-    @Embedded
-    @AttributeOverrides({
-        @AttributeOverride(name = "totalQuestions", column = @Column(name = "atcoder_total_questions")),
-        @AttributeOverride(name = "totalActiveDays", column = @Column(name = "atcoder_active_days")),
-        @AttributeOverride(name = "totalContests", column = @Column(name = "atcoder_total_contests")),
-        @AttributeOverride(name = "rating", column = @Column(name = "atcoder_rating")),
-        @AttributeOverride(name = "contestRanking", column = @Column(name = "atcoder_contest_ranking")),
-        @AttributeOverride(name = "submissionCalendar", column = @Column(name = "atcoder_submission_calendar", columnDefinition = "TEXT")),
-        @AttributeOverride(name = "awards", column = @Column(name = "atcoder_awards", columnDefinition = "TEXT"))
-    })
+    @Transient
     private PlatformStats atcoderStats = new PlatformStats();
 
-    @Embedded
-    @AttributeOverrides({
-        @AttributeOverride(name = "totalQuestions", column = @Column(name = "geeksforgeeks_total_questions")),
-        @AttributeOverride(name = "totalActiveDays", column = @Column(name = "geeksforgeeks_active_days")),
-        @AttributeOverride(name = "totalContests", column = @Column(name = "geeksforgeeks_total_contests")),
-        @AttributeOverride(name = "rating", column = @Column(name = "geeksforgeeks_rating")),
-        @AttributeOverride(name = "contestRanking", column = @Column(name = "geeksforgeeks_contest_ranking")),
-        @AttributeOverride(name = "submissionCalendar", column = @Column(name = "geeksforgeeks_submission_calendar", columnDefinition = "TEXT")),
-        @AttributeOverride(name = "awards", column = @Column(name = "geeksforgeeks_awards", columnDefinition = "TEXT"))
-    })
+    @Transient
     private PlatformStats geeksforgeeksStats = new PlatformStats();
 
     // GitHub stats
@@ -98,19 +57,45 @@ public class Profile implements Serializable {
     private Integer githubStars;
     private Integer githubFollowers;
     private Integer githubFollowing;
+    @Transient
+    private boolean githubStale;
+    @Column(length = 32)
+    private String githubFingerprint;
+    @Column(length = 255)
+    private String githubHandleError;
+    private LocalDateTime githubHandleErrorSince;
+    // GitHub's contribution calendar as JSON, for ProfileStore to write to platform_calendars;
+    // null means unchanged. It is only written, never loaded back onto the profile.
+    @Transient
+    @JsonIgnore
+    private String githubCalendar;
 
     private LocalDateTime lastUpdated;
 
+    // Last refresh, including ones that found nothing new and skipped the write
+    private LocalDateTime lastChecked;
+
+    // Last API read (written at most every few minutes) and the background scheduler's claim;
+    // neither is part of the served profile
+    private LocalDateTime lastViewed;
+    private LocalDateTime refreshLeaseUntil;
+
+    // When the background scheduler next needs to look at the profile: the earliest its linked
+    // platforms come due, as of its last scan. Null until first scanned.
+    private LocalDateTime nextRefreshAt;
+
+    // Optimistic lock: refreshes write in short transactions and re-apply on conflict
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    // Set on insert only; writes that change stats set lastUpdated themselves, so bookkeeping
+    // writes (lastChecked, handle errors, refresh scheduling) leave it alone
     @PrePersist
     protected void onCreate() {
         lastUpdated = LocalDateTime.now();
     }
 
-    @PreUpdate
-    protected void onUpdate() {
-        lastUpdated = LocalDateTime.now();
-    }
-
     public Profile() {}
 
     public Profile(String userId, String email, String name) {
@@ -202,6 +187,40 @@ public class Profile implements Serializable {
         this.githubFollowing = githubFollowing;
     }
 
+    public boolean isGithubStale() { return githubStale; }
+    public void setGithubStale(boolean githubStale) { this.githubStale = githubStale; }
+
+    @JsonIgnore
+    public String getGithubFingerprint() { return githubFingerprint; }
+    public void setGithubFingerprint(String githubFingerprint) { this.githubFingerprint = githubFingerprint; }
+
+    public String getGithubHandleError() { return githubHandleError; }
+    public void setGithubHandleError(String githubHandleError) { this.githubHandleError = githubHandleError; }
+
+    public LocalDateTime getGithubHandleErrorSince() { return githubHandleErrorSince; }
+    public void setGithubHandleErrorSince(LocalDateTime githubHandleErrorSince) { this.githubHandleErrorSince = githubHandleErrorSince; }
+
+    public String getGithubCalendar() { return githubCalendar; }
+    public void setGithubCalendar(String githubCalendar) { this.githubCalendar = githubCalendar; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     public LocalDateTime getLastUpdated() { return lastUpdated; }
     public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
+
+    public LocalDateTime getLastChecked() { return lastChecked; }
+    public void setLastChecked(LocalDateTime lastChecked) { this.lastChecked = lastChecked; }
+
+    @JsonIgnore
+    public LocalDateTime getLastViewed() { return lastViewed; }
+    public void setLastViewed(LocalDateTime lastViewed) { this.lastViewed = lastViewed; }
+
+    @JsonIgnore
+    public LocalDateTime getRefreshLeaseUntil() { return refreshLeaseUntil; }
+    public void setRefreshLeaseUntil(LocalDateTime refreshLeaseUntil) { this.refreshLeaseUntil = refreshLeaseUntil; }
+
+    @JsonIgnore
+    public LocalDateTime getNextRefreshAt() { return nextRefreshAt; }
+    public void setNextRefreshAt(LocalDateTime nextRefreshAt) { this.nextRefreshAt = nextRefreshAt; }
 } 
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Every platform's calendar summed into one, kept up to date by ProfileStore as each platform's
+// calendar is written. The totals and streaks are worked out once per write so a heatmap read
+// only decodes the counts. The current streak depends on the day it is read: it is the trailing
+// streak while lastActiveDay is today or yesterday, otherwise zero.
+@Entity
+@Table(name = "profile_heatmaps")
+public class ProfileHeatmap {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "profile_id", nullable = false, unique = true)
+    private Long profileId;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB")
+    private byte[] data;
+
+    private int totalSubmissions;
+    private int activeDays;
+    private int maxStreak;
+    private int trailingStreak;
+    private LocalDate lastActiveDay;
+    private LocalDateTime updatedAt;
+
+    @Version
+    private long version;
+
+    public ProfileHeatmap() {}
+
+    public ProfileHeatmap(Long profileId) {
+        this.profileId = profileId;
+    }
+
+    public SubmissionCalendar getCalendar() {
+        return SubmissionCalendar.decode(data);
+    }
+
+    public void setCalendar(SubmissionCalendar calendar) {
+        this.data = calendar.encode();
+        this.totalSubmissions = calendar.totalSubmissions();
+        this.activeDays = calendar.activeDays();
+        this.maxStreak = calendar.maxStreak();
+        this.trailingStreak = calendar.trailingStreak();
+        this.lastActiveDay = calendar.lastActiveDay();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public int currentStreak(LocalDate today) {
+        return lastActiveDay != null && !lastActiveDay.isBefore(today.minusDays(1)) ? trailingStreak : 0;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProfileId() { return profileId; }
+    public void setProfileId(Long profileId) { this.profileId = profileId; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+
+    public int getTotalSubmissions() { return totalSubmissions; }
+    public void setTotalSubmissions(int totalSubmissions) { this.totalSubmissions = totalSubmissions; }
+
+    public int getActiveDays() { return activeDays; }
+    public void setActiveDays(int activeDays) { this.activeDays = activeDays; }
+
+    public int getMaxStreak() { return maxStreak; }
+    public void setMaxStreak(int maxStreak) { this.maxStreak = maxStreak; }
+
+    public int getTrailingStreak() { return trailingStreak; }
+    public void setTrailingStreak(int trailingStreak) { this.trailingStreak = trailingStreak; }
+
+    public LocalDate getLastActiveDay() { return lastActiveDay; }
+    public void setLastActiveDay(LocalDate lastActiveDay) { this.lastActiveDay = lastActiveDay; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,60 @@
+package com.codefolio.profileService.model;
+
+import javax.persistence.*;
+
+// One point of a (platform, handle)'s rating history. Shared by every profile linking the
+// handle; appended to as refreshes report newer contests, never rewritten.
+@Entity
+@Table(name = "rating_history",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"platform", "handle", "rated_at"}))
+public class RatingHistoryEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Platform platform;
+
+    // Trimmed and lower-cased
+    @Column(nullable = false, length = 100)
+    private String handle;
+
+    // Epoch seconds
+    @Column(name = "rated_at", nullable = false)
+    private long ratedAt;
+
+    private int rating;
+
+    @Column(length = 255)
+    private String contest;
+
+    public RatingHistoryEntry() {}
+
+    public RatingHistoryEntry(Platform platform, String handle, long ratedAt, int rating, String contest) {
+        this.platform = platform;
+        this.handle = handle;
+        this.ratedAt = ratedAt;
+        this.rating = rating;
+        this.contest = contest;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Platform getPlatform() { return platform; }
+    public void setPlatform(Platform platform) { this.platform = platform; }
+
+    public String getHandle() { return handle; }
+    public void setHandle(String handle) { this.handle = handle; }
+
+    public long getRatedAt() { return ratedAt; }
+    public void setRatedAt(long ratedAt) { this.ratedAt = ratedAt; }
+
+    public int getRating() { return rating; }
+    public void setRating(int rating) { this.rating = rating; }
+
+    public String getContest() { return contest; }
+    public void setContest(String contest) { this.contest = contest; }
+}
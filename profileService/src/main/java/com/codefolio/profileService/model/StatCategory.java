@@ -0,0 +1,7 @@
+package com.codefolio.profileService.model;
+
+// Which per-key breakdown of a platform's solved problems a stat count belongs to
+public enum StatCategory {
+    DIFFICULTY,
+    TOPIC
+}
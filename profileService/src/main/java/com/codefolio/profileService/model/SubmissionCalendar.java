@@ -0,0 +1,318 @@
+package com.codefolio.profileService.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Day-indexed submission counts: the epoch day of the first entry plus one count per day after
+// it. Platforms hand us calendars as JSON objects keyed either by date ("2024-03-01") or by the
+// epoch second of UTC midnight (LeetCode); the key style is kept so toJson() gives back what the
+// platform sent. Binary layout: style byte, zig-zag varint first day, varint day count, then one
+// varint per day, so an idle day costs a single byte.
+public final class SubmissionCalendar {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    public enum KeyStyle { DATE, EPOCH_SECONDS }
+
+    private final KeyStyle keyStyle;
+    private final long firstDay;
+    private final int[] counts;
+
+    private SubmissionCalendar(KeyStyle keyStyle, long firstDay, int[] counts) {
+        this.keyStyle = keyStyle;
+        this.firstDay = firstDay;
+        this.counts = counts;
+    }
+
+    public static SubmissionCalendar empty(KeyStyle keyStyle) {
+        return new SubmissionCalendar(keyStyle, 0, new int[0]);
+    }
+
+    public static SubmissionCalendar of(KeyStyle keyStyle, Map<Long, Integer> countsByEpochDay) {
+        if (countsByEpochDay.isEmpty()) {
+            return empty(keyStyle);
+        }
+        TreeMap<Long, Integer> sorted = new TreeMap<>(countsByEpochDay);
+        long first = sorted.firstKey();
+        int[] counts = new int[Math.toIntExact(sorted.lastKey() - first + 1)];
+        sorted.forEach((day, count) -> counts[(int) (day - first)] += Math.max(0, count));
+        return new SubmissionCalendar(keyStyle, first, counts);
+    }
+
+    // Returns null for a missing or blank calendar; keys that are neither style are skipped
+    public static SubmissionCalendar fromJson(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return null;
+        }
+        KeyStyle style = null;
+        Map<Long, Integer> days = new TreeMap<>();
+        try (JsonParser parser = JSON.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.getCurrentName();
+                parser.nextToken();
+                int count = parser.getValueAsInt(0);
+                parser.skipChildren();
+                KeyStyle keyStyle = styleOf(key);
+                Long day = keyStyle != null ? epochDay(key, keyStyle) : null;
+                if (day == null || count <= 0) {
+                    continue;
+                }
+                if (style == null) {
+                    style = keyStyle;
+                }
+                days.merge(day, count, Integer::sum);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return of(style != null ? style : KeyStyle.DATE, days);
+    }
+
+    public String toJson() {
+        StringWriter out = new StringWriter(counts.length * 8 + 2);
+        try (JsonGenerator generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    generator.writeNumberField(keyFor(firstDay + i), counts[i]);
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(counts.length + 8);
+        out.write(keyStyle.ordinal());
+        writeVarLong(out, (firstDay << 1) ^ (firstDay >> 63));
+        writeVarLong(out, counts.length);
+        for (int count : counts) {
+            writeVarLong(out, count);
+        }
+        return out.toByteArray();
+    }
+
+    public static SubmissionCalendar decode(byte[] data) {
+        int[] position = {0};
+        KeyStyle style = KeyStyle.values()[data[position[0]++]];
+        long zigzag = readVarLong(data, position);
+        long firstDay = (zigzag >>> 1) ^ -(zigzag & 1);
+        int[] counts = new int[(int) readVarLong(data, position)];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (int) readVarLong(data, position);
+        }
+        return new SubmissionCalendar(style, firstDay, counts);
+    }
+
+    // Sum of both calendars by day; keeps this calendar's key style
+    public SubmissionCalendar merge(SubmissionCalendar other) {
+        if (other == null || other.counts.length == 0) {
+            return this;
+        }
+        if (counts.length == 0) {
+            return new SubmissionCalendar(keyStyle, other.firstDay, other.counts.clone());
+        }
+        long first = Math.min(firstDay, other.firstDay);
+        long last = Math.max(lastDay(), other.lastDay());
+        int[] merged = new int[Math.toIntExact(last - first + 1)];
+        addInto(merged, first);
+        other.addInto(merged, first);
+        return new SubmissionCalendar(keyStyle, first, merged);
+    }
+
+    // Day-by-day difference, floored at zero and trimmed to the days still active; used to take
+    // a platform's old calendar back out of a merged one
+    public SubmissionCalendar subtract(SubmissionCalendar other) {
+        if (other == null || other.counts.length == 0 || counts.length == 0) {
+            return this;
+        }
+        int[] remaining = counts.clone();
+        long from = Math.max(firstDay, other.firstDay);
+        long to = Math.min(lastDay(), other.lastDay());
+        for (long day = from; day <= to; day++) {
+            int i = (int) (day - firstDay);
+            remaining[i] = Math.max(0, remaining[i] - other.counts[(int) (day - other.firstDay)]);
+        }
+        int start = 0;
+        int end = remaining.length;
+        while (start < end && remaining[start] == 0) start++;
+        while (end > start && remaining[end - 1] == 0) end--;
+        return new SubmissionCalendar(keyStyle, end > start ? firstDay + start : 0, Arrays.copyOfRange(remaining, start, end));
+    }
+
+    public int countOn(LocalDate date) {
+        long index = date.toEpochDay() - firstDay;
+        return index >= 0 && index < counts.length ? counts[(int) index] : 0;
+    }
+
+    public int activeDays() {
+        int active = 0;
+        for (int count : counts) {
+            if (count > 0) active++;
+        }
+        return active;
+    }
+
+    public int totalSubmissions() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public int maxStreak() {
+        int best = 0;
+        int run = 0;
+        for (int count : counts) {
+            run = count > 0 ? run + 1 : 0;
+            best = Math.max(best, run);
+        }
+        return best;
+    }
+
+    // A streak still counts as current if the last active day was today or yesterday
+    public int currentStreak(LocalDate today) {
+        long index = today.toEpochDay() - firstDay;
+        if (index >= counts.length) {
+            index = counts.length - 1;
+            if (today.toEpochDay() - lastDay() > 1) {
+                return 0;
+            }
+        } else if (index >= 0 && counts[(int) index] == 0) {
+            index--;
+        }
+        int streak = 0;
+        for (long i = index; i >= 0 && counts[(int) i] > 0; i--) {
+            streak++;
+        }
+        return streak;
+    }
+
+    // Length of the run of active days ending at the last active day
+    public int trailingStreak() {
+        int i = counts.length - 1;
+        while (i >= 0 && counts[i] == 0) i--;
+        int streak = 0;
+        for (; i >= 0 && counts[i] > 0; i--) {
+            streak++;
+        }
+        return streak;
+    }
+
+    public LocalDate lastActiveDay() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return LocalDate.ofEpochDay(firstDay + i);
+            }
+        }
+        return null;
+    }
+
+    // Per-day counts from getFirstDay(), one per day; a copy
+    public int[] counts() {
+        return counts.clone();
+    }
+
+    public KeyStyle getKeyStyle() { return keyStyle; }
+
+    public LocalDate getFirstDay() { return counts.length > 0 ? LocalDate.ofEpochDay(firstDay) : null; }
+
+    public int getDays() { return counts.length; }
+
+    private long lastDay() {
+        return firstDay + counts.length - 1;
+    }
+
+    private void addInto(int[] target, long targetFirstDay) {
+        int offset = (int) (firstDay - targetFirstDay);
+        for (int i = 0; i < counts.length; i++) {
+            target[offset + i] += counts[i];
+        }
+    }
+
+    private String keyFor(long epochDay) {
+        return keyStyle == KeyStyle.EPOCH_SECONDS
+            ? Long.toString(epochDay * SECONDS_PER_DAY)
+            : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    private static KeyStyle styleOf(String key) {
+        if (key.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                return key.indexOf('-') > 0 ? KeyStyle.DATE : null;
+            }
+        }
+        return KeyStyle.EPOCH_SECONDS;
+    }
+
+    // Dates may come unpadded ("2024-3-1")
+    private static Long epochDay(String key, KeyStyle style) {
+        try {
+            if (style == KeyStyle.EPOCH_SECONDS) {
+                return Math.floorDiv(Long.parseLong(key), SECONDS_PER_DAY);
+            }
+            String[] parts = key.split("-");
+            if (parts.length != 3) {
+                return null;
+            }
+            return LocalDate.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2].length() > 2 ? parts[2].substring(0, 2) : parts[2])).toEpochDay();
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SubmissionCalendar)) return false;
+        SubmissionCalendar other = (SubmissionCalendar) o;
+        return keyStyle == other.keyStyle && firstDay == other.firstDay && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * keyStyle.hashCode() + Long.hashCode(firstDay)) + Arrays.hashCode(counts);
+    }
+}
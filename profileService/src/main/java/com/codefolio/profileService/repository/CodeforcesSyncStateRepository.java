@@ -0,0 +1,9 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.CodeforcesSyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CodeforcesSyncStateRepository extends JpaRepository<CodeforcesSyncState, String> {
+}
@@ -0,0 +1,9 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.GitHubAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GitHubAggregateRepository extends JpaRepository<GitHubAggregate, String> {
+}
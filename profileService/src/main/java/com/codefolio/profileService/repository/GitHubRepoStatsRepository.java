@@ -0,0 +1,19 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.GitHubRepoStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface GitHubRepoStatsRepository extends JpaRepository<GitHubRepoStats, Long> {
+
+    @Query("select distinct r from GitHubRepoStats r left join fetch r.languageBytes where r.login = :login")
+    List<GitHubRepoStats> findWithLanguagesByLogin(@Param("login") String login);
+
+    @Query("select r.repoId, r.pushedAt from GitHubRepoStats r where r.login = :login")
+    List<Object[]> findPushesByLogin(@Param("login") String login);
+}
@@ -0,0 +1,19 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.HandleRefreshHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HandleRefreshHistoryRepository extends JpaRepository<HandleRefreshHistory, Long> {
+
+    // Callers match the platform; a handle is rarely linked on more than one
+    List<HandleRefreshHistory> findByHandleIn(Collection<String> handles);
+
+    // Handles still inside their failure backoff
+    List<HandleRefreshHistory> findByRetryAfterAfter(LocalDateTime now);
+}
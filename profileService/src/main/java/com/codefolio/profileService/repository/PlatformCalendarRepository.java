@@ -0,0 +1,24 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlatformCalendarRepository extends JpaRepository<PlatformCalendar, Long> {
+
+    List<PlatformCalendar> findByProfileId(Long profileId);
+
+    Optional<PlatformCalendar> findByProfileIdAndPlatform(Long profileId, Platform platform);
+
+    @Modifying
+    @Query("delete from PlatformCalendar c where c.profileId = :profileId")
+    void deleteByProfileId(@Param("profileId") Long profileId);
+}
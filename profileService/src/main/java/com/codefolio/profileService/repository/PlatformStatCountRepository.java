@@ -0,0 +1,24 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformStatCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlatformStatCountRepository extends JpaRepository<PlatformStatCount, Long> {
+
+    List<PlatformStatCount> findByProfileId(Long profileId);
+
+    List<PlatformStatCount> findByProfileIdAndPlatformIn(Long profileId, Collection<Platform> platforms);
+
+    @Modifying
+    @Query("delete from PlatformStatCount c where c.profileId = :profileId")
+    void deleteByProfileId(@Param("profileId") Long profileId);
+}
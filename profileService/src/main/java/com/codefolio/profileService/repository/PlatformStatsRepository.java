@@ -0,0 +1,36 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlatformStatsRepository extends JpaRepository<PlatformStats, Long> {
+
+    List<PlatformStats> findByProfileId(Long profileId);
+
+    Optional<PlatformStats> findByProfileIdAndPlatform(Long profileId, Platform platform);
+
+    @Query("select s.platform, s.fingerprint from PlatformStats s where s.profileId = :profileId")
+    List<Object[]> findFingerprints(@Param("profileId") Long profileId);
+
+    // Bulk update: no entity load and no version bump. A successful fetch also clears any handle error.
+    @Modifying
+    @Query("update PlatformStats s set s.checkedAt = :checkedAt, s.handleError = null, s.handleErrorSince = null " +
+           "where s.profileId = :profileId and s.platform in :platforms")
+    int markChecked(@Param("profileId") Long profileId, @Param("platforms") Collection<Platform> platforms,
+                    @Param("checkedAt") LocalDateTime checkedAt);
+
+    @Modifying
+    @Query("delete from PlatformStats s where s.profileId = :profileId")
+    void deleteByProfileId(@Param("profileId") Long profileId);
+}
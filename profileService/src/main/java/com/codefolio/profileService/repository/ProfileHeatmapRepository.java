@@ -0,0 +1,20 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.ProfileHeatmap;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProfileHeatmapRepository extends JpaRepository<ProfileHeatmap, Long> {
+
+    Optional<ProfileHeatmap> findByProfileId(Long profileId);
+
+    @Modifying
+    @Query("delete from ProfileHeatmap h where h.profileId = :profileId")
+    void deleteByProfileId(@Param("profileId") Long profileId);
+}
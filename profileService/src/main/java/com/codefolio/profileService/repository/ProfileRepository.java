@@ -1,12 +1,62 @@
 package com.codefolio.profileService.repository;
 
 import com.codefolio.profileService.model.Profile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
     Optional<Profile> findByUserId(String userId);
+
+    List<Profile> findByUserIdIn(Collection<String> userIds);
+
+    @Query("select p.id from Profile p where p.userId = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") String userId);
+
+    @Query("select p.id, p.githubFingerprint from Profile p where p.userId = :userId")
+    List<Object[]> findFingerprintByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("update Profile p set p.lastChecked = :checkedAt where p.id = :id")
+    int markChecked(@Param("id") Long id, @Param("checkedAt") LocalDateTime checkedAt);
+
+    @Modifying
+    @Query("update Profile p set p.githubHandleError = null, p.githubHandleErrorSince = null " +
+           "where p.id = :id and p.githubHandleError is not null")
+    int clearGithubHandleError(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Profile p set p.lastViewed = :viewedAt where p.userId = :userId " +
+           "and (p.lastViewed is null or p.lastViewed < :viewedAt)")
+    int markViewed(@Param("userId") String userId, @Param("viewedAt") LocalDateTime viewedAt);
+
+    // Succeeds for one instance only; the others see 0 rows updated
+    @Modifying
+    @Query("update Profile p set p.refreshLeaseUntil = :until, p.nextRefreshAt = :next where p.userId = :userId " +
+           "and (p.refreshLeaseUntil is null or p.refreshLeaseUntil < :now)")
+    int claimRefresh(@Param("userId") String userId, @Param("now") LocalDateTime now,
+                     @Param("until") LocalDateTime until, @Param("next") LocalDateTime next);
+
+    @Modifying
+    @Query("update Profile p set p.nextRefreshAt = :next where p.userId = :userId")
+    int scheduleRefresh(@Param("userId") String userId, @Param("next") LocalDateTime next);
+
+    // Profiles never scanned come first, then the longest overdue
+    @Query("select p from Profile p where (p.nextRefreshAt is null or p.nextRefreshAt <= :now) " +
+           "and (p.refreshLeaseUntil is null or p.refreshLeaseUntil < :now) " +
+           "order by coalesce(p.nextRefreshAt, p.lastChecked, p.lastUpdated) asc")
+    List<Profile> findDueForRefresh(@Param("now") LocalDateTime now, Pageable page);
+
+    @Query("select p from Profile p where p.lastViewed >= :since " +
+           "and (p.refreshLeaseUntil is null or p.refreshLeaseUntil < :now) order by p.lastViewed desc")
+    List<Profile> findRecentlyViewed(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now, Pageable page);
 } 
\ No newline at end of file
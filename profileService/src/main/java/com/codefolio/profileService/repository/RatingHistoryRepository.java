@@ -0,0 +1,24 @@
+package com.codefolio.profileService.repository;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.RatingHistoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RatingHistoryRepository extends JpaRepository<RatingHistoryEntry, Long> {
+
+    @Query("select max(e.ratedAt) from RatingHistoryEntry e where e.platform = :platform and e.handle = :handle")
+    Long findLastRatedAt(@Param("platform") Platform platform, @Param("handle") String handle);
+
+    // A range scan of the (platform, handle, rated_at) unique index
+    @Query("select e.ratedAt, e.rating, e.contest from RatingHistoryEntry e " +
+           "where e.platform = :platform and e.handle = :handle and e.ratedAt between :from and :to " +
+           "order by e.ratedAt")
+    List<Object[]> findRange(@Param("platform") Platform platform, @Param("handle") String handle,
+                             @Param("from") long from, @Param("to") long to);
+}
@@ -0,0 +1,320 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.AdaptiveRateLimiter;
+import com.codefolio.profileService.client.RateLimiterRegistry;
+import com.codefolio.profileService.model.HandleRefreshHistory;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.Profile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Keeps profiles fresh without waiting for a read. Each scan works out which of a candidate's
+// platforms are due: every handle has its own learned interval (HandleRefreshStore), cut to the
+// minimum around that platform's contests and stretched for users who haven't been viewed lately.
+// Profiles are ranked by how far past that interval their most overdue platform is, and only the
+// due platforms are re-fetched. Dispatch goes through ProfileReadService's background refresh,
+// only while every platform involved has spare rate-limit tokens, and only after claiming a lease
+// on the profile row so concurrent instances never pick the same user. A profile found not due
+// has the time its first platform comes due stored, and isn't read again by scans before then.
+@Component
+public class BackgroundRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(BackgroundRefreshScheduler.class);
+    private final ProfileStore profileStore;
+    private final ProfileReadService profileReadService;
+    private final RateLimiterRegistry rateLimiters;
+    private final HandleRefreshStore handleRefreshStore;
+    private final ContestCalendar contestCalendar;
+    private final HandleBackoff handleBackoff;
+    private final ProfileActivity activity;
+    private final RefreshJobService refreshJobs;
+    private final boolean enabled;
+    private final long scanIntervalMs;
+    private final int scanLimit;
+    private final long maxIntervalMs;
+    private final Duration activeWindow;
+    private final int maxInFlight;
+    private final Duration lease;
+    private final double reservePermits;
+    private final PriorityQueue<Candidate> queue =
+        new PriorityQueue<>(Comparator.comparingDouble(Candidate::priority).reversed());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter dispatched;
+    private long scannedAt;
+
+    public BackgroundRefreshScheduler(ProfileStore profileStore, ProfileReadService profileReadService,
+                                      RateLimiterRegistry rateLimiters, HandleRefreshStore handleRefreshStore,
+                                      ContestCalendar contestCalendar, HandleBackoff handleBackoff,
+                                      ProfileActivity activity, RefreshJobService refreshJobs,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${codefolio.scheduler.enabled:true}") boolean enabled,
+                                      @Value("${codefolio.scheduler.scan-interval-ms:60000}") long scanIntervalMs,
+                                      @Value("${codefolio.scheduler.scan-limit:200}") int scanLimit,
+                                      @Value("${codefolio.scheduler.max-interval-ms:604800000}") long maxIntervalMs,
+                                      @Value("${codefolio.scheduler.active-window-ms:604800000}") long activeWindowMs,
+                                      @Value("${codefolio.scheduler.max-in-flight:2}") int maxInFlight,
+                                      @Value("${codefolio.scheduler.lease-ms:300000}") long leaseMs,
+                                      @Value("${codefolio.scheduler.reserve-permits:1}") double reservePermits) {
+        this.profileStore = profileStore;
+        this.profileReadService = profileReadService;
+        this.rateLimiters = rateLimiters;
+        this.handleRefreshStore = handleRefreshStore;
+        this.contestCalendar = contestCalendar;
+        this.handleBackoff = handleBackoff;
+        this.activity = activity;
+        this.refreshJobs = refreshJobs;
+        this.enabled = enabled;
+        this.scanIntervalMs = scanIntervalMs;
+        this.scanLimit = scanLimit;
+        this.maxIntervalMs = maxIntervalMs;
+        this.activeWindow = Duration.ofMillis(activeWindowMs);
+        this.maxInFlight = maxInFlight;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.reservePermits = reservePermits;
+
+        Gauge.builder("profile.scheduler.queue.depth", this, BackgroundRefreshScheduler::queueDepth)
+            .description("Profiles past their refresh target and waiting for dispatch")
+            .register(meterRegistry);
+        Gauge.builder("profile.scheduler.lag", this, BackgroundRefreshScheduler::lagSeconds)
+            .description("How far past its refresh target the most overdue queued profile is")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("profile.scheduler.in.flight", inFlight, AtomicInteger::get)
+            .description("Background refreshes started by the scheduler and not yet finished")
+            .register(meterRegistry);
+        this.dispatched = Counter.builder("profile.scheduler.dispatched")
+            .description("Background refreshes started by the scheduler")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${codefolio.scheduler.initial-delay-ms:30000}",
+               fixedDelayString = "${codefolio.scheduler.poll-ms:10000}")
+    public void tick() {
+        try {
+            Map<String, LocalDateTime> views = activity.drain();
+            if (!views.isEmpty()) {
+                profileStore.markViewed(views);
+            }
+            if (!enabled) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (queueDepth() == 0 || now - scannedAt >= scanIntervalMs) {
+                scan();
+                scannedAt = now;
+            }
+            dispatch();
+        } catch (Exception e) {
+            log.warn("Background refresh tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void scan() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Profile> profiles = profileStore.findRefreshCandidates(now.minus(activeWindow), scanLimit);
+        List<Map.Entry<Platform, String>> handles = new ArrayList<>();
+        for (Profile profile : profiles) {
+            linkedPlatforms(profile).forEach(platform -> handles.add(Map.entry(platform, platform.usernameOf(profile))));
+        }
+        Map<String, HandleRefreshHistory> history = handleRefreshStore.load(handles);
+
+        List<Candidate> due = new ArrayList<>();
+        Map<String, LocalDateTime> notDue = new HashMap<>();
+        for (Profile profile : profiles) {
+            if (profileReadService.isRefreshing(profile.getUserId()) || refreshJobs.isRunning(profile.getUserId())) {
+                continue;
+            }
+            Candidate candidate = dueCandidate(profile, history, now);
+            if (!candidate.platforms.isEmpty()) {
+                due.add(candidate);
+            } else if (!candidate.dueAt.equals(profile.getNextRefreshAt())) {
+                notDue.put(profile.getUserId(), candidate.dueAt);
+            }
+        }
+        if (!notDue.isEmpty()) {
+            profileStore.scheduleRefreshes(notDue);
+        }
+        synchronized (queue) {
+            queue.clear();
+            queue.addAll(due);
+        }
+        log.debug("Refresh scan found {} overdue profiles, rescheduled {}", due.size(), notDue.size());
+    }
+
+    // The profile's due platforms, ranked by the most overdue one. With none due, the platforms
+    // are empty and dueAt is when the first one will be, or the start of a linked platform's next
+    // contest if sooner, since intervals drop to the minimum then. A profile whose handles are all
+    // backing off is looked at again after the minimum interval, one with nothing linked after
+    // the maximum.
+    private Candidate dueCandidate(Profile profile, Map<String, HandleRefreshHistory> history, LocalDateTime now) {
+        double activityWeight = activityWeight(profile, now);
+        LocalDateTime profileRefreshed = ProfileReadService.lastRefreshed(profile);
+        Set<Platform> duePlatforms = EnumSet.noneOf(Platform.class);
+        double priority = 0;
+        LocalDateTime dueAt = null;
+        LocalDateTime nextDueAt = null;
+        long nowMs = System.currentTimeMillis();
+        for (Platform platform : linkedPlatforms(profile)) {
+            // Its last lookups failed; the fetch would only be answered from the negative cache
+            if (handleBackoff.isBackingOff(platform, platform.usernameOf(profile))) {
+                continue;
+            }
+            HandleRefreshHistory handle = history.get(HandleRefreshStore.key(platform, platform.usernameOf(profile)));
+            LocalDateTime checked = handle != null ? handle.getLastCheckedAt() : profileRefreshed;
+            long interval = targetIntervalMs(platform, handle, activityWeight, now);
+            long ageMs = checked == null ? Long.MAX_VALUE : Duration.between(checked, now).toMillis();
+            if (ageMs < interval) {
+                LocalDateTime platformDueAt = checked.plus(Duration.ofMillis(interval));
+                long boostStart = contestCalendar.nextBoostStart(platform, nowMs);
+                if (boostStart != Long.MAX_VALUE) {
+                    LocalDateTime boostAt = now.plus(Duration.ofMillis(boostStart - nowMs));
+                    platformDueAt = boostAt.isBefore(platformDueAt) ? boostAt : platformDueAt;
+                }
+                nextDueAt = nextDueAt == null || platformDueAt.isBefore(nextDueAt) ? platformDueAt : nextDueAt;
+                continue;
+            }
+            duePlatforms.add(platform);
+            LocalDateTime platformDueAt = checked == null ? now : checked.plus(Duration.ofMillis(interval));
+            priority = Math.max(priority, checked == null ? Double.MAX_VALUE : (double) ageMs / interval);
+            dueAt = dueAt == null || platformDueAt.isBefore(dueAt) ? platformDueAt : dueAt;
+        }
+        if (!duePlatforms.isEmpty()) {
+            return new Candidate(profile.getUserId(), duePlatforms, priority, dueAt);
+        }
+        if (nextDueAt == null) {
+            long recheckMs = linkedPlatforms(profile).isEmpty() ? maxIntervalMs : handleRefreshStore.getMinIntervalMs();
+            nextDueAt = now.plus(Duration.ofMillis(recheckMs));
+        }
+        return new Candidate(profile.getUserId(), duePlatforms, 0, nextDueAt);
+    }
+
+    // Highest priority first; a profile whose platforms lack tokens is skipped for this tick,
+    // not allowed to block cheaper ones behind it
+    private void dispatch() {
+        Map<Platform, Double> planned = new EnumMap<>(Platform.class);
+        List<Candidate> deferred = new ArrayList<>();
+        while (inFlight.get() < maxInFlight) {
+            Candidate candidate;
+            synchronized (queue) {
+                candidate = queue.poll();
+            }
+            if (candidate == null) {
+                break;
+            }
+            if (!hasBudget(candidate.platforms, planned)) {
+                deferred.add(candidate);
+                continue;
+            }
+            if (!profileStore.claimRefresh(candidate.userId, lease,
+                    Duration.ofMillis(handleRefreshStore.getMinIntervalMs()))) {
+                continue;
+            }
+            candidate.platforms.forEach(platform -> planned.merge(platform, (double) platform.getRequestsPerFetch(), Double::sum));
+            inFlight.incrementAndGet();
+            dispatched.increment();
+            profileReadService.refreshInBackground(candidate.userId, candidate.platforms)
+                .whenComplete((profile, error) -> inFlight.decrementAndGet());
+        }
+        synchronized (queue) {
+            queue.addAll(deferred);
+        }
+    }
+
+    private boolean hasBudget(Set<Platform> platforms, Map<Platform, Double> planned) {
+        for (Platform platform : platforms) {
+            AdaptiveRateLimiter limiter = rateLimiters.forPlatform(platform);
+            double available = limiter.availablePermits() - planned.getOrDefault(platform, 0d);
+            if (limiter.waitingCount() > 0 || available < platform.getRequestsPerFetch() + reservePermits) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The handle's learned interval (the minimum while its platform has a contest on or just
+    // finished), stretched for users who haven't been viewed lately
+    private long targetIntervalMs(Platform platform, HandleRefreshHistory handle, double activityWeight, LocalDateTime now) {
+        long minIntervalMs = handleRefreshStore.getMinIntervalMs();
+        long interval = handleRefreshStore.intervalMs(platform, handle);
+        if (contestCalendar.isBoosted(platform, System.currentTimeMillis())) {
+            interval = minIntervalMs;
+        }
+        long target = (long) (interval / activityWeight);
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, target));
+    }
+
+    // 1 for a user viewed just now, halving with each idle day; never-viewed users count as idle
+    // for the whole activity window
+    private double activityWeight(Profile profile, LocalDateTime now) {
+        if (profile.getLastViewed() == null) {
+            return 1d / (1 + activeWindow.toHours() / 24d);
+        }
+        double idleDays = Math.max(0, Duration.between(profile.getLastViewed(), now).toMinutes() / 1440d);
+        return 1d / (1 + idleDays);
+    }
+
+    private static Set<Platform> linkedPlatforms(Profile profile) {
+        Set<Platform> platforms = EnumSet.noneOf(Platform.class);
+        for (Platform platform : Platform.values()) {
+            String username = platform.usernameOf(profile);
+            if (username != null && !username.trim().isEmpty()) {
+                platforms.add(platform);
+            }
+        }
+        return platforms;
+    }
+
+    private int queueDepth() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    private double lagSeconds() {
+        LocalDateTime now = LocalDateTime.now();
+        long lagMs = 0;
+        synchronized (queue) {
+            for (Candidate candidate : queue) {
+                lagMs = Math.max(lagMs, Duration.between(candidate.dueAt, now).toMillis());
+            }
+        }
+        return lagMs / 1000d;
+    }
+
+    private static final class Candidate {
+        private final String userId;
+        private final Set<Platform> platforms;
+        private final double priority;
+        private final LocalDateTime dueAt;
+
+        private Candidate(String userId, Set<Platform> platforms, double priority, LocalDateTime dueAt) {
+            this.userId = userId;
+            this.platforms = platforms;
+            this.priority = priority;
+            this.dueAt = dueAt;
+        }
+
+        private double priority() {
+            return priority;
+        }
+    }
+}
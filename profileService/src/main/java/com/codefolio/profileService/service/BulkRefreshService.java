@@ -0,0 +1,293 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.CodeforcesClient;
+import com.codefolio.profileService.client.HandleBackoffException;
+import com.codefolio.profileService.client.LeetCodeClient;
+import com.codefolio.profileService.client.UnknownHandleException;
+import com.codefolio.profileService.dto.BulkRefreshResult;
+import com.codefolio.profileService.dto.CodeforcesUserInfoDTO;
+import com.codefolio.profileService.dto.PlatformFetchResult;
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformStats;
+import com.codefolio.profileService.model.Profile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Refreshes many users with as few upstream requests as the platforms allow. Handles are grouped
+// by platform and de-duplicated across users. LeetCode profiles come from aliased GraphQL
+// batches. Codeforces is probed with batched user.info calls first: a handle that hasn't been
+// online since its last check and whose rating is unchanged can't have new data, so only the
+// rest get the full (three-call) fetch. Other platforms have no batch endpoint and are fetched
+// per handle. Handles backing off after failed lookups (HandleBackoff) are left out of the
+// batches. Results are written per user through ProfileService.applyRefresh.
+@Service
+public class BulkRefreshService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkRefreshService.class);
+    private final ProfileService profileService;
+    private final ProfileStore profileStore;
+    private final PlatformRefreshEngine platformRefreshEngine;
+    private final HandleBackoff handleBackoff;
+    private final LeetCodeClient leetCodeClient;
+    private final CodeforcesClient codeforcesClient;
+    private final int maxUsers;
+    private final int leetcodeBatchSize;
+    private final int codeforcesBatchSize;
+
+    public BulkRefreshService(ProfileService profileService, ProfileStore profileStore,
+                              PlatformRefreshEngine platformRefreshEngine, HandleBackoff handleBackoff,
+                              LeetCodeClient leetCodeClient, CodeforcesClient codeforcesClient,
+                              @Value("${codefolio.bulk.max-users:1000}") int maxUsers,
+                              @Value("${codefolio.bulk.leetcode-batch-size:10}") int leetcodeBatchSize,
+                              @Value("${codefolio.bulk.codeforces-batch-size:100}") int codeforcesBatchSize) {
+        this.profileService = profileService;
+        this.profileStore = profileStore;
+        this.platformRefreshEngine = platformRefreshEngine;
+        this.handleBackoff = handleBackoff;
+        this.leetCodeClient = leetCodeClient;
+        this.codeforcesClient = codeforcesClient;
+        this.maxUsers = maxUsers;
+        this.leetcodeBatchSize = leetcodeBatchSize;
+        this.codeforcesBatchSize = codeforcesBatchSize;
+    }
+
+    public BulkRefreshResult refresh(List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "userIds must not be empty");
+        }
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        if (requested.size() > maxUsers) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "At most " + maxUsers + " users can be refreshed per request");
+        }
+        long start = System.currentTimeMillis();
+        BulkRefreshResult result = new BulkRefreshResult(requested.size());
+        List<Profile> profiles = profileStore.loadAllWithoutStats(requested);
+        Set<String> found = new LinkedHashSet<>();
+        profiles.forEach(profile -> found.add(profile.getUserId()));
+        requested.stream().filter(userId -> !found.contains(userId)).forEach(result.getNotFound()::add);
+
+        // Distinct handles per platform, keyed lower-cased
+        Map<Platform, Map<String, String>> handles = new EnumMap<>(Platform.class);
+        for (Profile profile : profiles) {
+            for (Platform platform : Platform.values()) {
+                String handle = platform.usernameOf(profile);
+                if (handle != null && !handle.trim().isEmpty()) {
+                    handles.computeIfAbsent(platform, p -> new LinkedHashMap<>()).putIfAbsent(key(handle), handle.trim());
+                    result.addUnbatchedRequests(platform, platform.getRequestsPerFetch());
+                }
+            }
+        }
+
+        // Everything is submitted before anything is awaited, so platforms proceed in parallel
+        Map<Platform, Map<String, CompletableFuture<PlatformFetchResult>>> fetches = new EnumMap<>(Platform.class);
+        CompletableFuture<Map<String, CodeforcesUserInfoDTO>> codeforcesInfo = CompletableFuture.completedFuture(Map.of());
+        for (Map.Entry<Platform, Map<String, String>> entry : handles.entrySet()) {
+            Platform platform = entry.getKey();
+            List<String> platformHandles = new ArrayList<>(entry.getValue().values());
+            if (platform == Platform.LEETCODE) {
+                fetches.put(platform, fetchLeetCode(platformHandles, result));
+            } else if (platform == Platform.CODEFORCES) {
+                platformHandles.removeIf(handle -> handleBackoff.isBackingOff(platform, handle));
+                codeforcesInfo = probeCodeforces(platformHandles, result);
+            } else {
+                Map<String, CompletableFuture<PlatformFetchResult>> perHandle = new HashMap<>();
+                platformHandles.forEach(handle -> perHandle.put(key(handle), platformRefreshEngine.submit(platform, handle)));
+                result.addRequests(platform, platformHandles.size() * platform.getRequestsPerFetch());
+                fetches.put(platform, perHandle);
+            }
+        }
+        Map<String, Map<Platform, PlatformFetchResult>> codeforces = resolveCodeforces(profiles, codeforcesInfo, result);
+
+        for (Profile profile : profiles) {
+            Map<Platform, PlatformFetchResult> results = new EnumMap<>(Platform.class);
+            for (Platform platform : Platform.values()) {
+                String handle = platform.usernameOf(profile);
+                if (handle == null || handle.trim().isEmpty()) {
+                    continue;
+                }
+                if (platform == Platform.CODEFORCES) {
+                    results.putAll(codeforces.getOrDefault(profile.getUserId(), Map.of()));
+                } else {
+                    results.put(platform, fetches.get(platform).get(key(handle)).join());
+                }
+            }
+            try {
+                profileService.applyRefresh(profile.getUserId(), results);
+                result.getRefreshed().add(profile.getUserId());
+            } catch (Exception e) {
+                log.error("Bulk refresh could not save profile for user {}: {}", profile.getUserId(), e.getMessage());
+                result.getFailed().put(profile.getUserId(), e.getMessage());
+            }
+        }
+        log.info("Bulk refreshed {} of {} users in {} ms with {} upstream requests (unbatched: {})",
+            result.getRefreshed().size(), requested.size(), System.currentTimeMillis() - start,
+            total(result.getUpstreamRequests()), total(result.getUnbatchedRequests()));
+        return result;
+    }
+
+    // One aliased GraphQL request per chunk; each handle's future completes from its chunk.
+    // A handle missing from the response counts as a failed lookup for its backoff.
+    private Map<String, CompletableFuture<PlatformFetchResult>> fetchLeetCode(List<String> handles, BulkRefreshResult result) {
+        Map<String, CompletableFuture<PlatformFetchResult>> perHandle = new HashMap<>();
+        List<String> lookups = new ArrayList<>();
+        for (String handle : handles) {
+            HandleBackoffException blocked = handleBackoff.blocked(Platform.LEETCODE, handle);
+            if (blocked != null) {
+                perHandle.put(key(handle), CompletableFuture.completedFuture(
+                    PlatformFetchResult.handleError(Platform.LEETCODE, handle, blocked.getReason(), true, 0)));
+            } else {
+                lookups.add(handle);
+            }
+        }
+        for (List<String> chunk : chunks(lookups, leetcodeBatchSize)) {
+            long start = System.currentTimeMillis();
+            CompletableFuture<Map<String, PlatformStatsDTO>> batch = platformRefreshEngine.submitBatch(Platform.LEETCODE,
+                chunk.size() + " users", () -> leetCodeClient.getUserProfiles(chunk));
+            result.addRequests(Platform.LEETCODE, 1);
+            for (String handle : chunk) {
+                perHandle.put(key(handle), batch.handle((stats, error) -> {
+                    long elapsed = System.currentTimeMillis() - start;
+                    if (error != null) {
+                        return PlatformFetchResult.failure(Platform.LEETCODE, handle, describe(error), elapsed);
+                    }
+                    PlatformStatsDTO userStats = stats.get(handle);
+                    if (userStats != null) {
+                        handleBackoff.record(Platform.LEETCODE, handle, null);
+                        return PlatformFetchResult.success(Platform.LEETCODE, handle, userStats, elapsed);
+                    }
+                    String reason = "LeetCode profile not found for username: " + handle;
+                    handleBackoff.record(Platform.LEETCODE, handle, new ResponseStatusException(HttpStatus.NOT_FOUND, reason));
+                    return PlatformFetchResult.handleError(Platform.LEETCODE, handle, reason, false, elapsed);
+                }));
+            }
+        }
+        return perHandle;
+    }
+
+    private CompletableFuture<Map<String, CodeforcesUserInfoDTO>> probeCodeforces(List<String> handles, BulkRefreshResult result) {
+        List<CompletableFuture<Map<String, CodeforcesUserInfoDTO>>> batches = new ArrayList<>();
+        for (List<String> chunk : chunks(handles, codeforcesBatchSize)) {
+            batches.add(probeCodeforcesChunk(chunk, result));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).handle((ignored, error) -> {
+            // A failed probe chunk only means its handles get a full fetch
+            Map<String, CodeforcesUserInfoDTO> infos = new HashMap<>();
+            for (CompletableFuture<Map<String, CodeforcesUserInfoDTO>> batch : batches) {
+                if (!batch.isCompletedExceptionally()) {
+                    infos.putAll(batch.join());
+                }
+            }
+            return infos;
+        });
+    }
+
+    // A chunk naming an unknown handle is rejected as a whole; it is sent again without that
+    // handle, as a new request that waits for its own rate-limit token and is counted
+    private CompletableFuture<Map<String, CodeforcesUserInfoDTO>> probeCodeforcesChunk(List<String> chunk,
+                                                                                      BulkRefreshResult result) {
+        result.addRequests(Platform.CODEFORCES, 1);
+        return platformRefreshEngine.<Map<String, CodeforcesUserInfoDTO>>submitBatch(Platform.CODEFORCES,
+                chunk.size() + " handles", () -> codeforcesClient.getUserInfos(chunk))
+            .exceptionallyCompose(error -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (!(cause instanceof UnknownHandleException)) {
+                    return CompletableFuture.failedFuture(cause);
+                }
+                String unknown = ((UnknownHandleException) cause).getHandle();
+                List<String> rest = new ArrayList<>(chunk);
+                rest.removeIf(handle -> handle.trim().equalsIgnoreCase(unknown));
+                log.debug("Dropping unknown Codeforces handle {} from user.info batch", unknown);
+                return rest.isEmpty() ? CompletableFuture.completedFuture(Map.of()) : probeCodeforcesChunk(rest, result);
+            });
+    }
+
+    // Per user, since "unchanged" is judged against that user's stored stats; full fetches of a
+    // handle shared by several users are made once
+    private Map<String, Map<Platform, PlatformFetchResult>> resolveCodeforces(
+            List<Profile> profiles, CompletableFuture<Map<String, CodeforcesUserInfoDTO>> probe, BulkRefreshResult result) {
+        Map<String, CodeforcesUserInfoDTO> infos = probe.join();
+        Map<String, CompletableFuture<PlatformFetchResult>> fullFetches = new HashMap<>();
+        Map<String, CompletableFuture<PlatformFetchResult>> perUser = new LinkedHashMap<>();
+        for (Profile profile : profiles) {
+            String handle = Platform.CODEFORCES.usernameOf(profile);
+            if (handle == null || handle.trim().isEmpty()) {
+                continue;
+            }
+            CodeforcesUserInfoDTO info = infos.get(key(handle));
+            if (info != null && isUnchanged(info, profileStore.loadStats(profile.getUserId(), Platform.CODEFORCES))) {
+                perUser.put(profile.getUserId(), CompletableFuture.completedFuture(
+                    PlatformFetchResult.unchanged(Platform.CODEFORCES, handle.trim(), 0)));
+                result.addUnchanged(Platform.CODEFORCES);
+                continue;
+            }
+            perUser.put(profile.getUserId(), fullFetches.computeIfAbsent(key(handle), k -> {
+                result.addRequests(Platform.CODEFORCES, Platform.CODEFORCES.getRequestsPerFetch());
+                return platformRefreshEngine.submit(Platform.CODEFORCES, handle.trim());
+            }));
+        }
+        Map<String, Map<Platform, PlatformFetchResult>> results = new HashMap<>();
+        perUser.forEach((userId, future) -> results.put(userId, Map.of(Platform.CODEFORCES, future.join())));
+        return results;
+    }
+
+    // Submissions need the user online, and contest results move the rating
+    private static boolean isUnchanged(CodeforcesUserInfoDTO info, PlatformStats stored) {
+        if (stored.getCheckedAt() == null || stored.getFingerprint() == null) {
+            return false;
+        }
+        LocalDateTime lastOnline = LocalDateTime.ofInstant(
+            Instant.ofEpochSecond(info.getLastOnlineTimeSeconds()), ZoneId.systemDefault());
+        return lastOnline.isBefore(stored.getCheckedAt())
+            && Integer.valueOf(info.getRating()).equals(stored.getContestRanking())
+            && Integer.valueOf(info.getMaxRating()).equals(stored.getRating());
+    }
+
+    private static List<List<String>> chunks(List<String> items, int size) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(List.copyOf(items.subList(i, Math.min(items.size(), i + size))));
+        }
+        return chunks;
+    }
+
+    private static String key(String handle) {
+        return handle.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int total(Map<Platform, Integer> requests) {
+        return requests.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ResponseStatusException) {
+            return ((ResponseStatusException) cause).getReason();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
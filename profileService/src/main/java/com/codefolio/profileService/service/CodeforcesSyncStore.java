@@ -0,0 +1,62 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.CodeforcesSyncState;
+import com.codefolio.profileService.repository.CodeforcesSyncStateRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+
+// Loads and saves the Codeforces high-water mark and aggregates in short transactions; the
+// user.status calls happen in between, with no connection held
+@Component
+public class CodeforcesSyncStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeforcesSyncStore.class);
+    private final CodeforcesSyncStateRepository repository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public CodeforcesSyncStore(CodeforcesSyncStateRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // A handle never synced before starts from an empty state with mark 0
+    public CodeforcesSyncState load(String handle) {
+        String key = key(handle);
+        return readTransaction.execute(status -> repository.findById(key)
+            .map(CodeforcesSyncStore::initialize)
+            .orElseGet(() -> new CodeforcesSyncState(key)));
+    }
+
+    // If another refresh of the same handle saved first, its state was built from the same
+    // submissions, so keep it rather than folding ours in a second time
+    public CodeforcesSyncState save(CodeforcesSyncState state) {
+        try {
+            return writeTransaction.execute(status -> initialize(repository.saveAndFlush(state)));
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.warn("Codeforces sync state for {} was saved concurrently, using the stored copy", state.getHandle());
+            return load(state.getHandle());
+        }
+    }
+
+    private static CodeforcesSyncState initialize(CodeforcesSyncState state) {
+        Hibernate.initialize(state.getDifficultyWiseSolved());
+        Hibernate.initialize(state.getTopicWiseSolved());
+        Hibernate.initialize(state.getSubmissionCalendar());
+        return state;
+    }
+
+    private static String key(String handle) {
+        return handle.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,118 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.ContestServiceClient;
+import com.codefolio.profileService.dto.ContestWindowDTO;
+import com.codefolio.profileService.model.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Contest windows per platform, polled from contestService. Ratings and solve counts move during
+// a contest and for a while after it, so refresh intervals are shortened in that window.
+// Contests are remembered after they drop off the active list until their boost window passes.
+@Component
+public class ContestCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(ContestCalendar.class);
+    private final ContestServiceClient contestServiceClient;
+    private final long boostAfterMs;
+    private final Map<Platform, Set<Window>> windows = new EnumMap<>(Platform.class);
+
+    public ContestCalendar(ContestServiceClient contestServiceClient,
+                           @Value("${codefolio.adaptive.contest-boost-ms:86400000}") long boostAfterMs) {
+        this.contestServiceClient = contestServiceClient;
+        this.boostAfterMs = boostAfterMs;
+    }
+
+    public synchronized boolean isBoosted(Platform platform, long nowMs) {
+        Set<Window> platformWindows = windows.get(platform);
+        if (platformWindows == null) {
+            return false;
+        }
+        for (Window window : platformWindows) {
+            if (nowMs >= window.start && nowMs <= window.end + boostAfterMs) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Start of the platform's next known contest, or Long.MAX_VALUE if none is coming up
+    public synchronized long nextBoostStart(Platform platform, long nowMs) {
+        long next = Long.MAX_VALUE;
+        for (Window window : windows.getOrDefault(platform, Set.of())) {
+            if (window.start > nowMs) {
+                next = Math.min(next, window.start);
+            }
+        }
+        return next;
+    }
+
+    @Scheduled(initialDelayString = "${codefolio.adaptive.contest-poll-initial-delay-ms:20000}",
+               fixedDelayString = "${codefolio.adaptive.contest-poll-ms:1800000}")
+    public void poll() {
+        List<ContestWindowDTO> contests = new ArrayList<>();
+        try {
+            contests.addAll(contestServiceClient.getActiveContests());
+            contests.addAll(contestServiceClient.getUpcomingContests());
+        } catch (Exception e) {
+            // Keep the windows we already know; refresh intervals just aren't boosted for new ones
+            log.debug("Could not load contests from contestService: {}", e.getMessage());
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (ContestWindowDTO contest : contests) {
+                Platform platform = platformOf(contest.getPlatform());
+                if (platform != null && contest.getStartTime() > 0) {
+                    long end = contest.getStartTime() + Math.max(0, contest.getDuration());
+                    windows.computeIfAbsent(platform, p -> new HashSet<>()).add(new Window(contest.getStartTime(), end));
+                }
+            }
+            windows.values().forEach(platformWindows -> platformWindows.removeIf(window -> window.end + boostAfterMs < now));
+        }
+    }
+
+    // contestService's display names
+    private static Platform platformOf(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.replaceAll("[^A-Za-z]", "").toUpperCase();
+        for (Platform platform : Platform.values()) {
+            if (platform.name().equals(normalized)) {
+                return platform;
+            }
+        }
+        return null;
+    }
+
+    private static final class Window {
+        private final long start;
+        private final long end;
+
+        private Window(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Window && ((Window) o).start == start && ((Window) o).end == end;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(start) * 31 + Long.hashCode(end);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.HandleBackoffException;
+import com.codefolio.profileService.model.HandleRefreshHistory;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.repository.HandleRefreshHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Negative cache for handles the upstream doesn't know (404) or rejects (400, 410). Each
+// consecutive failed lookup doubles how long the handle is left alone, from base-ms up to
+// max-ms; meanwhile fetches fail straight away with the stored error instead of spending
+// rate-limit tokens on an answer we already have. Entries are kept in memory and on the handle's
+// handle_refresh_history row, which every instance re-reads each sync interval. Throttling and
+// server errors never land here - those are the rate limiter's and circuit breaker's business.
+@Component
+public class HandleBackoff {
+
+    private static final Logger log = LoggerFactory.getLogger(HandleBackoff.class);
+    private static final Set<HttpStatus> HANDLE_ERRORS = EnumSet.of(HttpStatus.BAD_REQUEST, HttpStatus.NOT_FOUND, HttpStatus.GONE);
+    private static final int MAX_ERROR_LENGTH = 255;
+    private final HandleRefreshHistoryRepository repository;
+    private final TransactionTemplate transaction;
+    private final long baseMs;
+    private final long maxMs;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter skipped;
+
+    public HandleBackoff(HandleRefreshHistoryRepository repository, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${codefolio.backoff.base-ms:600000}") long baseMs,
+                         @Value("${codefolio.backoff.max-ms:604800000}") long maxMs) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.baseMs = baseMs;
+        this.maxMs = maxMs;
+
+        Gauge.builder("profile.handle.backoff.size", entries, Map::size)
+            .description("Handles whose lookups are currently backing off after failing")
+            .register(meterRegistry);
+        this.skipped = Counter.builder("profile.handle.backoff.skipped")
+            .description("Upstream lookups answered from the negative cache")
+            .register(meterRegistry);
+    }
+
+    public static boolean isHandleError(Throwable e) {
+        return e instanceof ResponseStatusException && HANDLE_ERRORS.contains(((ResponseStatusException) e).getStatus());
+    }
+
+    public boolean isBackingOff(Platform platform, String handle) {
+        Entry entry = entries.get(HandleRefreshStore.key(platform, handle));
+        return entry != null && entry.retryAtMs > System.currentTimeMillis();
+    }
+
+    // The stored failure while the handle backs off, null once it may be looked up again. The
+    // first lookup after that is let through; its outcome re-arms or clears the entry.
+    public HandleBackoffException blocked(Platform platform, String handle) {
+        Entry entry = entries.get(HandleRefreshStore.key(platform, handle));
+        long remainingMs = entry == null ? 0 : entry.retryAtMs - System.currentTimeMillis();
+        if (remainingMs <= 0) {
+            return null;
+        }
+        skipped.increment();
+        return new HandleBackoffException(platform, entry.status, entry.error, Duration.ofMillis(remainingMs));
+    }
+
+    // A lookup's outcome: success clears the entry (HandleRefreshStore resets the row),
+    // a handle error arms the next, longer backoff, anything else is ignored
+    public void record(Platform platform, String handle, Throwable error) {
+        String key = HandleRefreshStore.key(platform, handle);
+        if (error == null) {
+            entries.remove(key);
+        } else if (isHandleError(error) && !(error instanceof HandleBackoffException)) {
+            ResponseStatusException failure = (ResponseStatusException) error;
+            String reason = truncate(failure.getReason() != null ? failure.getReason() : failure.getStatus().getReasonPhrase());
+            Entry previous = entries.get(key);
+            int failures = persistFailure(platform, handle, failure.getStatus(), reason, previous);
+            long retryAtMs = System.currentTimeMillis() + backoffMs(failures);
+            entries.put(key, new Entry(failure.getStatus(), reason, failures, retryAtMs));
+            log.info("{} handle {} failed lookup {} time(s) in a row ({}); backing off for {} s",
+                platform.getDisplayName(), handle, failures, reason, backoffMs(failures) / 1000);
+        }
+    }
+
+    // Picks up handles other instances found broken and drops entries whose backoff has passed
+    @Scheduled(initialDelayString = "${codefolio.backoff.sync-initial-delay-ms:15000}",
+               fixedDelayString = "${codefolio.backoff.sync-ms:60000}")
+    public void sync() {
+        List<HandleRefreshHistory> rows;
+        try {
+            rows = transaction.execute(status -> repository.findByRetryAfterAfter(LocalDateTime.now()));
+        } catch (Exception e) {
+            log.debug("Could not load handle backoffs: {}", e.getMessage());
+            return;
+        }
+        for (HandleRefreshHistory row : rows) {
+            HttpStatus status = row.getLastErrorStatus() != null ? HttpStatus.resolve(row.getLastErrorStatus()) : null;
+            Entry stored = new Entry(status != null ? status : HttpStatus.NOT_FOUND, row.getLastError(),
+                row.getConsecutiveFailures(), toEpochMs(row.getRetryAfter()));
+            entries.merge(HandleRefreshStore.key(row.getPlatform(), row.getHandle()), stored,
+                (mine, theirs) -> theirs.retryAtMs > mine.retryAtMs ? theirs : mine);
+        }
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.retryAtMs <= now);
+    }
+
+    // The row's failure count is authoritative; if the write loses a race the in-memory count
+    // is used and the next failure writes again
+    private int persistFailure(Platform platform, String handle, HttpStatus status, String reason, Entry previous) {
+        int fallback = (previous != null ? previous.failures : 0) + 1;
+        try {
+            Integer failures = transaction.execute(tx -> {
+                String normalized = handle.trim().toLowerCase(Locale.ROOT);
+                HandleRefreshHistory row = repository.findByHandleIn(Set.of(normalized)).stream()
+                    .filter(candidate -> candidate.getPlatform() == platform)
+                    .findFirst()
+                    .orElseGet(() -> new HandleRefreshHistory(platform, normalized));
+                int count = row.getConsecutiveFailures() + 1;
+                row.setConsecutiveFailures(count);
+                row.setLastErrorStatus(status.value());
+                row.setLastError(reason);
+                row.setRetryAfter(LocalDateTime.now().plusNanos(backoffMs(count) * 1_000_000));
+                repository.save(row);
+                return count;
+            });
+            return failures != null ? failures : fallback;
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.debug("Concurrent backoff write for {} {}, keeping it in memory: {}", platform, handle, e.getMessage());
+            return fallback;
+        } catch (RuntimeException e) {
+            log.warn("Could not store backoff for {} {}, keeping it in memory: {}", platform, handle, e.getMessage());
+            return fallback;
+        }
+    }
+
+    private long backoffMs(int failures) {
+        int doublings = Math.min(failures - 1, 30);
+        return Math.min(maxMs, baseMs << doublings);
+    }
+
+    private static String truncate(String reason) {
+        return reason.length() <= MAX_ERROR_LENGTH ? reason : reason.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static long toEpochMs(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry {
+        private final HttpStatus status;
+        private final String error;
+        private final int failures;
+        private final long retryAtMs;
+
+        private Entry(HttpStatus status, String error, int failures, long retryAtMs) {
+            this.status = status;
+            this.error = error;
+            this.failures = failures;
+            this.retryAtMs = retryAtMs;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.HandleRefreshHistory;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.repository.HandleRefreshHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Learns a refresh interval per (platform, handle): halved whenever a refresh found changes,
+// stretched by half again whenever it found none, within [min, max]. Handles with no history
+// start from the platform-wide change rate. Recording is advisory: a conflicting concurrent
+// write is dropped rather than retried, the next refresh records again. A successful refresh
+// also resets the failure backoff HandleBackoff keeps on the same row.
+@Component
+public class HandleRefreshStore {
+
+    private static final Logger log = LoggerFactory.getLogger(HandleRefreshStore.class);
+    private static final double GROW = 1.5;
+    private static final double SHRINK = 0.5;
+    private static final double RATE_WEIGHT = 0.2;
+    private final HandleRefreshHistoryRepository repository;
+    private final PlatformChangeRates changeRates;
+    private final TransactionTemplate transaction;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+
+    public HandleRefreshStore(HandleRefreshHistoryRepository repository, PlatformChangeRates changeRates,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${codefolio.adaptive.min-interval-ms:600000}") long minIntervalMs,
+                              @Value("${codefolio.adaptive.max-interval-ms:259200000}") long maxIntervalMs) {
+        this.repository = repository;
+        this.changeRates = changeRates;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+    }
+
+    public long getMinIntervalMs() {
+        return minIntervalMs;
+    }
+
+    // History keyed by key(platform, handle); handles never refreshed are absent
+    public Map<String, HandleRefreshHistory> load(Collection<Map.Entry<Platform, String>> handles) {
+        Set<String> normalized = new HashSet<>();
+        Set<String> wanted = new HashSet<>();
+        for (Map.Entry<Platform, String> handle : handles) {
+            normalized.add(normalize(handle.getValue()));
+            wanted.add(key(handle.getKey(), handle.getValue()));
+        }
+        Map<String, HandleRefreshHistory> history = new HashMap<>();
+        if (normalized.isEmpty()) {
+            return history;
+        }
+        List<HandleRefreshHistory> rows = transaction.execute(status -> repository.findByHandleIn(normalized));
+        for (HandleRefreshHistory row : rows) {
+            String key = key(row.getPlatform(), row.getHandle());
+            if (wanted.contains(key)) {
+                history.put(key, row);
+            }
+        }
+        return history;
+    }
+
+    // The learned interval, or the platform-wide estimate for a handle with no history
+    public long intervalMs(Platform platform, HandleRefreshHistory history) {
+        if (history != null && history.getIntervalMs() > 0) {
+            return history.getIntervalMs();
+        }
+        return clamp((long) (minIntervalMs / changeRates.rate(platform)));
+    }
+
+    // One refresh's outcome: the handles fetched successfully and which of them changed
+    public void record(Map<Platform, String> checked, Set<Platform> changed) {
+        if (checked.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transaction.executeWithoutResult(status -> {
+                Map<String, HandleRefreshHistory> stored = load(checked.entrySet());
+                List<HandleRefreshHistory> rows = new ArrayList<>();
+                checked.forEach((platform, handle) -> {
+                    HandleRefreshHistory row = stored.get(key(platform, handle));
+                    if (row == null) {
+                        row = new HandleRefreshHistory(platform, normalize(handle));
+                    }
+                    if (row.getRefreshes() == 0) {
+                        // New, or created by HandleBackoff for a handle that had only failed so far
+                        row.setChangeRate(changeRates.rate(platform));
+                    }
+                    boolean didChange = changed.contains(platform);
+                    long interval = intervalMs(platform, row.getRefreshes() > 0 ? row : null);
+                    row.setIntervalMs(clamp((long) (interval * (didChange ? SHRINK : GROW))));
+                    row.setRefreshes(row.getRefreshes() + 1);
+                    row.setChangeRate(row.getChangeRate() * (1 - RATE_WEIGHT) + (didChange ? RATE_WEIGHT : 0));
+                    if (didChange) {
+                        row.setChanges(row.getChanges() + 1);
+                        row.setLastChangedAt(now);
+                    }
+                    row.setLastCheckedAt(now);
+                    row.setConsecutiveFailures(0);
+                    row.setLastErrorStatus(null);
+                    row.setLastError(null);
+                    row.setRetryAfter(null);
+                    row.setNextRefreshAt(now.plusNanos(row.getIntervalMs() * 1_000_000));
+                    rows.add(row);
+                });
+                repository.saveAll(rows);
+            });
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            log.debug("Concurrent refresh history write for {}, skipping: {}", checked, e.getMessage());
+        }
+    }
+
+    public static String key(Platform platform, String handle) {
+        return platform.name() + ":" + normalize(handle);
+    }
+
+    private static String normalize(String handle) {
+        return handle.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long clamp(long intervalMs) {
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, intervalMs));
+    }
+}
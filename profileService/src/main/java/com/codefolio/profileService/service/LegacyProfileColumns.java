@@ -0,0 +1,149 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformCalendar;
+import com.codefolio.profileService.model.SubmissionCalendar;
+import com.codefolio.profileService.repository.PlatformCalendarRepository;
+import com.codefolio.profileService.repository.ProfileHeatmapRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Copies platform data still sitting in the columns profiles had before it moved to its own
+// tables: stats blocks to platform_stats and JSON calendars to platform_calendars. ddl-auto
+// leaves those columns in place, unmapped, so without this a profile keeps empty stats until its
+// next successful refresh (and the last-known-good fallback serves them empty). Runs on every
+// startup: only profiles with legacy values and no new row are touched, so once copied nothing
+// is selected again, and an instance racing another skips rows the other inserted.
+@Component
+public class LegacyProfileColumns {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyProfileColumns.class);
+    private static final String HAS_COLUMN =
+        "SELECT COUNT(*) FROM information_schema.columns " +
+        "WHERE table_schema = DATABASE() AND table_name = 'profiles' AND column_name = ?";
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformCalendarRepository calendarRepository;
+    private final ProfileHeatmapRepository heatmapRepository;
+    private final ProfileCache cache;
+    private final TransactionTemplate writeTransaction;
+
+    public LegacyProfileColumns(JdbcTemplate jdbcTemplate, PlatformCalendarRepository calendarRepository,
+                                ProfileHeatmapRepository heatmapRepository, ProfileCache cache,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.calendarRepository = calendarRepository;
+        this.heatmapRepository = heatmapRepository;
+        this.cache = cache;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        for (Platform platform : Platform.values()) {
+            if (!platform.hasStats()) {
+                continue;
+            }
+            try {
+                copyStats(platform);
+                copyCalendars(platform);
+            } catch (RuntimeException e) {
+                // Left for the next startup; the platform's next refresh fills the row meanwhile
+                log.warn("Could not copy legacy {} columns from profiles: {}", platform, e.getMessage());
+            }
+        }
+    }
+
+    // The embedded stats block (leetcode_total_questions, ...) into platform_stats. Rows are only
+    // created for linked platforms, as ProfileStore does; profiles created since the move have
+    // NULLs there and are skipped.
+    private void copyStats(Platform platform) {
+        String prefix = prefix(platform);
+        if (!hasColumn(prefix + "_total_questions")) {
+            return;
+        }
+        String candidates = " FROM profiles p WHERE p." + prefix + "_total_questions IS NOT NULL" +
+            " AND p." + prefix + "_username IS NOT NULL AND TRIM(p." + prefix + "_username) <> ''" +
+            " AND NOT EXISTS (SELECT 1 FROM platform_stats s WHERE s.profile_id = p.id AND s.platform = ?)";
+        List<String> userIds = jdbcTemplate.queryForList("SELECT p.user_id" + candidates, String.class, platform.name());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Integer copied = writeTransaction.execute(status -> jdbcTemplate.update(
+            "INSERT IGNORE INTO platform_stats (profile_id, platform, total_questions, total_active_days, " +
+                "total_contests, rating, contest_ranking, awards, version) " +
+                "SELECT p.id, ?, p." + prefix + "_total_questions, COALESCE(p." + prefix + "_active_days, 0), " +
+                "COALESCE(p." + prefix + "_total_contests, 0), COALESCE(p." + prefix + "_rating, 0), " +
+                "COALESCE(p." + prefix + "_contest_ranking, 0), p." + prefix + "_awards, 0" + candidates,
+            platform.name(), platform.name()));
+        userIds.forEach(cache::invalidate);
+        log.info("Copied legacy {} stats for {} profiles into platform_stats", platform, copied);
+    }
+
+    // The JSON *_submission_calendar TEXT columns, re-encoded into platform_calendars. A copied
+    // column is set to NULL, since a calendar row is deleted when a refresh clears the calendar
+    // and must not be restored from it later. The profile's heatmap is dropped with each copy so
+    // ProfileStore.loadHeatmap sums it again from all its calendars, instead of keeping one built
+    // while this calendar read as empty.
+    private void copyCalendars(Platform platform) {
+        String column = prefix(platform) + "_submission_calendar";
+        if (!hasColumn(column)) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT p.id, p.user_id, p." + column + " AS calendar FROM profiles p WHERE p." + column + " IS NOT NULL" +
+                " AND NOT EXISTS (SELECT 1 FROM platform_calendars c WHERE c.profile_id = p.id AND c.platform = ?)",
+            platform.name());
+        int copied = 0;
+        for (Map<String, Object> row : rows) {
+            Long profileId = ((Number) row.get("id")).longValue();
+            SubmissionCalendar calendar;
+            try {
+                calendar = SubmissionCalendar.fromJson((String) row.get("calendar"));
+            } catch (RuntimeException e) {
+                log.warn("Skipping unreadable legacy {} calendar of profile {}: {}", platform, profileId, e.getMessage());
+                continue;
+            }
+            try {
+                writeTransaction.executeWithoutResult(status -> {
+                    if (calendar != null) {
+                        PlatformCalendar stored = new PlatformCalendar(profileId, platform);
+                        stored.setCalendar(calendar);
+                        calendarRepository.saveAndFlush(stored);
+                        heatmapRepository.deleteByProfileId(profileId);
+                    }
+                    jdbcTemplate.update("UPDATE profiles SET " + column + " = NULL WHERE id = ?", profileId);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // A refresh or another instance wrote this calendar first
+                continue;
+            }
+            if (calendar != null) {
+                cache.invalidate((String) row.get("user_id"));
+                copied++;
+            }
+        }
+        if (copied > 0) {
+            log.info("Copied legacy {} calendars for {} profiles into platform_calendars", platform, copied);
+        }
+    }
+
+    private boolean hasColumn(String column) {
+        Integer count = jdbcTemplate.queryForObject(HAS_COLUMN, Integer.class, column);
+        return count != null && count > 0;
+    }
+
+    private static String prefix(Platform platform) {
+        return platform.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,55 @@
+package com.codefolio.profileService.service;
+
+// Largest-Triangle-Three-Buckets downsampling: keeps the first and last points and, from each of
+// threshold - 2 equal buckets in between, the point forming the largest triangle with the point
+// kept from the previous bucket and the average of the next bucket. Peaks and drops survive, so
+// a thinned rating chart keeps its shape. Linear in the number of points.
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    // Indexes of the points to keep, ascending; every index when there are threshold points or fewer
+    public static int[] select(long[] x, int[] y, int threshold) {
+        int n = x.length;
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = nextStart;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                    - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = n - 1;
+        return kept;
+    }
+}
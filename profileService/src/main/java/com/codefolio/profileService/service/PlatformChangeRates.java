@@ -0,0 +1,38 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Fraction of recent refreshes, per platform, whose fingerprint moved. An exponentially weighted
+// average over this instance's refreshes; the scheduler refreshes fast-changing platforms sooner.
+@Component
+public class PlatformChangeRates {
+
+    private static final double WEIGHT = 0.05;
+    private static final double INITIAL_RATE = 0.5;
+    private static final double MIN_RATE = 0.02;
+    private final Map<Platform, Double> rates = new EnumMap<>(Platform.class);
+
+    public PlatformChangeRates(MeterRegistry meterRegistry) {
+        for (Platform platform : Platform.values()) {
+            rates.put(platform, INITIAL_RATE);
+            Gauge.builder("platform.change.rate", this, changeRates -> changeRates.rate(platform))
+                .description("Share of recent refreshes that found changed stats")
+                .tag("platform", platform.name().toLowerCase())
+                .register(meterRegistry);
+        }
+    }
+
+    public synchronized void record(Platform platform, boolean changed) {
+        rates.put(platform, rates.get(platform) * (1 - WEIGHT) + (changed ? WEIGHT : 0));
+    }
+
+    public synchronized double rate(Platform platform) {
+        return Math.max(MIN_RATE, rates.get(platform));
+    }
+}
@@ -0,0 +1,451 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.AdaptiveRateLimiter;
+import com.codefolio.profileService.client.AtCoderClient;
+import com.codefolio.profileService.client.CircuitBreaker;
+import com.codefolio.profileService.client.CircuitBreakerRegistry;
+import com.codefolio.profileService.client.CodeChefClient;
+import com.codefolio.profileService.client.CodeforcesClient;
+import com.codefolio.profileService.client.GeeksForGeeksClient;
+import com.codefolio.profileService.client.GitHubClient;
+import com.codefolio.profileService.client.HandleBackoffException;
+import com.codefolio.profileService.client.LeetCodeClient;
+import com.codefolio.profileService.client.PlatformThrottledException;
+import com.codefolio.profileService.client.PlatformUnavailableException;
+import com.codefolio.profileService.client.RateLimiterRegistry;
+import com.codefolio.profileService.client.ReactivePlatformClient;
+import com.codefolio.profileService.config.VirtualThreads;
+import com.codefolio.profileService.dto.GitHubStatsDTO;
+import com.codefolio.profileService.dto.PlatformFetchResult;
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.Profile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class PlatformRefreshEngine {
+
+    public static final String ENGINE_REACTIVE = "reactive";
+    private static final Logger log = LoggerFactory.getLogger(PlatformRefreshEngine.class);
+    private final LeetCodeClient leetCodeClient;
+    private final CodeforcesClient codeforcesClient;
+    private final CodeChefClient codeChefClient;
+    private final AtCoderClient atcoderClient;
+    private final GeeksForGeeksClient geeksForGeeksClient;
+    private final GitHubClient gitHubClient;
+    private final Map<Platform, ReactivePlatformClient<?>> reactiveClients = new EnumMap<>(Platform.class);
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final HandleBackoff handleBackoff;
+    private final AsyncTaskExecutor executor;
+    private final long platformTimeoutMs;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final Map<Platform, Semaphore> bulkheads = new EnumMap<>(Platform.class);
+    private final SingleFlight<String, Object> inFlight = new SingleFlight<>();
+
+    public PlatformRefreshEngine(LeetCodeClient leetCodeClient, CodeforcesClient codeforcesClient,
+                                 CodeChefClient codeChefClient, AtCoderClient atcoderClient,
+                                 GeeksForGeeksClient geeksForGeeksClient, GitHubClient gitHubClient,
+                                 List<ReactivePlatformClient<?>> reactiveClients,
+                                 RateLimiterRegistry rateLimiterRegistry, CircuitBreakerRegistry circuitBreakerRegistry,
+                                 HandleBackoff handleBackoff,
+                                 @Qualifier("platformRefreshExecutor") AsyncTaskExecutor executor,
+                                 @Value("${codefolio.refresh.platform-timeout-ms:15000}") long platformTimeoutMs,
+                                 @Value("${codefolio.refresh.max-attempts:3}") int maxAttempts,
+                                 @Value("${codefolio.refresh.base-backoff-ms:1000}") long baseBackoffMs,
+                                 @Value("${codefolio.threads.mode:platform}") String threadMode,
+                                 @Value("${codefolio.refresh.engine:blocking}") String engine,
+                                 @Value("${codefolio.refresh.max-concurrent-per-platform:8}") int maxConcurrentPerPlatform) {
+        this.leetCodeClient = leetCodeClient;
+        this.codeforcesClient = codeforcesClient;
+        this.codeChefClient = codeChefClient;
+        this.atcoderClient = atcoderClient;
+        this.geeksForGeeksClient = geeksForGeeksClient;
+        this.gitHubClient = gitHubClient;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.handleBackoff = handleBackoff;
+        this.executor = executor;
+        this.platformTimeoutMs = platformTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        // The reactive engine fetches every platform that has a WebClient client through it; the
+        // rest (AtCoder's scraper) stay on the blocking client
+        if (ENGINE_REACTIVE.equalsIgnoreCase(engine)) {
+            reactiveClients.forEach(client -> this.reactiveClients.put(client.getPlatform(), client));
+            log.info("Using the reactive refresh engine for {}", this.reactiveClients.keySet());
+        }
+        // The fixed pool bounds concurrent fetches in platform-thread mode; virtual threads don't
+        if (VirtualThreads.enabled(threadMode)) {
+            for (Platform platform : Platform.values()) {
+                bulkheads.put(platform, new Semaphore(maxConcurrentPerPlatform));
+            }
+        }
+    }
+
+    // Fetches every platform that has a username set, all at once. Never throws: failures and
+    // timeouts come back as failed results so one slow platform cannot sink the whole refresh.
+    public Map<Platform, PlatformFetchResult> fetchAll(Profile profile) {
+        return fetchAll(profile, EnumSet.allOf(Platform.class));
+    }
+
+    // Only the given platforms, for refreshes that know which ones are due
+    public Map<Platform, PlatformFetchResult> fetchAll(Profile profile, Set<Platform> platforms) {
+        return fetchAll(profile, platforms, result -> { });
+    }
+
+    // Also hands each platform's result to the listener the moment it completes, on the thread
+    // that completed it
+    public Map<Platform, PlatformFetchResult> fetchAll(Profile profile, Set<Platform> platforms,
+                                                       Consumer<PlatformFetchResult> listener) {
+        Map<Platform, CompletableFuture<PlatformFetchResult>> futures = new EnumMap<>(Platform.class);
+        for (Platform platform : platforms) {
+            String handle = platform.usernameOf(profile);
+            if (handle != null && !handle.trim().isEmpty()) {
+                futures.put(platform, submit(platform, handle).whenComplete((result, error) -> {
+                    if (result == null) {
+                        return;
+                    }
+                    try {
+                        listener.accept(result);
+                    } catch (Exception e) {
+                        log.warn("Refresh listener failed for {} {}: {}", platform.getDisplayName(), handle, e.getMessage());
+                    }
+                }));
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+
+        Map<Platform, PlatformFetchResult> results = new EnumMap<>(Platform.class);
+        futures.forEach((platform, future) -> results.put(platform, future.join()));
+        log.info("Fetched {} platforms for user {} in {} ms", results.size(), profile.getUserId(),
+            System.currentTimeMillis() - start);
+        return results;
+    }
+
+    public CompletableFuture<PlatformFetchResult> submit(Platform platform, String handle) {
+        long start = System.currentTimeMillis();
+        return fetchAsync(platform, handle)
+            .thenApply(stats -> platform == Platform.GITHUB
+                ? PlatformFetchResult.success(platform, handle, (GitHubStatsDTO) stats, elapsedSince(start))
+                : PlatformFetchResult.success(platform, handle, (PlatformStatsDTO) stats, elapsedSince(start)))
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                if (cause instanceof HandleBackoffException) {
+                    log.debug("Skipping {} fetch for {}: {}", platform.getDisplayName(), handle, describe(cause));
+                    return PlatformFetchResult.handleError(platform, handle, describe(cause), true, elapsedSince(start));
+                }
+                log.error("Failed to update {} stats for {}: {}", platform.getDisplayName(), handle, describe(cause));
+                if (HandleBackoff.isHandleError(cause)) {
+                    return PlatformFetchResult.handleError(platform, handle, describe(cause), false, elapsedSince(start));
+                }
+                return PlatformFetchResult.failure(platform, handle, describe(cause), elapsedSince(start));
+            });
+    }
+
+    // Synchronous single-platform fetch, shared with any identical fetch already in flight
+    public PlatformStatsDTO fetchStats(Platform platform, String handle) {
+        if (platform == Platform.GITHUB) {
+            throw new IllegalArgumentException("Use fetchGitHub for GitHub stats");
+        }
+        return (PlatformStatsDTO) await(fetchAsync(platform, handle));
+    }
+
+    public GitHubStatsDTO fetchGitHub(String username) {
+        return (GitHubStatsDTO) await(fetchAsync(Platform.GITHUB, username));
+    }
+
+    // Marks the persisted stats of every platform whose circuit is open, so callers can tell
+    // last-known-good data from a fresh fetch
+    public Profile flagUnavailable(Profile profile) {
+        if (profile != null) {
+            for (Platform platform : Platform.values()) {
+                if (circuitBreakerRegistry.forPlatform(platform).isDegraded()) {
+                    platform.markStale(profile);
+                }
+            }
+        }
+        return profile;
+    }
+
+    // Concurrent requests for the same (platform, handle) - whether from one user's refresh or
+    // several users sharing a handle - wait on a single upstream call. The timeout covers
+    // rate-limit queueing and retries as well as the calls themselves. A handle backing off after
+    // failed lookups is answered from HandleBackoff without a token or an upstream call.
+    private CompletableFuture<Object> fetchAsync(Platform platform, String handle) {
+        String key = platform.name() + ':' + (handle == null ? "" : handle.trim().toLowerCase(Locale.ROOT));
+        return inFlight.executeAsync(key, () -> {
+            HandleBackoffException blocked = handle == null ? null : handleBackoff.blocked(platform, handle);
+            if (blocked != null) {
+                return CompletableFuture.failedFuture(blocked);
+            }
+            Pending pending = new Pending();
+            return withTimeout(platform, handle, pending,
+                    attempt(platform, handle, platform.getRequestsPerFetch(), () -> callAsync(platform, handle), pending, 1))
+                .whenComplete((stats, error) -> {
+                    if (handle != null) {
+                        handleBackoff.record(platform, handle, error == null ? null : unwrap(error));
+                    }
+                });
+        });
+    }
+
+    // One upstream request covering many handles (Codeforces user.info, aliased GraphQL), with
+    // the same circuit breaker, single rate-limit token, retries and timeout as a profile fetch
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submitBatch(Platform platform, String label, Supplier<T> call) {
+        Pending pending = new Pending();
+        return withTimeout(platform, label, pending,
+                attempt(platform, label, 1, () -> onExecutor(platform, call::get), pending, 1))
+            .thenApply(result -> (T) result);
+    }
+
+    // On timeout whatever the fetch is still waiting on is cancelled too: a queued reservation
+    // gives its token back, a running call is interrupted (reactive: its exchange is cancelled)
+    // and no further attempt is started
+    private CompletableFuture<Object> withTimeout(Platform platform, String label, Pending pending,
+                                                  CompletableFuture<Object> future) {
+        return future
+            .orTimeout(platformTimeoutMs, TimeUnit.MILLISECONDS)
+            .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                if (cause instanceof TimeoutException) {
+                    pending.cancel();
+                    log.warn("{} fetch for {} timed out after {} ms", platform.getDisplayName(), label, platformTimeoutMs);
+                    throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                        platform.getDisplayName() + " did not respond within " + platformTimeoutMs + " ms");
+                }
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(cause);
+            });
+    }
+
+    // Waits for a rate-limit token, starts the call and, on a transient failure, schedules the
+    // next attempt after a backoff instead of sleeping on a thread. An open circuit fails the
+    // attempt straight away without queueing for a token.
+    private CompletableFuture<Object> attempt(Platform platform, String handle, int permits,
+                                              Supplier<CompletableFuture<Object>> call, Pending pending, int attempt) {
+        if (pending.isCancelled()) {
+            return CompletableFuture.failedFuture(new CancellationException("Fetch timed out"));
+        }
+        CircuitBreaker breaker = circuitBreakerRegistry.forPlatform(platform);
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new PlatformUnavailableException(platform));
+        }
+        AdaptiveRateLimiter limiter = rateLimiterRegistry.forPlatform(platform);
+        return pending.track(limiter.acquire(permits, executor))
+            .thenCompose(ignored -> pending.isCancelled()
+                ? CompletableFuture.failedFuture(new CancellationException("Fetch timed out"))
+                : pending.track(call.get()))
+            .handle((stats, error) -> {
+                Throwable cause = error == null ? null : unwrap(error);
+                recordOutcome(breaker, cause);
+                if (cause == null) {
+                    return CompletableFuture.completedFuture(stats);
+                }
+                if (attempt >= maxAttempts || !isRetryable(cause)) {
+                    return CompletableFuture.<Object>failedFuture(cause);
+                }
+                long backoffMs = backoffMillis(cause, attempt);
+                log.warn("{} fetch for {} failed (attempt {}/{}): {}; retrying in {} ms", platform.getDisplayName(),
+                    handle, attempt, maxAttempts, describe(cause), backoffMs);
+                return pending.track(CompletableFuture
+                        .runAsync(() -> { }, CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS)))
+                    .thenCompose(ignored -> attempt(platform, handle, permits, call, pending, attempt + 1));
+            })
+            .thenCompose(Function.identity());
+    }
+
+    // Completions are moved off the Netty event loop, since what runs after a fetch (backoff
+    // bookkeeping, progress listeners) may block
+    private CompletableFuture<Object> callAsync(Platform platform, String handle) {
+        ReactivePlatformClient<?> reactiveClient = reactiveClients.get(platform);
+        if (reactiveClient == null) {
+            return onExecutor(platform, () -> callClient(platform, handle));
+        }
+        return reactiveClient.getUserProfile(handle)
+            .<Object>map(stats -> stats)
+            .publishOn(Schedulers.boundedElastic())
+            .toFuture();
+    }
+
+    // Cancelling the returned future interrupts the call's thread, or drops the call if it has
+    // not started yet
+    private CompletableFuture<Object> onExecutor(Platform platform, Supplier<Object> call) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(callLimited(platform, call));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((stats, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // The permit is waited for on the fetch's own virtual thread, which parks without holding
+    // a carrier thread
+    private Object callLimited(Platform platform, Supplier<Object> call) {
+        Semaphore bulkhead = bulkheads.get(platform);
+        if (bulkhead == null) {
+            return call.get();
+        }
+        try {
+            bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Fetch timed out");
+        }
+        try {
+            return call.get();
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Object callClient(Platform platform, String handle) {
+        switch (platform) {
+            case LEETCODE: return leetCodeClient.getUserProfile(handle);
+            case CODEFORCES: return codeforcesClient.getUserProfile(handle);
+            case CODECHEF: return codeChefClient.getUserProfile(handle);
+            case ATCODER: return atcoderClient.getUserProfile(handle);
+            case GEEKSFORGEEKS: return geeksForGeeksClient.getUserProfile(handle);
+            case GITHUB: return gitHubClient.getUserProfile(handle);
+            default: throw new IllegalArgumentException("Unsupported platform: " + platform);
+        }
+    }
+
+    // Client errors (unknown handle, throttling) mean the upstream is up and answering
+    private static void recordOutcome(CircuitBreaker breaker, Throwable cause) {
+        if (cause == null) {
+            breaker.onSuccess();
+        } else if (cause instanceof RejectedExecutionException) {
+            breaker.release();
+        } else if (cause instanceof ResponseStatusException
+                && ((ResponseStatusException) cause).getStatus().is4xxClientError()) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof PlatformUnavailableException) {
+            return false;
+        }
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof ResponseStatusException) {
+            HttpStatus status = ((ResponseStatusException) e).getStatus();
+            return status == HttpStatus.TOO_MANY_REQUESTS
+                || status == HttpStatus.SERVICE_UNAVAILABLE
+                || status == HttpStatus.BAD_GATEWAY
+                || status == HttpStatus.GATEWAY_TIMEOUT;
+        }
+        return false;
+    }
+
+    // Exponential backoff with jitter, never shorter than what the upstream asked for
+    private long backoffMillis(Throwable cause, int attempt) {
+        long backoff = baseBackoffMs * (1L << (attempt - 1));
+        backoff += ThreadLocalRandom.current().nextLong(baseBackoffMs / 2 + 1);
+        if (cause instanceof PlatformThrottledException) {
+            backoff = Math.max(backoff, ((PlatformThrottledException) cause).getRetryAfter().toMillis());
+        }
+        return backoff;
+    }
+
+    // What a fetch is currently waiting on - a rate-limit reservation, an upstream call or a
+    // retry backoff - so a timeout can cancel it rather than let it run on unobserved
+    private static final class Pending {
+        private volatile boolean cancelled;
+        private volatile CompletableFuture<?> current;
+
+        <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+            current = future;
+            if (cancelled) {
+                future.cancel(true);
+            }
+            return future;
+        }
+
+        void cancel() {
+            cancelled = true;
+            CompletableFuture<?> future = current;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static long elapsedSince(long start) {
+        return System.currentTimeMillis() - start;
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof ResponseStatusException) {
+            return ((ResponseStatusException) e).getReason();
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,104 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformStatCount;
+import com.codefolio.profileService.model.StatCategory;
+import com.codefolio.profileService.repository.PlatformStatCountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Reads and diff-writes the per-platform difficulty/topic counts. Runs inside the caller's
+// transaction (ProfileStore's). Writes compare against what is stored and send only changed keys:
+// one batched upsert for new or changed counts and one batched delete for keys that disappeared.
+@Component
+public class PlatformStatCountStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PlatformStatCountStore.class);
+    private static final String UPSERT =
+        "INSERT INTO platform_stat_counts (profile_id, platform, category, stat_key, solved) VALUES (?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE solved = VALUES(solved)";
+    private static final String DELETE =
+        "DELETE FROM platform_stat_counts WHERE profile_id = ? AND platform = ? AND category = ? AND stat_key = ?";
+    private final PlatformStatCountRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlatformStatCountStore(PlatformStatCountRepository repository, JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Counts for the given platforms only; platforms with no rows map to empty categories
+    public Map<Platform, Map<StatCategory, Map<String, Integer>>> load(Long profileId, Collection<Platform> platforms) {
+        Map<Platform, Map<StatCategory, Map<String, Integer>>> counts = new EnumMap<>(Platform.class);
+        for (Platform platform : platforms) {
+            counts.put(platform, emptyCategories());
+        }
+        if (platforms.isEmpty()) {
+            return counts;
+        }
+        List<PlatformStatCount> rows = platforms.size() == Platform.values().length
+            ? repository.findByProfileId(profileId)
+            : repository.findByProfileIdAndPlatformIn(profileId, platforms);
+        for (PlatformStatCount row : rows) {
+            counts.computeIfAbsent(row.getPlatform(), p -> emptyCategories())
+                .get(row.getCategory())
+                .put(row.getKey(), row.getSolved());
+        }
+        return counts;
+    }
+
+    // Brings the stored rows for one platform category in line with current
+    public void write(Long profileId, Platform platform, StatCategory category,
+                      Map<String, Integer> stored, Map<String, Integer> current, Batch batch) {
+        current.forEach((key, solved) -> {
+            if (key != null && solved != null && !Objects.equals(stored.get(key), solved)) {
+                batch.upserts.add(new Object[] {profileId, platform.name(), category.name(), key, solved});
+            }
+        });
+        stored.keySet().forEach(key -> {
+            if (!current.containsKey(key)) {
+                batch.deletes.add(new Object[] {profileId, platform.name(), category.name(), key});
+            }
+        });
+    }
+
+    public void flush(Batch batch) {
+        if (!batch.upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, batch.upserts);
+        }
+        if (!batch.deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE, batch.deletes);
+        }
+        if (!batch.upserts.isEmpty() || !batch.deletes.isEmpty()) {
+            log.debug("Wrote {} stat counts and removed {}", batch.upserts.size(), batch.deletes.size());
+        }
+    }
+
+    public void deleteAll(Long profileId) {
+        repository.deleteByProfileId(profileId);
+    }
+
+    private static Map<StatCategory, Map<String, Integer>> emptyCategories() {
+        Map<StatCategory, Map<String, Integer>> categories = new EnumMap<>(StatCategory.class);
+        for (StatCategory category : StatCategory.values()) {
+            categories.put(category, new HashMap<>());
+        }
+        return categories;
+    }
+
+    // Statements collected across platforms so one profile write issues at most two batches
+    public static final class Batch {
+        private final List<Object[]> upserts = new ArrayList<>();
+        private final List<Object[]> deletes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,44 @@
+package com.codefolio.profileService.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Collects profile reads in memory so lastViewed costs one UPDATE per user per flush instead of
+// one per request. Users already recorded within the flush interval are not buffered again.
+@Component
+public class ProfileActivity {
+
+    private static final long RECORD_EVERY_MS = 5 * 60 * 1000;
+    private static final int MAX_TRACKED = 100_000;
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRecorded = new ConcurrentHashMap<>();
+
+    public void record(String userId) {
+        long now = System.currentTimeMillis();
+        Long last = lastRecorded.get(userId);
+        if (last != null && now - last < RECORD_EVERY_MS) {
+            return;
+        }
+        if (lastRecorded.size() >= MAX_TRACKED) {
+            lastRecorded.clear();
+        }
+        lastRecorded.put(userId, now);
+        pending.put(userId, LocalDateTime.now());
+    }
+
+    // Views buffered since the last call
+    public Map<String, LocalDateTime> drain() {
+        Map<String, LocalDateTime> views = new HashMap<>();
+        for (String userId : pending.keySet()) {
+            LocalDateTime viewedAt = pending.remove(userId);
+            if (viewedAt != null) {
+                views.put(userId, viewedAt);
+            }
+        }
+        return views;
+    }
+}
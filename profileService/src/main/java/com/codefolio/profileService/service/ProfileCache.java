@@ -0,0 +1,324 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformStats;
+import com.codefolio.profileService.model.Profile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+// Read-through cache for the three ProfileStore reads: a size-bounded LRU per instance in front
+// of Redis, which all instances share. Both tiers hold serialized bytes and every hit returns a
+// fresh copy, so callers can flag or edit what they get without touching the cached value.
+// ProfileStore calls invalidate() after each committed write; that clears both tiers here and
+// publishes the userId so other instances drop their local copy. Each user also has a generation
+// counter in Redis that invalidate() bumps; a load writes to Redis only if the counter still
+// holds what it read before going to the database, so an instance that loaded before another's
+// invalidation can't put the stale bytes back. Redis being unreachable only costs hit rate:
+// reads fall through to the database and Redis is skipped for a short while.
+@Component
+public class ProfileCache implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileCache.class);
+    private static final String FULL = "profile";
+    private static final String ROW = "profile-row";
+    private static final String STATS = "stats";
+    private static final String GENERATION = "profile-gen";
+    private static final byte[] NO_GENERATION = "0".getBytes(StandardCharsets.UTF_8);
+    // KEYS: value, generation; ARGV: generation read before loading, bytes, ttl ms
+    private static final RedisScript<Long> PUT_IF_GENERATION = new DefaultRedisScript<>(
+        "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+        "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1", Long.class);
+    // KEYS: generation, then every view; ARGV: generation ttl ms
+    private static final RedisScript<Long> INVALIDATE = new DefaultRedisScript<>(
+        "local generation = redis.call('INCR', KEYS[1]) redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+        "for i = 2, #KEYS do redis.call('DEL', KEYS[i]) end return generation", Long.class);
+    private static final int GENERATION_STRIPES = 1024;
+    private static final long REDIS_RETRY_MS = 10000;
+    private static final ObjectInputFilter MODEL_ONLY = ObjectInputFilter.Config.createFilter(
+        "maxdepth=20;com.codefolio.profileService.model.*;java.lang.*;java.util.*;java.time.*;!*");
+
+    private final RedisTemplate<String, byte[]> redis;
+    private final boolean enabled;
+    private final long localTtlMs;
+    private final Duration redisTtl;
+    // Outlives every entry written under the previous value, so a load can't see it reset to 0
+    private final byte[] generationTtlMs;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, Entry> local;
+    // Bumped by every invalidation of a user hashing to the stripe; a load that started before
+    // the bump must not put what it read back into the cache
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private volatile long redisSkipUntil;
+
+    public ProfileCache(RedisTemplate<String, byte[]> redis, MeterRegistry meterRegistry,
+                        @Value("${codefolio.cache.enabled:true}") boolean enabled,
+                        @Value("${codefolio.cache.local-max-entries:10000}") int localMaxEntries,
+                        @Value("${codefolio.cache.local-ttl-ms:30000}") long localTtlMs,
+                        @Value("${codefolio.cache.redis-ttl-ms:300000}") long redisTtlMs,
+                        @Value("${codefolio.cache.channel:codefolio:profile-invalidations}") String channel) {
+        this.redis = redis;
+        this.enabled = enabled;
+        this.localTtlMs = localTtlMs;
+        this.redisTtl = Duration.ofMillis(redisTtlMs);
+        this.generationTtlMs = ascii(Math.max(redisTtlMs * 2, Duration.ofHours(1).toMillis()));
+        this.channel = channel;
+        this.local = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > localMaxEntries;
+            }
+        };
+        this.localHits = Counter.builder("profile.cache.requests").tag("result", "local").register(meterRegistry);
+        this.redisHits = Counter.builder("profile.cache.requests").tag("result", "redis").register(meterRegistry);
+        this.misses = Counter.builder("profile.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("profile.cache.local.size", this, cache -> cache.localSize()).register(meterRegistry);
+    }
+
+    public Profile profile(String userId, Supplier<Profile> loader) {
+        return get(userId, key(FULL, userId), Profile.class, loader);
+    }
+
+    public Profile profileRow(String userId, Supplier<Profile> loader) {
+        return get(userId, key(ROW, userId), Profile.class, loader);
+    }
+
+    public PlatformStats stats(String userId, Platform platform, Supplier<PlatformStats> loader) {
+        return get(userId, key(STATS, userId) + ":" + platform.name(), PlatformStats.class, loader);
+    }
+
+    // Drops every cached view of the user here and in Redis, and tells the other instances
+    public void invalidate(String userId) {
+        if (!enabled) {
+            return;
+        }
+        evictLocal(userId);
+        if (redisAvailable()) {
+            try {
+                List<String> keys = new ArrayList<>();
+                keys.add(generationKey(userId));
+                keys.addAll(keys(userId));
+                redis.execute(INVALIDATE, keys, generationTtlMs);
+                redis.convertAndSend(channel, instanceId + "|" + userId);
+            } catch (RuntimeException e) {
+                redisFailed("invalidate", e);
+            }
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.startsWith(instanceId + "|")) {
+            return;
+        }
+        evictLocal(body.substring(separator + 1));
+    }
+
+    private <T extends Serializable> T get(String userId, String key, Class<T> type, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        int stripe = stripe(userId);
+        long generation = generations.get(stripe);
+
+        byte[] bytes = getLocal(key);
+        if (bytes != null) {
+            T value = deserialize(bytes, type);
+            if (value != null) {
+                localHits.increment();
+                return value;
+            }
+        }
+
+        List<byte[]> redisRead = getRedis(key, generationKey(userId));
+        bytes = redisRead != null ? redisRead.get(0) : null;
+        if (bytes != null) {
+            T value = deserialize(bytes, type);
+            if (value != null) {
+                redisHits.increment();
+                putLocal(key, bytes, stripe, generation);
+                return value;
+            }
+        }
+
+        misses.increment();
+        T value = loader.get();
+        bytes = serialize(value);
+        if (bytes != null && generations.get(stripe) == generation) {
+            putLocal(key, bytes, stripe, generation);
+            if (redisRead != null) {
+                putRedis(key, generationKey(userId), redisRead.get(1) != null ? redisRead.get(1) : NO_GENERATION, bytes);
+            }
+        }
+        return value;
+    }
+
+    private byte[] getLocal(String key) {
+        synchronized (local) {
+            Entry entry = local.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                local.remove(key);
+                return null;
+            }
+            return entry.bytes;
+        }
+    }
+
+    private void putLocal(String key, byte[] bytes, int stripe, long generation) {
+        synchronized (local) {
+            // Checked under the lock evictLocal takes, so an invalidation can't slip in between
+            if (generations.get(stripe) == generation) {
+                local.put(key, new Entry(bytes, System.currentTimeMillis() + localTtlMs));
+            }
+        }
+    }
+
+    private void evictLocal(String userId) {
+        synchronized (local) {
+            generations.incrementAndGet(stripe(userId));
+            for (String key : keys(userId)) {
+                local.remove(key);
+            }
+        }
+    }
+
+    private int localSize() {
+        synchronized (local) {
+            return local.size();
+        }
+    }
+
+    // The cached bytes and the user's generation in one round trip; null if Redis is unavailable
+    private List<byte[]> getRedis(String key, String generationKey) {
+        if (!redisAvailable()) {
+            return null;
+        }
+        try {
+            List<byte[]> read = redis.opsForValue().multiGet(List.of(key, generationKey));
+            return read != null && read.size() == 2 ? read : null;
+        } catch (RuntimeException e) {
+            redisFailed("read", e);
+            return null;
+        }
+    }
+
+    private void putRedis(String key, String generationKey, byte[] generation, byte[] bytes) {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            redis.execute(PUT_IF_GENERATION, List.of(key, generationKey), generation, bytes, ascii(redisTtl.toMillis()));
+        } catch (RuntimeException e) {
+            redisFailed("write", e);
+        }
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisSkipUntil;
+    }
+
+    private void redisFailed(String operation, RuntimeException e) {
+        redisSkipUntil = System.currentTimeMillis() + REDIS_RETRY_MS;
+        log.warn("Profile cache {} failed, skipping Redis for {} ms: {}", operation, REDIS_RETRY_MS, e.getMessage());
+    }
+
+    // The userId is a hash tag, so a user's keys share a cluster slot and the scripts can use them
+    private static String key(String view, String userId) {
+        return view + ":{" + userId + "}";
+    }
+
+    private static String generationKey(String userId) {
+        return key(GENERATION, userId);
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> keys(String userId) {
+        List<String> keys = new ArrayList<>();
+        keys.add(key(FULL, userId));
+        keys.add(key(ROW, userId));
+        for (Platform platform : Platform.values()) {
+            if (platform.hasStats()) {
+                keys.add(key(STATS, userId) + ":" + platform.name());
+            }
+        }
+        return keys;
+    }
+
+    private static int stripe(String userId) {
+        return (userId.hashCode() & 0x7fffffff) % GENERATION_STRIPES;
+    }
+
+    private static byte[] serialize(Serializable value) {
+        if (value == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            log.warn("Could not serialize {} for the profile cache: {}", value.getClass().getSimpleName(), e.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    // Null (treated as a miss) for entries written by an incompatible build
+    private static <T> T deserialize(byte[] bytes, Class<T> type) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            in.setObjectInputFilter(MODEL_ONLY);
+            Object value = in.readObject();
+            return type.isInstance(value) ? type.cast(value) : null;
+        } catch (IOException | ClassNotFoundException e) {
+            log.debug("Discarding unreadable profile cache entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] bytes;
+        private final long expiresAt;
+
+        private Entry(byte[] bytes, long expiresAt) {
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
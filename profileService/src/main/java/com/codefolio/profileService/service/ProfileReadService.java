@@ -0,0 +1,114 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.dto.ProfileReadResult;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.Profile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ProfileReadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileReadService.class);
+    private final ProfileService profileService;
+    private final AsyncTaskExecutor executor;
+    private final long staleAfterMs;
+    private final Map<String, CompletableFuture<Profile>> refreshesInFlight = new ConcurrentHashMap<>();
+
+    public ProfileReadService(ProfileService profileService,
+                              @Qualifier("profileRefreshExecutor") AsyncTaskExecutor executor,
+                              @Value("${codefolio.profile.stale-after-ms:600000}") long staleAfterMs) {
+        this.profileService = profileService;
+        this.executor = executor;
+        this.staleAfterMs = staleAfterMs;
+    }
+
+    // Serves the persisted profile as-is and, if it is older than the staleness threshold,
+    // kicks off a background refresh so the next read sees fresh stats
+    public ProfileReadResult read(String userId) {
+        Profile profile = profileService.getProfile(userId);
+        // A profile never refreshed has no age; it is stale, but no Age is reported for it
+        LocalDateTime lastRefreshed = lastRefreshed(profile);
+        Long ageMs = lastRefreshed != null ? ageMillis(lastRefreshed) : null;
+        boolean stale = ageMs == null || ageMs >= staleAfterMs;
+        if (stale) {
+            refreshInBackground(userId);
+        }
+        return new ProfileReadResult(profile, ageMs != null ? ageMs / 1000 : null, stale, isRefreshing(userId));
+    }
+
+    // A profile created by this read has never been refreshed: it is stale, has no Age and is
+    // refreshed in the background like any other stale read
+    public ProfileReadResult created(Profile profile) {
+        refreshInBackground(profile.getUserId());
+        return new ProfileReadResult(profile, null, true, isRefreshing(profile.getUserId()));
+    }
+
+    public boolean isRefreshing(String userId) {
+        return refreshesInFlight.containsKey(userId);
+    }
+
+    public CompletableFuture<Profile> refreshInBackground(String userId) {
+        return refreshInBackground(userId, EnumSet.allOf(Platform.class));
+    }
+
+    // Any refresh already running for the user is returned instead, whichever platforms it covers
+    public CompletableFuture<Profile> refreshInBackground(String userId, Set<Platform> platforms) {
+        CompletableFuture<Profile> existing = refreshesInFlight.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<Profile> future = new CompletableFuture<>();
+        existing = refreshesInFlight.putIfAbsent(userId, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(profileService.updateProfile(userId, platforms));
+                } catch (Exception e) {
+                    log.error("Background refresh failed for user {}: {}", userId, e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    refreshesInFlight.remove(userId, future);
+                }
+            });
+            log.debug("Started background refresh for user {}", userId);
+        } catch (Exception e) {
+            // Pool saturated: keep serving the stale copy and let a later read retry
+            log.warn("Could not schedule background refresh for user {}: {}", userId, e.getMessage());
+            refreshesInFlight.remove(userId, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    // Refreshes that found nothing new only move lastChecked
+    static LocalDateTime lastRefreshed(Profile profile) {
+        LocalDateTime updated = profile.getLastUpdated();
+        LocalDateTime checked = profile.getLastChecked();
+        if (updated == null || (checked != null && checked.isAfter(updated))) {
+            return checked;
+        }
+        return updated;
+    }
+
+    private static long ageMillis(LocalDateTime lastUpdated) {
+        return Math.max(0, Duration.between(lastUpdated, LocalDateTime.now()).toMillis());
+    }
+}
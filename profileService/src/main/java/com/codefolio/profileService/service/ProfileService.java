@@ -1,14 +1,35 @@
 package com.codefolio.profileService.service;
 
+import com.codefolio.profileService.dto.HeatmapDTO;
+import com.codefolio.profileService.dto.PlatformFetchResult;
+import com.codefolio.profileService.dto.RatingHistoryDTO;
+import com.codefolio.profileService.model.Platform;
 import com.codefolio.profileService.model.Profile;
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ProfileService {
     Profile createProfile(String userId, String email, String name);
     Profile getProfile(String userId);
+    // Usernames and GitHub totals only, for callers that don't need the platform stats
+    Profile getProfileWithoutStats(String userId);
     Profile updateProfile(String userId);
+    // Re-fetches only the given platforms; others keep their stored stats
+    Profile updateProfile(String userId, Set<Platform> platforms);
+    // As above, reporting each platform's result as it arrives, before anything is written
+    Profile updateProfile(String userId, Set<Platform> platforms, Consumer<PlatformFetchResult> progress);
+    // Writes results fetched elsewhere (e.g. a bulk refresh) exactly as a refresh would
+    Profile applyRefresh(String userId, Map<Platform, PlatformFetchResult> results);
     Profile updateProfile(String userId, Profile profile);
+    // Saves name, email and usernames without re-fetching any stats
+    Profile saveProfile(String userId, Profile profile);
     void deleteProfile(String userId);
+    // Daily counts merged across every platform, with totals and streaks
+    HeatmapDTO getHeatmap(String userId);
+    // Stored rating history within [from, to] (either may be null), downsampled to at most points
+    RatingHistoryDTO getRatingHistory(String userId, Platform platform, LocalDate from, LocalDate to, Integer points);
     
     // LeetCode
     Profile updateLeetCodeProfile(String userId, String username);
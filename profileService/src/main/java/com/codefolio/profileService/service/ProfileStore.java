@@ -0,0 +1,451 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformCalendar;
+import com.codefolio.profileService.model.PlatformStats;
+import com.codefolio.profileService.model.Profile;
+import com.codefolio.profileService.model.ProfileHeatmap;
+import com.codefolio.profileService.model.StatCategory;
+import com.codefolio.profileService.model.SubmissionCalendar;
+import com.codefolio.profileService.repository.PlatformCalendarRepository;
+import com.codefolio.profileService.repository.PlatformStatsRepository;
+import com.codefolio.profileService.repository.ProfileHeatmapRepository;
+import com.codefolio.profileService.repository.ProfileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Owns the short database transactions around a profile refresh. Upstream calls must happen
+// between load() and update(), never inside them, so no pooled connection is held while waiting
+// on a platform. update() re-reads the row and re-applies the changes when another writer bumped
+// the version first, which merges concurrent refreshes instead of letting the last one win.
+// Each platform's stats are a platform_stats row with their calendar in platform_calendars and
+// difficulty/topic counts in platform_stat_counts. Reads load only the platforms asked for;
+// writes touch only the rows (and, for stats, the columns) that changed. On PlatformStats a null
+// calendar or count map means "not loaded / not changed", so nothing is written for it.
+// Reads go through ProfileCache; every write invalidates the user's entries once it commits.
+@Component
+public class ProfileStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfileStore.class);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private final ProfileRepository profileRepository;
+    private final PlatformStatsRepository statsRepository;
+    private final PlatformCalendarRepository calendarRepository;
+    private final ProfileHeatmapRepository heatmapRepository;
+    private final PlatformStatCountStore statCountStore;
+    private final ProfileCache cache;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public ProfileStore(ProfileRepository profileRepository, PlatformStatsRepository statsRepository,
+                        PlatformCalendarRepository calendarRepository, ProfileHeatmapRepository heatmapRepository,
+                        PlatformStatCountStore statCountStore,
+                        ProfileCache cache, PlatformTransactionManager transactionManager) {
+        this.profileRepository = profileRepository;
+        this.statsRepository = statsRepository;
+        this.calendarRepository = calendarRepository;
+        this.heatmapRepository = heatmapRepository;
+        this.statCountStore = statCountStore;
+        this.cache = cache;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public Profile load(String userId) {
+        return cache.profile(userId, () -> readTransaction.execute(status -> {
+            Profile profile = find(userId);
+            Map<Platform, PlatformStats> stats = attachStats(profile);
+            loadCalendars(profile.getId(), stats, stats.keySet());
+            loadCounts(profile.getId(), stats, stats.keySet());
+            return profile;
+        }));
+    }
+
+    // The profile row alone (usernames, GitHub totals); platform stats are left empty
+    public Profile loadWithoutStats(String userId) {
+        return cache.profileRow(userId, () -> readTransaction.execute(status -> find(userId)));
+    }
+
+    // Profile rows alone for many users at once; unknown userIds are simply absent
+    public List<Profile> loadAllWithoutStats(Collection<String> userIds) {
+        return readTransaction.execute(status -> profileRepository.findByUserIdIn(userIds));
+    }
+
+    // One platform's stats, without reading the profile row or any other platform
+    public PlatformStats loadStats(String userId, Platform platform) {
+        return cache.stats(userId, platform, () -> readTransaction.execute(status -> {
+            Long profileId = profileRepository.findIdByUserId(userId).orElseThrow(() -> notFound(userId));
+            PlatformStats stats = statsRepository.findByProfileIdAndPlatform(profileId, platform)
+                .orElseGet(() -> new PlatformStats(profileId, platform));
+            Map<Platform, PlatformStats> single = new EnumMap<>(Platform.class);
+            single.put(platform, stats);
+            loadCalendars(profileId, single, single.keySet());
+            loadCounts(profileId, single, single.keySet());
+            return stats;
+        }));
+    }
+
+    // Fingerprint of the last written stats per platform (GitHub's from the profile row)
+    public Map<Platform, String> loadFingerprints(String userId) {
+        return readTransaction.execute(status -> {
+            List<Object[]> rows = profileRepository.findFingerprintByUserId(userId);
+            if (rows.isEmpty()) {
+                throw notFound(userId);
+            }
+            Map<Platform, String> fingerprints = new EnumMap<>(Platform.class);
+            Object[] profile = rows.get(0);
+            if (profile[1] != null) {
+                fingerprints.put(Platform.GITHUB, (String) profile[1]);
+            }
+            for (Object[] row : statsRepository.findFingerprints((Long) profile[0])) {
+                if (row[1] != null) {
+                    fingerprints.put((Platform) row[0], (String) row[1]);
+                }
+            }
+            return fingerprints;
+        });
+    }
+
+    // The merged calendar across platforms. Profiles whose calendars were all written before
+    // heatmaps existed get theirs summed from those calendars on first read.
+    public ProfileHeatmap loadHeatmap(String userId) {
+        ProfileHeatmap stored = readTransaction.execute(status ->
+            heatmapRepository.findByProfileId(findId(userId)).orElse(null));
+        if (stored != null) {
+            return stored;
+        }
+        try {
+            return writeTransaction.execute(status -> {
+                Long profileId = findId(userId);
+                return heatmapRepository.findByProfileId(profileId).orElseGet(() -> {
+                    ProfileHeatmap heatmap = new ProfileHeatmap(profileId);
+                    heatmap.setCalendar(sum(calendarRepository.findByProfileId(profileId)));
+                    return heatmapRepository.saveAndFlush(heatmap);
+                });
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A refresh created it first
+            return readTransaction.execute(status ->
+                heatmapRepository.findByProfileId(findId(userId)).orElseThrow(() -> notFound(userId)));
+        }
+    }
+
+    // Records a refresh that changed nothing: bulk UPDATEs only, no entity is loaded. The fetches
+    // succeeded, so any handle error recorded for those platforms is cleared too.
+    public void markChecked(String userId, Set<Platform> unchanged) {
+        LocalDateTime now = LocalDateTime.now();
+        writeTransaction.executeWithoutResult(status -> {
+            Long profileId = profileRepository.findIdByUserId(userId).orElseThrow(() -> notFound(userId));
+            profileRepository.markChecked(profileId, now);
+            if (unchanged.contains(Platform.GITHUB)) {
+                profileRepository.clearGithubHandleError(profileId);
+            }
+            if (!unchanged.isEmpty()) {
+                statsRepository.markChecked(profileId, unchanged, now);
+            }
+        });
+        cache.invalidate(userId);
+    }
+
+    // Activity and lease columns are not part of any cached view, so these skip invalidation
+    public void markViewed(Map<String, LocalDateTime> views) {
+        writeTransaction.executeWithoutResult(status ->
+            views.forEach((userId, viewedAt) -> profileRepository.markViewed(userId, viewedAt)));
+    }
+
+    // Also pushes the profile's next scan out by recheckAfter, so it doesn't come back as due
+    // while the refresh it was claimed for runs or just after
+    public boolean claimRefresh(String userId, Duration lease, Duration recheckAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = writeTransaction.execute(status ->
+            profileRepository.claimRefresh(userId, now, now.plus(lease), now.plus(recheckAfter)));
+        return claimed != null && claimed > 0;
+    }
+
+    // When each scanned profile that wasn't due next needs looking at; no cached view holds it
+    public void scheduleRefreshes(Map<String, LocalDateTime> nextRefreshAt) {
+        writeTransaction.executeWithoutResult(status ->
+            nextRefreshAt.forEach((userId, next) -> profileRepository.scheduleRefresh(userId, next)));
+    }
+
+    // Profile rows (no stats) not leased by any instance: those whose next refresh is due, most
+    // overdue first, plus the most recently viewed, whose stored time predates the views that
+    // shorten their intervals
+    public List<Profile> findRefreshCandidates(LocalDateTime activeSince, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return readTransaction.execute(status -> {
+            Map<String, Profile> candidates = new LinkedHashMap<>();
+            for (Profile profile : profileRepository.findDueForRefresh(now, PageRequest.of(0, limit))) {
+                candidates.put(profile.getUserId(), profile);
+            }
+            for (Profile profile : profileRepository.findRecentlyViewed(activeSince, now, PageRequest.of(0, limit))) {
+                candidates.putIfAbsent(profile.getUserId(), profile);
+            }
+            return new ArrayList<>(candidates.values());
+        });
+    }
+
+    public Profile update(String userId, Consumer<Profile> changes) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Profile updated = writeTransaction.execute(status -> {
+                    Profile profile = find(userId);
+                    Map<Platform, PlatformStats> stored = attachStats(profile);
+                    changes.accept(profile);
+                    Profile saved = profileRepository.saveAndFlush(profile);
+                    Map<Platform, PlatformStats> stats = saveStats(saved, stored);
+                    loadCalendars(saved.getId(), stats, EnumSet.complementOf(writeCalendars(saved, stats)));
+                    loadCounts(saved.getId(), stats, EnumSet.complementOf(writeCounts(saved.getId(), stats)));
+                    return saved;
+                });
+                cache.invalidate(userId);
+                return updated;
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    log.error("Giving up on profile write for user {} after {} conflicting attempts", userId, attempt);
+                    throw e;
+                }
+                log.warn("Concurrent update on profile for user {}, re-applying changes (attempt {})", userId, attempt + 1);
+            }
+        }
+    }
+
+    public void delete(String userId) {
+        writeTransaction.executeWithoutResult(status -> {
+            Profile profile = find(userId);
+            heatmapRepository.deleteByProfileId(profile.getId());
+            calendarRepository.deleteByProfileId(profile.getId());
+            statCountStore.deleteAll(profile.getId());
+            statsRepository.deleteByProfileId(profile.getId());
+            profileRepository.delete(profile);
+        });
+        cache.invalidate(userId);
+    }
+
+    // Puts the stored rows (or new empty ones) on the profile, keyed by platform
+    private Map<Platform, PlatformStats> attachStats(Profile profile) {
+        Map<Platform, PlatformStats> stats = new EnumMap<>(Platform.class);
+        for (PlatformStats row : statsRepository.findByProfileId(profile.getId())) {
+            stats.put(row.getPlatform(), row);
+        }
+        for (Platform platform : Platform.values()) {
+            if (platform.hasStats()) {
+                platform.attachStats(profile, stats.computeIfAbsent(platform, p -> new PlatformStats(profile.getId(), p)));
+            }
+        }
+        return stats;
+    }
+
+    // Stored rows are managed, so dirty checking issues the (dynamic) UPDATEs. New rows are only
+    // inserted for platforms the user has linked.
+    private Map<Platform, PlatformStats> saveStats(Profile profile, Map<Platform, PlatformStats> stored) {
+        Map<Platform, PlatformStats> current = new EnumMap<>(Platform.class);
+        for (Platform platform : Platform.values()) {
+            PlatformStats stats = platform.hasStats() ? platform.statsOf(profile) : null;
+            if (stats == null) {
+                continue;
+            }
+            PlatformStats row = stored.get(platform);
+            if (stats != row && row != null) {
+                // The changes replaced the stats object; write it over the stored row
+                stats.setId(row.getId());
+                stats.setVersion(row.getVersion());
+            }
+            stats.setProfileId(profile.getId());
+            stats.setPlatform(platform);
+            current.put(platform, stats);
+            String username = platform.usernameOf(profile);
+            boolean linked = username != null && !username.trim().isEmpty();
+            if (stats.getId() == null ? linked : stats != row) {
+                statsRepository.save(stats);
+            }
+        }
+        statsRepository.flush();
+        return current;
+    }
+
+    private void loadCalendars(Long profileId, Map<Platform, PlatformStats> stats, Set<Platform> platforms) {
+        if (platforms.isEmpty()) {
+            return;
+        }
+        if (platforms.size() == 1) {
+            // After a write that set every stats calendar this is GitHub alone, which has no PlatformStats
+            Platform platform = platforms.iterator().next();
+            if (!stats.containsKey(platform)) {
+                return;
+            }
+            calendarRepository.findByProfileIdAndPlatform(profileId, platform)
+                .ifPresent(calendar -> stats.get(platform).setSubmissionCalendar(calendar.getCalendar().toJson()));
+            return;
+        }
+        for (PlatformCalendar calendar : calendarRepository.findByProfileId(profileId)) {
+            if (platforms.contains(calendar.getPlatform()) && stats.containsKey(calendar.getPlatform())) {
+                stats.get(calendar.getPlatform()).setSubmissionCalendar(calendar.getCalendar().toJson());
+            }
+        }
+    }
+
+    // Upserts calendars whose encoding changed and drops ones that were cleared; returns the
+    // platforms whose calendar the changes set. GitHub's calendar comes from the profile row's
+    // githubCalendar rather than a PlatformStats. Each change is applied to the profile's heatmap
+    // in the same transaction.
+    private EnumSet<Platform> writeCalendars(Profile profile, Map<Platform, PlatformStats> stats) {
+        Long profileId = profile.getId();
+        EnumSet<Platform> touched = EnumSet.noneOf(Platform.class);
+        stats.forEach((platform, platformStats) -> {
+            if (platformStats.getSubmissionCalendar() != null) {
+                touched.add(platform);
+            }
+        });
+        if (profile.getGithubCalendar() != null) {
+            touched.add(Platform.GITHUB);
+        }
+        if (touched.isEmpty()) {
+            return touched;
+        }
+        Map<Platform, PlatformCalendar> stored = new EnumMap<>(Platform.class);
+        for (PlatformCalendar calendar : calendarRepository.findByProfileId(profileId)) {
+            stored.put(calendar.getPlatform(), calendar);
+        }
+        HeatmapChange heatmap = new HeatmapChange(profileId);
+        for (Platform platform : touched) {
+            PlatformStats platformStats = stats.get(platform);
+            PlatformCalendar existing = stored.get(platform);
+            SubmissionCalendar calendar = SubmissionCalendar.fromJson(platform == Platform.GITHUB
+                ? profile.getGithubCalendar() : platformStats.getSubmissionCalendar());
+            if (calendar == null) {
+                if (existing != null) {
+                    heatmap.replace(existing.getCalendar(), null);
+                    calendarRepository.delete(existing);
+                    stored.remove(platform);
+                }
+                continue;
+            }
+            if (existing == null || !Arrays.equals(existing.getData(), calendar.encode())) {
+                PlatformCalendar row = existing != null ? existing : new PlatformCalendar(profileId, platform);
+                heatmap.replace(existing != null ? existing.getCalendar() : null, calendar);
+                row.setCalendar(calendar);
+                stored.put(platform, calendarRepository.save(row));
+            }
+            if (platformStats != null) {
+                platformStats.setSubmissionCalendar(calendar.toJson());
+            }
+        }
+        heatmap.save(stored.values());
+        calendarRepository.flush();
+        return touched;
+    }
+
+    // The heatmap is stepped from its stored sum: each platform's old calendar taken out and its
+    // new one added, so a refresh touching one platform doesn't decode the others. A profile
+    // without a heatmap row yet gets one summed from all its calendars as they now stand.
+    private class HeatmapChange {
+        private final Long profileId;
+        private ProfileHeatmap row;
+        private SubmissionCalendar merged;
+
+        HeatmapChange(Long profileId) {
+            this.profileId = profileId;
+        }
+
+        void replace(SubmissionCalendar previous, SubmissionCalendar next) {
+            if (merged == null) {
+                row = heatmapRepository.findByProfileId(profileId).orElse(null);
+                if (row == null) {
+                    merged = SubmissionCalendar.empty(SubmissionCalendar.KeyStyle.DATE);
+                    return;
+                }
+                merged = row.getCalendar();
+            }
+            if (row != null) {
+                merged = merged.subtract(previous).merge(next);
+            }
+        }
+
+        void save(Collection<PlatformCalendar> calendars) {
+            if (merged == null) {
+                return;
+            }
+            if (row == null) {
+                row = new ProfileHeatmap(profileId);
+                merged = sum(calendars);
+            }
+            row.setCalendar(merged);
+            heatmapRepository.save(row);
+        }
+    }
+
+    private static SubmissionCalendar sum(Collection<PlatformCalendar> calendars) {
+        SubmissionCalendar merged = SubmissionCalendar.empty(SubmissionCalendar.KeyStyle.DATE);
+        for (PlatformCalendar calendar : calendars) {
+            merged = merged.merge(calendar.getCalendar());
+        }
+        return merged;
+    }
+
+    private void loadCounts(Long profileId, Map<Platform, PlatformStats> stats, Set<Platform> platforms) {
+        platforms.retainAll(stats.keySet());
+        statCountStore.load(profileId, platforms).forEach((platform, categories) ->
+            categories.forEach((category, counts) -> stats.get(platform).setCounts(category, counts)));
+    }
+
+    // Diffs every category the changes set against what is stored; returns the platforms touched
+    private EnumSet<Platform> writeCounts(Long profileId, Map<Platform, PlatformStats> stats) {
+        EnumSet<Platform> touched = EnumSet.noneOf(Platform.class);
+        stats.forEach((platform, platformStats) -> {
+            if (platformStats.getCounts(StatCategory.DIFFICULTY) != null || platformStats.getCounts(StatCategory.TOPIC) != null) {
+                touched.add(platform);
+            }
+        });
+        if (touched.isEmpty()) {
+            return touched;
+        }
+        PlatformStatCountStore.Batch batch = new PlatformStatCountStore.Batch();
+        statCountStore.load(profileId, touched).forEach((platform, storedCounts) -> {
+            PlatformStats platformStats = stats.get(platform);
+            for (StatCategory category : StatCategory.values()) {
+                Map<String, Integer> current = platformStats.getCounts(category);
+                if (current == null) {
+                    platformStats.setCounts(category, storedCounts.get(category));
+                } else {
+                    statCountStore.write(profileId, platform, category, storedCounts.get(category), current, batch);
+                }
+            }
+        });
+        statCountStore.flush(batch);
+        return touched;
+    }
+
+    private Profile find(String userId) {
+        return profileRepository.findByUserId(userId).orElseThrow(() -> notFound(userId));
+    }
+
+    private Long findId(String userId) {
+        return profileRepository.findIdByUserId(userId).orElseThrow(() -> notFound(userId));
+    }
+
+    private static IllegalStateException notFound(String userId) {
+        log.error("Profile not found for user: {}", userId);
+        return new IllegalStateException("Profile not found");
+    }
+}
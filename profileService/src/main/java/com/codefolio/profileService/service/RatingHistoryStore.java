@@ -0,0 +1,78 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.dto.RatingPoint;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.RatingHistoryEntry;
+import com.codefolio.profileService.repository.RatingHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Rating history per (platform, handle). Platforms report the whole history on every fetch;
+// only points newer than the last stored one are inserted, so a refresh with no new contest
+// costs one indexed max() lookup. Appending is advisory like HandleRefreshStore's recording: a
+// concurrent append of the same points is dropped, the next refresh appends again.
+@Component
+public class RatingHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingHistoryStore.class);
+    private final RatingHistoryRepository repository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readTransaction;
+
+    public RatingHistoryStore(RatingHistoryRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // points oldest first, as the clients report them
+    public void append(Platform platform, String handle, List<RatingPoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+        String key = normalize(handle);
+        try {
+            transaction.executeWithoutResult(status -> {
+                Long last = repository.findLastRatedAt(platform, key);
+                List<RatingHistoryEntry> added = new ArrayList<>();
+                long after = last != null ? last : Long.MIN_VALUE;
+                for (RatingPoint point : points) {
+                    // Also skips a repeated timestamp, which the unique key would reject
+                    if (point.getTime() > after) {
+                        added.add(new RatingHistoryEntry(platform, key, point.getTime(), point.getRating(), point.getContest()));
+                        after = point.getTime();
+                    }
+                }
+                if (!added.isEmpty()) {
+                    repository.saveAll(added);
+                    log.debug("Recorded {} new {} rating points for {}", added.size(), platform, handle);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Concurrent rating history write for {} {}, skipping: {}", platform, handle, e.getMessage());
+        }
+    }
+
+    // Points rated within [from, to] (epoch seconds), oldest first
+    public List<RatingPoint> load(Platform platform, String handle, long from, long to) {
+        List<Object[]> rows = readTransaction.execute(status -> repository.findRange(platform, normalize(handle), from, to));
+        List<RatingPoint> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            points.add(new RatingPoint((Long) row[0], (Integer) row[1], (String) row[2]));
+        }
+        return points;
+    }
+
+    private static String normalize(String handle) {
+        return handle.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,313 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.dto.PlatformProgress;
+import com.codefolio.profileService.dto.RefreshJobStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Makes refresh jobs visible to every instance, not just the one running them. The owner writes
+// each job's status to Redis as it changes and publishes each SSE event; other instances answer
+// status requests from the stored copy and relay the published events to their own subscribers.
+// A user's running job id is kept too, so a submission landing on another instance reuses it.
+// Redis being unreachable only narrows jobs back to their own instance for a short while.
+@Component
+public class RefreshJobRelay implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshJobRelay.class);
+    private static final long REDIS_RETRY_MS = 10000;
+    private static final String PLATFORM_EVENT = "platform";
+    // KEYS: running job of the user; ARGV: the job id that finished
+    private static final RedisScript<Long> CLEAR_IF_RUNNING = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0", Long.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Duration runningTtl;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, List<Follower>> followers = new ConcurrentHashMap<>();
+    private volatile long redisSkipUntil;
+
+    public RefreshJobRelay(StringRedisTemplate redis, ObjectMapper objectMapper,
+                           @Value("${codefolio.jobs.retention-ms:600000}") long retentionMs,
+                           @Value("${codefolio.jobs.sse-timeout-ms:120000}") long sseTimeoutMs,
+                           @Value("${codefolio.jobs.channel:codefolio:refresh-job-events}") String channel) {
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofMillis(retentionMs);
+        // A job outlives no stream, so an owner that died mid-job stops claiming the user by then
+        this.runningTtl = Duration.ofMillis(sseTimeoutMs);
+        this.channel = channel;
+    }
+
+    // Stores a job's status without an event, as when it has just been submitted
+    public void save(RefreshJobStatus status) {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            store(status);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize refresh job {} for other instances: {}", status.getJobId(), e.getMessage());
+        } catch (RuntimeException e) {
+            redisFailed("write", e);
+        }
+    }
+
+    // Called by the owner, in event order, with the status after the event and the event itself
+    public void publish(RefreshJobStatus status, String event, Object data) {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            store(status);
+            redis.convertAndSend(channel, instanceId + "|" + status.getJobId() + "|" + event + "|"
+                + objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize refresh job {} for other instances: {}", status.getJobId(), e.getMessage());
+        } catch (RuntimeException e) {
+            redisFailed("publish", e);
+        }
+    }
+
+    // The stored status of a job owned by any instance, or null if unknown (or expired)
+    public RefreshJobStatus load(String jobId) {
+        String json = get(statusKey(jobId));
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, RefreshJobStatus.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Discarding unreadable refresh job {}: {}", jobId, e.getMessage());
+            return null;
+        }
+    }
+
+    public String runningJob(String userId) {
+        return get(runningKey(userId));
+    }
+
+    public void markRunning(String userId, String jobId) {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(runningKey(userId), jobId, runningTtl);
+        } catch (RuntimeException e) {
+            redisFailed("write", e);
+        }
+    }
+
+    // Only if no newer job has claimed the user since
+    public void clearRunning(String userId, String jobId) {
+        if (!redisAvailable()) {
+            return;
+        }
+        try {
+            redis.execute(CLEAR_IF_RUNNING, List.of(runningKey(userId)), jobId);
+        } catch (RuntimeException e) {
+            redisFailed("write", e);
+        }
+    }
+
+    // Streams a job owned by another instance: its stored status is replayed, then published
+    // events are relayed as they arrive. False if the job isn't known anywhere.
+    public boolean follow(String jobId, SseEmitter emitter) {
+        Follower follower = new Follower(jobId, emitter);
+        // Registered before reading the stored status, so no event falls between the two
+        followers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>()).add(follower);
+        emitter.onCompletion(() -> unfollow(follower));
+        emitter.onTimeout(() -> unfollow(follower));
+        emitter.onError(e -> unfollow(follower));
+        RefreshJobStatus status = load(jobId);
+        if (status == null) {
+            unfollow(follower);
+            return false;
+        }
+        follower.replay(status);
+        return true;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length < 4 || parts[0].equals(instanceId)) {
+            return;
+        }
+        List<Follower> jobFollowers = followers.get(parts[1]);
+        if (jobFollowers != null) {
+            jobFollowers.forEach(follower -> follower.relay(parts[2], parts[3]));
+        }
+    }
+
+    private void unfollow(Follower follower) {
+        followers.computeIfPresent(follower.jobId, (id, list) -> {
+            list.remove(follower);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private void store(RefreshJobStatus status) throws JsonProcessingException {
+        redis.opsForValue().set(statusKey(status.getJobId()), objectMapper.writeValueAsString(status), retention);
+    }
+
+    private String get(String key) {
+        if (!redisAvailable()) {
+            return null;
+        }
+        try {
+            return redis.opsForValue().get(key);
+        } catch (RuntimeException e) {
+            redisFailed("read", e);
+            return null;
+        }
+    }
+
+    private boolean redisAvailable() {
+        return System.currentTimeMillis() >= redisSkipUntil;
+    }
+
+    private void redisFailed(String operation, RuntimeException e) {
+        redisSkipUntil = System.currentTimeMillis() + REDIS_RETRY_MS;
+        log.warn("Refresh job {} in Redis failed, skipping Redis for {} ms: {}", operation, REDIS_RETRY_MS, e.getMessage());
+    }
+
+    private static String statusKey(String jobId) {
+        return "refresh-job:" + jobId;
+    }
+
+    private static String runningKey(String userId) {
+        return "refresh-job-user:" + userId;
+    }
+
+    static String finalEvent(RefreshJobStatus status) {
+        return status.getState() == RefreshJobStatus.State.SUCCEEDED ? "complete" : "failed";
+    }
+
+    // One remote subscriber. Events relayed before its replay is done are held back and sent
+    // after it, in order; a platform the replay already covered isn't sent twice.
+    private final class Follower {
+        private final String jobId;
+        private final SseEmitter emitter;
+        private final Set<String> sentPlatforms = new HashSet<>();
+        private List<String[]> held = new ArrayList<>();
+        private boolean done;
+
+        private Follower(String jobId, SseEmitter emitter) {
+            this.jobId = jobId;
+            this.emitter = emitter;
+        }
+
+        private void replay(RefreshJobStatus status) {
+            List<PlatformProgress> replayed = new ArrayList<>();
+            for (PlatformProgress progress : status.getPlatforms().values()) {
+                if (progress.getStatus() != PlatformProgress.Status.PENDING) {
+                    replayed.add(progress);
+                }
+            }
+            synchronized (this) {
+                replayed.forEach(progress -> sentPlatforms.add(progress.getPlatform().name()));
+            }
+            for (PlatformProgress progress : replayed) {
+                send(PLATFORM_EVENT, progress);
+            }
+            if (status.getState() != RefreshJobStatus.State.RUNNING) {
+                finish(finalEvent(status), status);
+                return;
+            }
+            while (true) {
+                List<String[]> batch;
+                synchronized (this) {
+                    if (held.isEmpty()) {
+                        held = null;
+                        return;
+                    }
+                    batch = held;
+                    held = new ArrayList<>();
+                }
+                batch.forEach(event -> deliver(event[0], event[1]));
+            }
+        }
+
+        private void relay(String event, String json) {
+            synchronized (this) {
+                if (held != null) {
+                    held.add(new String[] {event, json});
+                    return;
+                }
+            }
+            deliver(event, json);
+        }
+
+        private void deliver(String event, String json) {
+            if (!PLATFORM_EVENT.equals(event)) {
+                finish(event, json);
+                return;
+            }
+            synchronized (this) {
+                if (done || !sentPlatforms.add(platformOf(json))) {
+                    return;
+                }
+            }
+            send(event, json);
+        }
+
+        private void finish(String event, Object data) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            if (send(event, data)) {
+                emitter.complete();
+            }
+            unfollow(this);
+        }
+
+        // Relayed events are already JSON and go out as they are
+        private boolean send(String event, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                unfollow(this);
+                return false;
+            }
+        }
+
+        private String platformOf(String json) {
+            try {
+                return objectMapper.readTree(json).path("platform").asText();
+            } catch (JsonProcessingException e) {
+                return json;
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.dto.PlatformFetchResult;
+import com.codefolio.profileService.dto.PlatformProgress;
+import com.codefolio.profileService.dto.RefreshJobStatus;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.Profile;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Profile refreshes submitted as jobs: the request returns at once with a job id, the refresh
+// runs on profileRefreshExecutor, and each platform's result is pushed to SSE subscribers as
+// soon as it arrives rather than when the slowest platform is done. A submission for a user
+// whose running job already covers the same handles gets that job back. A job runs on the
+// instance it was submitted to and is dropped from its memory retention-ms after it finishes;
+// RefreshJobRelay shares it through Redis, so the status, the stream and reuse by a later
+// submission work from any instance behind the gateway.
+@Service
+public class RefreshJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshJobService.class);
+    private final ProfileService profileService;
+    private final AsyncTaskExecutor executor;
+    private final RefreshJobRelay relay;
+    private final Duration retention;
+    private final long sseTimeoutMs;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> runningByUser = new ConcurrentHashMap<>();
+
+    public RefreshJobService(ProfileService profileService,
+                             @Qualifier("profileRefreshExecutor") AsyncTaskExecutor executor,
+                             RefreshJobRelay relay,
+                             MeterRegistry meterRegistry,
+                             @Value("${codefolio.jobs.retention-ms:600000}") long retentionMs,
+                             @Value("${codefolio.jobs.sse-timeout-ms:120000}") long sseTimeoutMs) {
+        this.profileService = profileService;
+        this.executor = executor;
+        this.relay = relay;
+        this.retention = Duration.ofMillis(retentionMs);
+        this.sseTimeoutMs = sseTimeoutMs;
+
+        Gauge.builder("profile.refresh.jobs.running", runningByUser, Map::size)
+            .description("Refresh jobs submitted through the API and not yet finished")
+            .register(meterRegistry);
+    }
+
+    public RefreshJobStatus submit(String userId, Set<Platform> platforms) {
+        Profile profile = profileService.getProfileWithoutStats(userId);
+        Map<Platform, String> handles = new EnumMap<>(Platform.class);
+        for (Platform platform : platforms) {
+            String handle = platform.usernameOf(profile);
+            if (handle != null && !handle.trim().isEmpty()) {
+                handles.put(platform, handle);
+            }
+        }
+
+        Job local = runningByUser.get(userId);
+        if (local == null || !local.covers(handles)) {
+            RefreshJobStatus elsewhere = runningElsewhere(userId, handles);
+            if (elsewhere != null) {
+                log.debug("Reusing refresh job {} of another instance for user {}", elsewhere.getJobId(), userId);
+                return elsewhere;
+            }
+        }
+
+        Job[] created = new Job[1];
+        Job job = runningByUser.compute(userId, (id, running) -> {
+            if (running != null && running.covers(handles)) {
+                return running;
+            }
+            created[0] = new Job(UUID.randomUUID().toString(), userId, handles);
+            return created[0];
+        });
+        if (created[0] == null) {
+            log.debug("Reusing refresh job {} for user {}", job.id, userId);
+            return job.snapshot();
+        }
+
+        jobs.put(job.id, job);
+        job.start();
+        relay.markRunning(userId, job.id);
+        try {
+            executor.execute(() -> run(job));
+        } catch (Exception e) {
+            log.warn("Could not schedule refresh job for user {}: {}", userId, e.getMessage());
+            runningByUser.remove(userId, job);
+            relay.clearRunning(userId, job.id);
+            job.fail("Refresh queue is full");
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many refreshes queued, try again shortly");
+        }
+        log.info("Submitted refresh job {} for user {} covering {}", job.id, userId, handles.keySet());
+        return job.snapshot();
+    }
+
+    public RefreshJobStatus status(String jobId) {
+        Job job = jobs.get(jobId);
+        RefreshJobStatus status = job != null ? job.snapshot() : relay.load(jobId);
+        if (status == null) {
+            throw notFound(jobId);
+        }
+        return status;
+    }
+
+    // Replays the platforms already finished, then streams the rest; the stream ends with a
+    // "complete" or "failed" event carrying the final job status
+    public SseEmitter subscribe(String jobId) {
+        Job job = jobs.get(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        if (job != null) {
+            job.subscribe(emitter);
+        } else if (!relay.follow(jobId, emitter)) {
+            throw notFound(jobId);
+        }
+        return emitter;
+    }
+
+    // Only this instance's jobs; background refreshes are kept apart across instances by their lease
+    public boolean isRunning(String userId) {
+        return runningByUser.containsKey(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${codefolio.jobs.cleanup-ms:60000}")
+    public void evictFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+
+    private void run(Job job) {
+        try {
+            job.succeed(profileService.updateProfile(job.userId, job.handles.keySet(), job::onResult));
+        } catch (Exception e) {
+            log.error("Refresh job {} for user {} failed: {}", job.id, job.userId, e.getMessage());
+            job.fail(e instanceof ResponseStatusException ? ((ResponseStatusException) e).getReason() : e.getMessage());
+        } finally {
+            runningByUser.remove(job.userId, job);
+            relay.clearRunning(job.userId, job.id);
+        }
+    }
+
+    // A job another instance is running for the user, if it fetches every wanted handle
+    private RefreshJobStatus runningElsewhere(String userId, Map<Platform, String> handles) {
+        String jobId = relay.runningJob(userId);
+        if (jobId == null || jobs.containsKey(jobId)) {
+            return null;
+        }
+        RefreshJobStatus status = relay.load(jobId);
+        if (status == null || status.getState() != RefreshJobStatus.State.RUNNING) {
+            return null;
+        }
+        for (Map.Entry<Platform, String> wanted : handles.entrySet()) {
+            PlatformProgress running = status.getPlatforms().get(wanted.getKey());
+            if (running == null || !wanted.getValue().equals(running.getHandle())) {
+                return null;
+            }
+        }
+        return status;
+    }
+
+    private static ResponseStatusException notFound(String jobId) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Refresh job not found: " + jobId);
+    }
+
+    // State changes happen under the job's lock, and each one queues what it has to tell
+    // subscribers and other instances while still holding it. The queue is drained outside the
+    // lock, one thread at a time, so sends keep the order of the changes without a slow client
+    // holding up the refresh; the emitter list is only touched from the queue.
+    private final class Job {
+        private final String id;
+        private final String userId;
+        private final Map<Platform, String> handles;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final Map<Platform, PlatformProgress> progress = new EnumMap<>(Platform.class);
+        private final List<SseEmitter> emitters = new ArrayList<>();
+        private final Queue<Runnable> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private RefreshJobStatus.State state = RefreshJobStatus.State.RUNNING;
+        private LocalDateTime finishedAt;
+        private String error;
+        private Profile profile;
+
+        private Job(String id, String userId, Map<Platform, String> handles) {
+            this.id = id;
+            this.userId = userId;
+            this.handles = handles;
+            handles.forEach((platform, handle) -> progress.put(platform, PlatformProgress.pending(platform, handle)));
+        }
+
+        private synchronized boolean covers(Map<Platform, String> wanted) {
+            return state == RefreshJobStatus.State.RUNNING && handles.entrySet().containsAll(wanted.entrySet());
+        }
+
+        private synchronized boolean finishedBefore(LocalDateTime cutoff) {
+            return finishedAt != null && finishedAt.isBefore(cutoff);
+        }
+
+        private void start() {
+            synchronized (this) {
+                RefreshJobStatus status = snapshot();
+                outbox.add(() -> relay.save(status));
+            }
+            drain();
+        }
+
+        private void onResult(PlatformFetchResult result) {
+            synchronized (this) {
+                PlatformProgress platformProgress = PlatformProgress.of(result);
+                progress.put(result.getPlatform(), platformProgress);
+                RefreshJobStatus status = snapshot();
+                outbox.add(() -> {
+                    new ArrayList<>(emitters).forEach(emitter -> send(emitter, "platform", platformProgress));
+                    relay.publish(status, "platform", platformProgress);
+                });
+            }
+            drain();
+        }
+
+        private void succeed(Profile saved) {
+            finish(RefreshJobStatus.State.SUCCEEDED, null, saved);
+        }
+
+        private void fail(String reason) {
+            finish(RefreshJobStatus.State.FAILED, reason, null);
+        }
+
+        private void finish(RefreshJobStatus.State finalState, String reason, Profile saved) {
+            synchronized (this) {
+                state = finalState;
+                error = reason;
+                profile = saved;
+                finishedAt = LocalDateTime.now();
+                RefreshJobStatus status = snapshot();
+                outbox.add(() -> {
+                    String event = RefreshJobRelay.finalEvent(status);
+                    for (SseEmitter emitter : new ArrayList<>(emitters)) {
+                        if (send(emitter, event, status)) {
+                            emitter.complete();
+                        }
+                    }
+                    emitters.clear();
+                    relay.publish(status, event, status);
+                });
+            }
+            drain();
+        }
+
+        // The replay is taken with the lock held, so it covers exactly the events queued before it
+        private void subscribe(SseEmitter emitter) {
+            emitter.onCompletion(() -> unsubscribe(emitter));
+            emitter.onTimeout(() -> unsubscribe(emitter));
+            emitter.onError(e -> unsubscribe(emitter));
+            synchronized (this) {
+                List<PlatformProgress> finished = new ArrayList<>();
+                for (PlatformProgress platformProgress : progress.values()) {
+                    if (platformProgress.getStatus() != PlatformProgress.Status.PENDING) {
+                        finished.add(platformProgress);
+                    }
+                }
+                RefreshJobStatus status = state == RefreshJobStatus.State.RUNNING ? null : snapshot();
+                outbox.add(() -> {
+                    for (PlatformProgress platformProgress : finished) {
+                        if (!send(emitter, "platform", platformProgress)) {
+                            return;
+                        }
+                    }
+                    if (status != null) {
+                        if (send(emitter, RefreshJobRelay.finalEvent(status), status)) {
+                            emitter.complete();
+                        }
+                        return;
+                    }
+                    emitters.add(emitter);
+                });
+            }
+            drain();
+        }
+
+        private void unsubscribe(SseEmitter emitter) {
+            outbox.add(() -> emitters.remove(emitter));
+            drain();
+        }
+
+        // Whoever wins the flag runs every queued op, including ones queued while it runs; the
+        // loop re-checks so an op queued just as the flag is released isn't stranded
+        private void drain() {
+            while (!outbox.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    Runnable op;
+                    while ((op = outbox.poll()) != null) {
+                        op.run();
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        // A client that went away is dropped; the job carries on regardless
+        private boolean send(SseEmitter emitter, String event, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+
+        private synchronized RefreshJobStatus snapshot() {
+            return new RefreshJobStatus(id, userId, state, new EnumMap<>(progress), submittedAt, finishedAt, error, profile);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.dto.GitHubStatsDTO;
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.SubmissionCalendar;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Hash of the stats a refresh would persist, normalized so that map ordering and calendar key
+// formatting don't count as changes. Equal fingerprints mean the write can be skipped.
+public final class StatsFingerprint {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int LENGTH_BYTES = 16;
+
+    private final MessageDigest digest;
+
+    private StatsFingerprint(Platform platform, String handle) {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        add(platform.name());
+        add(handle != null ? handle.trim().toLowerCase(Locale.ROOT) : null);
+    }
+
+    public static String of(Platform platform, String handle, PlatformStatsDTO stats) {
+        StatsFingerprint fingerprint = new StatsFingerprint(platform, handle);
+        fingerprint.add(stats.getTotalQuestions());
+        fingerprint.add(stats.getTotalActiveDays());
+        fingerprint.add(stats.getTotalContests());
+        fingerprint.add(stats.getRating());
+        fingerprint.add(stats.getContestRanking());
+        fingerprint.add(stats.getDifficultyWiseSolved());
+        fingerprint.add(stats.getTopicWiseSolved());
+        SubmissionCalendar calendar = SubmissionCalendar.fromJson(stats.getSubmissionCalendar());
+        fingerprint.add(calendar != null ? calendar.encode() : null);
+        fingerprint.add(stats.getAwards());
+        return fingerprint.finish();
+    }
+
+    // The GitHub totals kept on the profile row and the stored contribution calendar
+    public static String of(String handle, GitHubStatsDTO stats) {
+        StatsFingerprint fingerprint = new StatsFingerprint(Platform.GITHUB, handle);
+        fingerprint.add(stats.getPublicRepos());
+        fingerprint.add(stats.getTotalStars());
+        fingerprint.add(stats.getFollowers());
+        fingerprint.add(stats.getFollowing());
+        fingerprint.add(stats.toSubmissionCalendar().encode());
+        return fingerprint.finish();
+    }
+
+    // Each value is length- or tag-prefixed so adjacent fields can't run together
+    private void add(String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        add(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void add(byte[] value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        digest.update((byte) 1);
+        add(value.length);
+        digest.update(value);
+    }
+
+    private void add(Integer value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        int v = value;
+        digest.update(new byte[] {2, (byte) (v >>> 24), (byte) (v >>> 16), (byte) (v >>> 8), (byte) v});
+    }
+
+    private void add(Map<String, Integer> counts) {
+        if (counts == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        Map<String, Integer> sorted = new TreeMap<>();
+        counts.forEach((key, count) -> {
+            if (key != null) sorted.put(key, count);
+        });
+        add(sorted.size());
+        sorted.forEach((key, count) -> {
+            add(key);
+            add(count);
+        });
+    }
+
+    private String finish() {
+        byte[] hash = digest.digest();
+        char[] out = new char[LENGTH_BYTES * 2];
+        for (int i = 0; i < LENGTH_BYTES; i++) {
+            out[2 * i] = HEX[(hash[i] >> 4) & 0xF];
+            out[2 * i + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(out);
+    }
+}
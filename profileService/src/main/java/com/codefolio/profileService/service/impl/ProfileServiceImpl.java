@@ -1,48 +1,71 @@
 package com.codefolio.profileService.service.impl;
 
+import com.codefolio.profileService.client.PlatformUnavailableException;
 import com.codefolio.profileService.model.Profile;
+import com.codefolio.profileService.model.Platform;
 import com.codefolio.profileService.model.PlatformStats;
+import com.codefolio.profileService.model.ProfileHeatmap;
+import com.codefolio.profileService.model.SubmissionCalendar;
 import com.codefolio.profileService.repository.ProfileRepository;
+import com.codefolio.profileService.service.HandleRefreshStore;
+import com.codefolio.profileService.service.Lttb;
+import com.codefolio.profileService.service.PlatformChangeRates;
+import com.codefolio.profileService.service.PlatformRefreshEngine;
 import com.codefolio.profileService.service.ProfileService;
-import com.codefolio.profileService.client.LeetCodeClient;
-import com.codefolio.profileService.client.CodeforcesClient;
-import com.codefolio.profileService.client.CodeChefClient;
-import com.codefolio.profileService.client.AtCoderClient;
-import com.codefolio.profileService.client.GeeksForGeeksClient;
-import com.codefolio.profileService.client.GitHubClient;
+import com.codefolio.profileService.service.ProfileStore;
+import com.codefolio.profileService.service.RatingHistoryStore;
+import com.codefolio.profileService.service.SingleFlight;
+import com.codefolio.profileService.service.StatsFingerprint;
+import com.codefolio.profileService.dto.PlatformFetchResult;
 import com.codefolio.profileService.dto.PlatformStatsDTO;
 import com.codefolio.profileService.dto.GitHubStatsDTO;
+import com.codefolio.profileService.dto.HeatmapDTO;
+import com.codefolio.profileService.dto.RatingHistoryDTO;
+import com.codefolio.profileService.dto.RatingPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.HashMap;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 @Service("profileService")
 public class ProfileServiceImpl implements ProfileService {
     
     private static final Logger log = LoggerFactory.getLogger(ProfileServiceImpl.class);
     private final ProfileRepository profileRepository;
-    private final LeetCodeClient leetCodeClient;
-    private final CodeforcesClient codeforcesClient;
-    private final CodeChefClient codeChefClient;
-    private final AtCoderClient atcoderClient;
-    private final GeeksForGeeksClient geeksForGeeksClient;
-    private final GitHubClient gitHubClient;
-
-    public ProfileServiceImpl(ProfileRepository profileRepository, LeetCodeClient leetCodeClient, CodeforcesClient codeforcesClient, CodeChefClient codeChefClient, AtCoderClient atcoderClient, GeeksForGeeksClient geeksForGeeksClient, GitHubClient gitHubClient) {
+    private final PlatformRefreshEngine platformRefreshEngine;
+    private final ProfileStore profileStore;
+    private final PlatformChangeRates changeRates;
+    private final HandleRefreshStore handleRefreshStore;
+    private final RatingHistoryStore ratingHistoryStore;
+    private final int maxRatingPoints;
+    private final SingleFlight<String, Profile> profileRefreshes = new SingleFlight<>();
+
+    public ProfileServiceImpl(ProfileRepository profileRepository, PlatformRefreshEngine platformRefreshEngine,
+                              ProfileStore profileStore, PlatformChangeRates changeRates,
+                              HandleRefreshStore handleRefreshStore, RatingHistoryStore ratingHistoryStore,
+                              @Value("${codefolio.ratings.max-points:500}") int maxRatingPoints) {
         this.profileRepository = profileRepository;
-        this.leetCodeClient = leetCodeClient;
-        this.codeforcesClient = codeforcesClient;
-        this.codeChefClient = codeChefClient;
-        this.atcoderClient = atcoderClient;
-        this.geeksForGeeksClient = geeksForGeeksClient;
-        this.gitHubClient = gitHubClient;
+        this.platformRefreshEngine = platformRefreshEngine;
+        this.profileStore = profileStore;
+        this.changeRates = changeRates;
+        this.handleRefreshStore = handleRefreshStore;
+        this.ratingHistoryStore = ratingHistoryStore;
+        this.maxRatingPoints = maxRatingPoints;
     }
 
     @Override
@@ -59,57 +82,150 @@ public class ProfileServiceImpl implements ProfileService {
     @Override
     public Profile getProfile(String userId) {
         log.info("Fetching profile for user: {}", userId);
-        return profileRepository.findByUserId(userId)
-                .orElseThrow(() -> {
-                    log.error("Profile not found for user: {}", userId);
-                    return new IllegalStateException("Profile not found");
-                });
+        return platformRefreshEngine.flagUnavailable(profileStore.load(userId));
+    }
+
+    @Override
+    public Profile getProfileWithoutStats(String userId) {
+        return profileStore.loadWithoutStats(userId);
     }
 
     @Override
-    @Transactional
     public Profile updateProfile(String userId) {
-        log.info("Updating profile stats for user: {}", userId);
-        Profile profile = getProfile(userId);
-        
-        // Update stats for all platforms if usernames exist
-        if (profile.getLeetcodeUsername() != null) {
-            try {
-                PlatformStatsDTO leetcodeStats = leetCodeClient.getUserProfile(profile.getLeetcodeUsername());
-                updatePlatformStats(profile.getLeetcodeStats(), leetcodeStats);
-            } catch (Exception e) {
-                log.error("Failed to update LeetCode stats", e);
+        return updateProfile(userId, EnumSet.allOf(Platform.class));
+    }
+
+    // Concurrent refreshes of the same user and handles share one run. The handles are part of
+    // the key: a run that started before a handle change fetches the old handle, whose results
+    // are then dropped, so a caller after the change must start its own.
+    @Override
+    public Profile updateProfile(String userId, Set<Platform> platforms) {
+        Profile profile = getProfileWithoutStats(userId);
+        return profileRefreshes.execute(refreshKey(profile, platforms),
+            () -> refreshProfile(profile, platforms, result -> { }));
+    }
+
+    // Not shared through profileRefreshes: the listener belongs to this caller. Identical
+    // upstream calls are still shared by the engine.
+    @Override
+    public Profile updateProfile(String userId, Set<Platform> platforms, Consumer<PlatformFetchResult> progress) {
+        return refreshProfile(getProfileWithoutStats(userId), platforms, progress);
+    }
+
+    private Profile refreshProfile(Profile profile, Set<Platform> platforms, Consumer<PlatformFetchResult> progress) {
+        log.info("Updating profile stats for user: {}", profile.getUserId());
+
+        // Fetch every configured platform concurrently with no transaction open
+        Map<Platform, PlatformFetchResult> results = platformRefreshEngine.fetchAll(profile, platforms, progress);
+        return applyRefresh(profile.getUserId(), results);
+    }
+
+    // The user and the handles the refresh fetches; platforms without a handle aren't fetched
+    private static String refreshKey(Profile profile, Set<Platform> platforms) {
+        Map<Platform, String> handles = new EnumMap<>(Platform.class);
+        for (Platform platform : platforms) {
+            String handle = platform.usernameOf(profile);
+            if (handle != null && !handle.trim().isEmpty()) {
+                handles.put(platform, handle.trim());
             }
         }
-        
-        if (profile.getCodeforcesUsername() != null) {
-            try {
-                PlatformStatsDTO codeforcesStats = codeforcesClient.getUserProfile(profile.getCodeforcesUsername());
-                updatePlatformStats(profile.getCodeforcesStats(), codeforcesStats);
-            } catch (Exception e) {
-                log.error("Failed to update CodeForces stats", e);
+        return profile.getUserId() + ":" + handles;
+    }
+
+    @Override
+    public Profile applyRefresh(String userId, Map<Platform, PlatformFetchResult> results) {
+        // Most refreshes find nothing new; only results whose fingerprint moved are written
+        Map<Platform, String> stored = profileStore.loadFingerprints(userId);
+        List<PlatformFetchResult> changed = new ArrayList<>();
+        Set<Platform> unchanged = EnumSet.noneOf(Platform.class);
+        Map<Platform, String> checked = new EnumMap<>(Platform.class);
+        // Handles the upstream just rejected are recorded on the profile; repeats answered by the
+        // negative cache are already there
+        List<PlatformFetchResult> handleErrors = new ArrayList<>();
+        for (PlatformFetchResult result : results.values()) {
+            if (result.isHandleError() && !result.isBackedOff()) {
+                handleErrors.add(result);
+            }
+            if (!result.isSuccess()) continue;
+            checked.put(result.getPlatform(), result.getHandle());
+            boolean same = result.isUnchanged() || fingerprint(result).equals(stored.get(result.getPlatform()));
+            if (same) {
+                unchanged.add(result.getPlatform());
+            } else {
+                changed.add(result);
+            }
+            changeRates.record(result.getPlatform(), !same);
+        }
+
+        Profile refreshed;
+        if (changed.isEmpty() && handleErrors.isEmpty()) {
+            log.debug("No changes for user {} across {} platforms, skipping write", userId, unchanged.size());
+            profileStore.markChecked(userId, unchanged);
+            refreshed = profileStore.load(userId);
+        } else {
+            // Merge the changed results into the latest row in one short write
+            refreshed = profileStore.update(userId, latest -> {
+                changed.forEach(result -> applyFetchResult(latest, result));
+                handleErrors.forEach(result -> applyHandleError(latest, result));
+                if (!changed.isEmpty()) {
+                    latest.setLastUpdated(LocalDateTime.now());
+                }
+                latest.setLastChecked(LocalDateTime.now());
+            });
+            if (!unchanged.isEmpty()) {
+                profileStore.markChecked(userId, unchanged);
             }
         }
+        // Feeds the per-handle refresh intervals the background scheduler uses
+        Set<Platform> changedPlatforms = EnumSet.noneOf(Platform.class);
+        changed.forEach(result -> changedPlatforms.add(result.getPlatform()));
+        handleRefreshStore.record(checked, changedPlatforms);
+        results.values().stream()
+            .filter(PlatformFetchResult::isSuccess)
+            .forEach(result -> recordRatings(result.getPlatform(), result.getHandle(), result.getStats()));
+
+        // Platforms that failed keep their previous stats; say so in the response
+        results.values().stream()
+            .filter(result -> !result.isSuccess())
+            .forEach(result -> result.getPlatform().markStale(refreshed));
+        return refreshed;
+    }
+
+    private static String fingerprint(PlatformFetchResult result) {
+        return result.getPlatform() == Platform.GITHUB
+            ? StatsFingerprint.of(result.getHandle(), result.getGitHubStats())
+            : StatsFingerprint.of(result.getPlatform(), result.getHandle(), result.getStats());
+    }
+
+    @Override
+    public Profile updateProfile(String userId, Profile updatedProfile) {
+        log.info("Starting profile update for user: {} with data: {}", userId, updatedProfile);
+        AtomicBoolean needsStatsUpdate = new AtomicBoolean();
+        
+        // First save to ensure usernames are updated
+        Profile savedProfile = profileStore.update(userId, existingProfile ->
+            needsStatsUpdate.set(applyProfileChanges(existingProfile, updatedProfile)));
         
-        if (profile.getCodechefUsername() != null) {
+        // If any platform username changed, update stats
+        if (needsStatsUpdate.get()) {
             try {
-                PlatformStatsDTO codechefStats = codeChefClient.getUserProfile(profile.getCodechefUsername());
-                updatePlatformStats(profile.getCodechefStats(), codechefStats);
+                return updateProfile(userId);
             } catch (Exception e) {
-                log.error("Failed to update CodeChef stats", e);
+                log.error("Error updating platform stats: {}", e.getMessage());
+                return savedProfile;
             }
         }
         
-        profile.setLastUpdated(LocalDateTime.now());
-        return profileRepository.save(profile);
+        return savedProfile;
     }
 
     @Override
-    @Transactional
-    public Profile updateProfile(String userId, Profile updatedProfile) {
-        log.info("Starting profile update for user: {} with data: {}", userId, updatedProfile);
-        Profile existingProfile = getProfile(userId);
-        
+    public Profile saveProfile(String userId, Profile updatedProfile) {
+        log.info("Saving profile changes for user: {}", userId);
+        return profileStore.update(userId, existingProfile -> applyProfileChanges(existingProfile, updatedProfile));
+    }
+
+    private boolean applyProfileChanges(Profile existingProfile, Profile updatedProfile) {
         boolean needsStatsUpdate = false;
         
         // Update basic info
@@ -141,21 +257,7 @@ public class ProfileServiceImpl implements ProfileService {
         existingProfile.setGithubUsername(updatedProfile.getGithubUsername());
         
         existingProfile.setLastUpdated(LocalDateTime.now());
-        
-        // First save to ensure usernames are updated
-        Profile savedProfile = profileRepository.save(existingProfile);
-        
-        // If any platform username changed, update stats
-        if (needsStatsUpdate) {
-            try {
-                return updateProfile(userId);
-            } catch (Exception e) {
-                log.error("Error updating platform stats: {}", e.getMessage());
-                return savedProfile;
-            }
-        }
-        
-        return savedProfile;
+        return needsStatsUpdate;
     }
 
     private void clearPlatformStats(PlatformStats stats) {
@@ -169,13 +271,49 @@ public class ProfileServiceImpl implements ProfileService {
             stats.setTopicWiseSolved(new HashMap<>());
             stats.setSubmissionCalendar("");
             stats.setAwards("");
+            stats.setFingerprint(null);
+            stats.setHandleError(null);
+            stats.setHandleErrorSince(null);
         }
     }
 
     @Override
     public void deleteProfile(String userId) {
         log.info("Deleting profile for user: {}", userId);
-        profileRepository.delete(getProfile(userId));
+        profileStore.delete(userId);
+    }
+
+    @Override
+    public RatingHistoryDTO getRatingHistory(String userId, Platform platform, LocalDate from, LocalDate to, Integer points) {
+        String handle = platform.usernameOf(getProfileWithoutStats(userId));
+        if (handle == null || handle.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, platform.getDisplayName() + " username not set");
+        }
+        long start = from != null ? from.atStartOfDay(ZoneOffset.UTC).toEpochSecond() : Long.MIN_VALUE;
+        long end = to != null ? to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond() - 1 : Long.MAX_VALUE;
+        List<RatingPoint> history = ratingHistoryStore.load(platform, handle, start, end);
+
+        // Thinned to what the chart can draw, however long the history
+        int threshold = Math.min(points != null ? points : maxRatingPoints, maxRatingPoints);
+        long[] times = new long[history.size()];
+        int[] ratings = new int[history.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = history.get(i).getTime();
+            ratings[i] = history.get(i).getRating();
+        }
+        List<RatingPoint> kept = new ArrayList<>(Math.min(threshold, history.size()));
+        for (int index : Lttb.select(times, ratings, threshold)) {
+            kept.add(history.get(index));
+        }
+        return new RatingHistoryDTO(platform.name(), handle, history.size(), kept);
+    }
+
+    @Override
+    public HeatmapDTO getHeatmap(String userId) {
+        ProfileHeatmap heatmap = profileStore.loadHeatmap(userId);
+        SubmissionCalendar calendar = heatmap.getCalendar();
+        return new HeatmapDTO(calendar.getFirstDay(), calendar.counts(), heatmap.getTotalSubmissions(),
+            heatmap.getActiveDays(), heatmap.currentStreak(LocalDate.now()), heatmap.getMaxStreak());
     }
 
     @Override
@@ -185,14 +323,15 @@ public class ProfileServiceImpl implements ProfileService {
             throw new IllegalArgumentException("LeetCode username cannot be empty");
         }
 
-        Profile profile = getProfile(userId);
-        profile.setLeetcodeUsername(username);
+        getProfileWithoutStats(userId);
         
         try {
-            PlatformStatsDTO stats = leetCodeClient.getUserProfile(username);
-            updatePlatformStats(profile.getLeetcodeStats(), stats);
-            profile.setLastUpdated(LocalDateTime.now());
-            return profileRepository.save(profile);
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.LEETCODE, username);
+            return profileStore.update(userId, profile -> {
+                profile.setLeetcodeUsername(username);
+                updatePlatformStats(profile, Platform.LEETCODE, stats);
+                profile.setLastUpdated(LocalDateTime.now());
+            });
         } catch (Exception e) {
             log.error("Failed to update LeetCode profile for user: {}", userId, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
@@ -207,14 +346,17 @@ public class ProfileServiceImpl implements ProfileService {
             throw new IllegalArgumentException("CodeForces handle cannot be empty");
         }
 
-        Profile profile = getProfile(userId);
-        profile.setCodeforcesUsername(handle);
+        getProfileWithoutStats(userId);
         
         try {
-            PlatformStatsDTO stats = codeforcesClient.getUserProfile(handle);
-            updatePlatformStats(profile.getCodeforcesStats(), stats);
-            profile.setLastUpdated(LocalDateTime.now());
-            return profileRepository.save(profile);
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.CODEFORCES, handle);
+            Profile updated = profileStore.update(userId, profile -> {
+                profile.setCodeforcesUsername(handle);
+                updatePlatformStats(profile, Platform.CODEFORCES, stats);
+                profile.setLastUpdated(LocalDateTime.now());
+            });
+            recordRatings(Platform.CODEFORCES, handle, stats);
+            return updated;
         } catch (Exception e) {
             log.error("Failed to update CodeForces profile for user: {}", userId, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
@@ -225,17 +367,20 @@ public class ProfileServiceImpl implements ProfileService {
     @Override
     public Map<String, Object> getAtCoderStats(String userId) {
         try {
-            Profile profile = getProfile(userId);
+            Profile profile = getProfileWithoutStats(userId);
             if (profile.getAtcoderUsername() == null || profile.getAtcoderUsername().trim().isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "AtCoder username not set");
             }
-            PlatformStatsDTO stats = atcoderClient.getUserProfile(profile.getAtcoderUsername());
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.ATCODER, profile.getAtcoderUsername());
             return Map.of(
                 "rating", stats.getRating(),
                 "totalQuestions", stats.getTotalQuestions(),
                 "totalContests", stats.getTotalContests(),
                 "contestRanking", stats.getContestRanking()
             );
+        } catch (PlatformUnavailableException e) {
+            log.warn("AtCoder unavailable, serving stored stats for user {}", userId);
+            return storedStats(profileStore.loadStats(userId, Platform.ATCODER));
         } catch (ResponseStatusException e) {
             throw e;
         } catch (Exception e) {
@@ -248,10 +393,15 @@ public class ProfileServiceImpl implements ProfileService {
     @Override
     public Profile updateAtCoderProfile(String userId, String username) {
         try {
-            Profile profile = getProfile(userId);
-            atcoderClient.getUserProfile(username); // Validate username exists
-            profile.setAtcoderUsername(username);
-            return profileRepository.save(profile);
+            getProfileWithoutStats(userId);
+            // The fetch validates the username; its stats are stored with it rather than thrown
+            // away, so the profile shows AtCoder stats without waiting for the next refresh
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.ATCODER, username);
+            return profileStore.update(userId, profile -> {
+                profile.setAtcoderUsername(username);
+                updatePlatformStats(profile, Platform.ATCODER, stats);
+                profile.setLastUpdated(LocalDateTime.now());
+            });
         } catch (ResponseStatusException e) {
             throw e;
         } catch (Exception e) {
@@ -264,12 +414,12 @@ public class ProfileServiceImpl implements ProfileService {
     @Override
     public Map<String, Object> getGeeksForGeeksStats(String userId) {
         try {
-            Profile profile = getProfile(userId);
+            Profile profile = getProfileWithoutStats(userId);
             if (profile.getGeeksforgeeksUsername() == null || profile.getGeeksforgeeksUsername().trim().isEmpty()) {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "GeeksForGeeks username not set");
             }
             
-            PlatformStatsDTO stats = geeksForGeeksClient.getUserProfile(profile.getGeeksforgeeksUsername());
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.GEEKSFORGEEKS, profile.getGeeksforgeeksUsername());
             
             return Map.of(
                 "totalQuestions", stats.getTotalQuestions(),
@@ -281,6 +431,9 @@ public class ProfileServiceImpl implements ProfileService {
                 "submissionCalendar", stats.getSubmissionCalendar(),
                 "awards", stats.getAwards()
             );
+        } catch (PlatformUnavailableException e) {
+            log.warn("GeeksForGeeks unavailable, serving stored stats for user {}", userId);
+            return storedStats(profileStore.loadStats(userId, Platform.GEEKSFORGEEKS));
         } catch (ResponseStatusException e) {
             throw e;
         } catch (Exception e) {
@@ -298,18 +451,18 @@ public class ProfileServiceImpl implements ProfileService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "GeeksForGeeks username cannot be empty");
         }
 
-        Profile profile = getProfile(userId);
-        if (profile == null) {
+        Profile existing = getProfileWithoutStats(userId);
+        if (existing == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found");
         }
-
-        profile.setGeeksforgeeksUsername(username);
         
         try {
-            PlatformStatsDTO stats = geeksForGeeksClient.getUserProfile(username);
-            updatePlatformStats(profile.getGeeksforgeeksStats(), stats);
-            profile.setLastUpdated(LocalDateTime.now());
-            return profileRepository.save(profile);
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.GEEKSFORGEEKS, username);
+            return profileStore.update(userId, profile -> {
+                profile.setGeeksforgeeksUsername(username);
+                updatePlatformStats(profile, Platform.GEEKSFORGEEKS, stats);
+                profile.setLastUpdated(LocalDateTime.now());
+            });
         } catch (Exception e) {
             log.error("Error updating GeeksForGeeks profile for user: {}", userId, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update GeeksForGeeks profile");
@@ -321,7 +474,7 @@ public class ProfileServiceImpl implements ProfileService {
         log.info("Fetching GitHub stats for user: {}", userId);
         
         try {
-            Profile profile = getProfile(userId);
+            Profile profile = getProfileWithoutStats(userId);
             if (profile == null) {
                 log.error("Profile not found for user ID: {}", userId);
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found");
@@ -336,7 +489,7 @@ public class ProfileServiceImpl implements ProfileService {
 
         try {
                 log.info("Fetching GitHub stats for username: {}", githubUsername);
-                GitHubStatsDTO stats = gitHubClient.getUserProfile(githubUsername);
+                GitHubStatsDTO stats = platformRefreshEngine.fetchGitHub(githubUsername);
                 
                 if (stats == null) {
                     log.error("Received null stats from GitHub client for username: {}", githubUsername);
@@ -351,6 +504,7 @@ public class ProfileServiceImpl implements ProfileService {
                 response.put("stars", stats.getTotalStars());
                 response.put("followers", stats.getFollowers());
                 response.put("following", stats.getFollowing());
+                response.put("reposTruncated", stats.isReposTruncated());
                 
                 // Contribution stats
                 response.put("totalContributions", stats.getTotalContributions());
@@ -369,6 +523,15 @@ public class ProfileServiceImpl implements ProfileService {
                 
                 log.info("Successfully fetched GitHub stats for username: {}", githubUsername);
                 return response;
+            } catch (PlatformUnavailableException e) {
+                log.warn("GitHub unavailable, serving stored stats for username: {}", githubUsername);
+                Map<String, Object> response = new HashMap<>();
+                response.put("repositories", profile.getGithubRepos());
+                response.put("stars", profile.getGithubStars());
+                response.put("followers", profile.getGithubFollowers());
+                response.put("following", profile.getGithubFollowing());
+                response.put("stale", true);
+                return response;
             } catch (Exception e) {
                 log.error("Error fetching GitHub stats from client for username {}: {}", 
                     githubUsername, e.getMessage(), e);
@@ -393,22 +556,19 @@ public class ProfileServiceImpl implements ProfileService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "GitHub username cannot be empty");
         }
 
-        Profile profile = getProfile(userId);
-        if (profile == null) {
+        Profile existing = getProfileWithoutStats(userId);
+        if (existing == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found");
         }
-
-        profile.setGithubUsername(username);
         
         try {
-            GitHubStatsDTO stats = gitHubClient.getUserProfile(username);
-            // Update GitHub stats directly on profile
-            profile.setGithubRepos(stats.getPublicRepos());
-            profile.setGithubStars(stats.getTotalStars());
-            profile.setGithubFollowers(stats.getFollowers());
-            profile.setGithubFollowing(stats.getFollowing());
-            profile.setLastUpdated(LocalDateTime.now());
-            return profileRepository.save(profile);
+            GitHubStatsDTO stats = platformRefreshEngine.fetchGitHub(username);
+            return profileStore.update(userId, profile -> {
+                profile.setGithubUsername(username);
+                // Update GitHub stats directly on profile
+                applyGitHubStats(profile, stats);
+                profile.setLastUpdated(LocalDateTime.now());
+            });
         } catch (Exception e) {
             log.error("Error updating GitHub profile for user: {}", userId, e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to update GitHub profile");
@@ -416,28 +576,27 @@ public class ProfileServiceImpl implements ProfileService {
     }
 
     @Override
-    @Transactional
     public Profile updateCodeChefProfile(String userId, String username) {
         log.info("Updating CodeChef profile for user: {} with new username: {}", userId, username);
         if (username == null || username.trim().isEmpty()) {
             throw new IllegalArgumentException("CodeChef username cannot be empty");
         }
 
-        Profile profile = getProfile(userId);
-        
-        // Clear old stats
-        clearPlatformStats(profile.getCodechefStats());
-        
-        // Set new username and save
-        profile.setCodechefUsername(username);
-        profile = profileRepository.save(profile);
+        // Clear old stats, set new username and save
+        profileStore.update(userId, profile -> {
+            clearPlatformStats(profile.getCodechefStats());
+            profile.setCodechefUsername(username);
+        });
         
         try {
             // Fetch and update stats for new username
-            PlatformStatsDTO stats = codeChefClient.getUserProfile(username);
-            updatePlatformStats(profile.getCodechefStats(), stats);
-            profile.setLastUpdated(LocalDateTime.now());
-            return profileRepository.save(profile);
+            PlatformStatsDTO stats = platformRefreshEngine.fetchStats(Platform.CODECHEF, username);
+            Profile updated = profileStore.update(userId, profile -> {
+                updatePlatformStats(profile, Platform.CODECHEF, stats);
+                profile.setLastUpdated(LocalDateTime.now());
+            });
+            recordRatings(Platform.CODECHEF, username, stats);
+            return updated;
         } catch (Exception e) {
             log.error("Failed to update CodeChef profile for user: {} with error: {}", userId, e.getMessage(), e);
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
@@ -445,8 +604,65 @@ public class ProfileServiceImpl implements ProfileService {
         }
     }
 
-    private void updatePlatformStats(PlatformStats target, PlatformStatsDTO source) {
+    // Last-known-good stats from the database, used while the platform's circuit is open
+    private Map<String, Object> storedStats(PlatformStats stats) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("totalQuestions", stats.getTotalQuestions());
+        response.put("rating", stats.getRating());
+        response.put("totalContests", stats.getTotalContests());
+        response.put("contestRanking", stats.getContestRanking());
+        response.put("totalActiveDays", stats.getTotalActiveDays());
+        response.put("difficultyWiseSolved", stats.getDifficultyWiseSolved());
+        response.put("topicWiseSolved", stats.getTopicWiseSolved());
+        response.put("submissionCalendar", stats.getSubmissionCalendar());
+        response.put("awards", stats.getAwards());
+        response.put("stale", true);
+        return response;
+    }
+
+    private void applyFetchResult(Profile profile, PlatformFetchResult result) {
+        if (!result.isSuccess()) return;
+        // The username may have changed while we were fetching; don't store stats for the old one
+        if (!Objects.equals(result.getHandle(), result.getPlatform().usernameOf(profile))) return;
+        
+        if (result.getPlatform() == Platform.GITHUB) {
+            applyGitHubStats(profile, result.getGitHubStats());
+        } else {
+            updatePlatformStats(profile, result.getPlatform(), result.getStats());
+        }
+    }
+
+    // Platforms that report no rating history leave it null
+    private void recordRatings(Platform platform, String handle, PlatformStatsDTO stats) {
+        if (stats != null && stats.getRatingHistory() != null) {
+            ratingHistoryStore.append(platform, handle, stats.getRatingHistory());
+        }
+    }
+
+    private void applyHandleError(Profile profile, PlatformFetchResult result) {
+        if (Objects.equals(result.getHandle(), result.getPlatform().usernameOf(profile))) {
+            result.getPlatform().recordHandleError(profile, result.getError());
+        }
+    }
+
+    private void applyGitHubStats(Profile profile, GitHubStatsDTO stats) {
+        profile.setGithubFingerprint(StatsFingerprint.of(profile.getGithubUsername(), stats));
+        profile.setGithubHandleError(null);
+        profile.setGithubHandleErrorSince(null);
+        profile.setGithubRepos(stats.getPublicRepos());
+        profile.setGithubStars(stats.getTotalStars());
+        profile.setGithubFollowers(stats.getFollowers());
+        profile.setGithubFollowing(stats.getFollowing());
+        profile.setGithubCalendar(stats.toSubmissionCalendar().toJson());
+    }
+
+    private void updatePlatformStats(Profile profile, Platform platform, PlatformStatsDTO source) {
         if (source == null) return;
+        PlatformStats target = platform.statsOf(profile);
+        target.setFingerprint(StatsFingerprint.of(platform, platform.usernameOf(profile), source));
+        target.setCheckedAt(LocalDateTime.now());
+        target.setHandleError(null);
+        target.setHandleErrorSince(null);
         
         target.setTotalQuestions(source.getTotalQuestions());
         target.setTotalActiveDays(source.getTotalActiveDays());
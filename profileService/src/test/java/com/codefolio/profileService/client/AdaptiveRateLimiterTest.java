@@ -0,0 +1,102 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveRateLimiterTest {
+
+    // Refills one token every 1000 s, so nothing refills while a test runs
+    private static AdaptiveRateLimiter limiter(double burst, int maxQueued) {
+        return new AdaptiveRateLimiter(Platform.LEETCODE, 0.001, burst, maxQueued, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void burstIsServedWithoutWaiting() {
+        AdaptiveRateLimiter limiter = limiter(3, 10);
+
+        assertTrue(limiter.acquire(2, Runnable::run).isDone());
+        assertTrue(limiter.acquire(1, Runnable::run).isDone());
+        assertFalse(limiter.acquire(1, Runnable::run).isDone());
+        assertEquals(1, limiter.waitingCount());
+    }
+
+    @Test
+    void fullQueueRejectsAndRefunds() {
+        AdaptiveRateLimiter limiter = limiter(1, 1);
+        limiter.acquire(1, Runnable::run);
+        CompletableFuture<Void> queued = limiter.acquire(1, Runnable::run);
+
+        CompletableFuture<Void> rejected = limiter.acquire(1, Runnable::run);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(1, limiter.waitingCount());
+        assertFalse(queued.isDone());
+        // The rejected caller's token went back: only the queued caller is still in debt
+        assertEquals(-1, limiter.availablePermits(), 0.01);
+    }
+
+    @Test
+    void cancelledReservationGivesItsPermitsBack() {
+        AdaptiveRateLimiter limiter = limiter(1, 10);
+        limiter.acquire(1, Runnable::run);
+        CompletableFuture<Void> queued = limiter.acquire(2, Runnable::run);
+        assertEquals(-2, limiter.availablePermits(), 0.01);
+
+        queued.cancel(true);
+
+        assertEquals(0, limiter.waitingCount());
+        assertEquals(0, limiter.availablePermits(), 0.01);
+    }
+
+    @Test
+    void throttlingHalvesTheRateDownToAFloorAndSuccessRecoversIt() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(Platform.LEETCODE, 16, 16, 10, new SimpleMeterRegistry());
+
+        limiter.onThrottled(null);
+        assertEquals(8, limiter.currentRate(), 0.001);
+        for (int i = 0; i < 10; i++) {
+            limiter.onThrottled(null);
+        }
+        assertEquals(1, limiter.currentRate(), 0.001);
+
+        limiter.onSuccess();
+        assertEquals(1.8, limiter.currentRate(), 0.001);
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess();
+        }
+        assertEquals(16, limiter.currentRate(), 0.001);
+    }
+
+    @Test
+    void retryAfterHoldsEveryCallerBack() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(Platform.LEETCODE, 100, 100, 10, new SimpleMeterRegistry());
+
+        limiter.onThrottled(Duration.ofSeconds(30));
+
+        assertEquals(0, limiter.availablePermits(), 0.01);
+        long waitNanos = limiter.reserve(1);
+        assertTrue(waitNanos > TimeUnit.SECONDS.toNanos(29), "waits " + waitNanos + " ns");
+    }
+
+    @Test
+    void acquireBlockingRethrowsARejection() {
+        AdaptiveRateLimiter limiter = limiter(1, 0);
+        limiter.acquireBlocking(1);
+
+        assertThrows(RejectedExecutionException.class, () -> limiter.acquireBlocking(1));
+    }
+}
@@ -0,0 +1,88 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.client.CircuitBreaker.State;
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static CircuitBreaker breaker(Duration open) {
+        return new CircuitBreaker(Platform.LEETCODE, 3, open, 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresOnly() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertTrue(breaker.isDegraded());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void halfOpenClosesOnceEveryTrialSucceeds() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedTrialReopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    // A trial turned away before reaching the upstream frees its slot without counting
+    @Test
+    void releasedTrialFreesItsSlot() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker();
+        Thread.sleep(30);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.release();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+    }
+
+    private static CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(20));
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(State.OPEN, breaker.getState());
+        return breaker;
+    }
+}
@@ -0,0 +1,138 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.CodeforcesSyncState;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.service.CodeforcesSyncStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class CodeforcesClientTest {
+
+    private static final String NOT_FOUND_BODY =
+        "{\"status\":\"FAILED\",\"comment\":\"handles: User with handle nobody not found\"}";
+
+    // 100 accepted submissions, newest first, from id `from` down
+    private static String statusPage(int from) {
+        StringBuilder page = new StringBuilder("{\"status\":\"OK\",\"result\":[");
+        for (int id = from; id > from - 100; id--) {
+            page.append(id == from ? "" : ",").append(String.format("{\"id\":%d,\"contestId\":1,"
+                + "\"creationTimeSeconds\":1704067200,\"problem\":{\"contestId\":1,\"index\":\"A%d\",\"tags\":[]},"
+                + "\"verdict\":\"OK\"}", id, id));
+        }
+        return page.append("]}").toString();
+    }
+
+    @Test
+    void unknownHandleIsNotFound() {
+        assertEquals(HttpStatus.NOT_FOUND, CodeforcesClient.clientError(400, NOT_FOUND_BODY).getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, CodeforcesClient.clientError(400,
+            "{\"status\":\"FAILED\",\"comment\":\"handle: User with handle nobody not found\"}").getStatus());
+    }
+
+    @Test
+    void otherClientErrorsAreRetryable() {
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, CodeforcesClient.clientError(403, "<html>Just a moment...</html>").getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, CodeforcesClient.clientError(401, "").getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, CodeforcesClient.clientError(408, "").getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, CodeforcesClient.clientError(400,
+            "{\"status\":\"FAILED\",\"comment\":\"count: Field should contain only digits\"}").getStatus());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, CodeforcesClient.clientError(400, "not json").getStatus());
+    }
+
+    @Test
+    void profileFetchMapsCloudflareBlockToUnavailable() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://codeforces.com/api/user.info?handles=alice"))
+            .andRespond(withStatus(HttpStatus.FORBIDDEN).contentType(MediaType.TEXT_HTML).body("<html>Just a moment...</html>"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> new CodeforcesClient(restTemplate, null, null).getUserProfile("alice"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        server.verify();
+    }
+
+    @Test
+    void profileFetchMapsUnknownHandleToNotFound() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://codeforces.com/api/user.info?handles=nobody"))
+            .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(NOT_FOUND_BODY));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> new CodeforcesClient(restTemplate, null, null).getUserProfile("nobody"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    // The engine reserves one user.status call with the fetch; the second page takes its own token
+    @Test
+    void eachExtraStatusPageTakesARateLimitToken() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("codefolio.ratelimit.codeforces.permits-per-second", "0.001")
+            .withProperty("codefolio.ratelimit.codeforces.burst", "10");
+        RateLimiterRegistry limiters = new RateLimiterRegistry(environment, new SimpleMeterRegistry());
+        CodeforcesSyncState state = new CodeforcesSyncState("alice");
+        state.setLastSubmissionId(5);
+        CodeforcesSyncStore syncStore = mock(CodeforcesSyncStore.class);
+        when(syncStore.load("alice")).thenReturn(state);
+        when(syncStore.save(any())).thenAnswer(call -> call.getArgument(0));
+
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://codeforces.com/api/user.info?handles=alice"))
+            .andRespond(withSuccess("{\"status\":\"OK\",\"result\":[{\"handle\":\"alice\",\"rating\":1500}]}",
+                MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://codeforces.com/api/user.status?handle=alice&from=1&count=100"))
+            .andRespond(withSuccess(statusPage(200), MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://codeforces.com/api/user.status?handle=alice&from=101&count=100"))
+            .andRespond(withSuccess(statusPage(100), MediaType.APPLICATION_JSON));
+        server.expect(requestTo("https://codeforces.com/api/user.rating?handle=alice"))
+            .andRespond(withSuccess("{\"status\":\"OK\",\"result\":[]}", MediaType.APPLICATION_JSON));
+
+        new CodeforcesClient(restTemplate, syncStore, limiters).getUserProfile("alice");
+
+        server.verify();
+        assertEquals(9, limiters.forPlatform(Platform.CODEFORCES).availablePermits(), 0.01);
+    }
+
+    @Test
+    void batchRejectedByCloudflareIsUnavailable() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://codeforces.com/api/user.info?handles=alice;bob"))
+            .andRespond(withStatus(HttpStatus.FORBIDDEN));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+            () -> new CodeforcesClient(restTemplate, null, null).getUserInfos(List.of("alice", "bob")));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    }
+
+    @Test
+    void batchNamingAnUnknownHandleThrowsForThatHandle() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo("https://codeforces.com/api/user.info?handles=alice;nobody"))
+            .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body(NOT_FOUND_BODY));
+
+        UnknownHandleException e = assertThrows(UnknownHandleException.class,
+            () -> new CodeforcesClient(restTemplate, null, null).getUserInfos(List.of("alice", "nobody")));
+        assertEquals("nobody", e.getHandle());
+    }
+}
@@ -0,0 +1,104 @@
+package com.codefolio.profileService.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodeforcesStatusParserTest {
+
+    // 2024-01-01T00:00:00Z
+    private static final long DAY = 1_704_067_200L;
+
+    @Test
+    void countsEveryAcceptedSubmission() throws IOException {
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(0, ZoneOffset.UTC);
+        parser.parse(page(
+            submission(5, DAY + 86_400, "OK", 100, "A", 800, "dp"),
+            submission(4, DAY, "OK", 100, "A", 800, "dp"),
+            submission(3, DAY, "WRONG_ANSWER", 100, "B", 1200, "math"),
+            submission(2, DAY, "OK", 101, "A", 1000, "math")));
+
+        Map<String, Integer> difficulty = new HashMap<>();
+        Map<String, Integer> topics = new HashMap<>();
+        Map<String, Integer> calendar = new HashMap<>();
+        parser.mergeInto(difficulty, topics, calendar);
+
+        assertEquals(3, parser.getSolved());
+        assertEquals(Map.of("800", 2, "1000", 1), difficulty);
+        assertEquals(Map.of("dp", 2, "math", 1), topics);
+        assertEquals(Map.of("2024-01-01", 2, "2024-01-02", 1), calendar);
+        assertEquals(5, parser.getHighestFolded());
+    }
+
+    @Test
+    void stopsAtTheMark() throws IOException {
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(3, ZoneOffset.UTC);
+        parser.parse(page(
+            submission(5, DAY, "OK", 100, "A", 800, "dp"),
+            submission(4, DAY, "OK", 102, "C", 1400, "graphs"),
+            submission(3, DAY, "OK", 103, "D", 1600, "trees")));
+
+        assertEquals(2, parser.getSolved());
+        assertTrue(parser.reachedMark());
+    }
+
+    @Test
+    void skipsRowsRepeatedAcrossShiftedPages() throws IOException {
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(0, ZoneOffset.UTC);
+        assertEquals(2, parser.parse(page(
+            submission(9, DAY, "OK", 100, "A", 800, "dp"),
+            submission(8, DAY, "OK", 100, "B", 900, "dp"))));
+        parser.parse(page(
+            submission(8, DAY, "OK", 100, "B", 900, "dp"),
+            submission(7, DAY, "OK", 100, "C", 1000, "dp")));
+
+        assertEquals(3, parser.getSolved());
+    }
+
+    @Test
+    void restartsWhenASubmissionIsStillBeingJudged() throws IOException {
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(0, ZoneOffset.UTC);
+        parser.parse(page(
+            submission(3, DAY, "OK", 100, "A", 800, "dp"),
+            submission(2, DAY, "TESTING", 100, "B", 900, "dp"),
+            submission(1, DAY, "OK", 100, "C", 1000, "dp")));
+
+        assertEquals(1, parser.getSolved());
+        assertEquals(1, parser.getHighestFolded());
+    }
+
+    @Test
+    void failedResponseIsUnavailable() {
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(0, ZoneOffset.UTC);
+        assertThrows(ResponseStatusException.class,
+            () -> parser.parse(stream("{\"status\":\"FAILED\",\"comment\":\"handle: not found\"}")));
+        assertFalse(parser.reachedMark());
+    }
+
+    private static ByteArrayInputStream page(String... submissions) {
+        return stream("{\"status\":\"OK\",\"result\":[" + String.join(",", submissions) + "]}");
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String submission(long id, long createdAt, String verdict, int contestId, String index,
+                                     int rating, String tag) {
+        return String.format("{\"id\":%d,\"contestId\":%d,\"creationTimeSeconds\":%d,"
+                + "\"problem\":{\"contestId\":%d,\"index\":\"%s\",\"name\":\"P\",\"rating\":%d,\"tags\":[\"%s\"]},"
+                + "\"verdict\":\"%s\"}",
+            id, contestId, createdAt, contestId, index, rating, tag, verdict);
+    }
+}
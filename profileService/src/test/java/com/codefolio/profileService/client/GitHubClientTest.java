@@ -0,0 +1,73 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.model.GitHubAggregate;
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class GitHubClientTest {
+
+    private static final String VIEWER = "{\"data\":{\"viewer\":{\"login\":\"codefolio\"}}}";
+
+    private static String profilePage(String repoId, String nextCursor) {
+        String contributions = nextCursor == null ? "" : ",\"contributionsCollection\":{"
+            + "\"totalCommitContributions\":1,\"totalIssueContributions\":0,\"totalPullRequestContributions\":0,"
+            + "\"contributionCalendar\":{\"totalContributions\":1,\"weeks\":[]}}";
+        return "{\"data\":{\"rateLimit\":{\"cost\":1,\"remaining\":4999},\"user\":{"
+            + "\"followers\":{\"totalCount\":0},\"following\":{\"totalCount\":0},"
+            + "\"repositories\":{\"totalCount\":2,"
+            + "\"pageInfo\":{\"hasNextPage\":" + (nextCursor != null) + ",\"endCursor\":"
+            + (nextCursor == null ? "null" : "\"" + nextCursor + "\"") + "},"
+            + "\"nodes\":[{\"id\":\"" + repoId + "\",\"stargazerCount\":1,\"pushedAt\":\"2024-01-01T00:00:00Z\"}]}"
+            + contributions + "}}}";
+    }
+
+    // The engine reserves the first profile page with the fetch; the second page and the
+    // language batch take a token each
+    @Test
+    void eachExtraRequestTakesARateLimitToken() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("codefolio.ratelimit.github.permits-per-second", "0.001")
+            .withProperty("codefolio.ratelimit.github.burst", "10");
+        RateLimiterRegistry limiters = new RateLimiterRegistry(environment, new SimpleMeterRegistry());
+        GitHubRepoCache repoCache = mock(GitHubRepoCache.class);
+        when(repoCache.changedRepos(eq("alice"), any())).thenReturn(List.of("R1", "R2"));
+        when(repoCache.merge(eq("alice"), any(), anyMap(), anyBoolean())).thenReturn(new GitHubAggregate("alice"));
+
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        server.expect(requestTo(GitHubClient.GITHUB_GRAPHQL_URL))
+            .andRespond(withSuccess(VIEWER, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(GitHubClient.GITHUB_GRAPHQL_URL))
+            .andExpect(jsonPath("$.variables.firstPage").value(true))
+            .andRespond(withSuccess(profilePage("R1", "c1"), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(GitHubClient.GITHUB_GRAPHQL_URL))
+            .andExpect(jsonPath("$.variables.cursor").value("c1"))
+            .andRespond(withSuccess(profilePage("R2", null), MediaType.APPLICATION_JSON));
+        server.expect(requestTo(GitHubClient.GITHUB_GRAPHQL_URL))
+            .andExpect(jsonPath("$.variables.ids.length()").value(2))
+            .andRespond(withSuccess("{\"data\":{\"nodes\":[]}}", MediaType.APPLICATION_JSON));
+
+        new GitHubClient("token", restTemplate, limiters, repoCache, new SimpleMeterRegistry()).getUserProfile("alice");
+
+        server.verify();
+        assertEquals(8, limiters.forPlatform(Platform.GITHUB).availablePermits(), 0.01);
+    }
+}
@@ -0,0 +1,83 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LeetCodeProfileParserTest {
+
+    private static final String USER = "{\"submitStats\":{\"acSubmissionNum\":["
+        + "{\"difficulty\":\"All\",\"count\":12},{\"difficulty\":\"Easy\",\"count\":7},{\"difficulty\":\"Medium\",\"count\":5}]},"
+        + "\"tagProblemCounts\":{\"advanced\":[{\"tagName\":\"Dynamic Programming\",\"problemsSolved\":3},"
+        + "{\"tagName\":\"Trie\",\"problemsSolved\":0}]},"
+        + "\"profile\":{\"ranking\":4321},"
+        + "\"userCalendar\":{\"totalActiveDays\":9,\"submissionCalendar\":\"{\\\"1704067200\\\": 2}\"}}";
+
+    @Test
+    void readsProfile() throws IOException {
+        PlatformStatsDTO stats = LeetCodeProfileParser.parse(stream(
+            "{\"data\":{\"matchedUser\":" + USER + ",\"userContestRanking\":null}}"), "alice");
+
+        assertEquals(12, stats.getTotalQuestions());
+        assertEquals(Map.of("easy", 7, "medium", 5), stats.getDifficultyWiseSolved());
+        assertEquals(Map.of("Dynamic Programming", 3), stats.getTopicWiseSolved());
+        assertEquals(4321, stats.getContestRanking());
+        assertEquals(9, stats.getTotalActiveDays());
+        assertEquals("{\"1704067200\": 2}", stats.getSubmissionCalendar());
+    }
+
+    @Test
+    void unknownUserIsBadRequest() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> LeetCodeProfileParser.parse(stream(
+            "{\"errors\":[{\"message\":\"That user does not exist.\",\"path\":[\"matchedUser\"]}],"
+                + "\"data\":{\"matchedUser\":null}}"), "nobody"));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    @Test
+    void otherErrorsAreRetryable() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> LeetCodeProfileParser.parse(stream(
+            "{\"errors\":[{\"message\":\"Too many requests\",\"path\":[\"matchedUser\"]}],"
+                + "\"data\":{\"matchedUser\":null}}"), "alice"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    }
+
+    @Test
+    void nullUserWithoutErrorsIsNotFound() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> LeetCodeProfileParser.parse(stream(
+            "{\"data\":{\"matchedUser\":null}}"), "nobody"));
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatus());
+    }
+
+    @Test
+    void batchLeavesOutUnknownUsers() throws IOException {
+        Map<String, PlatformStatsDTO> stats = LeetCodeProfileParser.parseBatch(stream(
+            "{\"errors\":[{\"message\":\"That user does not exist.\",\"path\":[\"u1\"]}],"
+                + "\"data\":{\"u0\":" + USER + ",\"c0\":null,\"u1\":null,\"c1\":null}}"), List.of("alice", "nobody"));
+
+        assertEquals(List.of("alice"), List.copyOf(stats.keySet()));
+        assertEquals(12, stats.get("alice").getTotalQuestions());
+    }
+
+    @Test
+    void batchFailsWholeOnOtherErrors() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> LeetCodeProfileParser.parseBatch(stream(
+            "{\"errors\":[{\"message\":\"Internal server error\",\"path\":[\"u1\"]}],"
+                + "\"data\":{\"u0\":" + USER + ",\"c0\":null,\"u1\":null,\"c1\":null}}"), List.of("alice", "bob")));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
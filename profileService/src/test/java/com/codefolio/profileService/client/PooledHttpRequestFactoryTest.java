@@ -0,0 +1,86 @@
+package com.codefolio.profileService.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledHttpRequestFactoryTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private PooledHttpRequestFactory factory;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/fast", exchange -> {
+            byte[] body = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // Sends the headers and the start of the body, then stalls
+        server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write("{\"status\":".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        factory = new PooledHttpRequestFactory(HttpClient.newHttpClient(), Duration.ofMillis(300), Duration.ofSeconds(1), 2);
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void readsACompleteBody() throws IOException {
+        try (ClientHttpResponse response = factory.createRequest(uri("/fast"), HttpMethod.GET).execute()) {
+            assertEquals(200, response.getRawStatusCode());
+            assertEquals("{\"status\":\"OK\"}", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void stalledBodyTimesOut() throws IOException {
+        long start = System.nanoTime();
+        try (ClientHttpResponse response = factory.createRequest(uri("/stalled"), HttpMethod.GET).execute()) {
+            InputStream body = response.getBody();
+            assertThrows(SocketTimeoutException.class, body::readAllBytes);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+}
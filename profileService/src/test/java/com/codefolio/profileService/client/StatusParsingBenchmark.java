@@ -0,0 +1,218 @@
+package com.codefolio.profileService.client;
+
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+// Compares the streaming parsers against the org.json tree parsing they replaced, on synthetic
+// payloads. Not a unit test; run with:
+//   mvn -q test-compile && java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//       com.codefolio.profileService.client.StatusParsingBenchmark [submissions]
+public class StatusParsingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 30;
+    private static final String[] TAGS = {"dp", "greedy", "math", "graphs", "implementation", "strings",
+        "binary search", "trees", "number theory", "constructive algorithms"};
+    private static final String[] VERDICTS = {"OK", "OK", "WRONG_ANSWER", "TIME_LIMIT_EXCEEDED", "OK"};
+
+    public static void main(String[] args) throws Exception {
+        int submissions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        byte[] status = codeforcesStatus(submissions);
+        byte[] leetcode = leetCodeProfile();
+
+        System.out.printf("Codeforces user.status: %d submissions, %.1f MB%n", submissions, status.length / 1e6);
+        compare("org.json tree", () -> orgJsonStatus(status), "streaming", () -> streamingStatus(status));
+
+        System.out.printf("%nLeetCode profile: %.1f KB%n", leetcode.length / 1e3);
+        compare("org.json tree", () -> orgJsonLeetCode(leetcode), "streaming", () -> streamingLeetCode(leetcode));
+    }
+
+    // --- Codeforces ---------------------------------------------------------------------------
+
+    // The aggregation CodeforcesClient performed before streaming
+    static int orgJsonStatus(byte[] body) {
+        JSONObject userStatus = new JSONObject(new String(body, StandardCharsets.UTF_8));
+        JSONArray submissions = userStatus.getJSONArray("result");
+        Map<String, Integer> difficultyMap = new HashMap<>();
+        Map<String, Integer> topicMap = new HashMap<>();
+        Map<String, Integer> submissionDates = new HashMap<>();
+        int totalSolved = 0;
+        for (int i = 0; i < submissions.length(); i++) {
+            JSONObject submission = submissions.getJSONObject(i);
+            if ("OK".equals(submission.getString("verdict"))) {
+                totalSolved++;
+                JSONObject problem = submission.getJSONObject("problem");
+                difficultyMap.merge(String.valueOf(problem.optInt("rating", 0)), 1, Integer::sum);
+                JSONArray tags = problem.getJSONArray("tags");
+                for (int j = 0; j < tags.length(); j++) {
+                    topicMap.merge(tags.getString(j), 1, Integer::sum);
+                }
+                String date = new java.text.SimpleDateFormat("yyyy-MM-dd")
+                    .format(new java.util.Date(submission.getLong("creationTimeSeconds") * 1000));
+                submissionDates.merge(date, 1, Integer::sum);
+            }
+        }
+        return totalSolved + submissionDates.size() + topicMap.size() + difficultyMap.size();
+    }
+
+    static int streamingStatus(byte[] body) throws Exception {
+        CodeforcesStatusParser parser = new CodeforcesStatusParser(0, ZoneId.systemDefault());
+        parser.parse(new ByteArrayInputStream(body));
+        Map<String, Integer> difficulty = new HashMap<>();
+        Map<String, Integer> topics = new HashMap<>();
+        Map<String, Integer> calendar = new HashMap<>();
+        parser.mergeInto(difficulty, topics, calendar);
+        return parser.getSolved() + calendar.size() + topics.size() + difficulty.size();
+    }
+
+    static byte[] codeforcesStatus(int count) {
+        Random random = new Random(42);
+        StringBuilder json = new StringBuilder(count * 420).append("{\"status\":\"OK\",\"result\":[");
+        long time = 1_700_000_000L;
+        for (int i = 0; i < count; i++) {
+            time -= random.nextInt(20_000);
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(300_000_000L - i)
+                .append(",\"contestId\":").append(1800 + random.nextInt(200))
+                .append(",\"creationTimeSeconds\":").append(time)
+                .append(",\"relativeTimeSeconds\":2147483647,\"problem\":{\"contestId\":1850,\"index\":\"C\",")
+                .append("\"name\":\"Synthetic Problem ").append(i).append("\",\"type\":\"PROGRAMMING\",")
+                .append("\"rating\":").append(800 + 100 * random.nextInt(20)).append(",\"tags\":[");
+            int tagCount = 1 + random.nextInt(3);
+            for (int t = 0; t < tagCount; t++) {
+                json.append(t > 0 ? "," : "").append('"').append(TAGS[random.nextInt(TAGS.length)]).append('"');
+            }
+            json.append("]},\"author\":{\"contestId\":1850,\"members\":[{\"handle\":\"tourist\"}],")
+                .append("\"participantType\":\"CONTESTANT\",\"ghost\":false,\"startTimeSeconds\":1690000000},")
+                .append("\"programmingLanguage\":\"GNU C++20 (64)\",\"verdict\":\"")
+                .append(VERDICTS[random.nextInt(VERDICTS.length)])
+                .append("\",\"testset\":\"TESTS\",\"passedTestCount\":12,\"timeConsumedMillis\":46,")
+                .append("\"memoryConsumedBytes\":102400}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // --- LeetCode -----------------------------------------------------------------------------
+
+    // The parts of the previous LeetCodeClient parsing that touch the payload
+    static int orgJsonLeetCode(byte[] body) {
+        JSONObject data = new JSONObject(new String(body, StandardCharsets.UTF_8)).getJSONObject("data");
+        JSONObject userData = data.getJSONObject("matchedUser");
+        JSONArray ac = userData.getJSONObject("submitStats").getJSONArray("acSubmissionNum");
+        Map<String, Integer> difficultyWise = new HashMap<>();
+        for (int i = 0; i < ac.length(); i++) {
+            String difficulty = ac.getJSONObject(i).getString("difficulty").toLowerCase();
+            if (!difficulty.equals("all")) {
+                difficultyWise.put(difficulty, ac.getJSONObject(i).getInt("count"));
+            }
+        }
+        JSONArray tags = userData.getJSONObject("tagProblemCounts").getJSONArray("advanced");
+        Map<String, Integer> topicWise = new HashMap<>();
+        for (int i = 0; i < tags.length(); i++) {
+            int solved = tags.getJSONObject(i).getInt("problemsSolved");
+            if (solved > 0) {
+                topicWise.put(tags.getJSONObject(i).getString("tagName"), solved);
+            }
+        }
+        String calendar = userData.getJSONObject("userCalendar").optString("submissionCalendar", "{}");
+        JSONArray badges = userData.getJSONArray("badges");
+        JSONArray awards = new JSONArray();
+        for (int i = 0; i < badges.length(); i++) {
+            JSONObject badge = badges.getJSONObject(i);
+            JSONObject award = new JSONObject().put("name", badge.getString("name"));
+            if (!badge.optString("icon", "").isEmpty()) {
+                award.put("icon", badge.getString("icon"));
+            }
+            awards.put(award);
+        }
+        return difficultyWise.size() + topicWise.size() + calendar.length() + awards.toString().length();
+    }
+
+    static int streamingLeetCode(byte[] body) throws Exception {
+        PlatformStatsDTO stats = LeetCodeProfileParser.parse(new ByteArrayInputStream(body), "bench");
+        return stats.getDifficultyWiseSolved().size() + stats.getTopicWiseSolved().size()
+            + stats.getSubmissionCalendar().length() + stats.getAwards().length();
+    }
+
+    static byte[] leetCodeProfile() {
+        Random random = new Random(7);
+        StringBuilder calendar = new StringBuilder("{");
+        long day = 1_672_531_200L;
+        for (int i = 0; i < 365; i++, day += 86_400) {
+            calendar.append(i > 0 ? ", " : "").append("\\\"").append(day).append("\\\": ").append(1 + random.nextInt(9));
+        }
+        calendar.append('}');
+        StringBuilder tags = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            tags.append(i > 0 ? "," : "").append("{\"tagName\":\"Tag ").append(i).append("\",\"tagSlug\":\"tag-")
+                .append(i).append("\",\"problemsSolved\":").append(random.nextInt(50)).append('}');
+        }
+        StringBuilder badges = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            badges.append(i > 0 ? "," : "").append("{\"id\":\"").append(i).append("\",\"name\":\"Badge ").append(i)
+                .append("\",\"icon\":\"https://assets.leetcode.com/static_assets/marketing/").append(i).append(".png\"}");
+        }
+        String json = "{\"data\":{\"matchedUser\":{\"submitStats\":{\"acSubmissionNum\":["
+            + "{\"difficulty\":\"All\",\"count\":812},{\"difficulty\":\"Easy\",\"count\":300},"
+            + "{\"difficulty\":\"Medium\",\"count\":402},{\"difficulty\":\"Hard\",\"count\":110}],"
+            + "\"totalSubmissionNum\":[{\"difficulty\":\"All\",\"count\":1500}]},"
+            + "\"profile\":{\"ranking\":12345,\"reputation\":10,\"starRating\":4.5},"
+            + "\"tagProblemCounts\":{\"advanced\":[" + tags + "]},"
+            + "\"userCalendar\":{\"activeYears\":[2023],\"streak\":30,\"totalActiveDays\":365,"
+            + "\"submissionCalendar\":\"" + calendar + "\"},"
+            + "\"badges\":[" + badges + "]},"
+            + "\"userContestRanking\":{\"rating\":1987.34,\"globalRanking\":4567,\"totalParticipants\":500000,"
+            + "\"attendedContestsCount\":42,\"topPercentage\":3.1,\"badge\":null}}}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // --- harness ------------------------------------------------------------------------------
+
+    @FunctionalInterface
+    interface Workload {
+        int run() throws Exception;
+    }
+
+    static void compare(String baselineName, Workload baseline, String candidateName, Workload candidate) throws Exception {
+        if (baseline.run() != candidate.run()) {
+            System.out.println("  WARNING: results differ between implementations");
+        }
+        double[] base = measure(baseline);
+        double[] cand = measure(candidate);
+        System.out.printf("  %-14s %8.2f ms/op %10.1f MB allocated/op%n", baselineName, base[0], base[1]);
+        System.out.printf("  %-14s %8.2f ms/op %10.1f MB allocated/op%n", candidateName, cand[0], cand[1]);
+        System.out.printf("  speedup %.1fx, allocation reduced %.1fx%n", base[0] / cand[0], base[1] / cand[1]);
+    }
+
+    // Average wall time and bytes allocated by this thread per run
+    static double[] measure(Workload workload) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += workload.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += workload.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return new double[] {elapsed / 1e6 / MEASURED_ROUNDS, allocated / 1e6 / MEASURED_ROUNDS};
+    }
+}
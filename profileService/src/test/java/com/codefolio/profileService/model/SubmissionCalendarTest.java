@@ -0,0 +1,112 @@
+package com.codefolio.profileService.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SubmissionCalendarTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void mergeSumsOverlappingDaysAndSpansBoth() {
+        SubmissionCalendar a = calendar(Map.of(0, 2, 1, 1));
+        SubmissionCalendar b = calendar(Map.of(1, 3, 4, 1));
+
+        SubmissionCalendar merged = a.merge(b);
+
+        assertEquals(JAN_1, merged.getFirstDay());
+        assertArrayEquals(new int[] {2, 4, 0, 0, 1}, merged.counts());
+        assertEquals(7, merged.totalSubmissions());
+        assertEquals(SubmissionCalendar.KeyStyle.DATE, merged.getKeyStyle());
+    }
+
+    @Test
+    void mergeWithEmptyCalendars() {
+        SubmissionCalendar a = calendar(Map.of(0, 2));
+        SubmissionCalendar empty = SubmissionCalendar.empty(SubmissionCalendar.KeyStyle.EPOCH_SECONDS);
+
+        assertSame(a, a.merge(empty));
+        assertSame(a, a.merge(null));
+        SubmissionCalendar fromEmpty = empty.merge(a);
+        assertArrayEquals(a.counts(), fromEmpty.counts());
+        assertEquals(a.getFirstDay(), fromEmpty.getFirstDay());
+        assertEquals(SubmissionCalendar.KeyStyle.EPOCH_SECONDS, fromEmpty.getKeyStyle());
+    }
+
+    @Test
+    void subtractFloorsAtZeroAndTrims() {
+        SubmissionCalendar merged = calendar(Map.of(0, 1, 1, 3, 2, 2, 3, 1));
+        SubmissionCalendar old = calendar(Map.of(0, 5, 1, 1, 3, 4));
+
+        SubmissionCalendar remaining = merged.subtract(old);
+
+        assertEquals(JAN_1.plusDays(1), remaining.getFirstDay());
+        assertArrayEquals(new int[] {2, 2}, remaining.counts());
+    }
+
+    @Test
+    void subtractingEverythingLeavesAnEmptyCalendar() {
+        SubmissionCalendar a = calendar(Map.of(0, 1, 2, 1));
+
+        SubmissionCalendar remaining = a.subtract(a);
+
+        assertEquals(0, remaining.getDays());
+        assertNull(remaining.getFirstDay());
+        assertNull(remaining.lastActiveDay());
+        assertEquals(0, remaining.trailingStreak());
+        assertSame(a, a.subtract(SubmissionCalendar.empty(SubmissionCalendar.KeyStyle.DATE)));
+    }
+
+    @Test
+    void streaksAcrossGaps() {
+        // Active Jan 1-3, idle Jan 4-5, active Jan 6-7
+        SubmissionCalendar a = calendar(Map.of(0, 1, 1, 1, 2, 1, 5, 2, 6, 1));
+
+        assertEquals(3, a.maxStreak());
+        assertEquals(2, a.trailingStreak());
+        assertEquals(5, a.activeDays());
+        assertEquals(JAN_1.plusDays(6), a.lastActiveDay());
+        assertEquals(2, a.currentStreak(JAN_1.plusDays(6)));
+        assertEquals(2, a.currentStreak(JAN_1.plusDays(7)));
+        assertEquals(0, a.currentStreak(JAN_1.plusDays(8)));
+        assertEquals(0, a.currentStreak(JAN_1.plusDays(4)));
+    }
+
+    @Test
+    void emptyCalendarHasNoActivity() {
+        SubmissionCalendar empty = SubmissionCalendar.empty(SubmissionCalendar.KeyStyle.DATE);
+
+        assertEquals(0, empty.maxStreak());
+        assertEquals(0, empty.trailingStreak());
+        assertEquals(0, empty.currentStreak(JAN_1));
+        assertEquals(0, empty.countOn(JAN_1));
+        assertNull(empty.lastActiveDay());
+        assertEquals("{}", empty.toJson());
+    }
+
+    @Test
+    void jsonAndBinaryRoundTripKeepTheKeyStyle() {
+        SubmissionCalendar leetCode = SubmissionCalendar.fromJson("{\"1704067200\": 2, \"1704240000\": 1}");
+
+        assertEquals(SubmissionCalendar.KeyStyle.EPOCH_SECONDS, leetCode.getKeyStyle());
+        assertArrayEquals(new int[] {2, 0, 1}, leetCode.counts());
+        assertEquals("{\"1704067200\":2,\"1704240000\":1}", leetCode.toJson());
+        assertEquals(leetCode, SubmissionCalendar.decode(leetCode.encode()));
+        assertEquals("{\"2024-01-01\":3}", SubmissionCalendar.fromJson("{\"2024-1-1\": 3, \"bad\": 4}").toJson());
+        assertNull(SubmissionCalendar.fromJson(" "));
+    }
+
+    private static SubmissionCalendar calendar(Map<Integer, Integer> countsByDayAfterJan1) {
+        Map<Long, Integer> days = new HashMap<>();
+        countsByDayAfterJan1.forEach((offset, count) -> days.put(JAN_1.toEpochDay() + offset, count));
+        return SubmissionCalendar.of(SubmissionCalendar.KeyStyle.DATE, days);
+    }
+}
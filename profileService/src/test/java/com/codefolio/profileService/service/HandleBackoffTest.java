@@ -0,0 +1,75 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.HandleBackoffException;
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Without a repository every failure stays in memory, as it does when the row write fails
+class HandleBackoffTest {
+
+    private static final long BASE_MS = 60_000;
+    private static final long MAX_MS = 200_000;
+
+    private final HandleBackoff backoff = new HandleBackoff(null, null, new SimpleMeterRegistry(), BASE_MS, MAX_MS);
+
+    @Test
+    void eachFailedLookupDoublesTheBackoffUpToTheCap() {
+        ResponseStatusException notFound = new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+
+        backoff.record(Platform.LEETCODE, "ghost", notFound);
+        assertRemaining(BASE_MS);
+        backoff.record(Platform.LEETCODE, "ghost", notFound);
+        assertRemaining(2 * BASE_MS);
+        backoff.record(Platform.LEETCODE, "ghost", notFound);
+        assertRemaining(MAX_MS);
+    }
+
+    @Test
+    void blockedLookupCarriesTheStoredError() {
+        backoff.record(Platform.LEETCODE, "ghost", new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        HandleBackoffException blocked = backoff.blocked(Platform.LEETCODE, " GHOST ");
+
+        assertEquals(HttpStatus.NOT_FOUND, blocked.getStatus());
+        assertEquals("User not found", blocked.getReason());
+        assertNull(backoff.blocked(Platform.CODEFORCES, "ghost"));
+    }
+
+    @Test
+    void successClearsTheBackoff() {
+        backoff.record(Platform.LEETCODE, "ghost", new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        backoff.record(Platform.LEETCODE, "ghost", null);
+
+        assertFalse(backoff.isBackingOff(Platform.LEETCODE, "ghost"));
+        assertNull(backoff.blocked(Platform.LEETCODE, "ghost"));
+    }
+
+    // Throttling and outages are for the rate limiter and circuit breaker, and a short-circuited
+    // lookup must not count as another failure
+    @Test
+    void onlyFreshHandleErrorsBackOff() {
+        backoff.record(Platform.LEETCODE, "alice", new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+        backoff.record(Platform.LEETCODE, "alice", new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS));
+        assertFalse(backoff.isBackingOff(Platform.LEETCODE, "alice"));
+
+        backoff.record(Platform.LEETCODE, "ghost", new ResponseStatusException(HttpStatus.GONE));
+        backoff.record(Platform.LEETCODE, "ghost", backoff.blocked(Platform.LEETCODE, "ghost"));
+        assertTrue(backoff.isBackingOff(Platform.LEETCODE, "ghost"));
+        assertRemaining(BASE_MS);
+    }
+
+    private void assertRemaining(long expectedMs) {
+        long remainingMs = backoff.blocked(Platform.LEETCODE, "ghost").getRetryAfter().toMillis();
+        assertTrue(remainingMs <= expectedMs && remainingMs > expectedMs - 5_000,
+            "expected about " + expectedMs + " ms, was " + remainingMs);
+    }
+}
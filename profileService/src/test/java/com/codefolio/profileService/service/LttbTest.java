@@ -0,0 +1,66 @@
+package com.codefolio.profileService.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbTest {
+
+    @Test
+    void emptyInputKeepsNothing() {
+        assertArrayEquals(new int[0], Lttb.select(new long[0], new int[0], 10));
+    }
+
+    @Test
+    void keepsEveryPointWhenThresholdCoversThem() {
+        long[] x = {1, 2, 3, 4};
+        int[] y = {10, 20, 15, 30};
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, Lttb.select(x, y, 4));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, Lttb.select(x, y, 100));
+    }
+
+    @Test
+    void thresholdBelowThreeKeepsEveryPoint() {
+        long[] x = {1, 2, 3, 4, 5};
+        int[] y = {1, 5, 2, 8, 3};
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, Lttb.select(x, y, 2));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, Lttb.select(x, y, 0));
+    }
+
+    @Test
+    void keepsEndpointsAndPeaks() {
+        int n = 1000;
+        long[] x = new long[n];
+        int[] y = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i * 60_000L;
+            y[i] = 1500 + (i % 7);
+        }
+        y[400] = 2400;
+        y[700] = 600;
+
+        int[] kept = Lttb.select(x, y, 50);
+
+        assertEquals(50, kept.length);
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1], "indexes ascend");
+        }
+        assertTrue(contains(kept, 400), "peak kept");
+        assertTrue(contains(kept, 700), "drop kept");
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,193 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.CircuitBreaker;
+import com.codefolio.profileService.client.CircuitBreakerRegistry;
+import com.codefolio.profileService.client.HandleBackoffException;
+import com.codefolio.profileService.client.LeetCodeClient;
+import com.codefolio.profileService.client.PlatformUnavailableException;
+import com.codefolio.profileService.client.RateLimiterRegistry;
+import com.codefolio.profileService.config.RefreshExecutorConfig;
+import com.codefolio.profileService.model.Platform;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Drives attempts through submitBatch, which takes the same breaker, limiter, retry and timeout
+// path as a profile fetch but runs a given call
+class PlatformRefreshEngineTest {
+
+    private static final long TIMEOUT_MS = 300;
+
+    private final AsyncTaskExecutor executor = new RefreshExecutorConfig().platformRefreshExecutor("platform", 4, 50);
+    private final MockEnvironment environment = new MockEnvironment();
+    private final CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(3, 60_000, 1, new SimpleMeterRegistry());
+    private final LeetCodeClient leetCodeClient = mock(LeetCodeClient.class);
+    private RateLimiterRegistry limiters;
+
+    @AfterEach
+    void shutDown() {
+        ((ThreadPoolTaskExecutor) executor).shutdown();
+    }
+
+    @Test
+    void transientFailuresAreRetried() {
+        PlatformRefreshEngine engine = engine(3);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = engine.submitBatch(Platform.LEETCODE, "batch", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            if (calls.get() == 2) {
+                throw new ResourceAccessException("Connection reset");
+            }
+            return "ok";
+        }).join();
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(CircuitBreaker.State.CLOSED, breakers.forPlatform(Platform.LEETCODE).getState());
+    }
+
+    // The upstream answered, so the breaker counts it as healthy and its failure run starts over
+    @Test
+    void clientErrorsAreNotRetried() {
+        PlatformRefreshEngine engine = engine(3);
+        CircuitBreaker breaker = breakers.forPlatform(Platform.LEETCODE);
+        breaker.onFailure();
+        breaker.onFailure();
+        AtomicInteger calls = new AtomicInteger();
+
+        Throwable failure = failureOf(engine.submitBatch(Platform.LEETCODE, "batch", () -> {
+            calls.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }));
+
+        assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) failure).getStatus());
+        assertEquals(1, calls.get());
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void repeatedFailuresOpenTheBreakerAndLaterCallsFailFast() {
+        PlatformRefreshEngine engine = engine(1);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> failing = () -> {
+            calls.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY);
+        };
+
+        for (int i = 0; i < 3; i++) {
+            failureOf(engine.submitBatch(Platform.LEETCODE, "batch", failing));
+        }
+        Throwable failure = failureOf(engine.submitBatch(Platform.LEETCODE, "batch", failing));
+
+        assertInstanceOf(PlatformUnavailableException.class, failure);
+        assertEquals(3, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, breakers.forPlatform(Platform.LEETCODE).getState());
+    }
+
+    @Test
+    void timeoutInterruptsTheRunningCall() throws InterruptedException {
+        PlatformRefreshEngine engine = engine(3);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Throwable failure = failureOf(engine.submitBatch(Platform.LEETCODE, "batch", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ((ResponseStatusException) failure).getStatus());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void timeoutWhileQueuedForATokenRefundsIt() {
+        environment.withProperty("codefolio.ratelimit.leetcode.permits-per-second", "0.001")
+            .withProperty("codefolio.ratelimit.leetcode.burst", "1");
+        PlatformRefreshEngine engine = engine(1);
+        engine.submitBatch(Platform.LEETCODE, "first", () -> "ok").join();
+        AtomicInteger calls = new AtomicInteger();
+
+        Throwable failure = failureOf(engine.submitBatch(Platform.LEETCODE, "second", calls::incrementAndGet));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ((ResponseStatusException) failure).getStatus());
+        assertEquals(0, calls.get());
+        assertEquals(0, limiters.forPlatform(Platform.LEETCODE).waitingCount());
+        assertEquals(0, limiters.forPlatform(Platform.LEETCODE).availablePermits(), 0.01);
+    }
+
+    @Test
+    void fullTokenQueueFailsWithoutCountingAgainstTheBreaker() {
+        environment.withProperty("codefolio.ratelimit.leetcode.permits-per-second", "0.001")
+            .withProperty("codefolio.ratelimit.leetcode.burst", "1")
+            .withProperty("codefolio.ratelimit.leetcode.max-queued", "0");
+        PlatformRefreshEngine engine = engine(3);
+        engine.submitBatch(Platform.LEETCODE, "first", () -> "ok").join();
+
+        for (int i = 0; i < 3; i++) {
+            Throwable failure = failureOf(engine.submitBatch(Platform.LEETCODE, "batch", () -> "ok"));
+            assertInstanceOf(RejectedExecutionException.class, failure);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breakers.forPlatform(Platform.LEETCODE).getState());
+    }
+
+    // An unknown handle is looked up once; until its backoff passes the stored error is served
+    @Test
+    void unknownHandleBacksOffWithoutAnotherCall() {
+        when(leetCodeClient.getUserProfile("ghost"))
+            .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        PlatformRefreshEngine engine = engine(3);
+
+        ResponseStatusException first = assertThrows(ResponseStatusException.class,
+            () -> engine.fetchStats(Platform.LEETCODE, "ghost"));
+        ResponseStatusException second = assertThrows(ResponseStatusException.class,
+            () -> engine.fetchStats(Platform.LEETCODE, "Ghost"));
+
+        assertEquals(HttpStatus.NOT_FOUND, first.getStatus());
+        assertInstanceOf(HandleBackoffException.class, second);
+        verify(leetCodeClient, times(1)).getUserProfile("ghost");
+    }
+
+    private PlatformRefreshEngine engine(int maxAttempts) {
+        limiters = new RateLimiterRegistry(environment, new SimpleMeterRegistry());
+        HandleBackoff backoff = new HandleBackoff(null, null, new SimpleMeterRegistry(), 600_000, 604_800_000);
+        return new PlatformRefreshEngine(leetCodeClient, null, null, null, null, null, List.of(),
+            limiters, breakers, backoff, executor, TIMEOUT_MS, maxAttempts, 1, "platform", "blocking", 8);
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        return e.getCause();
+    }
+}
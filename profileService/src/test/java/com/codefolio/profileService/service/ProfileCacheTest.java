@@ -0,0 +1,251 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Profile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// No Redis server is available to the build, so the instances here share an in-memory stand-in
+// that runs the cache's two scripts as Redis would and delivers published invalidations to every
+// subscribed instance
+class ProfileCacheTest {
+
+    private static final String CHANNEL = "codefolio:profile-invalidations";
+
+    private final FakeRedis redis = new FakeRedis();
+
+    @Test
+    void secondReadIsServedLocallyAsACopy() {
+        ProfileCache cache = redis.subscribe(newCache());
+        Counting loader = new Counting("Alice");
+
+        Profile first = cache.profile("alice", loader);
+        Profile second = cache.profile("alice", loader);
+
+        assertEquals(1, loader.calls.get());
+        assertEquals(1, redis.reads.get());
+        assertEquals("Alice", second.getName());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void otherInstancesReadWhatOneLoaded() {
+        ProfileCache a = redis.subscribe(newCache());
+        ProfileCache b = redis.subscribe(newCache());
+        Counting loader = new Counting("Alice");
+
+        a.profile("alice", loader);
+        Profile fromRedis = b.profile("alice", loader);
+
+        assertEquals(1, loader.calls.get());
+        assertEquals("Alice", fromRedis.getName());
+    }
+
+    @Test
+    void invalidationReachesEveryInstance() {
+        ProfileCache a = redis.subscribe(newCache());
+        ProfileCache b = redis.subscribe(newCache());
+        a.profile("alice", new Counting("Alice"));
+        b.profile("alice", new Counting("Alice"));
+
+        a.invalidate("alice");
+
+        assertTrue(redis.values.keySet().stream().noneMatch(key -> key.startsWith("profile:")));
+        assertEquals("1", redis.string("profile-gen:{alice}"));
+        Counting reload = new Counting("Alice Smith");
+        assertEquals("Alice Smith", b.profile("alice", reload).getName());
+        assertEquals("Alice Smith", a.profile("alice", reload).getName());
+        assertEquals(1, reload.calls.get());
+    }
+
+    // B loads from the database while A commits a write and invalidates; A's message hasn't
+    // reached B yet. The generation B read no longer matches, so Redis refuses B's stale bytes.
+    @Test
+    void redisRefusesALoadThatOverlappedAnInvalidation() {
+        ProfileCache a = redis.subscribe(newCache());
+        ProfileCache b = redis.subscribe(newCache());
+        redis.holdMessages = true;
+
+        Profile stale = b.profile("alice", () -> {
+            a.invalidate("alice");
+            return new Profile("alice", "alice@example.com", "Alice");
+        });
+
+        assertEquals("Alice", stale.getName());
+        assertEquals(1, redis.rejectedPuts.get());
+        assertFalse(redis.values.containsKey("profile:{alice}"));
+        Counting fresh = new Counting("Alice Smith");
+        assertEquals("Alice Smith", redis.subscribe(newCache()).profile("alice", fresh).getName());
+        redis.deliverHeld();
+        assertEquals("Alice Smith", b.profile("alice", fresh).getName());
+        assertEquals(1, fresh.calls.get());
+    }
+
+    // Once the message has arrived, B keeps the overlapping load out of its own tier as well
+    @Test
+    void loadOverlappingADeliveredInvalidationIsNotCached() {
+        ProfileCache a = redis.subscribe(newCache());
+        ProfileCache b = redis.subscribe(newCache());
+
+        b.profile("alice", () -> {
+            a.invalidate("alice");
+            return new Profile("alice", "alice@example.com", "Alice");
+        });
+
+        assertFalse(redis.values.containsKey("profile:{alice}"));
+        Counting fresh = new Counting("Alice Smith");
+        assertEquals("Alice Smith", b.profile("alice", fresh).getName());
+        assertEquals(1, fresh.calls.get());
+    }
+
+    @Test
+    void malformedInvalidationMessageIsIgnored() {
+        ProfileCache a = redis.subscribe(newCache());
+        Counting loader = new Counting("Alice");
+        a.profile("alice", loader);
+
+        a.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "no-separator".getBytes(StandardCharsets.UTF_8)), null);
+        a.profile("alice", loader);
+
+        assertEquals(1, loader.calls.get());
+    }
+
+    @Test
+    void unreachableRedisFallsThroughToTheLoaderAndIsSkipped() {
+        ProfileCache cache = newCache();
+        redis.down = true;
+        Counting loader = new Counting("Alice");
+
+        assertEquals("Alice", cache.profile("alice", loader).getName());
+        assertEquals("Alice", cache.profile("bob", loader).getName());
+
+        assertEquals(2, loader.calls.get());
+        assertEquals(1, redis.reads.get());
+    }
+
+    private ProfileCache newCache() {
+        return new ProfileCache(redis, new SimpleMeterRegistry(), true, 100, 30_000, 300_000, CHANNEL);
+    }
+
+    private static final class Counting implements Supplier<Profile> {
+        private final String name;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private Counting(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Profile get() {
+            calls.incrementAndGet();
+            return new Profile("alice", "alice@example.com", name);
+        }
+    }
+
+    // Values, MGET, the two cache scripts and pub/sub, with TTLs ignored; published messages can
+    // be held back to stand in for a slow subscription
+    private static final class FakeRedis extends RedisTemplate<String, byte[]> {
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        private final List<ProfileCache> subscribers = new ArrayList<>();
+        private final List<Runnable> heldMessages = new ArrayList<>();
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger rejectedPuts = new AtomicInteger();
+        private final ValueOperations<String, byte[]> valueOps;
+        private boolean down;
+        private boolean holdMessages;
+
+        @SuppressWarnings("unchecked")
+        private FakeRedis() {
+            valueOps = mock(ValueOperations.class);
+            when(valueOps.multiGet(anyList())).thenAnswer(call -> {
+                reads.incrementAndGet();
+                available();
+                List<String> keys = call.getArgument(0);
+                List<byte[]> read = new ArrayList<>();
+                keys.forEach(key -> read.add(values.get(key)));
+                return read;
+            });
+        }
+
+        private ProfileCache subscribe(ProfileCache cache) {
+            subscribers.add(cache);
+            return cache;
+        }
+
+        private void deliverHeld() {
+            holdMessages = false;
+            heldMessages.forEach(Runnable::run);
+            heldMessages.clear();
+        }
+
+        private String string(String key) {
+            byte[] value = values.get(key);
+            return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+        }
+
+        private void available() {
+            if (down) {
+                throw new RedisConnectionFailureException("Unable to connect to Redis");
+            }
+        }
+
+        @Override
+        public ValueOperations<String, byte[]> opsForValue() {
+            return valueOps;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            available();
+            if (script.getScriptAsString().contains("INCR")) {
+                long generation = Long.parseLong(string(keys.get(0)) != null ? string(keys.get(0)) : "0") + 1;
+                values.put(keys.get(0), Long.toString(generation).getBytes(StandardCharsets.UTF_8));
+                keys.subList(1, keys.size()).forEach(values::remove);
+                return (T) Long.valueOf(generation);
+            }
+            String current = string(keys.get(1)) != null ? string(keys.get(1)) : "0";
+            if (!Arrays.equals(current.getBytes(StandardCharsets.UTF_8), (byte[]) args[0])) {
+                rejectedPuts.incrementAndGet();
+                return (T) Long.valueOf(0);
+            }
+            values.put(keys.get(0), (byte[]) args[1]);
+            return (T) Long.valueOf(1);
+        }
+
+        @Override
+        public void convertAndSend(String channel, Object message) {
+            available();
+            byte[] body = ((String) message).getBytes(StandardCharsets.UTF_8);
+            Runnable delivery = () -> subscribers.forEach(cache -> cache.onMessage(
+                new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body), null));
+            if (holdMessages) {
+                heldMessages.add(delivery);
+            } else {
+                delivery.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.dto.ProfileReadResult;
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.Profile;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ProfileReadServiceTest {
+
+    @Test
+    void profileCreatedOnReadIsStaleAndRefreshedInTheBackground() {
+        ProfileService profileService = mock(ProfileService.class);
+        AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+        ProfileReadService readService = new ProfileReadService(profileService, executor, 600_000);
+        Profile created = new Profile("user-1", "user@example.com", "User");
+
+        ProfileReadResult result = readService.created(created);
+
+        assertSame(created, result.getProfile());
+        assertNull(result.getAgeSeconds());
+        assertTrue(result.isStale());
+        assertTrue(result.isRefreshing());
+
+        ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).execute(refresh.capture());
+        refresh.getValue().run();
+        verify(profileService).updateProfile("user-1", EnumSet.allOf(Platform.class));
+        assertFalse(readService.isRefreshing("user-1"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.model.Platform;
+import com.codefolio.profileService.model.PlatformCalendar;
+import com.codefolio.profileService.model.PlatformStats;
+import com.codefolio.profileService.model.Profile;
+import com.codefolio.profileService.model.SubmissionCalendar;
+import com.codefolio.profileService.repository.PlatformCalendarRepository;
+import com.codefolio.profileService.repository.PlatformStatsRepository;
+import com.codefolio.profileService.repository.ProfileHeatmapRepository;
+import com.codefolio.profileService.repository.ProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProfileStoreTest {
+
+    private static final long PROFILE_ID = 7L;
+
+    private final ProfileRepository profileRepository = mock(ProfileRepository.class);
+    private final PlatformStatsRepository statsRepository = mock(PlatformStatsRepository.class);
+    private final PlatformCalendarRepository calendarRepository = mock(PlatformCalendarRepository.class);
+    private final ProfileHeatmapRepository heatmapRepository = mock(ProfileHeatmapRepository.class);
+    private final PlatformStatCountStore statCountStore = mock(PlatformStatCountStore.class);
+    private ProfileStore store;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        store = new ProfileStore(profileRepository, statsRepository, calendarRepository, heatmapRepository,
+            statCountStore, mock(ProfileCache.class), transactionManager);
+
+        Profile profile = new Profile("alice", "alice@example.com", "Alice");
+        profile.setId(PROFILE_ID);
+        profile.setLeetcodeUsername("alice");
+        profile.setGithubUsername("alice");
+        when(profileRepository.findByUserId("alice")).thenReturn(Optional.of(profile));
+        when(profileRepository.saveAndFlush(any())).thenAnswer(call -> call.getArgument(0));
+        when(statsRepository.findByProfileId(PROFILE_ID)).thenReturn(List.of());
+        when(statsRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        when(calendarRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        when(heatmapRepository.findByProfileId(anyLong())).thenReturn(Optional.empty());
+        when(statCountStore.load(anyLong(), any())).thenReturn(Map.of());
+    }
+
+    // Every stats calendar set by the write leaves GitHub's the only one to read back, and GitHub
+    // has no PlatformStats to read it into
+    @Test
+    void updateSettingEveryStatsCalendarSkipsStoredGitHubCalendar() {
+        PlatformCalendar github = new PlatformCalendar(PROFILE_ID, Platform.GITHUB);
+        github.setCalendar(SubmissionCalendar.fromJson("{\"2024-01-01\": 4}"));
+        when(calendarRepository.findByProfileId(PROFILE_ID)).thenReturn(List.of(github));
+        when(calendarRepository.findByProfileIdAndPlatform(PROFILE_ID, Platform.GITHUB)).thenReturn(Optional.of(github));
+
+        Profile saved = store.update("alice", profile -> {
+            for (Platform platform : Platform.values()) {
+                PlatformStats stats = platform.statsOf(profile);
+                if (stats != null) {
+                    stats.setSubmissionCalendar("{\"2024-01-02\": 1}");
+                }
+            }
+        });
+
+        assertEquals("{\"2024-01-02\":1}", saved.getLeetcodeStats().getSubmissionCalendar());
+        assertEquals("{\"2024-01-02\":1}", saved.getGeeksforgeeksStats().getSubmissionCalendar());
+    }
+
+    @Test
+    void loadStatsReadsThePlatformsCalendar() {
+        when(profileRepository.findIdByUserId("alice")).thenReturn(Optional.of(PROFILE_ID));
+        when(statsRepository.findByProfileIdAndPlatform(PROFILE_ID, Platform.LEETCODE)).thenReturn(Optional.empty());
+        PlatformCalendar leetCode = new PlatformCalendar(PROFILE_ID, Platform.LEETCODE);
+        leetCode.setCalendar(SubmissionCalendar.fromJson("{\"1704067200\": 2}"));
+        when(calendarRepository.findByProfileIdAndPlatform(PROFILE_ID, Platform.LEETCODE)).thenReturn(Optional.of(leetCode));
+        ProfileCache cache = mock(ProfileCache.class);
+        when(cache.stats(any(), any(), any())).thenAnswer(call -> ((Supplier<?>) call.getArgument(2)).get());
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ProfileStore reading = new ProfileStore(profileRepository, statsRepository, calendarRepository, heatmapRepository,
+            statCountStore, cache, transactionManager);
+
+        PlatformStats stats = reading.loadStats("alice", Platform.LEETCODE);
+
+        assertEquals("{\"1704067200\":2}", stats.getSubmissionCalendar());
+    }
+}
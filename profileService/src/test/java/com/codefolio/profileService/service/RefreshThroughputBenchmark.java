@@ -0,0 +1,285 @@
+package com.codefolio.profileService.service;
+
+import com.codefolio.profileService.client.AtCoderClient;
+import com.codefolio.profileService.client.CircuitBreakerRegistry;
+import com.codefolio.profileService.client.CodeChefClient;
+import com.codefolio.profileService.client.CodeforcesClient;
+import com.codefolio.profileService.client.GeeksForGeeksClient;
+import com.codefolio.profileService.client.LeetCodeClient;
+import com.codefolio.profileService.client.PooledHttpRequestFactory;
+import com.codefolio.profileService.client.RateLimiterRegistry;
+import com.codefolio.profileService.client.ReactivePlatformClient;
+import com.codefolio.profileService.config.RefreshExecutorConfig;
+import com.codefolio.profileService.config.VirtualThreads;
+import com.codefolio.profileService.config.WebClientConfig;
+import com.codefolio.profileService.dto.PlatformFetchResult;
+import com.codefolio.profileService.dto.PlatformStatsDTO;
+import com.codefolio.profileService.model.Platform;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jsoup.Jsoup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sustained refresh throughput and memory use of platform-thread vs virtual-thread mode, and of
+// the reactive engine. Drives the real PlatformRefreshEngine (retries, breakers, rate limiters
+// opened wide) with clients that make the same calls as production - RestTemplate over
+// PooledHttpRequestFactory, Jsoup for AtCoder, or WebClient over the Netty pool in reactive mode,
+// where a platform's calls go out together - one round trip per request the platform costs,
+// against a local server that answers after a fixed latency. Each platform gets its own loopback address, so per-host
+// connection caps apply as they would upstream. A fixed number of refreshes, each a distinct
+// handle on the five scraped platforms, is kept in flight for the whole run. Not a unit test;
+// needs Java 21+ for the virtual mode (Java 17 runs platform mode only). Run with:
+//   mvn -q test-compile && java -cp "target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//       com.codefolio.profileService.service.RefreshThroughputBenchmark [inFlight] [seconds] [latencyMs]
+public class RefreshThroughputBenchmark {
+
+    private static final Platform[] PLATFORMS = {Platform.LEETCODE, Platform.CODEFORCES, Platform.CODECHEF,
+        Platform.ATCODER, Platform.GEEKSFORGEEKS};
+    private static final byte[] BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int inFlight = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long latencyMs = args.length > 2 ? Long.parseLong(args[2]) : 200;
+        // Rejected fetches are counted below; logging each one would skew both modes
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        ((Logger) LoggerFactory.getLogger("com.codefolio")).setLevel(Level.OFF);
+
+        ExecutorService serverThreads = Executors.newCachedThreadPool();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 4096);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.setExecutor(serverThreads);
+        server.start();
+        int port = server.getAddress().getPort();
+
+        System.out.printf("%d refreshes in flight, %d s per mode, %d ms upstream latency, Java %s%n%n",
+            inFlight, seconds, latencyMs, System.getProperty("java.version"));
+        System.out.printf("%-9s %12s %12s %10s %10s %10s %14s %14s%n", "mode", "refreshes/s", "requests/s",
+            "failed", "p50 ms", "p99 ms", "peak heap MB", "peak threads");
+        try {
+            for (String mode : new String[] {"platform", VirtualThreads.MODE_VIRTUAL, PlatformRefreshEngine.ENGINE_REACTIVE}) {
+                if (mode.equals(VirtualThreads.MODE_VIRTUAL) && !VirtualThreads.enabled(mode)) {
+                    System.out.printf("%-9s skipped: needs Java 21+%n", mode);
+                    continue;
+                }
+                run(mode, port, inFlight, seconds);
+            }
+        } finally {
+            server.stop(0);
+            serverThreads.shutdownNow();
+        }
+    }
+
+    private static void run(String mode, int port, int inFlight, int seconds) throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment();
+        for (Platform platform : Platform.values()) {
+            String prefix = "codefolio.ratelimit." + platform.name().toLowerCase() + ".";
+            environment.setProperty(prefix + "permits-per-second", "1000000");
+            environment.setProperty(prefix + "burst", "1000000");
+        }
+        RestTemplate restTemplate = new RestTemplate(new PooledHttpRequestFactory(
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(3)).build(),
+            Duration.ofSeconds(10), Duration.ofSeconds(3), 10));
+        RateLimiterRegistry rateLimiters = new RateLimiterRegistry(environment, registry);
+
+        // The reactive engine runs on the platform-thread pool, which only AtCoder still uses
+        boolean reactive = mode.equals(PlatformRefreshEngine.ENGINE_REACTIVE);
+        String threadMode = reactive ? "platform" : mode;
+        WebClientConfig webClientConfig = new WebClientConfig();
+        ConnectionProvider connections = webClientConfig.platformConnectionProvider(10, 100_000, 3_000, 30);
+        WebClient webClient = webClientConfig.platformWebClient(connections, rateLimiters, 3_000, 10_000, 4_194_304);
+        List<ReactivePlatformClient<?>> reactiveClients = new ArrayList<>();
+        for (Platform platform : PLATFORMS) {
+            if (platform != Platform.ATCODER) {
+                reactiveClients.add(reactiveClient(webClient, port, platform));
+            }
+        }
+
+        AsyncTaskExecutor executor = new RefreshExecutorConfig().platformRefreshExecutor(threadMode, 12, 200);
+        PlatformRefreshEngine engine = new PlatformRefreshEngine(
+            new LeetCodeClient(restTemplate) {
+                @Override
+                public PlatformStatsDTO getUserProfile(String username) {
+                    return fetch(restTemplate, port, Platform.LEETCODE, username);
+                }
+            },
+            new CodeforcesClient(restTemplate, null, rateLimiters) {
+                @Override
+                public PlatformStatsDTO getUserProfile(String handle) {
+                    return fetch(restTemplate, port, Platform.CODEFORCES, handle);
+                }
+            },
+            new CodeChefClient(restTemplate) {
+                @Override
+                public PlatformStatsDTO getUserProfile(String username) {
+                    return fetch(restTemplate, port, Platform.CODECHEF, username);
+                }
+            },
+            new AtCoderClient(restTemplate) {
+                @Override
+                public PlatformStatsDTO getUserProfile(String username) {
+                    return scrape(port, Platform.ATCODER, username);
+                }
+            },
+            new GeeksForGeeksClient(restTemplate) {
+                @Override
+                public PlatformStatsDTO getUserProfile(String username) {
+                    return fetch(restTemplate, port, Platform.GEEKSFORGEEKS, username);
+                }
+            },
+            null,
+            reactiveClients,
+            rateLimiters,
+            new CircuitBreakerRegistry(1_000_000, 30_000, 2, registry),
+            new HandleBackoff(null, null, registry, 600_000, 604_800_000),
+            executor, 60_000, 1, 1_000, threadMode, reactive ? PlatformRefreshEngine.ENGINE_REACTIVE : "blocking", 8);
+
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicLong peakHeap = new AtomicLong();
+        AtomicLong peakThreads = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            peakThreads.accumulateAndGet(threads.getThreadCount(), Math::max);
+        }, 0, 50, TimeUnit.MILLISECONDS);
+
+        Semaphore slots = new Semaphore(inFlight);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long user = 0;
+        while (System.nanoTime() < end) {
+            if (!slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                continue;
+            }
+            String handle = mode + "-user" + user++;
+            long refreshStart = System.nanoTime();
+            List<CompletableFuture<PlatformFetchResult>> fetches = new ArrayList<>();
+            for (Platform platform : PLATFORMS) {
+                fetches.add(engine.submit(platform, handle));
+            }
+            CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+                boolean ok = fetches.stream().allMatch(fetch -> fetch.join().isSuccess());
+                (ok ? completed : failed).incrementAndGet();
+                latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - refreshStart));
+                slots.release();
+            });
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        slots.acquire(inFlight);
+        sampler.shutdownNow();
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+        connections.dispose();
+
+        List<Long> sorted;
+        synchronized (latencies) {
+            sorted = new ArrayList<>(latencies);
+        }
+        Collections.sort(sorted);
+        System.out.printf("%-9s %12.1f %12.1f %10d %10d %10d %14.1f %14d%n", mode,
+            completed.get() / elapsed, completed.get() * fetchesPerRefresh() / elapsed, failed.get(),
+            percentile(sorted, 0.50), percentile(sorted, 0.99), peakHeap.get() / 1e6, peakThreads.get());
+    }
+
+    // One blocking round trip per request the platform's real fetch makes
+    private static PlatformStatsDTO fetch(RestTemplate restTemplate, int port, Platform platform, String handle) {
+        for (int i = 0; i < platform.getRequestsPerFetch(); i++) {
+            restTemplate.getForObject(url(port, platform, handle, i), String.class);
+        }
+        return new PlatformStatsDTO();
+    }
+
+    // The platform's round trips issued together, as ReactiveCodeforcesClient does
+    private static ReactivePlatformClient<PlatformStatsDTO> reactiveClient(WebClient webClient, int port, Platform platform) {
+        return new ReactivePlatformClient<>() {
+            @Override
+            public Platform getPlatform() {
+                return platform;
+            }
+
+            @Override
+            public Mono<PlatformStatsDTO> getUserProfile(String handle) {
+                return Flux.range(0, platform.getRequestsPerFetch())
+                    .flatMap(call -> webClient.get().uri(url(port, platform, handle, call)).retrieve().bodyToMono(String.class))
+                    .then(Mono.fromSupplier(PlatformStatsDTO::new));
+            }
+        };
+    }
+
+    private static PlatformStatsDTO scrape(int port, Platform platform, String handle) {
+        try {
+            for (int i = 0; i < platform.getRequestsPerFetch(); i++) {
+                Jsoup.connect(url(port, platform, handle, i)).ignoreContentType(true).get();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return new PlatformStatsDTO();
+    }
+
+    // A loopback address per platform: 127.0.0.1 - 127.0.0.5
+    private static String url(int port, Platform platform, String handle, int call) {
+        return "http://127.0.0." + (platform.ordinal() + 1) + ":" + port + "/" + platform.name().toLowerCase()
+            + "/" + handle + "/" + call;
+    }
+
+    private static int fetchesPerRefresh() {
+        int fetches = 0;
+        for (Platform platform : PLATFORMS) {
+            fetches += platform.getRequestsPerFetch();
+        }
+        return fetches;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * p)));
+    }
+}
@@ -0,0 +1,140 @@
+package com.codefolio.profileService.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = threads.submit(() -> flight.execute("alice", () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                await(release);
+                return 42;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> second = threads.submit(() -> flight.execute("alice", () -> {
+                runs.incrementAndGet();
+                return -1;
+            }));
+            // Time for the second caller to find the call in flight and park on it
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(42, first.get(5, TimeUnit.SECONDS));
+            assertEquals(42, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, runs.get());
+            assertFalse(flight.isInFlight("alice"));
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersGetTheSameException() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        IllegalStateException failure = new IllegalStateException("upstream down");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = threads.submit(() -> flight.execute("alice", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> second = threads.submit(() -> flight.execute("alice", () -> 1));
+            Thread.sleep(100);
+            release.countDown();
+
+            ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            ExecutionException secondError = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+            assertSame(failure, firstError.getCause());
+            assertSame(failure, secondError.getCause());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void nothingIsCachedAfterCompletion() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals(1, flight.execute("alice", runs::incrementAndGet));
+        assertEquals(2, flight.execute("alice", runs::incrementAndGet));
+        assertThrows(IllegalStateException.class, () -> flight.execute("alice", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(3, flight.execute("alice", runs::incrementAndGet));
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void asyncCallersShareTheFirstFuture() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CompletableFuture<Integer> upstream = new CompletableFuture<>();
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<Integer> first = flight.executeAsync("alice", () -> {
+            runs.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<Integer> second = flight.executeAsync("alice", () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture(-1);
+        });
+        CompletableFuture<Integer> other = flight.executeAsync("bob", () -> CompletableFuture.completedFuture(7));
+
+        assertSame(first, second);
+        assertEquals(7, other.join());
+        assertTrue(flight.isInFlight("alice"));
+        upstream.complete(42);
+        assertEquals(42, second.join());
+        assertEquals(1, runs.get());
+        assertFalse(flight.isInFlight("alice"));
+    }
+
+    @Test
+    void asyncSupplierThrowingFailsTheFutureAndFreesTheKey() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        CompletableFuture<Integer> call = flight.executeAsync("alice", () -> {
+            throw new IllegalStateException("no client");
+        });
+
+        assertTrue(call.isCompletedExceptionally());
+        assertFalse(flight.isInFlight("alice"));
+        assertEquals(1, flight.executeAsync("alice", () -> CompletableFuture.completedFuture(1)).join());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}